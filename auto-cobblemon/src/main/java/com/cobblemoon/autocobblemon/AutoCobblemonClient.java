@@ -1,6 +1,10 @@
 package com.cobblemoon.autocobblemon;
 
 import com.cobblemoon.autocobblemon.common.PokemonScanner;
+import com.cobblemoon.scancore.ScanDiff;
+import com.cobblemoon.scancore.ScanEvent;
+import com.cobblemoon.scancore.ScanService;
+import com.cobblemoon.scancore.ScanSighting;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
@@ -18,16 +22,14 @@ public class AutoCobblemonClient implements ClientModInitializer {
     public static final String MOD_ID = "auto-cobblemon";
 
     private static final int PERIODIC_SCAN_INTERVAL = 600; // 30 seconds at 20 tps
-    private int periodicScanTicks = 0;
 
     @Override
     public void onInitializeClient() {
         log("Init", "Auto-Cobblemon initialized (scan + alerts only).");
 
-        ClientTickEvents.END_CLIENT_TICK.register(client -> {
-            if (client.player == null || client.world == null) return;
-            tickPeriodicScan(client);
-        });
+        // Shared scan (scan-core): runs at most once per tick even when Auto-Qiqi also drives it
+        ScanService.get().subscribe(this::onScanChanges, PERIODIC_SCAN_INTERVAL);
+        ClientTickEvents.END_CLIENT_TICK.register(client -> ScanService.get().tick());
 
         registerCommands();
     }
@@ -42,33 +44,29 @@ public class AutoCobblemonClient implements ClientModInitializer {
         });
     }
 
-    private void tickPeriodicScan(MinecraftClient client) {
-        if (client.player == null || client.world == null) return;
-        periodicScanTicks++;
-        if (periodicScanTicks < PERIODIC_SCAN_INTERVAL) return;
-        periodicScanTicks = 0;
+    private void onScanChanges(List<ScanEvent> changes, ScanDiff scanDiff) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player == null) return;
 
-        List<Entity> results = PokemonScanner.get().scan();
-        int uncaught = PokemonScanner.countUncaught(results);
-        int total = results.size();
+        int total = scanDiff.size();
+        int uncaught = scanDiff.count(ScanSighting.UNCAUGHT);
+        log("Scan", "Periodic: " + changes.size() + " change(s), " + total + " wild nearby, " + uncaught + " uncaught, "
+                + scanDiff.count(ScanSighting.BOSS) + " boss(es).");
 
-        int bosses = 0;
         StringBuilder bossNames = new StringBuilder();
-        for (Entity e : results) {
-            if (PokemonScanner.isBoss(e)) {
-                bosses++;
+        boolean newUncaught = false;
+        for (ScanEvent event : changes) {
+            if (event.gained(ScanSighting.BOSS)) {
                 if (bossNames.length() > 0) bossNames.append(", ");
-                bossNames.append(PokemonScanner.getPokemonName(e));
+                bossNames.append(event.sighting().name());
             }
+            if (event.gained(ScanSighting.UNCAUGHT)) newUncaught = true;
         }
-
-        log("Scan", "Periodic: " + total + " wild nearby, " + uncaught + " uncaught, " + bosses + " boss(es).");
-
-        if (bosses > 0) {
+        if (bossNames.length() > 0) {
             client.player.sendMessage(
                     Text.literal("§6[Auto-Cobblemon]§r §c§lBoss: " + bossNames + "§r §7nearby!"), false);
         }
-        if (uncaught > 0) {
+        if (newUncaught && uncaught > 0) {
             client.player.sendMessage(
                     Text.literal("§6[Auto-Cobblemon]§r §a" + uncaught + " uncaught§7/§f" + total + " wild nearby"),
                     true);
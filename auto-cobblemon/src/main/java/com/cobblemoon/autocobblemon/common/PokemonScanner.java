@@ -1,20 +1,18 @@
 package com.cobblemoon.autocobblemon.common;
 
-import com.cobblemon.mod.common.entity.pokemon.PokemonEntity;
-import net.minecraft.client.MinecraftClient;
-import net.minecraft.client.network.ClientPlayerEntity;
+import com.cobblemoon.scancore.PokemonInfo;
+import com.cobblemoon.scancore.ScanService;
 import net.minecraft.entity.Entity;
 
 import java.util.*;
 
 /**
- * Scans for wild Pokemon in range. Used by periodic alerts and /pk scan.
+ * Auto-Cobblemon's view of the shared scan ({@link ScanService} from scan-core). Used by /pk scan;
+ * periodic alerts subscribe to the service directly.
  */
 public class PokemonScanner {
     private static final PokemonScanner INSTANCE = new PokemonScanner();
-    private static final double SCAN_RANGE = 80.0;
 
-    private List<Entity> lastScanResults = new ArrayList<>();
     private List<Entity> manualScanResults = new ArrayList<>();
 
     private PokemonScanner() {}
@@ -23,34 +21,11 @@ public class PokemonScanner {
         return INSTANCE;
     }
 
-    /**
-     * Quick scan for periodic count. Does NOT overwrite manual scan results.
-     */
-    public List<Entity> scan() {
-        MinecraftClient client = MinecraftClient.getInstance();
-        ClientPlayerEntity player = client.player;
-        if (player == null || client.world == null) {
-            lastScanResults = Collections.emptyList();
-            return lastScanResults;
-        }
-
-        List<Entity> pokemon = client.world.getOtherEntities(
-                player,
-                player.getBoundingBox().expand(SCAN_RANGE),
-                entity -> isPokemonEntity(entity) && entity.isAlive() && isWild(entity)
-        );
-
-        pokemon.sort(Comparator.comparingDouble(e -> e.squaredDistanceTo(player)));
-        lastScanResults = new ArrayList<>(pokemon);
-        return lastScanResults;
-    }
-
     /**
      * Manual scan triggered by /pk scan. Results are stored for display.
      */
     public List<Entity> manualScan() {
-        List<Entity> results = scan();
-        manualScanResults = new ArrayList<>(results);
+        manualScanResults = new ArrayList<>(ScanService.get().scanNow());
         return manualScanResults;
     }
 
@@ -58,97 +33,12 @@ public class PokemonScanner {
         return manualScanResults.size();
     }
 
-    // ========================
-    // Entity detection
-    // ========================
-
-    public static boolean isPokemonEntity(Entity entity) {
-        return entity instanceof PokemonEntity;
-    }
-
-    private static boolean isWild(Entity entity) {
-        if (!(entity instanceof PokemonEntity pe)) return false;
-        try {
-            var pokemon = pe.getPokemon();
-            if (pokemon.isPlayerOwned()) return false;
-            if (pokemon.getOwnerUUID() != null) return false;
-            if (pe.isBusy()) return false;
-            if (pe.getOwner() != null) return false;
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
     // ========================
     // Display helpers
     // ========================
 
-    public static String getPokemonName(Entity entity) {
-        if (entity instanceof PokemonEntity pe) {
-            try {
-                return pe.getPokemon().getSpecies().getTranslatedName().getString();
-            } catch (Exception ignored) {}
-        }
-        return entity.getDisplayName().getString();
-    }
-
-    public static int getPokemonLevel(Entity entity) {
-        if (entity instanceof PokemonEntity pe) {
-            try {
-                return pe.getPokemon().getLevel();
-            } catch (Exception ignored) {}
-        }
-        return -1;
-    }
-
-    public static boolean isBoss(Entity entity) {
-        if (entity.hasCustomName()) {
-            String customName = entity.getCustomName().getString().toLowerCase();
-            if (customName.contains("boss")) return true;
-        }
-        if (entity instanceof PokemonEntity pe) {
-            try {
-                var pokemon = pe.getPokemon();
-                if (pokemon.hasLabels("boss")) return true;
-                if (pokemon.getAspects().stream().anyMatch(a -> a.toLowerCase().contains("boss"))) return true;
-                var form = pokemon.getForm();
-                if (form.getName().toLowerCase().contains("boss")) return true;
-            } catch (Exception ignored) {}
-        }
-        return false;
-    }
-
-    // ========================
-    // Pokedex (client-side)
-    // ========================
-
-    public static String getPokedexStatus(Entity entity) {
-        if (!(entity instanceof PokemonEntity pe)) return "?";
-        try {
-            var pokemon = pe.getPokemon();
-            var species = pokemon.getSpecies();
-            var resourceId = species.getResourceIdentifier();
-            if (resourceId == null) return "?";
-
-            var pokedexData = com.cobblemon.mod.common.client.CobblemonClient.INSTANCE.getClientPokedexData();
-            if (pokedexData == null) return "?";
-
-            var speciesRecords = pokedexData.getSpeciesRecords();
-            var record = speciesRecords.get(resourceId);
-            if (record != null) {
-                String k = record.getKnowledge().toString();
-                if ("CAUGHT".equals(k)) return "CAUGHT";
-                if ("ENCOUNTERED".equals(k)) return "SEEN";
-            }
-            return "NEW";
-        } catch (Exception e) {
-            return "?";
-        }
-    }
-
     public static boolean isSpeciesCaught(Entity entity) {
-        return "CAUGHT".equals(getPokedexStatus(entity));
+        return PokemonInfo.isSpeciesCaught(entity);
     }
 
     public static int countUncaught(List<Entity> entities) {
@@ -159,61 +49,23 @@ public class PokemonScanner {
         return count;
     }
 
-    private static final Set<String> LEGENDARY_NAMES = Set.of(
-            "articuno", "zapdos", "moltres", "mewtwo", "mew",
-            "raikou", "entei", "suicune", "lugia", "hooh", "celebi",
-            "regirock", "regice", "registeel", "latias", "latios",
-            "kyogre", "groudon", "rayquaza", "jirachi", "deoxys",
-            "uxie", "mesprit", "azelf", "dialga", "palkia", "heatran",
-            "regigigas", "giratina", "cresselia", "phione", "manaphy",
-            "darkrai", "shaymin", "arceus",
-            "cobalion", "terrakion", "virizion", "tornadus", "thundurus",
-            "reshiram", "zekrom", "landorus", "kyurem", "keldeo",
-            "meloetta", "genesect",
-            "xerneas", "yveltal", "zygarde", "diancie", "hoopa", "volcanion",
-            "typenull", "type_null", "silvally",
-            "tapukoko", "tapulele", "tapubulu", "tapufini",
-            "cosmog", "cosmoem", "solgaleo", "lunala", "necrozma",
-            "magearna", "marshadow", "zeraora",
-            "zacian", "zamazenta", "eternatus", "kubfu", "urshifu",
-            "regieleki", "regidrago", "glastrier", "spectrier", "calyrex",
-            "enamorus",
-            "wochien", "chienpao", "tinglu", "chiyu",
-            "koraidon", "miraidon", "ogerpon", "terapagos", "pecharunt",
-            "okidogi", "munkidori", "fezandipiti"
-    );
-
-    public static boolean isLegendary(Entity entity) {
-        if (entity instanceof PokemonEntity pe) {
-            try {
-                var pokemon = pe.getPokemon();
-                if (pokemon.isLegendary() || pokemon.isMythical() || pokemon.isUltraBeast()) return true;
-                if (pokemon.hasLabels("legendary") || pokemon.hasLabels("mythical")
-                        || pokemon.hasLabels("ultra_beast") || pokemon.hasLabels("sub_legendary")
-                        || pokemon.hasLabels("restricted")) return true;
-            } catch (Exception ignored) {}
-        }
-        String name = getPokemonName(entity).toLowerCase().replaceAll("[^a-z]", "");
-        return LEGENDARY_NAMES.contains(name);
-    }
-
     public static String getDisplayInfo(Entity entity) {
         StringBuilder sb = new StringBuilder();
-        if (isBoss(entity)) {
+        if (PokemonInfo.isBoss(entity)) {
             sb.append("§c[BOSS] ");
         }
-        if (isLegendary(entity)) {
+        if (PokemonInfo.isLegendary(entity)) {
             sb.append("§d[LEG] ");
         }
-        String status = getPokedexStatus(entity);
+        String status = PokemonInfo.getPokedexStatus(entity);
         switch (status) {
             case "NEW"    -> sb.append("§a§l[NEW] §r§f");
             case "SEEN"   -> sb.append("§e[SEEN] §f");
             case "CAUGHT" -> sb.append("§7[DEX] §f");
             default       -> sb.append("§8[?] §f");
         }
-        sb.append(getPokemonName(entity));
-        int level = getPokemonLevel(entity);
+        sb.append(PokemonInfo.getPokemonName(entity));
+        int level = PokemonInfo.getPokemonLevel(entity);
         if (level > 0) {
             sb.append(" (Lv.").append(level).append(")");
         }
@@ -0,0 +1,62 @@
+package com.cobblemoon.autoqiqi;
+
+import com.cobblemoon.autoqiqi.legendary.predict.LegendTrackerBridge.HomePrediction;
+import com.cobblemoon.autoqiqi.legendary.predict.PredictionSnapshot;
+import com.cobblemoon.autoqiqi.legendary.predict.SpawnValuation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame text work of the prediction HUD at max results: formatting every line each frame (the
+ * previous renderer) against the retained {@link PredictionHudModel}, which formats only when the
+ * snapshot or the timer second changes. Draw calls are the same in both and not measured here;
+ * the in-game cost including them is the {@code hud.predictions} histogram in {@code /pk perf}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PredictionHudBenchmark {
+
+    @Param({"8", "40"})
+    public int maxResults;
+
+    private PredictionSnapshot snapshot;
+    private final PredictionHudModel model = new PredictionHudModel();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] pokemon = {"Mew", "Lugia", "Ho-Oh", "Celebi", "Raikou", "Entei", "Suicune", "Latias"};
+        List<HomePrediction> homes = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Map<String, Double> probabilities = new LinkedHashMap<>();
+            for (String p : pokemon) probabilities.put(p, random.nextDouble() * 100);
+            homes.add(new HomePrediction("home" + i, i % 2 == 0 ? "Ultra-Lune" : "Soleil", "/home home" + i,
+                    "minecraft:plains", 64, probabilities, random.nextDouble() * 100, i % 5 == 0));
+        }
+        snapshot = PredictionSnapshot.of(1, 0, homes, SpawnValuation.NONE);
+        model.updateLegendTracker(snapshot, maxResults, 300);
+    }
+
+    @Benchmark
+    public void formatEveryFrame(Blackhole bh) {
+        bh.consume(PredictionHudModel.legendTrackerLines(snapshot.homes(), maxResults));
+        bh.consume("§8[LegendTracker] §7" + snapshot.homes().size() + " homes | " + PredictionHudModel.formatTime(300));
+    }
+
+    @Benchmark
+    public void retained(Blackhole bh) {
+        bh.consume(model.updateLegendTracker(snapshot, maxResults, 300));
+        bh.consume(model.lines());
+    }
+}
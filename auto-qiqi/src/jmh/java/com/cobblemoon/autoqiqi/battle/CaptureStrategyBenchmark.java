@@ -0,0 +1,51 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/** {@link CaptureStrategy#decide} over the phases of a typical legendary capture. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CaptureStrategyBenchmark {
+
+    private CaptureSessionSnapshot[] sessions;
+    private BattleSnapshot[] battles;
+
+    @Setup
+    public void setUp() {
+        sessions = new CaptureSessionSnapshot[] {
+                // Fresh engagement: needs False Swipe
+                new CaptureSessionSnapshot("Mewtwo", 70, true, false, false, 0, -1f, false, 0, false, 0, null, 0, 0),
+                // Mid False Swipe streak
+                new CaptureSessionSnapshot("Mewtwo", 70, true, false, true, 3, 4f, false, 0, false, 0, null, 0, 6),
+                // At 1 HP, paralysed, throwing balls
+                new CaptureSessionSnapshot("Mewtwo", 70, true, true, true, 5, 1f, true, 3, true, 0, null, 12, 20),
+                // Wild non-legendary
+                new CaptureSessionSnapshot("Ponyta", 25, false, false, false, 0, -1f, false, 0, false, 0, null, 0, 0),
+        };
+        battles = new BattleSnapshot[] {
+                new BattleSnapshot("Gallade", 100f, 100f, "Mewtwo", null, true, false),
+                new BattleSnapshot("Gallade", 62f, 4f, "Mewtwo", null, true, true),
+                new BattleSnapshot("Gallade", 40f, 1f, "Mewtwo", "par", true, true),
+                new BattleSnapshot("Scizor", 100f, 100f, "Ponyta", null, true, false),
+        };
+    }
+
+    @Benchmark
+    public void decideAllPhases(Blackhole bh) {
+        for (int i = 0; i < sessions.length; i++) {
+            bh.consume(CaptureStrategy.decide(sessions[i], battles[i], false, false));
+        }
+    }
+
+    @Benchmark
+    public CaptureDecision decideForcedSwitch() {
+        return CaptureStrategy.decide(sessions[1], battles[1], true, false);
+    }
+}
@@ -0,0 +1,57 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse of the bundled smogon_ou.json (what a cold {@link SmogonData#load()} spends its time on), and
+ * per-battle entry lookups once loaded. Coverage moves are not measured: they resolve moves through the
+ * Cobblemon registry, which is not on the benchmark classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmogonDataBenchmark {
+
+    /** The resource read into memory once, so {@link #parse} measures parsing, not classpath I/O. */
+    @State(Scope.Benchmark)
+    public static class Resource {
+        byte[] json;
+
+        @Setup
+        public void read() throws IOException {
+            try (InputStream is = SmogonData.class.getResourceAsStream("/assets/auto-qiqi/smogon_ou.json")) {
+                if (is == null) throw new IllegalStateException("smogon_ou.json not on the benchmark classpath");
+                json = is.readAllBytes();
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Loaded {
+        @Setup
+        public void load() {
+            SmogonData.load();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int parse(Resource resource) {
+        return SmogonData.parse(new InputStreamReader(new ByteArrayInputStream(resource.json), StandardCharsets.UTF_8)).size();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean lookup(Loaded loaded) {
+        SmogonData.SmogonEntry entry = SmogonData.get("garchomp");
+        return entry != null && entry.isCommonlyMaxSpeed();
+    }
+}
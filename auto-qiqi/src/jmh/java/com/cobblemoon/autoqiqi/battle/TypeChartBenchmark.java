@@ -0,0 +1,36 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** {@link TypeChart} lookups as done per move tile and per switch candidate. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypeChartBenchmark {
+
+    private final List<String> dualType = List.of("dragon", "ground");
+    private final List<String> attacker = List.of("water", "ice");
+    private int attackIndex;
+
+    @Benchmark
+    public double effectivenessDualType() {
+        String attack = TypeChart.typeName(attackIndex++ % TypeChart.typeCount());
+        return TypeChart.getEffectiveness(attack, dualType);
+    }
+
+    @Benchmark
+    public double effectivenessWithSpeciesOverride() {
+        return TypeChart.getEffectiveness("ground", List.of("electric"), "rotomwash");
+    }
+
+    @Benchmark
+    public double bestStabEffectiveness() {
+        return TypeChart.getBestStabEffectiveness(attacker, dualType);
+    }
+}
@@ -0,0 +1,60 @@
+package com.cobblemoon.autoqiqi.bench;
+
+import com.cobblemoon.autoqiqi.common.VoxelGrid;
+
+import java.util.Random;
+
+/**
+ * Fake world adapter for path-finding benchmarks: {@link VoxelGrid} generators for the terrain
+ * shapes walkers actually meet (flat plains, rolling hills with ponds, walled mazes). Grids span
+ * x/z in [0, size) and need no running Minecraft.
+ */
+public final class SyntheticGrid {
+
+    private SyntheticGrid() {}
+
+    public static VoxelGrid flat(int size, int groundY) {
+        VoxelGrid g = new VoxelGrid(0, groundY - 8, 0, size, 16, size);
+        g.fill(0, groundY - 8, 0, size - 1, groundY, size - 1, VoxelGrid.SOLID);
+        return g;
+    }
+
+    /** Rolling terrain (steps of at most one block between neighbours) with shallow ponds. */
+    public static VoxelGrid hills(int size, int baseY, long seed) {
+        VoxelGrid g = new VoxelGrid(0, baseY - 8, 0, size, 32, size);
+        Random random = new Random(seed);
+        double phaseX = random.nextDouble() * Math.PI * 2;
+        double phaseZ = random.nextDouble() * Math.PI * 2;
+        for (int x = 0; x < size; x++) {
+            for (int z = 0; z < size; z++) {
+                int h = baseY + (int) Math.round(3 * Math.sin(x / 9.0 + phaseX) + 3 * Math.cos(z / 11.0 + phaseZ));
+                g.fill(x, baseY - 8, z, x, h, z, VoxelGrid.SOLID);
+                if (h < baseY - 3) g.set(x, h + 1, z, VoxelGrid.LIQUID);
+            }
+        }
+        return g;
+    }
+
+    /** Flat ground with 3-block walls every {@code cell} blocks, one random gap per wall segment. */
+    public static VoxelGrid maze(int size, int groundY, int cell, long seed) {
+        VoxelGrid g = flat(size, groundY);
+        Random random = new Random(seed);
+        for (int wx = cell; wx < size; wx += cell) {
+            for (int z0 = 0; z0 < size; z0 += cell) {
+                int gap = z0 + random.nextInt(cell);
+                for (int z = z0; z < Math.min(size, z0 + cell); z++) {
+                    if (z != gap) g.fill(wx, groundY + 1, z, wx, groundY + 3, z, VoxelGrid.SOLID);
+                }
+            }
+        }
+        for (int wz = cell; wz < size; wz += cell) {
+            for (int x0 = 0; x0 < size; x0 += cell) {
+                int gap = x0 + random.nextInt(cell);
+                for (int x = x0; x < Math.min(size, x0 + cell); x++) {
+                    if (x != gap && x % cell != 0) g.fill(x, groundY + 1, wz, x, groundY + 3, wz, VoxelGrid.SOLID);
+                }
+            }
+        }
+        return g;
+    }
+}
@@ -0,0 +1,37 @@
+package com.cobblemoon.autoqiqi.bench;
+
+import com.cobblemoon.autoqiqi.legendary.predict.HomeDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fake world adapter for prediction benchmarks: deterministic homes spread over the given biome ids,
+ * Y levels and underground/underwater flags, as if parsed from legendtracker.properties.
+ */
+public final class SyntheticHomes {
+
+    private SyntheticHomes() {}
+
+    public static List<HomeDefinition> generate(int count, List<String> biomeIds, long seed) {
+        Random random = new Random(seed);
+        List<HomeDefinition> homes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String biome = biomeIds.get(random.nextInt(biomeIds.size()));
+            boolean underground = random.nextInt(6) == 0;
+            boolean underwater = !underground && random.nextInt(8) == 0;
+            int y = underground ? -40 + random.nextInt(80) : 50 + random.nextInt(120);
+            String world = "Monde " + (1 + i % 4);
+            homes.add(new HomeDefinition("home" + i, world, biome, "/home home" + i, y, underground, underwater));
+        }
+        return homes;
+    }
+
+    /** Ticks of day spread evenly over 24000, so time-of-day filters see every period. */
+    public static long[] ticksOfDay(int count) {
+        long[] ticks = new long[count];
+        for (int i = 0; i < count; i++) ticks[i] = (long) i * 24000 / count;
+        return ticks;
+    }
+}
@@ -0,0 +1,54 @@
+package com.cobblemoon.autoqiqi.common;
+
+import com.cobblemoon.autoqiqi.bench.SyntheticGrid;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PathFinder} on synthetic voxel terrain. The grid is shared and read-only, so the
+ * multi-threaded variant measures parallel search throughput (one PathFinder per search).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathFinderBenchmark {
+
+    private static final int SIZE = 96;
+    private static final int GROUND = 64;
+
+    @Param({"flat", "hills", "maze"})
+    public String terrain;
+
+    private VoxelGrid grid;
+    private BlockPos start;
+    private BlockPos goal;
+
+    @Setup
+    public void setUp() {
+        grid = switch (terrain) {
+            case "hills" -> SyntheticGrid.hills(SIZE, GROUND, 7);
+            case "maze" -> SyntheticGrid.maze(SIZE, GROUND, 12, 7);
+            default -> SyntheticGrid.flat(SIZE, GROUND);
+        };
+        start = new BlockPos(2, GROUND + 4, 2);
+        goal = new BlockPos(SIZE - 3, GROUND + 4, SIZE - 3);
+    }
+
+    @Benchmark
+    public List<Vec3d> findPath() {
+        return new PathFinder(grid).findPath(start, goal, 2.0);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Vec3d> findPathParallel() {
+        return new PathFinder(grid).findPath(start, goal, 2.0);
+    }
+}
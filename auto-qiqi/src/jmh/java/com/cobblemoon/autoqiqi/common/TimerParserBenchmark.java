@@ -0,0 +1,45 @@
+package com.cobblemoon.autoqiqi.common;
+
+import com.cobblemoon.autoqiqi.config.AutoQiqiConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/** {@link TimerParser} on the chat lines it sees most: timer replies, short forms and unrelated chatter. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimerParserBenchmark {
+
+    @Param({
+            "§6Le prochain légendaire apparaîtra dans §e15 minutes et 30 seconds",
+            "Prochain spawn: 1h 5m 12s",
+            "§7[Global] §fSteve: quelqu'un a vu un shiny ?"
+    })
+    public String message;
+
+    private Pattern timerPattern;
+    private Pattern secondsOnly;
+
+    @Setup
+    public void setUp() {
+        AutoQiqiConfig defaults = new AutoQiqiConfig();
+        timerPattern = Pattern.compile(defaults.timerPattern);
+        secondsOnly = Pattern.compile(defaults.timerPatternSecondsOnly);
+    }
+
+    @Benchmark
+    public Long parse() {
+        Long seconds = TimerParser.parse(message, timerPattern, secondsOnly);
+        return seconds != null ? seconds : TimerParser.parseGeneric(message);
+    }
+
+    @Benchmark
+    public String stripFormatting() {
+        return TimerParser.stripFormatting(message);
+    }
+}
@@ -0,0 +1,127 @@
+package com.cobblemoon.autoqiqi.legendary.predict;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Ways {@link LegendTrackerBridge} can read LegendTracker members, on a fake class shaped like
+ * {@code g$c} (TimerData): private long fields plus a no-arg long method. Compares core reflection,
+ * a MethodHandle held in a mutable field, a {@code static final} MethodHandle (what the bridge uses)
+ * and a LambdaMetafactory accessor. Fields have no getter method, so the lambda variant only
+ * applies to methods such as {@code g$c.a()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReflectionAccessBenchmark {
+
+    /** Stand-in for client.legendtracker.g$c. */
+    static final class FakeTimerData {
+        private long b = 1_234_567L;
+        private long c = System.currentTimeMillis();
+
+        public long a() {
+            return (b - c / 50) / 20;
+        }
+    }
+
+    private static final Field FIELD_B;
+    private static final Method METHOD_A;
+    private static final MethodHandle STATIC_B;
+    private static final MethodHandle STATIC_A;
+    private static final ToLongFunction<Object> LAMBDA_A;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(FakeTimerData.class, MethodHandles.lookup());
+            FIELD_B = FakeTimerData.class.getDeclaredField("b");
+            FIELD_B.setAccessible(true);
+            METHOD_A = FakeTimerData.class.getMethod("a");
+            STATIC_B = lookup.unreflectGetter(FIELD_B).asType(MethodType.methodType(long.class, Object.class));
+            STATIC_A = lookup.unreflect(METHOD_A).asType(MethodType.methodType(long.class, Object.class));
+            LAMBDA_A = lambdaFor(lookup, lookup.unreflect(METHOD_A));
+        } catch (Throwable t) {
+            throw new ExceptionInInitializerError(t);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ToLongFunction<Object> lambdaFor(MethodHandles.Lookup lookup, MethodHandle impl) throws Throwable {
+        CallSite site = LambdaMetafactory.metafactory(lookup, "applyAsLong",
+                MethodType.methodType(ToLongFunction.class),
+                MethodType.methodType(long.class, Object.class),
+                impl, impl.type());
+        return (ToLongFunction<Object>) site.getTarget().invokeExact();
+    }
+
+    private Object timer;
+    private MethodHandle mutableB;
+    private MethodHandle mutableA;
+
+    @Setup
+    public void setUp() {
+        timer = new FakeTimerData();
+        mutableB = STATIC_B;
+        mutableA = STATIC_A;
+    }
+
+    // ========================
+    // Field read (g$c.b)
+    // ========================
+
+    @Benchmark
+    public long fieldReflection() throws IllegalAccessException {
+        return FIELD_B.getLong(timer);
+    }
+
+    @Benchmark
+    public long fieldMutableHandle() throws Throwable {
+        return (long) mutableB.invokeExact(timer);
+    }
+
+    @Benchmark
+    public long fieldStaticFinalHandle() throws Throwable {
+        return (long) STATIC_B.invokeExact(timer);
+    }
+
+    // ========================
+    // Method call (g$c.a())
+    // ========================
+
+    @Benchmark
+    public long methodReflection() throws ReflectiveOperationException {
+        return ((Number) METHOD_A.invoke(timer)).longValue();
+    }
+
+    @Benchmark
+    public long methodMutableHandle() throws Throwable {
+        return (long) mutableA.invokeExact(timer);
+    }
+
+    @Benchmark
+    public long methodStaticFinalHandle() throws Throwable {
+        return (long) STATIC_A.invokeExact(timer);
+    }
+
+    @Benchmark
+    public long methodLambda() {
+        return LAMBDA_A.applyAsLong(timer);
+    }
+
+    @Benchmark
+    public long direct() {
+        return ((FakeTimerData) timer).a();
+    }
+}
@@ -0,0 +1,69 @@
+package com.cobblemoon.autoqiqi.legendary.predict;
+
+import com.cobblemoon.autoqiqi.bench.SyntheticHomes;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spawn matching as run by {@link SpawnPredictor} on each recompute: every bundled spawn condition
+ * against every home, at a spread of predicted ticks. Homes come from {@link SyntheticHomes}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpawnPredictorBenchmark {
+
+    static final List<String> BIOMES = List.of(
+            "minecraft:desert", "minecraft:mushroom_fields", "minecraft:windswept_forest",
+            "biomeswevegone:temperate_grove", "biomeswevegone:rose_fields", "minecraft:plains",
+            "minecraft:deep_dark", "minecraft:warm_ocean", "minecraft:unknown_biome");
+
+    @Param({"20", "80"})
+    public int homeCount;
+
+    private List<HomeDefinition> homes;
+    private Collection<SpawnCondition> conditions;
+    private long[] ticks;
+    private List<Set<String>> tagSets;
+
+    @Setup
+    public void setUp() {
+        SpawnConditionRegistry.load();
+        BiomeTagMap.load();
+        homes = SyntheticHomes.generate(homeCount, BIOMES, 42);
+        conditions = new ArrayList<>(SpawnConditionRegistry.all());
+        ticks = SyntheticHomes.ticksOfDay(8);
+        tagSets = new ArrayList<>();
+        for (SpawnCondition c : conditions) tagSets.add(c.biomeTags());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void matchAllHomes(Blackhole bh) {
+        for (long tick : ticks) {
+            for (HomeDefinition home : homes) {
+                int weight = 0;
+                for (SpawnCondition cond : conditions) {
+                    if (SpawnPredictor.matches(cond, home, tick)) weight += cond.weight();
+                }
+                bh.consume(weight);
+            }
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void biomeHasAnyTag(Blackhole bh) {
+        for (HomeDefinition home : homes) {
+            for (Set<String> tags : tagSets) bh.consume(BiomeTagMap.hasAnyTag(home.biomeId(), tags));
+        }
+    }
+}
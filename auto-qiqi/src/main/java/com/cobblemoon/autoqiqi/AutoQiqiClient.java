@@ -7,22 +7,43 @@ import com.cobblemoon.autoqiqi.battle.AutoBattleEngine;
 import com.cobblemoon.autoqiqi.battle.BattleDecisionRouter;
 import com.cobblemoon.autoqiqi.battle.BattleMode;
 import com.cobblemoon.autoqiqi.battle.CaptureEngine;
+import com.cobblemoon.autoqiqi.battle.CaptureOutcomeStore;
+import com.cobblemoon.autoqiqi.battle.CaptureQueue;
+import com.cobblemoon.autoqiqi.battle.DecisionRecorder;
+import com.cobblemoon.autoqiqi.battle.MoveTable;
+import com.cobblemoon.autoqiqi.battle.TrainerBattleEngine;
 import com.cobblemoon.autoqiqi.biome.BiomeDiscoveryEngine;
+import com.cobblemoon.autoqiqi.biome.ExploredRegionIndex;
+import com.cobblemoon.autoqiqi.biome.ExploredRegionStore;
+import com.cobblemoon.autoqiqi.common.ChunkSnapshotGrid;
+import com.cobblemoon.autoqiqi.common.ClientCacheFlusher;
+import com.cobblemoon.autoqiqi.common.EngineScheduler;
+import com.cobblemoon.autoqiqi.common.LineOfSightService;
+import com.cobblemoon.autoqiqi.common.Metrics;
+import com.cobblemoon.autoqiqi.common.MetricsCsvDumper;
 import com.cobblemoon.autoqiqi.common.MovementHelper;
 import com.cobblemoon.autoqiqi.common.PokemonScanner;
+import com.cobblemoon.autoqiqi.common.ScanPipeline;
+import com.cobblemoon.autoqiqi.common.VoxelGrid;
 import com.cobblemoon.autoqiqi.config.AutoQiqiConfig;
 import com.cobblemoon.autoqiqi.config.AutoQiqiConfigScreen;
 import com.cobblemoon.autoqiqi.legendary.*;
+import com.cobblemoon.autoqiqi.legendary.autohop.HopCycleRecorder;
 import com.cobblemoon.autoqiqi.npc.TowerGuiHandler;
 import com.cobblemoon.autoqiqi.npc.TowerNpcEngine;
+import com.cobblemoon.scancore.ScanDiff;
+import com.cobblemoon.scancore.ScanEvent;
+import com.cobblemoon.scancore.ScanSighting;
 import com.mojang.brigadier.arguments.DoubleArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
 import net.fabricmc.fabric.api.client.screen.v1.ScreenEvents;
 import net.minecraft.client.MinecraftClient;
@@ -34,6 +55,7 @@ import net.minecraft.client.option.KeyBinding;
 import net.minecraft.client.util.InputUtil;
 import net.minecraft.entity.Entity;
 import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockPos;
 import org.lwjgl.glfw.GLFW;
 
 import java.io.BufferedWriter;
@@ -62,10 +84,7 @@ public class AutoQiqiClient implements ClientModInitializer {
     private static KeyBinding togglePredictionKey;
     private static KeyBinding toggleAutoHopKey;
 
-    private static final int PERIODIC_SCAN_INTERVAL = 600; // 30 seconds
-
     // Feature state
-    private int periodicScanTicks = 0;
 
 
     // Capture-battle bridge: detect when a capture battle ends (with debounce)
@@ -147,7 +166,19 @@ public class AutoQiqiClient implements ClientModInitializer {
         registerKeybindings();
         registerScreenEvents();
         registerCommands();
+        registerEngines();
 
+        // Decision and hop-cycle logs: end the files cleanly when leaving a server and when the game exits
+        // (the capture outcome store also finishes its pending appends on exit)
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+            DecisionRecorder.get().close();
+            HopCycleRecorder.get().close();
+        });
+        ClientLifecycleEvents.CLIENT_STOPPING.register(client -> {
+            DecisionRecorder.get().shutdown();
+            HopCycleRecorder.get().shutdown();
+            CaptureOutcomeStore.get().shutdown();
+        });
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
             clientTickCounter++;
             trackBlockedState(client);
@@ -158,6 +189,7 @@ public class AutoQiqiClient implements ClientModInitializer {
             ClientBattle activeBattle = com.cobblemon.mod.common.client.CobblemonClient.INSTANCE.getBattle();
             UUID activeBattleId = activeBattle != null ? activeBattle.getBattleId() : null;
             if (activeBattleId == null) {
+                if (lastSeenBattleId != null) DecisionRecorder.get().flush();
                 if (modOwnedBattleId != null) {
                     logDebug("Battle", "Battle attribution cleared — battle ended (id=" + modOwnedBattleId + ")");
                     modOwnedBattleId = null;
@@ -174,6 +206,7 @@ public class AutoQiqiClient implements ClientModInitializer {
                     logDebug("Battle", "Battle attribution: manual (no auto-fight) — id=" + activeBattleId);
                 }
                 BattleDecisionRouter.clearMoveSelectionDebounce();
+                TrainerBattleEngine.get().resetBattle();
             }
             lastSeenBattleId = activeBattleId;
 
@@ -331,78 +364,182 @@ public class AutoQiqiClient implements ClientModInitializer {
 
             handleKeybindings(client);
 
-            // Capture: tick engagement + ball throw + miss detection + pickup
-            if (CaptureEngine.get().isActive()) {
-                CaptureEngine.get().tick(client);
-                CaptureEngine.get().tickBallThrow(client);
-                CaptureEngine.get().tickBallWait(client);
+            EngineScheduler.get().runTick((long) (AutoQiqiConfig.get().engineTickBudgetMs * 1_000_000));
+        });
 
-                boolean battleActive = com.cobblemon.mod.common.client.CobblemonClient.INSTANCE.getBattle() != null;
-                boolean inBattlePhase = CaptureEngine.get().getPhase() == CaptureEngine.Phase.IN_BATTLE;
+        HudRenderCallback.EVENT.register((context, renderTickCounter) -> {
+            AutoQiqiHud.render(context, renderTickCounter.getTickDelta(true));
+        });
 
-                // Reset stale battle state when a new capture starts (not yet in battle)
-                if (wasInCaptureBattle && !inBattlePhase && !battleActive) {
-                    wasInCaptureBattle = false;
-                    battleNullTicks = 0;
-                }
+        log("Init", "Auto-Qiqi v" + BuildConstants.VERSION + " initialized!");
+        log("Init", "Keybinds: K=battle, H=leg HUD, L=leg mod, I=tower, O=prediction, P=auto-hop, ;=stop all");
+    }
 
-                if (battleActive) {
-                    battleNullTicks = 0;
-                    if (!wasInCaptureBattle && inBattlePhase) {
-                        wasInCaptureBattle = true;
-                        logDebug("Tick", "Capture battle confirmed (phase=IN_BATTLE, getBattle() != null)");
-                    }
-                } else if (wasInCaptureBattle) {
-                    // Don't trigger battle end while picking up a dropped ball or waiting for hit
-                    if (CaptureEngine.get().isPickingUpBall() || CaptureEngine.get().isWaitingForBallHit()) {
-                        battleNullTicks = 0;
-                    } else {
-                        battleNullTicks++;
-                        if (battleNullTicks >= BATTLE_END_DEBOUNCE_TICKS) {
-                            wasInCaptureBattle = false;
-                            battleNullTicks = 0;
-                            logDebug("Tick", "Capture battle ENDED (getBattle() null for " + BATTLE_END_DEBOUNCE_TICKS + " ticks)");
-                            CaptureEngine.get().onBattleEnded();
-                        } else if (battleNullTicks == 1) {
-                            logDebug("Tick", "getBattle() went null, debouncing... (phase=" + CaptureEngine.get().getPhase() + ")");
-                        }
-                    }
-                }
-            }
+    // ========================
+    // Engine scheduling
+    // ========================
 
-            // Battle (skip AutoBattleEngine while capture is running)
-            BattleMode bm = AutoBattleEngine.get().getMode();
-            if (bm != BattleMode.OFF && !CaptureEngine.get().isActive()) {
+    /**
+     * Per-tick engines, run by {@link EngineScheduler} after battle UI handling and keybindings.
+     * Critical engines handle world changes, captures and battles; normal ones keep the
+     * pre-scheduler order (legend bridge, spawn predictor, autohop, walker); deferrable ones (scans, biome
+     * checks) slip to the next tick when the frame budget ({@code engineTickBudgetMs}) is spent.
+     */
+    private void registerEngines() {
+        EngineScheduler s = EngineScheduler.get();
+        s.setFailureListener((engine, error) -> {
+            StackTraceElement[] trace = error.getStackTrace();
+            logDebug("Tick", "Engine " + engine.name() + " failed (" + engine.failures() + "x): " + error
+                    + (trace.length > 0 ? " at " + trace[0] : ""));
+        });
+        // World change: drop entity references into the old world before any engine uses them
+        ClientCacheFlusher flusher = ClientCacheFlusher.get();
+        flusher.addReleaser(() -> PokemonScanner.get().clearCaches());
+        flusher.addReleaser(() -> AutoBattleEngine.get().releaseWorldRefs());
+        flusher.addReleaser(() -> CaptureEngine.get().releaseWorldRefs());
+        flusher.addReleaser(() -> CaptureQueue.get().releaseWorldRefs());
+        flusher.addReleaser(() -> PokemonWalker.get().releaseWorldRefs());
+        flusher.addReleaser(() -> DirectionGuide.get().releaseWorldRefs());
+        flusher.addReleaser(() -> TowerNpcEngine.get().releaseWorldRefs());
+        flusher.addReleaser(() -> ExploredRegionStore.get().close());
+        flusher.addReleaser(() -> LineOfSightService.get().releaseWorldRefs());
+        flusher.addReleaser(MoveTable::forgetMisses);
+        s.register("world-change", EngineScheduler.Priority.CRITICAL, 1, flusher::tick);
+        s.register("line-of-sight", EngineScheduler.Priority.CRITICAL, 1, () -> LineOfSightService.get().beginTick());
+        s.register("capture", EngineScheduler.Priority.CRITICAL, 1,
+                () -> tickCapture(MinecraftClient.getInstance()));
+        // Battle (skip AutoBattleEngine while capture is running)
+        s.register("battle", EngineScheduler.Priority.CRITICAL, 1, () -> {
+            if (AutoBattleEngine.get().getMode() != BattleMode.OFF && !CaptureEngine.get().isActive()) {
                 AutoBattleEngine.get().tick();
             }
-
-            com.cobblemoon.autoqiqi.legendary.predict.LegendTrackerBridge.tick();
-            com.cobblemoon.autoqiqi.legendary.predict.SpawnPredictor.get().tick();
-            com.cobblemoon.autoqiqi.legendary.autohop.AutoHopEngine.get().tick();
-            PokemonWalker.get().tick();
-            TowerNpcEngine.get().tick();
-
-            // Hunt timer
+        });
+        s.register("capture-queue", EngineScheduler.Priority.NORMAL, 1, () -> CaptureQueue.get().tick());
+
+        // Same order as before the scheduler: bridge and predictor feed autohop, which may start the walker
+        s.register("legend-bridge", EngineScheduler.Priority.NORMAL, 1,
+                com.cobblemoon.autoqiqi.legendary.predict.LegendTrackerBridge::tick);
+        s.register("spawn-predictor", EngineScheduler.Priority.NORMAL, 1,
+                () -> com.cobblemoon.autoqiqi.legendary.predict.SpawnPredictor.get().tick());
+        s.register("autohop", EngineScheduler.Priority.NORMAL, 1,
+                () -> com.cobblemoon.autoqiqi.legendary.autohop.AutoHopEngine.get().tick());
+        s.register("walker", EngineScheduler.Priority.NORMAL, 1, () -> PokemonWalker.get().tick());
+        s.register("tower", EngineScheduler.Priority.NORMAL, 1, () -> TowerNpcEngine.get().tick());
+        s.register("hunt-timer", EngineScheduler.Priority.NORMAL, 20, () -> {
             if (huntActive && System.currentTimeMillis() >= huntEndTimeMs) {
-                stopHunt(client, "duree ecoulee");
+                stopHunt(MinecraftClient.getInstance(), "duree ecoulee");
             }
+        });
+        // Tick rate calibration
+        s.register("tickrate", EngineScheduler.Priority.NORMAL, 1, this::tickTickrateMeasurement);
+
+        // Biome discovery (runs during idle time between legendary events)
+        s.register("biome-discovery", EngineScheduler.Priority.DEFERRABLE, 1, () -> BiomeDiscoveryEngine.get().tick());
+        // Periodic Pokedex scan (shared with other scan-core mods, which decides when it is due):
+        // subscribers only hear about changes
+        ScanPipeline.get().addListener(this::onScanChanges);
+        ScanPipeline.get().addListener(AutoQiqiHud::onScanChanges);
+        ScanPipeline.get().addListener(AutoBattleEngine.get()::onScanChanges);
+        s.register("periodic-scan", EngineScheduler.Priority.DEFERRABLE, 1, () -> ScanPipeline.get().tick());
+        s.register("perf-csv", EngineScheduler.Priority.DEFERRABLE, 20, () -> MetricsCsvDumper.get().tick());
+
+        Metrics.gauge("engines.lastFrameMicros", () -> s.lastFrameNanos() / 1_000);
+        Metrics.gauge("engines.overBudgetTicks", s::overBudgetTicks);
+    }
 
-            // Biome discovery (runs during idle time between legendary events)
-            BiomeDiscoveryEngine.get().tick();
+    /** Capture: tick engagement + ball throw + miss detection + pickup, and battle-end debounce. */
+    private void tickCapture(MinecraftClient client) {
+        if (!CaptureEngine.get().isActive()) return;
+        CaptureEngine.get().tick(client);
+        CaptureEngine.get().tickBallThrow(client);
+        CaptureEngine.get().tickBallWait(client);
 
-            // Periodic Pokedex scan
-            tickPeriodicScan(client);
+        boolean battleActive = com.cobblemon.mod.common.client.CobblemonClient.INSTANCE.getBattle() != null;
+        boolean inBattlePhase = CaptureEngine.get().getPhase() == CaptureEngine.Phase.IN_BATTLE;
 
-            // Tick rate calibration
-            tickTickrateMeasurement();
-        });
+        // Reset stale battle state when a new capture starts (not yet in battle)
+        if (wasInCaptureBattle && !inBattlePhase && !battleActive) {
+            wasInCaptureBattle = false;
+            battleNullTicks = 0;
+        }
 
-        HudRenderCallback.EVENT.register((context, renderTickCounter) -> {
-            AutoQiqiHud.render(context, renderTickCounter.getTickDelta(true));
-        });
+        if (battleActive) {
+            battleNullTicks = 0;
+            if (!wasInCaptureBattle && inBattlePhase) {
+                wasInCaptureBattle = true;
+                logDebug("Tick", "Capture battle confirmed (phase=IN_BATTLE, getBattle() != null)");
+            }
+        } else if (wasInCaptureBattle) {
+            // Don't trigger battle end while picking up a dropped ball or waiting for hit
+            if (CaptureEngine.get().isPickingUpBall() || CaptureEngine.get().isWaitingForBallHit()) {
+                battleNullTicks = 0;
+            } else {
+                battleNullTicks++;
+                if (battleNullTicks >= BATTLE_END_DEBOUNCE_TICKS) {
+                    wasInCaptureBattle = false;
+                    battleNullTicks = 0;
+                    logDebug("Tick", "Capture battle ENDED (getBattle() null for " + BATTLE_END_DEBOUNCE_TICKS + " ticks)");
+                    CaptureEngine.get().onBattleEnded();
+                } else if (battleNullTicks == 1) {
+                    logDebug("Tick", "getBattle() went null, debouncing... (phase=" + CaptureEngine.get().getPhase() + ")");
+                }
+            }
+        }
+    }
 
-        log("Init", "Auto-Qiqi v" + BuildConstants.VERSION + " initialized!");
-        log("Init", "Keybinds: K=battle, H=leg HUD, L=leg mod, I=tower, O=prediction, P=auto-hop, ;=stop all");
+    private void executeTicks() {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player == null) return;
+        EngineScheduler s = EngineScheduler.get();
+        msg(client, "§6Engines §7| budget §f" + AutoQiqiConfig.get().engineTickBudgetMs + "ms"
+                + " §7last §f" + String.format("%.2f", s.lastFrameNanos() / 1e6) + "ms"
+                + " §7max §f" + String.format("%.2f", s.maxFrameNanos() / 1e6) + "ms"
+                + " §7over budget §f" + s.overBudgetTicks() + "/" + s.ticks() + " ticks");
+        for (EngineScheduler.EngineStats e : s.stats()) {
+            msg(client, "§7" + e.name() + " §f" + String.format("%.0f", e.avgNanos() / 1e3) + "µs"
+                    + " §7max §f" + String.format("%.0f", e.maxNanos() / 1e3) + "µs"
+                    + " §7runs §f" + e.runs()
+                    + (e.deferrals() > 0 ? " §7deferred §e" + e.deferrals() : "")
+                    + (e.failures() > 0 ? " §7failed §c" + e.failures() : ""));
+        }
+    }
+
+    /** Dump the blocks around the player as a voxel file, for headless path-finding tests and benchmarks. */
+    private void executeGridDump(int radius) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player == null || client.world == null) return;
+        BlockPos p = client.player.getBlockPos();
+        ChunkSnapshotGrid snapshot = ChunkSnapshotGrid.capture(client.world, p, p, radius);
+        VoxelGrid grid = VoxelGrid.copyOf(snapshot, p.getX() - radius, p.getY() - 16, p.getZ() - radius,
+                p.getX() + radius, p.getY() + 16, p.getZ() + radius);
+        try {
+            Path dir = Paths.get("logs", "auto-qiqi");
+            Files.createDirectories(dir);
+            String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+            Path file = dir.resolve("grid-" + ts + ".aqvx");
+            grid.write(file);
+            msg(client, "§aGrille " + grid.sizeX() + "x" + grid.sizeY() + "x" + grid.sizeZ() + " enregistree: §f" + file);
+        } catch (IOException e) {
+            msg(client, "§cEchec de l'enregistrement: " + e.getMessage());
+        }
+    }
+
+    private void executePerf(boolean reset) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player == null) return;
+        if (reset) {
+            Metrics.reset();
+            msg(client, "§aMetriques remises a zero.");
+            return;
+        }
+        List<String> lines = Metrics.report();
+        if (lines.isEmpty()) {
+            msg(client, "§7Aucune metrique enregistree.");
+            return;
+        }
+        int csv = AutoQiqiConfig.get().perfCsvIntervalSeconds;
+        msg(client, "§6Perf §7| CSV " + (csv > 0 ? "§fchaque " + csv + "s" : "§7off"));
+        for (String line : lines) msg(client, "§7" + line);
     }
 
     // ========================
@@ -531,6 +668,8 @@ public class AutoQiqiClient implements ClientModInitializer {
                             .executes(context -> { executeCaptureInBattle(); return 1; })
                             .then(ClientCommandManager.literal("stop")
                                     .executes(context -> { executeCaptureStop(); return 1; }))
+                            .then(ClientCommandManager.literal("all")
+                                    .executes(context -> { executeCaptureAll(); return 1; }))
                             .then(ClientCommandManager.argument("index", IntegerArgumentType.integer(1))
                                     .executes(context -> {
                                         executeCapture(IntegerArgumentType.getInteger(context, "index"));
@@ -575,6 +714,18 @@ public class AutoQiqiClient implements ClientModInitializer {
                             .executes(context -> { executeVersion(); return 1; }))
                     .then(ClientCommandManager.literal("tickrate")
                             .executes(context -> { executeTickrate(); return 1; }))
+                    .then(ClientCommandManager.literal("ticks")
+                            .executes(context -> { executeTicks(); return 1; }))
+                    .then(ClientCommandManager.literal("grid")
+                            .then(ClientCommandManager.argument("radius", IntegerArgumentType.integer(4, 128))
+                                    .executes(context -> {
+                                        executeGridDump(IntegerArgumentType.getInteger(context, "radius"));
+                                        return 1;
+                                    })))
+                    .then(ClientCommandManager.literal("perf")
+                            .executes(context -> { executePerf(false); return 1; })
+                            .then(ClientCommandManager.literal("reset")
+                                    .executes(context -> { executePerf(true); return 1; })))
                     .then(ClientCommandManager.literal("smogon")
                             .executes(context -> { executeSmogonInfo(); return 1; }))
                     .then(ClientCommandManager.literal("reset")
@@ -585,47 +736,39 @@ public class AutoQiqiClient implements ClientModInitializer {
         });
     }
 
-    private void tickPeriodicScan(MinecraftClient client) {
-        if (client.player == null || client.world == null) return;
-        periodicScanTicks++;
-        if (periodicScanTicks < PERIODIC_SCAN_INTERVAL) return;
-        periodicScanTicks = 0;
-
-        List<Entity> results = PokemonScanner.get().scan();
-        int uncaught = PokemonScanner.countUncaught(results);
-        int total = results.size();
+    /** Chat alerts for the periodic scan: new bosses, new alternate forms, newly uncaught Pokemon in range. */
+    private void onScanChanges(List<ScanEvent> changes, ScanDiff scan) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player == null) return;
 
-        int bosses = 0;
         StringBuilder bossNames = new StringBuilder();
-        for (Entity e : results) {
-            if (PokemonScanner.isBoss(e)) {
-                bosses++;
+        StringBuilder altFormNames = new StringBuilder();
+        boolean newUncaught = false;
+        for (ScanEvent event : changes) {
+            String name = event.sighting().name();
+            if (event.gained(ScanSighting.BOSS)) {
                 if (bossNames.length() > 0) bossNames.append(", ");
-                bossNames.append(PokemonScanner.getPokemonName(e));
+                bossNames.append(name);
             }
-        }
-
-        int altForms = 0;
-        StringBuilder altFormNames = new StringBuilder();
-        for (Entity e : results) {
-            if (PokemonScanner.hasNotableAlternateForm(e)) {
-                altForms++;
+            if (event.gained(ScanPipeline.NOTABLE_FORM)) {
                 if (altFormNames.length() > 0) altFormNames.append(", ");
-                altFormNames.append(PokemonScanner.getPokemonName(e));
+                altFormNames.append(name);
             }
+            if (event.gained(ScanPipeline.WANTED)) newUncaught = true;
         }
 
-        if (bosses > 0) {
+        if (bossNames.length() > 0) {
             client.player.sendMessage(
                     Text.literal("§6[Auto-Qiqi]§r §c§lBoss: " + bossNames + "§r §7nearby!"), false);
         }
-        if (altForms > 0) {
+        if (altFormNames.length() > 0) {
             client.player.sendMessage(
                     Text.literal("§6[Auto-Qiqi]§r §b[FORM] " + altFormNames + "§r §7nearby!"), false);
         }
-        if (uncaught > 0) {
+        int uncaught = scan.countAny(ScanPipeline.WANTED);
+        if (newUncaught && uncaught > 0) {
             client.player.sendMessage(
-                    Text.literal("§6[Auto-Qiqi]§r §a" + uncaught + " uncaught§7/§f" + total + " wild nearby"),
+                    Text.literal("§6[Auto-Qiqi]§r §a" + uncaught + " uncaught§7/§f" + scan.size() + " wild nearby"),
                     true);
         }
     }
@@ -743,6 +886,7 @@ public class AutoQiqiClient implements ClientModInitializer {
             instance.battleNullTicks = 0;
         }
 
+        CaptureQueue.get().stop();
         CaptureEngine.get().stop();
         PokemonWalker.get().stop();
         DirectionGuide.get().stop();
@@ -776,6 +920,7 @@ public class AutoQiqiClient implements ClientModInitializer {
         }
 
         boolean stopped = false;
+        CaptureQueue.get().stop();
         if (CaptureEngine.get().isActive()) {
             CaptureEngine.get().stop();
             msg(client, "§7Capture arretee.");
@@ -894,6 +1039,7 @@ public class AutoQiqiClient implements ClientModInitializer {
         java.util.List<String> summary = engine.getSessionSummaryAndReset();
         engine.setMode(BattleMode.OFF);
 
+        CaptureQueue.get().stop();
         CaptureEngine.get().stop();
         PokemonWalker.get().stop();
 
@@ -952,6 +1098,11 @@ public class AutoQiqiClient implements ClientModInitializer {
         if (!found.isEmpty()) {
             msg(client, "§7Trouves: §a" + String.join(", ", found));
         }
+        ExploredRegionIndex explored = ExploredRegionStore.get().current();
+        if (explored != null) {
+            msg(client, "§7Explore (ce monde): §f" + explored.visitedChunks() + " chunks, "
+                    + explored.biomes().size() + " biomes, " + explored.usedBytes() / 1024 + " Ko");
+        }
     }
 
     private void executeBiomeList() {
@@ -1163,23 +1314,13 @@ public class AutoQiqiClient implements ClientModInitializer {
         com.cobblemoon.autoqiqi.common.PokemonScanner.get().clearCaches();
         com.cobblemoon.autoqiqi.legendary.WorldTracker.get().resetAllTimers();
 
-        // 2. Free memory FIRST so the chunk reload has headroom
-        System.gc();
-
-        long freeMb = Runtime.getRuntime().freeMemory() / (1024 * 1024);
-        long totalMb = Runtime.getRuntime().totalMemory() / (1024 * 1024);
-
-        // 3. Chunk reload (F3+A) temporarily doubles memory — skip if too tight
-        if (freeMb < 200) {
-            msg(client, "§a[Reset]§r Caches vidés, GC lancé, chunk reload §cskippé§r (RAM trop basse). §7RAM: " + freeMb + "/" + totalMb + " MB libre.");
-            log("Reset", "Chunk reload skipped: only " + freeMb + "MB free / " + totalMb + "MB total");
+        // 2. GC, then chunk reload (F3+A) if there is headroom (it temporarily doubles memory)
+        ClientCacheFlusher.Result flush = ClientCacheFlusher.get().flush(true);
+        if (!flush.chunksReloaded()) {
+            msg(client, "§a[Reset]§r Caches vidés, GC lancé, chunk reload §cskippé§r (RAM trop basse). §7RAM: " + flush.freeMb() + "/" + flush.totalMb() + " MB libre.");
+            log("Reset", "Chunk reload skipped: only " + flush.freeMb() + "MB free / " + flush.totalMb() + "MB total");
         } else {
-            client.worldRenderer.reload();
-            // Second GC pass to clean up freed chunk buffers
-            System.gc();
-            freeMb = Runtime.getRuntime().freeMemory() / (1024 * 1024);
-            totalMb = Runtime.getRuntime().totalMemory() / (1024 * 1024);
-            msg(client, "§a[Reset]§r Caches + chunk cache vidés, GC lancé. §7RAM: " + freeMb + "/" + totalMb + " MB libre.");
+            msg(client, "§a[Reset]§r Caches + chunk cache vidés, GC lancé. §7RAM: " + flush.freeMb() + "/" + flush.totalMb() + " MB libre.");
         }
     }
 
@@ -1287,6 +1428,31 @@ public class AutoQiqiClient implements ClientModInitializer {
         PokemonWalker.get().startWalking(target);
     }
 
+    private void executeCaptureAll() {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player == null) return;
+
+        PokemonScanner scanner = PokemonScanner.get();
+        if (scanner.getLastScanSize() == 0) {
+            msg(client, "§cFais d'abord §f/pk scan§c !");
+            return;
+        }
+        java.util.List<Entity> candidates = new java.util.ArrayList<>();
+        for (int i = 1; i <= scanner.getLastScanSize(); i++) {
+            Entity e = scanner.getFromLastScan(i);
+            if (e != null) candidates.add(e);
+        }
+        CaptureEngine.get().stop();
+        int queued = CaptureQueue.get().start(candidates);
+        if (queued == 0) {
+            msg(client, "§7Aucun Pokemon a capturer dans le dernier scan.");
+            return;
+        }
+        wasInCaptureBattle = false;
+        battleNullTicks = 0;
+        msg(client, "§bFile de capture: §e" + queued + "§b cibles, calcul de l'itineraire...");
+    }
+
     private void executeCaptureInBattle() {
         MinecraftClient client = MinecraftClient.getInstance();
         if (client.player == null) return;
@@ -1301,6 +1467,7 @@ public class AutoQiqiClient implements ClientModInitializer {
         MinecraftClient client = MinecraftClient.getInstance();
         if (client.player == null) return;
 
+        CaptureQueue.get().stop();
         CaptureEngine.get().stop();
         wasInCaptureBattle = false;
         battleNullTicks = 0;
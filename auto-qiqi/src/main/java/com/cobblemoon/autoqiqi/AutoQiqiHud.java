@@ -2,15 +2,22 @@ package com.cobblemoon.autoqiqi;
 
 import com.cobblemoon.autoqiqi.battle.*;
 import com.cobblemoon.autoqiqi.biome.BiomeDiscoveryEngine;
+import com.cobblemoon.autoqiqi.common.Metrics;
+import com.cobblemoon.autoqiqi.common.ScanPipeline;
 import com.cobblemoon.autoqiqi.config.AutoQiqiConfig;
 import com.cobblemoon.autoqiqi.legendary.*;
 import com.cobblemoon.autoqiqi.legendary.predict.LegendTrackerBridge;
 import com.cobblemoon.autoqiqi.legendary.predict.PredictionResult;
+import com.cobblemoon.autoqiqi.legendary.predict.PredictionSnapshot;
 import com.cobblemoon.autoqiqi.legendary.predict.SpawnPredictor;
+import com.cobblemoon.scancore.ScanDiff;
+import com.cobblemoon.scancore.ScanEvent;
+import com.cobblemoon.scancore.ScanSighting;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.entity.Entity;
+import net.minecraft.text.OrderedText;
 import net.minecraft.text.Text;
 
 import java.util.*;
@@ -70,7 +77,8 @@ public class AutoQiqiHud {
         // Capture status
         CaptureEngine capture = CaptureEngine.get();
         if (capture.isActive()) {
-            String capMsg = "§e[Capture] §f" + capture.getStatusMessage();
+            String queue = CaptureQueue.get().getProgress();
+            String capMsg = "§e[Capture" + (queue.isEmpty() ? "" : " " + queue) + "] §f" + capture.getStatusMessage();
             context.drawText(tr, Text.literal(capMsg), 4, y, 0xFFFFFF, true);
             y += 12;
         }
@@ -89,6 +97,13 @@ public class AutoQiqiHud {
             y += 12;
         }
 
+        // Nearby wild Pokemon worth a look (from the periodic scan)
+        String scan = scanLine;
+        if (!scan.isEmpty()) {
+            context.drawText(tr, Text.literal(scan), 4, y, 0xFFFFFF, true);
+            y += 12;
+        }
+
         // Biome discovery status
         BiomeDiscoveryEngine biome = BiomeDiscoveryEngine.get();
         if (biome.isEnabled()) {
@@ -98,115 +113,76 @@ public class AutoQiqiHud {
         }
     }
 
+    /** Rebuilt by the periodic scan when something changed; empty when nothing wanted is in range. */
+    private static volatile String scanLine = "";
+
+    /** {@link ScanPipeline} listener: refresh the nearby counts line. */
+    public static void onScanChanges(List<ScanEvent> changes, ScanDiff scan) {
+        int uncaught = scan.countAny(ScanPipeline.WANTED);
+        int bosses = scan.count(ScanSighting.BOSS);
+        int legendaries = scan.count(ScanSighting.LEGENDARY);
+        if (uncaught == 0 && bosses == 0 && legendaries == 0) {
+            scanLine = "";
+            return;
+        }
+        StringBuilder sb = new StringBuilder("§a[Scan] §f").append(scan.size()).append(" wild");
+        if (uncaught > 0) sb.append(" §7| §a").append(uncaught).append(" uncaught");
+        if (bosses > 0) sb.append(" §7| §c").append(bosses).append(" boss");
+        if (legendaries > 0) sb.append(" §7| §d").append(legendaries).append(" leg");
+        scanLine = sb.toString();
+    }
+
     // ============================
     // Top-center: spawn predictions
     // ============================
 
+    private static final PredictionHudModel PREDICTION_MODEL = new PredictionHudModel();
+    private static final Metrics.Histogram PREDICTION_HUD_NANOS = Metrics.histogram("hud.predictions");
+    private static int compiledVersion = -1;
+    private static OrderedText[] compiledLines = new OrderedText[0];
+    private static int[] compiledWidths = new int[0];
+
     private static void renderPredictionHud(DrawContext context, MinecraftClient client) {
         AutoQiqiConfig config = AutoQiqiConfig.get();
         if (!config.predictionHudVisible) return;
-
-        TextRenderer tr = client.textRenderer;
-        int screenWidth = client.getWindow().getScaledWidth();
-        int lineHeight = 12;
-        int maxResults = config.predictionHudMaxResults;
-
-        List<String> lines = new ArrayList<>();
+        long t0 = System.nanoTime();
 
         // Try LegendTracker bridge first (native predictions, guaranteed accurate)
-        List<LegendTrackerBridge.HomePrediction> ltPredictions = LegendTrackerBridge.isAvailable()
-                ? LegendTrackerBridge.getFullPredictions() : List.of();
-
-        if (!ltPredictions.isEmpty()) {
-            int count = Math.min(ltPredictions.size(), maxResults);
-            for (int i = 0; i < count; i++) {
-                LegendTrackerBridge.HomePrediction p = ltPredictions.get(i);
-                String worldShort = getShortName(p.world());
-                String evStr = String.format("%.1f", p.ev());
-
-                // Sort pokemon by probability descending, show top 3
-                StringBuilder spawns = new StringBuilder();
-                int shown = 0;
-                List<Map.Entry<String, Double>> sorted = new ArrayList<>(p.pokemonProbabilities().entrySet());
-                sorted.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
-                for (Map.Entry<String, Double> e : sorted) {
-                    if (shown >= 3) break;
-                    if (shown > 0) spawns.append(" ");
-                    spawns.append(e.getKey()).append(" ").append(Math.round(e.getValue())).append("%");
-                    shown++;
-                }
-
-                String confirmMark = p.needsConfirmation() ? " §c⚠" : "";
-                String line = "§b#" + (i + 1) + " §f" + p.name() + " §7(" + worldShort + ") §eEV:" + evStr + confirmMark;
-                if (shown > 0) line += "  §7" + spawns;
-                lines.add(line);
-            }
-            lines.add(0, "§8[LegendTracker] §7" + ltPredictions.size() + " homes | "
-                    + formatTime(LegendTrackerBridge.getRemainingSeconds()));
+        PredictionSnapshot ltSnapshot = LegendTrackerBridge.isAvailable()
+                ? LegendTrackerBridge.getSnapshot() : PredictionSnapshot.EMPTY;
+        if (!ltSnapshot.isEmpty()) {
+            PREDICTION_MODEL.updateLegendTracker(ltSnapshot, config.predictionHudMaxResults,
+                    LegendTrackerBridge.getRemainingSeconds());
         } else {
             // Fallback: our own predictor
             List<PredictionResult> results = SpawnPredictor.get().getResults();
             if (results.isEmpty()) return;
-            int count = Math.min(results.size(), maxResults);
-            for (int i = 0; i < count; i++) {
-                PredictionResult r = results.get(i);
-                String worldShort = getShortName(r.home().world());
-                String evStr = String.format("%.1f", r.expectedValue());
-
-                StringBuilder spawns = new StringBuilder();
-                int shown = 0;
-                for (PredictionResult.MatchedSpawn m : r.matchedSpawns()) {
-                    if (m.contribution() <= 0 || shown >= 3) break;
-                    if (shown > 0) spawns.append(" ");
-                    spawns.append(m.pokemonName()).append(" ").append(Math.round(m.probability() * 100)).append("%");
-                    shown++;
-                }
-
-                String line = "§b#" + (i + 1) + " §f" + r.home().key() + " §7(" + worldShort + ") §eEV:" + evStr;
-                if (shown > 0) line += "  §7" + spawns;
-                lines.add(line);
-            }
-            lines.add(0, "§8[Predictor] §7" + results.size() + " homes");
+            PREDICTION_MODEL.updatePredictor(results, config.predictionHudMaxResults);
         }
 
-        if (lines.isEmpty()) return;
+        // Text and widths are only recompiled when the model's lines changed; frames just draw.
+        TextRenderer tr = client.textRenderer;
+        if (compiledVersion != PREDICTION_MODEL.version()) {
+            List<String> lines = PREDICTION_MODEL.lines();
+            compiledLines = new OrderedText[lines.size()];
+            compiledWidths = new int[lines.size()];
+            for (int i = 0; i < lines.size(); i++) {
+                compiledLines[i] = Text.literal(lines.get(i)).asOrderedText();
+                compiledWidths[i] = tr.getWidth(compiledLines[i]);
+            }
+            compiledVersion = PREDICTION_MODEL.version();
+        }
 
+        int screenWidth = client.getWindow().getScaledWidth();
+        int lineHeight = 12;
         int color = config.hudColor;
         int y = (int) (client.getWindow().getScaledHeight() * 0.10);
-        for (String line : lines) {
-            int w = tr.getWidth(line.replaceAll("§.", ""));
-            int x = (screenWidth - w) / 2;
-            drawBg(context, tr, line, x, y, color);
+        for (int i = 0; i < compiledLines.length; i++) {
+            int x = (screenWidth - compiledWidths[i]) / 2;
+            context.fill(x - 2, y - 1, x + compiledWidths[i] + 2, y + 10, 0x88000000);
+            context.drawText(tr, compiledLines[i], x, y, color, true);
             y += lineHeight;
         }
-    }
-
-    private static String formatTime(long totalSeconds) {
-        if (totalSeconds <= 0) return "§c--:--";
-        long m = totalSeconds / 60;
-        long s = totalSeconds % 60;
-        String color = totalSeconds < 60 ? "§c" : totalSeconds < 300 ? "§e" : "§a";
-        return color + String.format("%d:%02d", m, s);
-    }
-
-    private static String getShortName(String worldName) {
-        if (worldName == null) return "?";
-        String lower = worldName.toLowerCase();
-        if (lower.contains("ultra-lune")) return "UL";
-        if (lower.contains("ultra-soleil")) return "US";
-        if (lower.contains("lune")) return "L";
-        if (lower.contains("soleil")) return "S";
-        if (lower.contains("ressources") && lower.contains("nether")) return "R-N";
-        if (lower.contains("ressources") && lower.contains("end")) return "R-E";
-        if (lower.contains("ressources") && lower.contains("overworld")) return "R-OW";
-        if (lower.contains("ressources")) return "R";
-        return worldName.length() > 3 ? worldName.substring(0, 3) : worldName;
-    }
-
-    private static void drawBg(DrawContext context, TextRenderer tr,
-                                String text, int x, int y, int color) {
-        int width = tr.getWidth(text);
-        context.fill(x - 2, y - 1, x + width + 2, y + 10, 0x88000000);
-        context.drawText(tr, text, x, y, color, true);
+        PREDICTION_HUD_NANOS.recordSince(t0);
     }
 }
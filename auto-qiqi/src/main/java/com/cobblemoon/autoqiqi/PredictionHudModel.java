@@ -0,0 +1,145 @@
+package com.cobblemoon.autoqiqi;
+
+import com.cobblemoon.autoqiqi.legendary.predict.LegendTrackerBridge.HomePrediction;
+import com.cobblemoon.autoqiqi.legendary.predict.PredictionResult;
+import com.cobblemoon.autoqiqi.legendary.predict.PredictionSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Retained text of the spawn prediction HUD. Body lines are formatted again only when the prediction
+ * snapshot (LegendTracker snapshot version, or the predictor's result list, replaced on every
+ * recompute) or the max results change; the header only when the displayed timer second changes.
+ * {@link #version()} tells the renderer when its compiled text is out of date.
+ */
+final class PredictionHudModel {
+
+    private static final int SPAWNS_PER_LINE = 3;
+
+    private Object source;
+    private int maxResults = -1;
+    private long second = Long.MIN_VALUE;
+    private String header = "";
+    private List<String> body = List.of();
+    private List<String> lines = List.of();
+    private int version;
+
+    /** Lines for a LegendTracker snapshot; returns true if they changed since the last call. */
+    boolean updateLegendTracker(PredictionSnapshot snapshot, int maxResults, long remainingSeconds) {
+        boolean changed = false;
+        if (!(source instanceof PredictionSnapshot shown) || shown.version() != snapshot.version()
+                || maxResults != this.maxResults) {
+            body = legendTrackerLines(snapshot.homes(), maxResults);
+            changed = true;
+        }
+        if (changed || remainingSeconds != second) {
+            header = "§8[LegendTracker] §7" + snapshot.homes().size() + " homes | " + formatTime(remainingSeconds);
+            changed = true;
+        }
+        return commit(snapshot, maxResults, remainingSeconds, changed);
+    }
+
+    /** Lines for a SpawnPredictor snapshot; returns true if they changed since the last call. */
+    boolean updatePredictor(List<PredictionResult> results, int maxResults) {
+        boolean changed = results != source || maxResults != this.maxResults;
+        if (changed) {
+            body = predictorLines(results, maxResults);
+            header = "§8[Predictor] §7" + results.size() + " homes";
+        }
+        return commit(results, maxResults, Long.MIN_VALUE, changed);
+    }
+
+    /** Header first, then one line per home. */
+    List<String> lines() { return lines; }
+
+    /** Incremented each time {@link #lines()} changes. */
+    int version() { return version; }
+
+    private boolean commit(Object source, int maxResults, long second, boolean changed) {
+        this.source = source;
+        this.maxResults = maxResults;
+        this.second = second;
+        if (!changed) return false;
+        List<String> all = new ArrayList<>(body.size() + 1);
+        all.add(header);
+        all.addAll(body);
+        lines = Collections.unmodifiableList(all);
+        version++;
+        return true;
+    }
+
+    // ========================
+    // Formatting
+    // ========================
+
+    static List<String> legendTrackerLines(List<PredictionSnapshot.RankedHome> homes, int maxResults) {
+        int count = Math.min(homes.size(), maxResults);
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PredictionSnapshot.RankedHome ranked = homes.get(i);
+            HomePrediction p = ranked.home();
+
+            // Spawns come presorted by probability; show top 3
+            StringBuilder spawns = new StringBuilder();
+            int shown = Math.min(ranked.topSpawns().length, SPAWNS_PER_LINE);
+            for (int k = 0; k < shown; k++) {
+                if (k > 0) spawns.append(" ");
+                spawns.append(ranked.topSpawns()[k]).append(" ").append(Math.round(ranked.topPercents()[k])).append("%");
+            }
+
+            String confirmMark = p.needsConfirmation() ? " §c⚠" : "";
+            String line = "§b#" + (i + 1) + " §f" + p.name() + " §7(" + getShortName(p.world()) + ") §eEV:"
+                    + String.format("%.1f", p.ev()) + confirmMark;
+            if (shown > 0) line += "  §7" + spawns;
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    static List<String> predictorLines(List<PredictionResult> results, int maxResults) {
+        int count = Math.min(results.size(), maxResults);
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PredictionResult r = results.get(i);
+
+            StringBuilder spawns = new StringBuilder();
+            int shown = 0;
+            for (PredictionResult.MatchedSpawn m : r.matchedSpawns()) {
+                if (m.contribution() <= 0 || shown >= SPAWNS_PER_LINE) break;
+                if (shown > 0) spawns.append(" ");
+                spawns.append(m.pokemonName()).append(" ").append(Math.round(m.probability() * 100)).append("%");
+                shown++;
+            }
+
+            String line = "§b#" + (i + 1) + " §f" + r.home().key() + " §7(" + getShortName(r.home().world())
+                    + ") §eEV:" + String.format("%.1f", r.expectedValue());
+            if (shown > 0) line += "  §7" + spawns;
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    static String formatTime(long totalSeconds) {
+        if (totalSeconds <= 0) return "§c--:--";
+        long m = totalSeconds / 60;
+        long s = totalSeconds % 60;
+        String color = totalSeconds < 60 ? "§c" : totalSeconds < 300 ? "§e" : "§a";
+        return color + String.format("%d:%02d", m, s);
+    }
+
+    static String getShortName(String worldName) {
+        if (worldName == null) return "?";
+        String lower = worldName.toLowerCase();
+        if (lower.contains("ultra-lune")) return "UL";
+        if (lower.contains("ultra-soleil")) return "US";
+        if (lower.contains("lune")) return "L";
+        if (lower.contains("soleil")) return "S";
+        if (lower.contains("ressources") && lower.contains("nether")) return "R-N";
+        if (lower.contains("ressources") && lower.contains("end")) return "R-E";
+        if (lower.contains("ressources") && lower.contains("overworld")) return "R-OW";
+        if (lower.contains("ressources")) return "R";
+        return worldName.length() > 3 ? worldName.substring(0, 3) : worldName;
+    }
+}
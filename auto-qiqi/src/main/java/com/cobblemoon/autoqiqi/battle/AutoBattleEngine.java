@@ -3,6 +3,8 @@ package com.cobblemoon.autoqiqi.battle;
 import com.cobblemon.mod.common.entity.pokemon.PokemonEntity;
 import com.cobblemoon.autoqiqi.AutoQiqiClient;
 import com.cobblemoon.autoqiqi.common.ChatUtil;
+import com.cobblemoon.autoqiqi.common.ClientCacheFlusher;
+import com.cobblemoon.autoqiqi.common.LineOfSightService;
 import com.cobblemoon.autoqiqi.common.MovementHelper;
 import com.cobblemoon.autoqiqi.common.NextlegAfkHelper;
 import com.cobblemoon.autoqiqi.common.PokemonScanner;
@@ -11,6 +13,9 @@ import com.cobblemoon.autoqiqi.legendary.ChatMessageHandler;
 import com.cobblemoon.autoqiqi.legendary.PokemonWalker;
 import com.cobblemoon.autoqiqi.legendary.WorldTracker;
 import com.cobblemon.mod.common.client.CobblemonClient;
+import com.cobblemoon.scancore.ScanDiff;
+import com.cobblemoon.scancore.ScanEvent;
+import com.cobblemoon.scancore.ScanSighting;
 
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
@@ -166,6 +171,7 @@ public class AutoBattleEngine {
                 battleCount = 0;
             }
             if (mode == BattleMode.OFF) {
+                CaptureQueue.get().stop();
                 if (CaptureEngine.get().isActive()) {
                     CaptureEngine.get().stop();
                     AutoQiqiClient.logDebug("Battle", "CaptureEngine stopped (mode -> OFF)");
@@ -241,6 +247,42 @@ public class AutoBattleEngine {
         engageBlacklist.clear();
     }
 
+    /** Drops target references left in a previous world (dimension change). */
+    public void releaseWorldRefs() {
+        if (ClientCacheFlusher.isFromOtherWorld(target)) target = null;
+        if (ClientCacheFlusher.isFromOtherWorld(lootTarget)) lootTarget = null;
+        if (ClientCacheFlusher.isFromOtherWorld(pendingForceTarget)) pendingForceTarget = null;
+        if (ClientCacheFlusher.isFromOtherWorld(activeLegendaryInBattle)) activeLegendaryInBattle = null;
+    }
+
+    /**
+     * {@link com.cobblemoon.autoqiqi.common.ScanPipeline} listener: forget blacklisted Pokemon that are
+     * gone, and look for a target right away when one worth engaging came into range.
+     */
+    public void onScanChanges(java.util.List<ScanEvent> changes, ScanDiff scan) {
+        boolean wake = false;
+        for (ScanEvent event : changes) {
+            if (event.type() == ScanEvent.Type.LEFT) {
+                // LEFT also covers a Pokemon someone else engaged (no longer wild): keep it blacklisted then
+                if (isGone(event.sighting())) engageBlacklist.remove(event.sighting().id());
+            } else if (mode == BattleMode.BERSERK ? event.type() == ScanEvent.Type.ENTERED
+                    : mode == BattleMode.ROAMING && event.gained(ScanSighting.LEGENDARY)) {
+                wake = true;
+            }
+        }
+        if (wake && target == null) scanTimer = 0;
+    }
+
+    /** True when the sighted entity no longer exists in the current world (despawned, killed, captured, unloaded). */
+    private static boolean isGone(ScanSighting sighting) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.world == null) return true;
+        Entity e = client.world.getEntityById(sighting.id());
+        // Another entity under the same id (new world) is not the blacklisted one
+        return e == null || e.isRemoved() || !e.isAlive()
+                || !sighting.name().equals(PokemonScanner.getPokemonName(e));
+    }
+
     /** Clears accumulated caches without affecting battle state. Called by /pk reset. */
     public void clearCaches() {
         engageBlacklist.clear();
@@ -681,7 +723,7 @@ public class AutoBattleEngine {
             berserkEngageTicks = 0;
             roamingEngageTicks = 0;
 
-            boolean hasLOS = MovementHelper.hasLineOfSight(player, target);
+            boolean hasLOS = LineOfSightService.get().hasLineOfSight(player, target);
 
             if (!hasLOS && losStrafeTicks < 120) {
                 losStrafeTicks++;
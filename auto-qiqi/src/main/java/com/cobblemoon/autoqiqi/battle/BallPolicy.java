@@ -0,0 +1,139 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ball order learned from recorded throws ({@link CaptureOutcome}).
+ * <p>
+ * The catch chance of a ball starts from Cobblemon's capture formula. It is then scaled by a factor per
+ * (ball, level band): caught throws over the catches the formula predicted for the same throws,
+ * smoothed toward 1 with {@link #PRIOR_CATCHES}. The factor absorbs server tweaks and balls whose
+ * bonus is unknown here. A ball's score is its expected cost per capture,
+ * {@code (ball cost + THROW_COST) / chance}, where {@link #THROW_COST} prices the battle turn a throw
+ * spends. The state barely changes between throws (1 HP, same status), so the best score is the best
+ * ball for every remaining throw.
+ * <p>
+ * Ranking uses an upper confidence bound on the factor instead of its mean (UCB): the factor's
+ * posterior is Gamma(caught + prior, predicted + prior), and {@link #order} scores each ball with the
+ * mean plus {@code sqrt(2 ln n)} standard deviations, n being the band's hits. A ball that stopped being
+ * thrown keeps a wide bound while n grows, so it is tried again now and then and its estimate does not
+ * stay frozen on a few unlucky early throws.
+ * <p>
+ * {@link #order} returns null until a level band has {@link #MIN_SAMPLES} hits. Callers then keep
+ * their fixed sequences.
+ */
+public final class BallPolicy {
+
+    /** Hits (caught or broke out) needed in a level band before the learned order replaces the fixed one. */
+    static final int MIN_SAMPLES = 20;
+    /** Pseudo-catches at the formula's prediction, so a few lucky throws don't swing a ball's factor. */
+    static final double PRIOR_CATCHES = 2.0;
+    /** Cost of spending one more turn on a throw, in the units of {@link #BALL_COST}. */
+    static final double THROW_COST = 2.0;
+    /** Species catch rate assumed when the client doesn't know it (Cobblemon's default). */
+    static final int DEFAULT_CATCH_RATE = 45;
+
+    /** Catch rate multipliers of the balls the fixed sequences use (apricorn variants are plain 1×). */
+    private static final Map<String, Double> BALL_BONUS = Map.of(
+            "poke_ball", 1.0, "premier_ball", 1.0,
+            "slate_ball", 1.0, "roseate_ball", 1.0, "verdant_ball", 1.0, "citrine_ball", 1.0, "azure_ball", 1.0,
+            "great_ball", 1.5, "ultra_ball", 2.0);
+    /** Relative price of a ball; unknown balls cost like a Poke Ball. */
+    private static final Map<String, Double> BALL_COST = Map.of(
+            "great_ball", 2.0, "ultra_ball", 4.0);
+    private static final int LEVEL_BANDS = 11;
+
+    /** "ball|band" → {caught, catches predicted by the formula}. */
+    private final Map<String, double[]> calibration;
+    private final int[] bandHits;
+
+    private BallPolicy(Map<String, double[]> calibration, int[] bandHits) {
+        this.calibration = calibration;
+        this.bandHits = bandHits;
+    }
+
+    /**
+     * Policy learned from {@code outcomes}. Misses say nothing about the ball, and throws whose catch
+     * rate was unknown cannot be compared with the formula, so both are ignored.
+     */
+    public static BallPolicy from(List<CaptureOutcome> outcomes) {
+        Map<String, double[]> calibration = new HashMap<>();
+        int[] bandHits = new int[LEVEL_BANDS];
+        for (CaptureOutcome o : outcomes) {
+            if (!o.hit() || !o.knownCatchRate()) continue;
+            int band = band(o.level());
+            bandHits[band]++;
+            double[] c = calibration.computeIfAbsent(o.ball() + "|" + band, k -> new double[2]);
+            if (o.result() == CaptureOutcome.Result.CAUGHT) c[0]++;
+            c[1] += formulaChance(o.catchRate(), o.level(), o.hpPercent(), o.status(), bonus(o.ball()));
+        }
+        return new BallPolicy(calibration, bandHits);
+    }
+
+    /**
+     * Candidate balls from cheapest to most expensive optimistic cost per capture, for a target in this
+     * state; ties keep the candidates' order. Null if the level band has fewer than {@link #MIN_SAMPLES} hits.
+     */
+    public List<String> order(List<String> candidates, int catchRate, int level, int hpPercent,
+                              CaptureOutcome.Status status) {
+        int hits = bandHits[band(level)];
+        if (hits < MIN_SAMPLES) return null;
+        double deviations = Math.sqrt(2 * Math.log(hits));
+        List<String> ranked = new ArrayList<>(candidates);
+        Map<String, Double> score = new HashMap<>();
+        for (String ball : ranked) {
+            double chance = Math.max(1e-4, optimisticChance(ball, catchRate, level, hpPercent, status, deviations));
+            score.put(ball, (cost(ball) + THROW_COST) / chance);
+        }
+        ranked.sort(Comparator.comparingDouble(score::get));
+        return ranked;
+    }
+
+    /** Catch chance of one throw of {@code ball}: formula × learned factor for the level band. */
+    public double chance(String ball, int catchRate, int level, int hpPercent, CaptureOutcome.Status status) {
+        return optimisticChance(ball, catchRate, level, hpPercent, status, 0);
+    }
+
+    /** Catch chance with the factor taken {@code deviations} posterior standard deviations above its mean. */
+    double optimisticChance(String ball, int catchRate, int level, int hpPercent, CaptureOutcome.Status status,
+                            double deviations) {
+        double formula = formulaChance(catchRate, level, hpPercent, status, bonus(ball));
+        double[] c = calibration.get(ball + "|" + band(level));
+        double shape = (c == null ? 0 : c[0]) + PRIOR_CATCHES;
+        double rate = (c == null ? 0 : c[1]) + PRIOR_CATCHES;
+        double factor = (shape + deviations * Math.sqrt(shape)) / rate;
+        return Math.min(1.0, formula * factor);
+    }
+
+    /**
+     * Cobblemon's capture formula (Gen 8 shape): modified rate
+     * {@code (3·max − 2·hp) / (3·max) · catchRate · ball · status · lowLevelBonus}, then four shake checks
+     * of {@code 65536 / (255 / rate)^(3/16)} each. Certain from a modified rate of 255.
+     */
+    static double formulaChance(int catchRate, int level, int hpPercent, CaptureOutcome.Status status, double ballBonus) {
+        int rate = catchRate > 0 ? catchRate : DEFAULT_CATCH_RATE;
+        double hp = Math.max(0, Math.min(hpPercent, 100)) / 100.0;
+        double lowLevelBonus = level < 20 ? (30 - level) / 10.0 : 1.0;
+        double modified = (1 - 2 * hp / 3) * rate * ballBonus * status.bonus() * lowLevelBonus;
+        if (modified >= 255) return 1.0;
+        if (modified <= 0) return 0.0;
+        double shake = 65536 / Math.pow(255 / modified, 0.1875);
+        return Math.pow(Math.min(1.0, shake / 65536), 4);
+    }
+
+    static double bonus(String ball) {
+        return BALL_BONUS.getOrDefault(ball, 1.0);
+    }
+
+    static double cost(String ball) {
+        return BALL_COST.getOrDefault(ball, 1.0);
+    }
+
+    private static int band(int level) {
+        return Math.max(0, Math.min(level / 10, LEVEL_BANDS - 1));
+    }
+}
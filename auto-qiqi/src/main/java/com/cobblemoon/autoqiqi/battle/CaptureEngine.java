@@ -10,13 +10,19 @@ import com.cobblemon.mod.common.client.gui.battle.subscreen.BattleSwitchPokemonS
 import com.cobblemon.mod.common.client.gui.battle.subscreen.BattleSwitchPokemonSelection.SwitchTile;
 import com.cobblemoon.autoqiqi.AutoQiqiClient;
 import com.cobblemoon.autoqiqi.common.ChatUtil;
+import com.cobblemoon.autoqiqi.common.ClientCacheFlusher;
 import com.cobblemoon.autoqiqi.common.PokemonScanner;
 import com.cobblemoon.autoqiqi.config.AutoQiqiConfig;
+import com.cobblemoon.autoqiqi.common.LineOfSightService;
+import com.cobblemoon.autoqiqi.common.Metrics;
 import com.cobblemoon.autoqiqi.common.MovementHelper;
 import com.cobblemoon.autoqiqi.common.SessionLogger;
+import com.cobblemoon.autoqiqi.common.SpeciesKey;
+import com.cobblemoon.autoqiqi.common.ThrowPositionSolver;
 import com.cobblemoon.autoqiqi.legendary.PokemonWalker;
 
 import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.client.option.KeyBinding;
 import net.minecraft.client.util.InputUtil;
 import net.minecraft.entity.Entity;
@@ -29,6 +35,7 @@ import net.minecraft.util.hit.EntityHitResult;
 import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.Vec3d;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -87,6 +94,13 @@ public class CaptureEngine {
     private static final int AIM_BEFORE_THROW_TICKS = 8;
     private static final double MIN_THROW_DISTANCE = 4.5;
     private static final int MAX_BACKUP_TICKS = 40;
+    /** Solver runs per throw (or engagement) before falling back to strafing / backing up. */
+    private static final int MAX_THROW_SPOT_SOLVES = 3;
+    /** Walking budget to reach one solved throw position. */
+    private static final int MAX_THROW_SPOT_TICKS = 60;
+    /** Keep solved positions this far inside the engage range, so arriving doesn't abort the throw. */
+    private static final double THROW_SPOT_RANGE_MARGIN = 0.5;
+    private static final double THROW_SPOT_ARRIVED_SQ = 0.3 * 0.3;
     private static final int MISS_TIMEOUT_TICKS = 240;
     private static final long BALL_HIT_WALL_CLOCK_TIMEOUT_MS = 20_000;
     private static final int MAX_MISSES = 6;
@@ -95,12 +109,23 @@ public class CaptureEngine {
     private static final long IN_BATTLE_IDLE_TIMEOUT_MS = 15_000;
     private static final int MAX_PICKUP_TICKS = 20 * 10;
 
+    private static final Metrics.Histogram BATTLE_TO_FIRST_HIT_NANOS = Metrics.histogram("capture.battleToFirstHit");
+    private static final Metrics.Histogram THROW_SPOT_WALK_NANOS = Metrics.histogram("capture.throwPositionWalk");
+    private static final Metrics.Counter THROW_SPOT_MISSES = Metrics.counter("capture.throwPositionNone");
+    private static final Metrics.Counter CAUGHT = Metrics.counter("capture.caught");
+
     /** Pokemon names that recently failed capture -> timestamp (ms). Prevents immediate retry after escape. */
     private static final Map<String, Long> recentlyFailedCaptures = new ConcurrentHashMap<>();
 
     /** Clears accumulated capture caches. Called by /pk reset. */
     public static void clearCaches() { recentlyFailedCaptures.clear(); }
 
+    /** Drops the session target if it was left in a previous world (dimension change); the session then sees it as gone. */
+    public void releaseWorldRefs() {
+        CaptureSession s = session;
+        if (s != null && ClientCacheFlusher.isFromOtherWorld(s.targetEntity)) s.targetEntity = null;
+    }
+
     private static final BallEntry[] LOW_LEVEL_BALLS = {
             new BallEntry("premier_ball", 3),
             new BallEntry("slate_ball", 3),
@@ -159,6 +184,7 @@ public class CaptureEngine {
         s.phase = (entity != null) ? Phase.WALKING : Phase.IN_BATTLE;
         s.captureStartMs = System.currentTimeMillis();
         s.resetBattleAndBallState();
+        if (s.phase == Phase.IN_BATTLE) s.battleStartNanos = System.nanoTime();
         s.statusMessage = "Capture: " + name + " Lv." + level;
         this.session = s;
         AutoQiqiClient.logDebug("Capture", "Started for " + name + " Lv." + level
@@ -181,6 +207,7 @@ public class CaptureEngine {
                 client.options.forwardKey.setPressed(false);
                 MovementHelper.stopStrafe(client);
             }
+            session.throwSpot = null;
             if (session.pendingKeyRelease != null) {
                 KeyBinding.setKeyPressed(session.pendingKeyRelease, false);
                 session.pendingKeyRelease = null;
@@ -213,6 +240,9 @@ public class CaptureEngine {
     }
 
 
+    /** Captures confirmed since launch. */
+    public static long caughtCount() { return CAUGHT.get(); }
+
     public boolean isActive() { return session != null; }
     public Phase getPhase() { return session != null ? session.phase : Phase.IDLE; }
     public String getStatusMessage() { return session != null ? session.statusMessage : ""; }
@@ -271,6 +301,8 @@ public class CaptureEngine {
         CaptureSession s = session;
         if (s == null) return;
         AutoQiqiClient.logDebug("Capture", "CAPTURE CONFIRMED via chat: " + pokemonName);
+        CAUGHT.increment();
+        resolveThrow(s, CaptureOutcome.Result.CAUGHT);
         MinecraftClient client = MinecraftClient.getInstance();
         if (client.player != null) {
             client.player.sendMessage(
@@ -386,6 +418,7 @@ public class CaptureEngine {
             if (screenName.toLowerCase().contains("battle")) {
                 s.reengagePending = false;
                 s.phase = Phase.IN_BATTLE;
+                onBattleEntered(s, client);
                 s.statusMessage = "In battle - " + s.targetName;
                 AutoQiqiClient.logDebug("Capture", "ENGAGING->IN_BATTLE (battle screen detected)");
                 SessionLogger.get().logEvent("BATTLE", "Engaged: " + s.targetName + " Lv." + s.targetLevel);
@@ -404,6 +437,7 @@ public class CaptureEngine {
         if (CobblemonClient.INSTANCE.getBattle() != null && s.phase != Phase.IN_BATTLE) {
             s.reengagePending = false;
             s.phase = Phase.IN_BATTLE;
+            onBattleEntered(s, client);
             s.statusMessage = "In battle - " + s.targetName;
             AutoQiqiClient.logDebug("Capture", "ENGAGING->IN_BATTLE (CobblemonClient.getBattle() != null)");
             SessionLogger.get().logEvent("BATTLE", "Engaged: " + s.targetName + " Lv." + s.targetLevel);
@@ -422,6 +456,7 @@ public class CaptureEngine {
         double dist = client.player.distanceTo(s.targetEntity);
         if (dist > s.currentEngageRange) {
             MovementHelper.stopStrafe(client);
+            clearThrowSpot(s, client);
             s.losStrafeTicks = 0;
             AutoQiqiClient.logDebug("Capture", "ENGAGING->WALKING target moved away (dist=" + String.format("%.1f", dist) + ")");
             s.phase = Phase.WALKING;
@@ -442,14 +477,26 @@ public class CaptureEngine {
         }
         client.options.backKey.setPressed(false);
 
-        boolean hasLOS = MovementHelper.hasLineOfSight(client.player, s.targetEntity);
+        // Walk straight to a solved position with a clear line; strafe only if the solver finds none
+        if (tickThrowPosition(s, client, ENGAGE_RANGE_TOO_CLOSE, false)) {
+            s.aimTicks = 0;
+            s.keySent = false;
+            return;
+        }
+
+        LineOfSightService los = LineOfSightService.get();
+        boolean hasLOS = los.hasLineOfSight(client.player, s.targetEntity);
 
         if (!hasLOS) {
             s.losStrafeTicks++;
             if (s.losStrafeTicks == 1) {
                 AutoQiqiClient.logDebug("Capture", "No LOS to target, strafing to find clear angle");
             }
-            if (s.losStrafeTicks % LOS_STRAFE_SWITCH_TICKS == 0) {
+            // Head for the nearest side with a clear line; sweep back and forth only if neither has one
+            int clearSide = los.strafeDirectionToClear(client.player, s.targetEntity);
+            if (clearSide != 0) {
+                s.losStrafeDir = clearSide;
+            } else if (s.losStrafeTicks % LOS_STRAFE_SWITCH_TICKS == 0) {
                 s.losStrafeDir = -s.losStrafeDir;
             }
             if (s.losStrafeTicks > LOS_MAX_STRAFE_TICKS) {
@@ -587,6 +634,82 @@ public class CaptureEngine {
         return cachedSendOutKey;
     }
 
+    // ========================
+    // Throw position
+    // ========================
+
+    /** Battle just started: start the battle → first hit clock, drop any engagement walk. */
+    private void onBattleEntered(CaptureSession s, MinecraftClient client) {
+        if (s.battleStartNanos == 0) s.battleStartNanos = System.nanoTime();
+        clearThrowSpot(s, client);
+    }
+
+    /**
+     * Walks straight to a position from {@link ThrowPositionSolver} while the current one is closer than
+     * {@code minDistance} to the target or has no clear line (blocks, and other Pokemon when
+     * {@code checkEntities}). Returns true while it moves the player; false once the position is fine, or
+     * when the solver found nothing {@link #MAX_THROW_SPOT_SOLVES} times, leaving the strafe / back-up
+     * fallbacks to the caller.
+     */
+    private boolean tickThrowPosition(CaptureSession s, MinecraftClient client, double minDistance, boolean checkEntities) {
+        ClientPlayerEntity player = client.player;
+        LineOfSightService los = LineOfSightService.get();
+        double dist = player.distanceTo(s.targetEntity);
+        boolean tooClose = dist < minDistance && dist < s.currentEngageRange - THROW_SPOT_RANGE_MARGIN;
+        boolean blocked = !los.hasLineOfSight(player, s.targetEntity)
+                || (checkEntities && los.getEntityBlockingThrow(player, s.targetEntity) != null);
+        if (!tooClose && !blocked) {
+            if (s.throwSpot != null) {
+                THROW_SPOT_WALK_NANOS.recordSince(s.throwSpotStartNanos);
+                AutoQiqiClient.logDebug("Capture", "Throw position reached after " + s.throwSpotTicks
+                        + " ticks (dist=" + String.format("%.1f", dist) + ")");
+                clearThrowSpot(s, client);
+            }
+            s.throwSpotSolves = 0;
+            return false;
+        }
+
+        if (s.throwSpot == null) {
+            if (s.throwSpotSolves >= MAX_THROW_SPOT_SOLVES) return false;
+            s.throwSpotSolves++;
+            s.throwSpot = los.findThrowPosition(player, s.targetEntity, minDistance,
+                    s.currentEngageRange - THROW_SPOT_RANGE_MARGIN, checkEntities);
+            if (s.throwSpot == null) {
+                THROW_SPOT_MISSES.increment();
+                s.throwSpotSolves = MAX_THROW_SPOT_SOLVES;
+                AutoQiqiClient.logDebug("Capture", "No throw position around " + s.targetName
+                        + " (" + (tooClose ? "too close" : "no clear line") + "), falling back to strafing");
+                return false;
+            }
+            s.throwSpotTicks = 0;
+            s.throwSpotStartNanos = System.nanoTime();
+            AutoQiqiClient.logDebug("Capture", "Throw position " + String.format("(%.1f, %.1f, %.1f)",
+                    s.throwSpot.x(), s.throwSpot.y(), s.throwSpot.z()) + " cost=" + String.format("%.1f", s.throwSpot.cost())
+                    + " (" + (tooClose ? "too close, dist=" + String.format("%.1f", dist) : "no clear line") + ")");
+        }
+
+        ThrowPositionSolver.Spot spot = s.throwSpot;
+        double dx = spot.x() - player.getX();
+        double dz = spot.z() - player.getZ();
+        if (dx * dx + dz * dz < THROW_SPOT_ARRIVED_SQ || ++s.throwSpotTicks > MAX_THROW_SPOT_TICKS) {
+            // Arrived (or stuck) and still blocked: something moved since the solve; solve again next tick
+            AutoQiqiClient.logDebug("Capture", "Throw position still blocked after " + s.throwSpotTicks + " ticks, re-solving");
+            clearThrowSpot(s, client);
+            return true;
+        }
+        MovementHelper.lookAtEntity(player, s.targetEntity, AIM_YAW_SPEED, AIM_PITCH_SPEED);
+        MovementHelper.moveTowardWhileFacing(client, player, spot.x(), spot.z());
+        s.statusMessage = "Moving to throw position...";
+        return true;
+    }
+
+    private void clearThrowSpot(CaptureSession s, MinecraftClient client) {
+        if (s.throwSpot == null) return;
+        s.throwSpot = null;
+        s.throwSpotTicks = 0;
+        if (client != null) MovementHelper.releaseMovementKeys(client);
+    }
+
     // ========================
     // Ball throw tick (called from main tick loop)
     // ========================
@@ -616,6 +739,7 @@ public class CaptureEngine {
             s.retryThrowPending = false;
             client.options.backKey.setPressed(false);
             MovementHelper.stopStrafe(client);
+            clearThrowSpot(s, client);
             AutoQiqiClient.logDebug("Capture", "Battle ended during throw phase, cancelling");
             return;
         }
@@ -625,7 +749,7 @@ public class CaptureEngine {
         s.throwTicksRemaining--;
         if (s.throwTicksRemaining > 0) return;
 
-        // Phase 0: back up if too close
+        // Phase 0: walk to a solved throw position if too close or blocked; else back up / strafe (below)
         if (s.targetEntity != null && s.targetEntity.isAlive() && !s.targetEntity.isRemoved()) {
             double dist = client.player.distanceTo(s.targetEntity);
             if (dist > s.currentEngageRange) {
@@ -637,10 +761,15 @@ public class CaptureEngine {
                 s.throwAimTicks = 0;
                 client.options.backKey.setPressed(false);
                 MovementHelper.stopStrafe(client);
+                clearThrowSpot(s, client);
                 AutoQiqiClient.logDebug("Capture", "Too far from target during throw (dist=" + String.format("%.1f", dist)
                         + " > " + s.currentEngageRange + "), aborting");
                 return;
             }
+            if (tickThrowPosition(s, client, MIN_THROW_DISTANCE, true)) {
+                s.throwAimTicks = 0;
+                return;
+            }
             if (dist < MIN_THROW_DISTANCE && dist < s.currentEngageRange - 0.5 && s.backupTicks < MAX_BACKUP_TICKS) {
                 if (!s.backingUp) {
                     s.backingUp = true;
@@ -664,14 +793,20 @@ public class CaptureEngine {
 
         ClientBattle battle = CobblemonClient.INSTANCE.getBattle();
         if (battle != null && !battle.getMinimised() && s.targetEntity != null && s.targetEntity.isAlive() && !s.targetEntity.isRemoved()) {
-            Entity blocker = MovementHelper.getEntityBlockingThrow(client.player, s.targetEntity);
+            LineOfSightService los = LineOfSightService.get();
+            Entity blocker = los.getEntityBlockingThrow(client.player, s.targetEntity);
             if (blocker != null && s.entityObstructionStrafeTicks < ENTITY_OBSTRUCTION_MAX_STRAFE) {
                 if (s.entityObstructionStrafeTicks == 0) {
                     String blockerName = PokemonScanner.getPokemonName(blocker);
                     AutoQiqiClient.logDebug("Capture", "getEntityBlockingThrow: " + blockerName
                             + " (dist=" + String.format("%.1f", client.player.distanceTo(blocker)) + ")");
                     s.entityObstructionIsOurPokemon = PokemonScanner.isPlayerOwned(blocker);
-                    if (s.entityObstructionIsOurPokemon) {
+                    int clearSide = los.strafeDirectionToClear(client.player, s.targetEntity);
+                    if (clearSide != 0) {
+                        s.losStrafeDir = clearSide;
+                        AutoQiqiClient.logDebug("Capture", "Throw blocked by " + blockerName
+                                + ", clear line " + (clearSide > 0 ? "left" : "right"));
+                    } else if (s.entityObstructionIsOurPokemon) {
                         s.losStrafeDir = MovementHelper.getPreferredStrafeDirectionToAvoidBlocker(
                                 client.player, s.targetEntity, blocker);
                         AutoQiqiClient.logDebug("Capture", "Our Pokemon blocking throw: " + blockerName
@@ -685,7 +820,8 @@ public class CaptureEngine {
                 }
                 s.entityObstructionStrafeTicks++;
                 if (!s.entityObstructionIsOurPokemon
-                        && s.entityObstructionStrafeTicks == ENTITY_OBSTRUCTION_SWITCH_DIR_TICKS) {
+                        && s.entityObstructionStrafeTicks == ENTITY_OBSTRUCTION_SWITCH_DIR_TICKS
+                        && los.strafeDirectionToClear(client.player, s.targetEntity) == 0) {
                     s.losStrafeDir = -s.losStrafeDir;
                     AutoQiqiClient.logDebug("Capture", "Quarter-circle blocked, reversing to "
                             + (s.losStrafeDir > 0 ? "left" : "right"));
@@ -705,10 +841,13 @@ public class CaptureEngine {
         if (s.targetEntity != null && s.targetEntity.isAlive() && !s.targetEntity.isRemoved()) {
             MovementHelper.lookAtEntity(client.player, s.targetEntity, AIM_YAW_SPEED, AIM_PITCH_SPEED);
 
-            boolean hasLOS = MovementHelper.hasLineOfSight(client.player, s.targetEntity);
+            LineOfSightService los = LineOfSightService.get();
+            boolean hasLOS = los.hasLineOfSight(client.player, s.targetEntity);
             if (!hasLOS && s.throwAimTicks < AIM_BEFORE_THROW_TICKS + 60) {
                 s.losStrafeTicks++;
-                if (s.losStrafeTicks % LOS_STRAFE_SWITCH_TICKS == 0) s.losStrafeDir = -s.losStrafeDir;
+                int clearSide = los.strafeDirectionToClear(client.player, s.targetEntity);
+                if (clearSide != 0) s.losStrafeDir = clearSide;
+                else if (s.losStrafeTicks % LOS_STRAFE_SWITCH_TICKS == 0) s.losStrafeDir = -s.losStrafeDir;
                 MovementHelper.strafeSideways(client, s.targetEntity, client.player, s.losStrafeDir);
                 s.throwAimTicks++;
                 return;
@@ -761,6 +900,7 @@ public class CaptureEngine {
         // Phase 3: throw
         AutoQiqiClient.logDebug("Capture", "Throwing ball (aimed for " + s.throwAimTicks + " ticks)");
         if (client.interactionManager != null) {
+            s.pendingOutcome = throwContext(s, net.minecraft.registry.Registries.ITEM.getId(client.player.getMainHandStack().getItem()).getPath());
             client.interactionManager.interactItem(client.player, Hand.MAIN_HAND);
             com.cobblemoon.autoqiqi.common.SessionLogger.get().logBallThrow(
                     s.targetName, s.pendingBallName != null ? s.pendingBallName : "unknown", s.totalBallsThrown);
@@ -772,6 +912,7 @@ public class CaptureEngine {
         s.backingUp = false;
         s.backupTicks = 0;
         s.entityObstructionStrafeTicks = 0;
+        s.throwSpotSolves = 0;
         s.lastThrowTimeMs = System.currentTimeMillis();
 
         s.waitingForBallHit = true;
@@ -781,22 +922,28 @@ public class CaptureEngine {
     }
 
     private int findBallInHotbar(MinecraftClient client, String ballName) {
+        int slot = hotbarSlotOf(client, ballName);
+        if (slot != -1) return slot;
+        // Log what we were looking for and what's actually in the hotbar
+        AutoQiqiClient.logDebug("Capture", "Ball search FAILED for '" + ballName + "'. Hotbar contents:");
         for (int i = 0; i < 9; i++) {
             ItemStack stack = client.player.getInventory().getStack(i);
             if (!stack.isEmpty()) {
-                Identifier itemId = net.minecraft.registry.Registries.ITEM.getId(stack.getItem());
-                if (itemId.getPath().equals(ballName)) {
-                    return i;
-                }
+                Identifier id = net.minecraft.registry.Registries.ITEM.getId(stack.getItem());
+                AutoQiqiClient.logDebug("Capture", "  slot " + i + ": " + id.getNamespace() + ":" + id.getPath() + " x" + stack.getCount());
             }
         }
-        // Log what we were looking for and what's actually in the hotbar
-        AutoQiqiClient.logDebug("Capture", "Ball search FAILED for '" + ballName + "'. Hotbar contents:");
+        return -1;
+    }
+
+    private static int hotbarSlotOf(MinecraftClient client, String ballName) {
         for (int i = 0; i < 9; i++) {
             ItemStack stack = client.player.getInventory().getStack(i);
             if (!stack.isEmpty()) {
-                Identifier id = net.minecraft.registry.Registries.ITEM.getId(stack.getItem());
-                AutoQiqiClient.logDebug("Capture", "  slot " + i + ": " + id.getNamespace() + ":" + id.getPath() + " x" + stack.getCount());
+                Identifier itemId = net.minecraft.registry.Registries.ITEM.getId(stack.getItem());
+                if (itemId.getPath().equals(ballName)) {
+                    return i;
+                }
             }
         }
         return -1;
@@ -840,6 +987,7 @@ public class CaptureEngine {
             s.waitingForBallHit = false;
             s.throwWaitTicks = 0;
             s.ballHitJustConfirmed = false;
+            s.pendingOutcome = null;
             reengageTarget(s, "ball wait wall-clock timeout");
             return;
         }
@@ -852,6 +1000,7 @@ public class CaptureEngine {
             chatBall("Tick timeout " + (MISS_TIMEOUT_TICKS / 20) + "s → Ball MISSED (" + s.missCount + "/" + MAX_MISSES + ")");
             client.player.sendMessage(
                     Text.literal("§6[Capture]§r §eBall rate ! (" + s.missCount + "/" + MAX_MISSES + ")"), false);
+            resolveThrow(s, CaptureOutcome.Result.MISSED);
 
             s.waitingForBallHit = false;
             s.throwWaitTicks = 0;
@@ -875,12 +1024,29 @@ public class CaptureEngine {
     public void onBallHitConfirmed() {
         CaptureSession s = session;
         if (s != null && s.waitingForBallHit) {
+            // Battle resumed after a hit: the Pokemon broke out (no-op if the capture packet already resolved it)
+            resolveThrow(s, CaptureOutcome.Result.BROKE_OUT);
             AutoQiqiClient.logDebug("Capture", "Ball HIT confirmed (wait=" + s.throwWaitTicks + " ticks)");
             chatBall("Ball HIT confirmed (wait=" + s.throwWaitTicks + " ticks)");
             s.waitingForBallHit = false;
             s.throwWaitTicks = 0;
             s.missCount = 0;
             s.ballHitJustConfirmed = true;
+            if (!s.firstHitRecorded && s.battleStartNanos != 0) {
+                BATTLE_TO_FIRST_HIT_NANOS.recordSince(s.battleStartNanos);
+                s.firstHitRecorded = true;
+            }
+        }
+    }
+
+    /**
+     * Called by the capture-end packet mixin before {@link #onBallHitConfirmed()}: the server's verdict
+     * on the ball that hit.
+     */
+    public void onCaptureAttemptEnded(boolean succeeded) {
+        CaptureSession s = session;
+        if (s != null && s.waitingForBallHit) {
+            resolveThrow(s, succeeded ? CaptureOutcome.Result.CAUGHT : CaptureOutcome.Result.BROKE_OUT);
         }
     }
 
@@ -1105,8 +1271,8 @@ public class CaptureEngine {
 
         s.decisionCount++;
         String activeName = getActivePokemonName();
-        boolean hasFalseSwipe = activePokemonHasMove("falseswipe");
-        boolean hasThunderWave = activePokemonHasMove("thunderwave");
+        boolean hasFalseSwipe = activePokemonHasMove(MoveTable.FLAG_FALSE_SWIPE);
+        boolean hasThunderWave = activePokemonHasMove(MoveTable.FLAG_THUNDER_WAVE);
         AutoQiqiClient.logDebug("Capture", "Active=" + activeName
                 + " hasFalseSwipe=" + hasFalseSwipe + " hasThunderWave=" + hasThunderWave);
         BattleSnapshot battle = new BattleSnapshot(
@@ -1135,7 +1301,10 @@ public class CaptureEngine {
             s.decisionCount
         );
 
+        long decideStart = System.nanoTime();
         CaptureDecision decision = CaptureStrategy.decide(sessionSnapshot, battle, forceSwitch, trapped);
+        DecisionRecorder.get().recordCapture(sessionSnapshot, battle, forceSwitch, trapped, decision,
+                System.nanoTime() - decideStart);
 
         if (decision.giveUp()) {
             AutoQiqiClient.logDebug("Capture", "Legendary: " + s.totalBallsThrown + " balls thrown, giving up — killing " + s.targetName);
@@ -1234,6 +1403,16 @@ public class CaptureEngine {
             return "master_ball";
         }
 
+        String learned = learnedBall(s);
+        if (learned != null) {
+            s.statusMessage = formatBallName(learned) + " (learned)";
+            AutoQiqiClient.logDebug("Capture", "Throwing " + learned + " (ball policy)");
+            s.totalBallsThrown++;
+            if (learned.equals("great_ball")) s.greatBallsThrown++;
+            if (learned.equals("ultra_ball")) s.ultraBallsThrown++;
+            return learned;
+        }
+
         if (s.ballSequenceIndex >= s.activeBallSequence.length) {
             s.statusMessage = "Ultra Ball #" + (s.ultraBallsThrown + 1);
             s.ultraBallsThrown++;
@@ -1259,6 +1438,43 @@ public class CaptureEngine {
         return entry.name;
     }
 
+    /**
+     * Ball from {@link BallPolicy} for the target's current state, among the balls of the session's
+     * fixed sequence: the best ranked one in the hotbar (else the best overall). Null while the policy
+     * has too few samples for this level, so the fixed sequence is used.
+     */
+    private String learnedBall(CaptureSession s) {
+        List<String> candidates = new ArrayList<>();
+        for (BallEntry entry : s.activeBallSequence) {
+            if (!candidates.contains(entry.name)) candidates.add(entry.name);
+        }
+        CaptureOutcome state = throwContext(s, null);
+        List<String> order = CaptureOutcomeStore.get().policy().order(candidates,
+                state.catchRate(), state.level(), state.hpPercent(), state.status());
+        if (order == null) return null;
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player != null) {
+            for (String ball : order) {
+                if (hotbarSlotOf(client, ball) != -1) return ball;
+            }
+        }
+        return order.get(0);
+    }
+
+    /** Capture formula inputs for a throw of {@code ball} now (result unknown yet). */
+    private CaptureOutcome throwContext(CaptureSession s, String ball) {
+        float hp = getOpponentHpPercent();
+        return new CaptureOutcome(getOpponentCatchRate(), s.targetLevel, hp < 0 ? 100 : Math.round(hp),
+                CaptureOutcome.Status.of(getOpponentStatus()), ball, s.decisionCount, null);
+    }
+
+    /** Stores the pending throw with its result, once. */
+    private void resolveThrow(CaptureSession s, CaptureOutcome.Result result) {
+        if (s.pendingOutcome == null) return;
+        CaptureOutcomeStore.get().record(s.pendingOutcome.withResult(result));
+        s.pendingOutcome = null;
+    }
+
     // ========================
     // Move selection: called by BattleMoveSelectionMixin
     // ========================
@@ -1284,19 +1500,19 @@ public class CaptureEngine {
             return null;
         }
 
-        String target = (s.currentAction == CaptureAction.THUNDER_WAVE)
-                ? "thunder wave" : "false swipe";
+        boolean thunderWave = s.currentAction == CaptureAction.THUNDER_WAVE;
+        int targetFlag = thunderWave ? MoveTable.FLAG_THUNDER_WAVE : MoveTable.FLAG_FALSE_SWIPE;
+        String target = thunderWave ? "thunder wave" : "false swipe";
         AutoQiqiClient.logDebug("Capture", "MoveSelection: looking for '" + target + "' among " + availableMoves);
 
         for (MoveTile tile : selectableTiles) {
-            String moveName = tile.getMove().getMove().toLowerCase();
-            if (moveName.contains(target)) {
-                if (target.equals("false swipe") && (moveName.contains("false swipe") || moveName.contains("chage"))) {
+            if (MoveTable.has(MoveTable.id(tile.getMove().getMove()), targetFlag)) {
+                if (!thunderWave) {
                     s.falseSwipeUsedThisBattle = true;
                     s.falseSwipeCount++;
                 }
                 AutoQiqiClient.logDebug("Capture", "Using move: " + tile.getMove().getMove()
-                        + (target.equals("false swipe") ? " (#" + s.falseSwipeCount + ", HP before=" + f(s.lastOppHpBeforeFalseSwipe) + "%)" : ""));
+                        + (!thunderWave ? " (#" + s.falseSwipeCount + ", HP before=" + f(s.lastOppHpBeforeFalseSwipe) + "%)" : ""));
                 return tile;
             }
         }
@@ -1319,15 +1535,15 @@ public class CaptureEngine {
         AutoQiqiClient.logDebug("Capture", "SwitchFromTiles: action=" + s.currentAction + " available=" + allSpecies);
 
         if (s.currentAction == CaptureAction.SWITCH_FOR_FALSE_SWIPE) {
-            return findTileWithMove(availableTiles, "falseswipe", FALSE_SWIPE_PREFERENCE, "False Swipe");
+            return findTileWithMove(availableTiles, MoveTable.FLAG_FALSE_SWIPE, FALSE_SWIPE_PREFERENCE, "False Swipe");
         }
         if (s.currentAction == CaptureAction.SWITCH_FOR_THUNDER_WAVE) {
-            return findTileWithMove(availableTiles, "thunderwave", java.util.List.of(), "Thunder Wave");
+            return findTileWithMove(availableTiles, MoveTable.FLAG_THUNDER_WAVE, java.util.List.of(), "Thunder Wave");
         }
 
         // SWITCH_TANK: pick a Pokemon that has neither False Swipe nor Thunder Wave
         for (SwitchTile tile : availableTiles) {
-            if (!pokemonHasMove(tile.getPokemon(), "falseswipe") && !pokemonHasMove(tile.getPokemon(), "thunderwave")) {
+            if (!pokemonHasMove(tile.getPokemon(), MoveTable.FLAG_FALSE_SWIPE | MoveTable.FLAG_THUNDER_WAVE)) {
                 String species = tileSpecies(tile);
                 AutoQiqiClient.logDebug("Capture", "Switching to tank: " + species + " (has neither False Swipe nor Thunder Wave)");
                 return tile;
@@ -1337,10 +1553,10 @@ public class CaptureEngine {
         return null;
     }
 
-    private SwitchTile findTileWithMove(List<SwitchTile> tiles, String moveNameNormalized, java.util.List<String> speciesPreference, String moveDisplayName) {
+    private SwitchTile findTileWithMove(List<SwitchTile> tiles, int moveFlag, java.util.List<String> speciesPreference, String moveDisplayName) {
         java.util.List<SwitchTile> candidates = new java.util.ArrayList<>();
         for (SwitchTile tile : tiles) {
-            if (pokemonHasMove(tile.getPokemon(), moveNameNormalized)) {
+            if (pokemonHasMove(tile.getPokemon(), moveFlag)) {
                 candidates.add(tile);
             }
         }
@@ -1371,9 +1587,9 @@ public class CaptureEngine {
 
     private static String tileSpecies(SwitchTile tile) {
         try {
-            return tile.getPokemon().getSpecies().getName().toLowerCase();
+            return SpeciesKey.of(tile.getPokemon().getSpecies());
         } catch (Exception e) {
-            return tile.getPokemon().getDisplayName(false).getString().toLowerCase();
+            return SpeciesKey.of(tile.getPokemon().getDisplayName(false).getString());
         }
     }
 
@@ -1382,11 +1598,10 @@ public class CaptureEngine {
     // ========================
 
     /**
-     * Checks if a Pokemon has a move whose normalized name contains the given fragment.
-     * Move names are normalized: lowercased and non-alphanumeric chars removed.
+     * Checks if a Pokemon has a move carrying any of the given {@link MoveTable} flags
+     * (e.g. {@link MoveTable#FLAG_FALSE_SWIPE}).
      */
-    @SuppressWarnings("unchecked")
-    static boolean pokemonHasMove(com.cobblemon.mod.common.pokemon.Pokemon pokemon, String moveNameNormalized) {
+    static boolean pokemonHasMove(com.cobblemon.mod.common.pokemon.Pokemon pokemon, int moveFlags) {
         try {
             Object moveSetObj = pokemon.getClass().getMethod("getMoveSet").invoke(pokemon);
             java.util.List<?> moves = (java.util.List<?>) moveSetObj.getClass()
@@ -1395,9 +1610,8 @@ public class CaptureEngine {
                 if (moveObj == null) continue;
                 try {
                     var tpl = moveObj.getClass().getMethod("getTemplate").invoke(moveObj);
-                    String name = ((String) tpl.getClass().getMethod("getName").invoke(tpl))
-                            .toLowerCase().replaceAll("[^a-z0-9]", "");
-                    if (name.contains(moveNameNormalized)) return true;
+                    String name = (String) tpl.getClass().getMethod("getName").invoke(tpl);
+                    if (MoveTable.has(MoveTable.id(name), moveFlags)) return true;
                 } catch (Exception ignored) {}
             }
         } catch (Exception e) {
@@ -1409,7 +1623,7 @@ public class CaptureEngine {
     /**
      * Checks if the current active battle Pokemon has a move (by looking up from party).
      */
-    private boolean activePokemonHasMove(String moveNameNormalized) {
+    private boolean activePokemonHasMove(int moveFlags) {
         try {
             String activeName = getActivePokemonName();
             if (activeName == null) return false;
@@ -1422,7 +1636,7 @@ public class CaptureEngine {
             for (com.cobblemon.mod.common.pokemon.Pokemon p : slots) {
                 if (p != null && p.getCurrentHealth() > 0
                         && activeName.equalsIgnoreCase(p.getSpecies().getName())) {
-                    return pokemonHasMove(p, moveNameNormalized);
+                    return pokemonHasMove(p, moveFlags);
                 }
             }
         } catch (Exception e) {
@@ -1504,6 +1718,21 @@ public class CaptureEngine {
         } catch (Exception e) { return "?"; }
     }
 
+    /** Species catch rate of the opponent, or -1 if unknown. */
+    private int getOpponentCatchRate() {
+        try {
+            ClientBattle battle = CobblemonClient.INSTANCE.getBattle();
+            if (battle == null) return -1;
+            var actors = battle.getSide2().getActors();
+            if (actors.isEmpty()) return -1;
+            var actives = actors.get(0).getActivePokemon();
+            if (actives.isEmpty()) return -1;
+            ClientBattlePokemon bp = actives.get(0).getBattlePokemon();
+            if (bp == null) return -1;
+            return bp.getSpecies().getCatchRate();
+        } catch (Exception e) { return -1; }
+    }
+
     private String getOpponentStatus() {
         try {
             ClientBattle battle = CobblemonClient.INSTANCE.getBattle();
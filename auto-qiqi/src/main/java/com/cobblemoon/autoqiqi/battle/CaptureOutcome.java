@@ -0,0 +1,74 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * One ball throw at a wild Pokemon and what came of it: the inputs of the capture formula at throw
+ * time (species catch rate, 0 or less when unknown; level, HP, status), the ball, the battle turn and the result.
+ * Stored by {@link CaptureOutcomeStore}; {@link BallPolicy} learns ball efficiency from them.
+ * <p>
+ * {@link #write}/{@link #read} use a compact binary layout (a few bytes plus the ball id).
+ */
+public record CaptureOutcome(int catchRate, int level, int hpPercent, Status status, String ball, int turn,
+                             Result result) {
+
+    /** Status groups of the capture formula, by bonus. */
+    public enum Status {
+        NONE(1.0), MINOR(1.5), SLEEP_FREEZE(2.5);
+
+        private final double bonus;
+
+        Status(double bonus) { this.bonus = bonus; }
+
+        public double bonus() { return bonus; }
+
+        /** Group of a Cobblemon status name (e.g. "paralysis", "cobblemon:sleep"); NONE if null or unknown. */
+        public static Status of(String cobblemonStatus) {
+            if (cobblemonStatus == null) return NONE;
+            String s = cobblemonStatus.toLowerCase();
+            if (s.contains("sleep") || s.contains("frozen") || s.contains("freeze")) return SLEEP_FREEZE;
+            if (s.contains("par") || s.contains("burn") || s.contains("poison")) return MINOR;
+            return NONE;
+        }
+    }
+
+    public enum Result { CAUGHT, BROKE_OUT, MISSED }
+
+    /** The same throw with its result known. */
+    public CaptureOutcome withResult(Result result) {
+        return new CaptureOutcome(catchRate, level, hpPercent, status, ball, turn, result);
+    }
+
+    /** True if the species catch rate was read at throw time (stored as 0 when it was not). */
+    public boolean knownCatchRate() {
+        return catchRate > 0;
+    }
+
+    /** True if the ball reached the Pokemon (caught or broke out): the only throws that say anything about the ball. */
+    public boolean hit() {
+        return result == Result.CAUGHT || result == Result.BROKE_OUT;
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeByte(Math.max(0, Math.min(catchRate, 255))); // unknown (-1) → 0
+        out.writeByte(Math.min(level, 255));
+        out.writeByte(Math.max(0, Math.min(hpPercent, 100)));
+        out.writeByte(status.ordinal());
+        out.writeByte(Math.min(turn, 255));
+        out.writeByte(result.ordinal());
+        out.writeUTF(ball);
+    }
+
+    static CaptureOutcome read(DataInput in) throws IOException {
+        int catchRate = in.readUnsignedByte();
+        int level = in.readUnsignedByte();
+        int hpPercent = in.readUnsignedByte();
+        Status status = Status.values()[in.readUnsignedByte()];
+        int turn = in.readUnsignedByte();
+        Result result = Result.values()[in.readUnsignedByte()];
+        String ball = in.readUTF();
+        return new CaptureOutcome(catchRate, level, hpPercent, status, ball, turn, result);
+    }
+}
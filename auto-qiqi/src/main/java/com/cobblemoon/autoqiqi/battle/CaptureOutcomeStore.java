@@ -0,0 +1,155 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import com.cobblemoon.autoqiqi.AutoQiqiClient;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.MinecraftClient;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Every resolved ball throw ({@link CaptureOutcome}), kept across sessions in
+ * {@code config/auto-qiqi-captures.bin}: a short header, then one compact record per throw, appended
+ * as throws resolve by a background thread (client exit waits for pending appends). Loaded on first use;
+ * {@link #policy()} is rebuilt only when a throw was added.
+ * <p>
+ * A truncated last record (crash mid-write) is dropped and cut from the file, so later appends stay
+ * aligned; an unreadable file is moved aside to {@code .bak} and the store starts empty.
+ */
+public final class CaptureOutcomeStore {
+
+    private static final CaptureOutcomeStore INSTANCE = new CaptureOutcomeStore(
+            () -> FabricLoader.getInstance().getConfigDir().resolve("auto-qiqi-captures.bin"),
+            Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "auto-qiqi-capture-log");
+                t.setDaemon(true);
+                return t;
+            }));
+    private static final int MAGIC = 0x41514331; // "AQC1"
+
+    private final Supplier<Path> pathSupplier;
+    /** Runs the file appends, in order. */
+    private final Executor io;
+    private Path path;
+    private List<CaptureOutcome> outcomes;
+    private BallPolicy policy;
+    private int policySize = -1;
+
+    CaptureOutcomeStore(Supplier<Path> pathSupplier, Executor io) {
+        this.pathSupplier = pathSupplier;
+        this.io = io;
+    }
+
+    public static CaptureOutcomeStore get() { return INSTANCE; }
+
+    /** Adds a resolved throw; the append to the file runs on the io thread. */
+    public synchronized void record(CaptureOutcome outcome) {
+        if (outcome == null || outcome.result() == null) return;
+        load();
+        outcomes.add(outcome);
+        Path file = path;
+        try {
+            io.execute(() -> append(file, outcome));
+        } catch (RejectedExecutionException ignored) {
+            // after shutdown (client exiting)
+        }
+    }
+
+    /** Wait for pending appends (client exit). */
+    public void shutdown() {
+        if (!(io instanceof ExecutorService service)) return;
+        service.shutdown();
+        try {
+            service.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void append(Path file, CaptureOutcome outcome) {
+        try {
+            boolean fresh = !Files.exists(file) || Files.size(file) == 0;
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)))) {
+                if (fresh) out.writeInt(MAGIC);
+                outcome.write(out);
+            }
+        } catch (IOException e) {
+            // Logging goes through the client thread (chat output when debug is on)
+            MinecraftClient client = MinecraftClient.getInstance();
+            if (client != null) {
+                client.execute(() -> AutoQiqiClient.logDebug("Capture", "Failed to save capture outcome: " + e.getMessage()));
+            }
+        }
+    }
+
+    /** All recorded throws, oldest first. */
+    public synchronized List<CaptureOutcome> outcomes() {
+        load();
+        return List.copyOf(outcomes);
+    }
+
+    /** Ball policy learned from the recorded throws. */
+    public synchronized BallPolicy policy() {
+        load();
+        if (policySize != outcomes.size()) {
+            policy = BallPolicy.from(outcomes);
+            policySize = outcomes.size();
+        }
+        return policy;
+    }
+
+    private void load() {
+        if (outcomes != null) return;
+        outcomes = new ArrayList<>();
+        path = pathSupplier.get();
+        if (!Files.exists(path)) return;
+        try {
+            byte[] bytes = Files.readAllBytes(path);
+            ByteArrayInputStream buffer = new ByteArrayInputStream(bytes);
+            DataInputStream in = new DataInputStream(buffer);
+            if (in.readInt() != MAGIC) throw new IOException("bad header");
+            long complete = bytes.length - buffer.available();
+            while (buffer.available() > 0) {
+                try {
+                    outcomes.add(CaptureOutcome.read(in));
+                    complete = bytes.length - buffer.available();
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+            if (complete < bytes.length) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(complete);
+                }
+                AutoQiqiClient.logDebug("Capture", "Dropped " + (bytes.length - complete) + " bytes of a partial capture outcome");
+            }
+            AutoQiqiClient.logDebug("Capture", "Loaded " + outcomes.size() + " capture outcomes from " + path);
+        } catch (IOException | RuntimeException e) {
+            AutoQiqiClient.logDebug("Capture", "Unreadable capture outcomes (" + e.getMessage() + "), starting over");
+            outcomes.clear();
+            try {
+                Files.move(path, path.resolveSibling(path.getFileName() + ".bak"), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException moveFailed) {
+                AutoQiqiClient.logDebug("Capture", "Could not move aside " + path + ": " + moveFailed.getMessage());
+            }
+        }
+    }
+}
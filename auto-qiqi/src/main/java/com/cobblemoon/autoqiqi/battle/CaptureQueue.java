@@ -0,0 +1,238 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import com.cobblemoon.autoqiqi.AutoQiqiClient;
+import com.cobblemoon.autoqiqi.common.ChatUtil;
+import com.cobblemoon.autoqiqi.common.ChunkSnapshotGrid;
+import com.cobblemoon.autoqiqi.common.ClientCacheFlusher;
+import com.cobblemoon.autoqiqi.common.Metrics;
+import com.cobblemoon.autoqiqi.common.PathFinder;
+import com.cobblemoon.autoqiqi.common.PokemonScanner;
+import com.cobblemoon.autoqiqi.legendary.PokemonWalker;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Captures several wild Pokemon in a row ({@code /pk capture all}: every wanted Pokemon of the last scan).
+ * <p>
+ * The visiting order is a {@link CaptureTour} over travel costs from {@link PathFinder}: path lengths
+ * between the player and every target, searched off-thread on a {@link ChunkSnapshotGrid}. Each target
+ * is checked again just before its session starts (still in this world, alive, wild, close enough, not
+ * recently escaped) and skipped otherwise. Sessions are chained through {@link CaptureEngine#start}
+ * as soon as the previous one ends, so the engine's keybind cache and the walker carry over.
+ */
+public final class CaptureQueue {
+
+    private static final CaptureQueue INSTANCE = new CaptureQueue();
+    /** Most targets planned at once: the cost matrix needs one path search per pair. */
+    static final int MAX_TARGETS = 10;
+    /** Targets farther than this from the player when their turn comes are skipped (blocks). */
+    private static final double MAX_TARGET_DISTANCE = 96.0;
+    private static final double ARRIVAL_DISTANCE = 3.0;
+    /** Cost per block of the straight-line gap a path search could not close. */
+    private static final double UNREACHED_COST_FACTOR = 3.0;
+    private static final int SNAPSHOT_MARGIN = 16;
+
+    private static final ExecutorService PLANNER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "auto-qiqi-capture-plan");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final Metrics.Histogram PLAN_NANOS = Metrics.histogram("capture.queue.plan");
+    private static final Metrics.Histogram TARGET_NANOS = Metrics.histogram("capture.queue.perTarget");
+    private static final Metrics.Counter SKIPPED = Metrics.counter("capture.queue.skipped");
+
+    private record Target(Entity entity, String name, int level, boolean legendary) {}
+
+    private final List<Target> targets = new ArrayList<>();
+    private final Deque<Target> pending = new ArrayDeque<>();
+    private CompletableFuture<int[]> plan;
+    private Target current;
+    private long currentStartNanos;
+    private long queueStartMs;
+    private long caughtAtStart;
+    private int started;
+    private int skipped;
+
+    private CaptureQueue() {}
+
+    public static CaptureQueue get() { return INSTANCE; }
+
+    public boolean isActive() { return plan != null || current != null || !pending.isEmpty(); }
+
+    /** "2/5" while a queue runs (position of the current target), else empty. */
+    public String getProgress() {
+        return isActive() ? started + "/" + targets.size() : "";
+    }
+
+    /**
+     * Queue the wanted Pokemon among {@code candidates} (at most {@link #MAX_TARGETS}, nearest first) and
+     * start planning their order. Returns the number of targets queued.
+     */
+    public int start(List<Entity> candidates) {
+        stop();
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player == null || client.world == null) return 0;
+        for (Entity e : candidates) {
+            if (targets.size() >= MAX_TARGETS) break;
+            if (!PokemonScanner.isWanted(e) || !isCapturable(client, e)) continue;
+            targets.add(new Target(e, PokemonScanner.getPokemonName(e), PokemonScanner.getPokemonLevel(e),
+                    PokemonScanner.isLegendary(e)));
+        }
+        if (targets.isEmpty()) return 0;
+
+        queueStartMs = System.currentTimeMillis();
+        caughtAtStart = CaptureEngine.caughtCount();
+        List<BlockPos> points = new ArrayList<>(targets.size() + 1);
+        points.add(client.player.getBlockPos());
+        for (Target t : targets) points.add(t.entity().getBlockPos());
+        ChunkSnapshotGrid grid = snapshot(client, points);
+        plan = CompletableFuture.supplyAsync(() -> planOrder(grid, points), PLANNER);
+        AutoQiqiClient.logDebug("CaptureQueue", "Planning " + targets.size() + " targets");
+        return targets.size();
+    }
+
+    public void stop() {
+        if (plan != null) plan.cancel(false);
+        plan = null;
+        pending.clear();
+        targets.clear();
+        current = null;
+        started = 0;
+        skipped = 0;
+    }
+
+    /** Drops targets left in a previous world (dimension change). */
+    public void releaseWorldRefs() {
+        pending.removeIf(t -> ClientCacheFlusher.isFromOtherWorld(t.entity()));
+        if (current != null && ClientCacheFlusher.isFromOtherWorld(current.entity())) current = null;
+    }
+
+    /** Applies the plan once ready, then starts the next target whenever no capture is running. */
+    public void tick() {
+        if (!isActive()) return;
+        if (plan != null) {
+            if (!plan.isDone()) return;
+            // A failed or cancelled plan falls back to scan order
+            int[] order = plan.isCompletedExceptionally() ? null : plan.getNow(null);
+            if (order == null) AutoQiqiClient.logDebug("CaptureQueue", "Planning failed, using scan order");
+            plan = null;
+            for (int node : order != null ? order : identity(targets.size())) pending.add(targets.get(node - 1));
+            AutoQiqiClient.logDebug("CaptureQueue", "Order: " + names(pending));
+        }
+        if (CaptureEngine.get().isActive()) return;
+
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player == null || client.world == null) return;
+        if (current != null) {
+            TARGET_NANOS.recordSince(currentStartNanos);
+            current = null;
+        }
+        while (!pending.isEmpty()) {
+            Target next = pending.poll();
+            if (!isCapturable(client, next.entity()) || CaptureEngine.isRecentlyFailed(next.name())
+                    || client.player.distanceTo(next.entity()) > MAX_TARGET_DISTANCE) {
+                skipped++;
+                SKIPPED.increment();
+                AutoQiqiClient.logDebug("CaptureQueue", "Skipping " + next.name() + " (gone, busy or too far)");
+                continue;
+            }
+            startSession(client, next);
+            return;
+        }
+        finish(client);
+    }
+
+    // ========================
+    // Internals
+    // ========================
+
+    private void startSession(MinecraftClient client, Target target) {
+        current = target;
+        currentStartNanos = System.nanoTime();
+        started++;
+        CaptureEngine.get().start(target.name(), target.level(), target.legendary(), target.entity());
+        PokemonWalker.get().startWalking(target.entity());
+        ChatUtil.msg("§6[Capture]§r §bFile " + started + "/" + targets.size() + ": §e" + target.name()
+                + " Lv." + target.level() + "§b (" + String.format("%.1f", client.player.distanceTo(target.entity())) + " blocs)");
+    }
+
+    private void finish(MinecraftClient client) {
+        long caught = CaptureEngine.caughtCount() - caughtAtStart;
+        double hours = Math.max(1, System.currentTimeMillis() - queueStartMs) / 3_600_000.0;
+        ChatUtil.msg("§6[Capture]§r §aFile terminee: §f" + caught + "/" + targets.size() + " captures§7, "
+                + skipped + " ignores, " + String.format("%.0f", caught / hours) + "/h");
+        AutoQiqiClient.logDebug("CaptureQueue", "Done: caught=" + caught + " targets=" + targets.size() + " skipped=" + skipped);
+        stop();
+    }
+
+    private static boolean isCapturable(MinecraftClient client, Entity e) {
+        return e != null && e.isAlive() && !e.isRemoved()
+                && client.world.getEntityById(e.getId()) == e
+                && PokemonScanner.isWild(e);
+    }
+
+    private static ChunkSnapshotGrid snapshot(MinecraftClient client, List<BlockPos> points) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (BlockPos p : points) {
+            minX = Math.min(minX, p.getX()); minY = Math.min(minY, p.getY()); minZ = Math.min(minZ, p.getZ());
+            maxX = Math.max(maxX, p.getX()); maxY = Math.max(maxY, p.getY()); maxZ = Math.max(maxZ, p.getZ());
+        }
+        return ChunkSnapshotGrid.capture(client.world, new BlockPos(minX, minY, minZ), new BlockPos(maxX, maxY, maxZ),
+                SNAPSHOT_MARGIN);
+    }
+
+    /** Symmetric travel costs between all points (path length, plus a penalty for any gap left), then the tour. */
+    private static int[] planOrder(ChunkSnapshotGrid grid, List<BlockPos> points) {
+        long t0 = System.nanoTime();
+        int size = points.size();
+        double[][] cost = new double[size][size];
+        PathFinder finder = new PathFinder(grid).quiet(); // planner thread: no chat logging
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                cost[i][j] = cost[j][i] = travelCost(finder, points.get(i), points.get(j));
+            }
+        }
+        int[] order = CaptureTour.order(cost);
+        PLAN_NANOS.recordSince(t0);
+        return order;
+    }
+
+    private static double travelCost(PathFinder finder, BlockPos from, BlockPos to) {
+        Vec3d goal = Vec3d.ofBottomCenter(to);
+        List<Vec3d> path = finder.findPath(from, to, ARRIVAL_DISTANCE);
+        if (path == null || path.isEmpty()) {
+            return Vec3d.ofBottomCenter(from).distanceTo(goal) * UNREACHED_COST_FACTOR;
+        }
+        double length = Vec3d.ofBottomCenter(from).distanceTo(path.get(0));
+        for (int i = 1; i < path.size(); i++) length += path.get(i - 1).distanceTo(path.get(i));
+        // Partial paths stop short of the goal: charge the rest as hard terrain
+        double gap = Math.max(0, path.get(path.size() - 1).distanceTo(goal) - ARRIVAL_DISTANCE);
+        return length + gap * UNREACHED_COST_FACTOR;
+    }
+
+    private static int[] identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i + 1;
+        return order;
+    }
+
+    private static String names(Deque<Target> targets) {
+        StringBuilder sb = new StringBuilder();
+        for (Target t : targets) {
+            if (sb.length() > 0) sb.append(" -> ");
+            sb.append(t.name());
+        }
+        return sb.toString();
+    }
+}
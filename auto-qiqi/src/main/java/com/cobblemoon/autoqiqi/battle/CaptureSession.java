@@ -1,5 +1,6 @@
 package com.cobblemoon.autoqiqi.battle;
 
+import com.cobblemoon.autoqiqi.common.ThrowPositionSolver;
 import net.minecraft.client.util.InputUtil;
 import net.minecraft.entity.Entity;
 
@@ -39,6 +40,12 @@ public class CaptureSession {
     /** When true, blocker is our Pokemon; we strafe in computed direction and do not reverse. */
     public boolean entityObstructionIsOurPokemon = false;
 
+    // Throw position (solver target while the current position is too close or blocked)
+    public ThrowPositionSolver.Spot throwSpot = null;
+    public int throwSpotTicks = 0;
+    public int throwSpotSolves = 0;
+    public long throwSpotStartNanos = 0;
+
     // Battle strategy
     public boolean targetAtOneHp = false;
     public boolean falseSwipeUsedThisBattle = false;
@@ -74,6 +81,11 @@ public class CaptureSession {
     public int missCount = 0;
     public boolean ballHitJustConfirmed = false;
     public long lastThrowTimeMs = 0;
+    /** When the battle started (System.nanoTime), 0 until then; for the battle → first hit metric. */
+    public long battleStartNanos = 0;
+    public boolean firstHitRecorded = false;
+    /** The last throw, waiting for its result before going to {@link CaptureOutcomeStore}. */
+    public CaptureOutcome pendingOutcome = null;
 
     // Idle / re-engage
     public long inBattleIdleSinceMs = 0;
@@ -120,10 +132,14 @@ public class CaptureSession {
         backupTicks = 0;
         entityObstructionStrafeTicks = 0;
         entityObstructionIsOurPokemon = false;
+        throwSpot = null;
+        throwSpotTicks = 0;
+        throwSpotSolves = 0;
         waitingForBallHit = false;
         throwWaitTicks = 0;
         missCount = 0;
         ballHitJustConfirmed = false;
+        pendingOutcome = null;
         retryThrowPending = false;
         pickingUpBall = false;
         droppedBallEntity = null;
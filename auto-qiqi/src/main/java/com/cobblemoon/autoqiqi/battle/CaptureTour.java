@@ -0,0 +1,88 @@
+package com.cobblemoon.autoqiqi.battle;
+
+/**
+ * Visiting order for several capture targets: nearest neighbour from the player, then 2-opt
+ * (reverse a stretch of the tour whenever that shortens it) until no reversal helps. The tour is
+ * open: it starts at the player and does not come back. Pure logic over a travel cost matrix.
+ */
+public final class CaptureTour {
+
+    /** Full 2-opt passes at most; each pass is O(n²) and a handful of targets settles in two or three. */
+    private static final int MAX_PASSES = 50;
+
+    private CaptureTour() {}
+
+    /**
+     * Order in which to visit nodes 1..n, given symmetric travel costs between all nodes where node 0
+     * is the player. Returns the node indices (1-based in {@code cost}) in visiting order.
+     */
+    public static int[] order(double[][] cost) {
+        int n = cost.length - 1;
+        int[] path = nearestNeighbour(cost);
+        for (int pass = 0; pass < MAX_PASSES && improve(path, cost); pass++) {
+            // keep reversing until a pass finds nothing
+        }
+        int[] visits = new int[n];
+        System.arraycopy(path, 1, visits, 0, n);
+        return visits;
+    }
+
+    /** Travel cost of visiting {@code visits} in order, starting from node 0. */
+    public static double length(int[] visits, double[][] cost) {
+        double total = 0;
+        int from = 0;
+        for (int node : visits) {
+            total += cost[from][node];
+            from = node;
+        }
+        return total;
+    }
+
+    /** Path 0, then always the closest unvisited node. */
+    static int[] nearestNeighbour(double[][] cost) {
+        int size = cost.length;
+        int[] path = new int[size];
+        boolean[] visited = new boolean[size];
+        visited[0] = true;
+        for (int i = 1; i < size; i++) {
+            int from = path[i - 1];
+            int best = -1;
+            for (int node = 1; node < size; node++) {
+                if (!visited[node] && (best == -1 || cost[from][node] < cost[from][best])) best = node;
+            }
+            path[i] = best;
+            visited[best] = true;
+        }
+        return path;
+    }
+
+    /** One 2-opt pass over an open path with a fixed start; true if some reversal shortened it. */
+    private static boolean improve(int[] path, double[][] cost) {
+        boolean improved = false;
+        int last = path.length - 1;
+        for (int i = 1; i < last; i++) {
+            for (int j = i + 1; j <= last; j++) {
+                int before = path[i - 1];
+                double removed = cost[before][path[i]];
+                double added = cost[before][path[j]];
+                if (j < last) {
+                    removed += cost[path[j]][path[j + 1]];
+                    added += cost[path[i]][path[j + 1]];
+                }
+                if (added < removed - 1e-9) {
+                    reverse(path, i, j);
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    private static void reverse(int[] path, int i, int j) {
+        while (i < j) {
+            int t = path[i];
+            path[i++] = path[j];
+            path[j--] = t;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import java.util.List;
+
+/**
+ * One recorded battle decision: its full input, the output the running build chose, and how long
+ * the decision took. Exactly one of {@code capture}, {@code move}, {@code switchInput} is set,
+ * matching {@code kind}. Serialized as one JSON line by {@link DecisionRecorder}.
+ * No Minecraft/Cobblemon types here.
+ */
+public record DecisionRecord(
+        Kind kind,
+        long atMs,
+        long nanos,
+        CaptureInput capture,
+        TrainerStrategy.MoveInput move,
+        SwitchInput switchInput,
+        String output
+) {
+    public enum Kind { CAPTURE, MOVE, SWITCH }
+
+    /** Inputs of {@link CaptureStrategy#decide}. */
+    public record CaptureInput(CaptureSessionSnapshot session, BattleSnapshot battle, boolean forceSwitch, boolean trapped) {}
+
+    /** Inputs of trainer switch selection: opponent column plus every switch tile's party member. */
+    public record SwitchInput(PartyMatchupCache.OpponentContext opponent, List<TrainerStrategy.PartyMember> party) {}
+
+    // Output encodings shared by recorder and replayer so recorded and replayed outputs compare equal.
+
+    static String captureOutput(CaptureDecision decision) {
+        if (decision == null) return "none";
+        return decision.giveUp() ? "GIVE_UP" : String.valueOf(decision.action());
+    }
+
+    static String moveOutput(TrainerStrategy.MoveInput input, TrainerStrategy.MoveDecision decision) {
+        int idx = decision.index();
+        return idx >= 0 && idx < input.moves().size() ? input.moves().get(idx).name() : "none";
+    }
+
+    static String switchOutput(List<TrainerStrategy.PartyMember> party, int chosen) {
+        return chosen >= 0 && chosen < party.size() ? party.get(chosen).species() : "none";
+    }
+}
@@ -0,0 +1,166 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import com.cobblemoon.autoqiqi.AutoQiqiClient;
+import com.cobblemoon.autoqiqi.config.AutoQiqiConfig;
+import com.google.gson.Gson;
+import net.minecraft.client.MinecraftClient;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records every battle decision's inputs and output to
+ * {@code logs/auto-qiqi/decisions-<timestamp>.jsonl.gz} (one {@link DecisionRecord} per line)
+ * when {@code recordBattleDecisions} is on. {@link DecisionReplay} re-runs the logs headless.
+ * <p>
+ * Records are serialized on the caller's thread and written by a single background thread. The gzip
+ * stream is sync-flushed at battle end, so a crash loses at most the current battle, and closed on
+ * disconnect and client exit so the file ends cleanly; the next decision starts a new file.
+ */
+public final class DecisionRecorder {
+
+    private static final DecisionRecorder INSTANCE = new DecisionRecorder();
+    private static final Gson GSON = new Gson();
+
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "auto-qiqi-decision-log");
+        t.setDaemon(true);
+        return t;
+    });
+    // Only touched on the io thread
+    private Writer writer;
+    private boolean openFailed = false;
+    private int recorded = 0;
+
+    private DecisionRecorder() {}
+
+    public static DecisionRecorder get() { return INSTANCE; }
+
+    public boolean isEnabled() {
+        return AutoQiqiConfig.get().recordBattleDecisions;
+    }
+
+    public void recordCapture(CaptureSessionSnapshot session, BattleSnapshot battle, boolean forceSwitch, boolean trapped,
+                              CaptureDecision decision, long nanos) {
+        if (!isEnabled()) return;
+        write(new DecisionRecord(DecisionRecord.Kind.CAPTURE, System.currentTimeMillis(), nanos,
+                new DecisionRecord.CaptureInput(session, battle, forceSwitch, trapped), null, null,
+                DecisionRecord.captureOutput(decision)));
+    }
+
+    public void recordMove(TrainerStrategy.MoveInput input, TrainerStrategy.MoveDecision decision, long nanos) {
+        if (!isEnabled()) return;
+        write(new DecisionRecord(DecisionRecord.Kind.MOVE, System.currentTimeMillis(), nanos,
+                null, input, null, DecisionRecord.moveOutput(input, decision)));
+    }
+
+    void recordSwitch(PartyMatchupCache.OpponentContext opponent, List<TrainerStrategy.PartyMember> party,
+                      int chosen, long nanos) {
+        if (!isEnabled() || opponent == null) return;
+        write(new DecisionRecord(DecisionRecord.Kind.SWITCH, System.currentTimeMillis(), nanos,
+                null, null, new DecisionRecord.SwitchInput(opponent, party),
+                DecisionRecord.switchOutput(party, chosen)));
+    }
+
+    /** Push buffered records to disk (called at battle end). */
+    public void flush() {
+        submit(() -> {
+            if (writer == null) return;
+            try {
+                writer.flush();
+                log("Flushed decision log (" + recorded + " decisions)");
+            } catch (IOException e) {
+                log("flush failed: " + e.getMessage());
+            }
+        });
+    }
+
+    /** Finish the current file (gzip trailer included); the next decision opens a new one. Disconnect. */
+    public void close() {
+        submit(this::closeWriter);
+    }
+
+    /** Close the current file and wait for pending writes (client exit). */
+    public void shutdown() {
+        submit(this::closeWriter);
+        io.shutdown();
+        try {
+            io.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(DecisionRecord record) {
+        // Serialize now: the inputs may change once the decision is made
+        String line = GSON.toJson(record);
+        submit(() -> {
+            Writer w = open();
+            if (w == null) return;
+            try {
+                w.write(line);
+                w.write('\n');
+                recorded++;
+            } catch (IOException e) {
+                log("write failed: " + e.getMessage());
+            }
+        });
+    }
+
+    private void submit(Runnable task) {
+        try {
+            io.execute(task);
+        } catch (RejectedExecutionException ignored) {
+            // after shutdown (client exiting)
+        }
+    }
+
+    private void closeWriter() {
+        if (writer == null) return;
+        try {
+            writer.close();
+            log("Closed decision log (" + recorded + " decisions)");
+        } catch (IOException e) {
+            log("close failed: " + e.getMessage());
+        }
+        writer = null;
+        recorded = 0;
+    }
+
+    /** Logging goes through the client thread (chat output when debug is on). */
+    private static void log(String message) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client != null) client.execute(() -> AutoQiqiClient.logDebug("Recorder", message));
+    }
+
+    private Writer open() {
+        if (writer != null || openFailed) return writer;
+        try {
+            Path dir = Paths.get("logs", "auto-qiqi");
+            Files.createDirectories(dir);
+            String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+            Path file = dir.resolve("decisions-" + ts + ".jsonl.gz");
+            writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(file), true), StandardCharsets.UTF_8));
+            log("Recording battle decisions to " + file);
+        } catch (IOException e) {
+            openFailed = true;
+            log("Failed to open decision log: " + e.getMessage());
+        }
+        return writer;
+    }
+}
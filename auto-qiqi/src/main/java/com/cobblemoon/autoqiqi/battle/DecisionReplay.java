@@ -0,0 +1,189 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Headless replayer for logs written by {@link DecisionRecorder}.
+ * Re-runs {@link CaptureStrategy} and {@link TrainerStrategy} over every recorded decision and reports
+ * throughput, latency percentiles per decision kind, and decisions whose output differs from the
+ * recorded one (i.e. the current code decides differently from the build that recorded the log).
+ * <p>
+ * Usage: {@code ./gradlew replayDecisions --args="[--iterations N] logs/auto-qiqi/decisions-<timestamp>.jsonl.gz ..."}
+ */
+public final class DecisionReplay {
+
+    private static final Gson GSON = new Gson();
+    private static final int MAX_DIFFS_SHOWN = 20;
+
+    /** A decision whose replayed output differs from the recorded one. */
+    record Diff(DecisionRecord.Kind kind, String recorded, String replayed, long atMs) {}
+
+    /** Replay summary: latency samples (ns) per kind plus output diffs. */
+    record Report(Map<DecisionRecord.Kind, long[]> latencies, List<Diff> diffs, int decisions, long totalNanos) {}
+
+    private DecisionReplay() {}
+
+    public static void main(String[] args) throws IOException {
+        int iterations = 10;
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--iterations") && i + 1 < args.length) {
+                iterations = Math.max(1, Integer.parseInt(args[++i]));
+            } else {
+                files.add(Path.of(args[i]));
+            }
+        }
+        if (files.isEmpty()) {
+            System.out.println("Usage: DecisionReplay [--iterations N] <decisions-*.jsonl[.gz]>...");
+            return;
+        }
+
+        List<DecisionRecord> records = new ArrayList<>();
+        for (Path file : files) records.addAll(read(file));
+        System.out.println("Loaded " + records.size() + " decisions from " + files.size() + " file(s)");
+        if (records.isEmpty()) return;
+
+        Report report = replay(records, iterations);
+        System.out.print(format(report, iterations));
+    }
+
+    // ========================
+    // Reading
+    // ========================
+
+    /** Read one log; a truncated gzip tail (crash mid-battle) ends the file instead of failing. */
+    static List<DecisionRecord> read(Path file) throws IOException {
+        try (InputStream in = open(file)) {
+            return read(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        }
+    }
+
+    static List<DecisionRecord> read(BufferedReader reader) throws IOException {
+        List<DecisionRecord> records = new ArrayList<>();
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    DecisionRecord r = GSON.fromJson(line, DecisionRecord.class);
+                    if (r != null && r.kind() != null) records.add(r);
+                } catch (JsonParseException ignored) {
+                    // partial last line
+                }
+            }
+        } catch (EOFException ignored) {}
+        return records;
+    }
+
+    private static InputStream open(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        return file.toString().endsWith(".gz") ? new GZIPInputStream(in) : in;
+    }
+
+    // ========================
+    // Replay
+    // ========================
+
+    /** Current-code output for a recorded decision's input. */
+    static String decide(DecisionRecord r) {
+        return switch (r.kind()) {
+            case CAPTURE -> {
+                DecisionRecord.CaptureInput c = r.capture();
+                yield DecisionRecord.captureOutput(
+                        CaptureStrategy.decide(c.session(), c.battle(), c.forceSwitch(), c.trapped()));
+            }
+            case MOVE -> DecisionRecord.moveOutput(r.move(), TrainerStrategy.chooseMove(r.move()));
+            case SWITCH -> {
+                DecisionRecord.SwitchInput s = r.switchInput();
+                List<PartyMatchupCache.Matchup> scored = new ArrayList<>(s.party().size());
+                for (TrainerStrategy.PartyMember member : s.party()) {
+                    scored.add(TrainerStrategy.scoreMatchup(member, s.opponent()));
+                }
+                yield DecisionRecord.switchOutput(s.party(), TrainerStrategy.chooseSwitch(scored));
+            }
+        };
+    }
+
+    /**
+     * Replays every record {@code iterations} times after one warm-up pass.
+     * Diffs come from the warm-up pass; latencies from the timed passes.
+     */
+    static Report replay(List<DecisionRecord> records, int iterations) {
+        List<Diff> diffs = new ArrayList<>();
+        for (DecisionRecord r : records) {
+            String replayed = decide(r);
+            if (!replayed.equals(r.output())) {
+                diffs.add(new Diff(r.kind(), r.output(), replayed, r.atMs()));
+            }
+        }
+
+        Map<DecisionRecord.Kind, long[]> samples = new EnumMap<>(DecisionRecord.Kind.class);
+        Map<DecisionRecord.Kind, Integer> counts = new EnumMap<>(DecisionRecord.Kind.class);
+        for (DecisionRecord r : records) counts.merge(r.kind(), iterations, Integer::sum);
+        counts.forEach((kind, n) -> samples.put(kind, new long[n]));
+        Map<DecisionRecord.Kind, Integer> filled = new EnumMap<>(DecisionRecord.Kind.class);
+
+        long totalStart = System.nanoTime();
+        for (int it = 0; it < iterations; it++) {
+            for (DecisionRecord r : records) {
+                long start = System.nanoTime();
+                decide(r);
+                long nanos = System.nanoTime() - start;
+                int idx = filled.merge(r.kind(), 1, Integer::sum) - 1;
+                samples.get(r.kind())[idx] = nanos;
+            }
+        }
+        long totalNanos = System.nanoTime() - totalStart;
+        return new Report(samples, diffs, records.size() * iterations, totalNanos);
+    }
+
+    /** Nearest-rank percentile of a sorted array; {@code p} in [0, 100]. */
+    static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    static String format(Report report, int iterations) {
+        StringBuilder sb = new StringBuilder();
+        double seconds = report.totalNanos() / 1e9;
+        sb.append(String.format("Replayed %d decisions (%d iterations) in %.3f s: %.0f decisions/s%n",
+                report.decisions(), iterations, seconds, seconds > 0 ? report.decisions() / seconds : 0));
+        for (Map.Entry<DecisionRecord.Kind, long[]> e : report.latencies().entrySet()) {
+            long[] sorted = e.getValue().clone();
+            Arrays.sort(sorted);
+            sb.append(String.format("  %-8s n=%-7d p50=%6.1f us  p95=%6.1f us  p99=%6.1f us  max=%7.1f us%n",
+                    e.getKey(), sorted.length,
+                    percentile(sorted, 50) / 1e3, percentile(sorted, 95) / 1e3,
+                    percentile(sorted, 99) / 1e3, sorted.length > 0 ? sorted[sorted.length - 1] / 1e3 : 0));
+        }
+        sb.append("Decision diffs vs recorded: ").append(report.diffs().size()).append(System.lineSeparator());
+        int shown = 0;
+        for (Diff d : report.diffs()) {
+            if (shown++ >= MAX_DIFFS_SHOWN) {
+                sb.append("  ... ").append(report.diffs().size() - MAX_DIFFS_SHOWN).append(" more").append(System.lineSeparator());
+                break;
+            }
+            sb.append("  ").append(d.kind()).append(" @").append(d.atMs())
+                    .append(": recorded=").append(d.recorded()).append(" replayed=").append(d.replayed())
+                    .append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,269 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import com.cobblemon.mod.common.api.moves.MoveTemplate;
+import com.cobblemon.mod.common.api.moves.Moves;
+import com.cobblemoon.autoqiqi.AutoQiqiClient;
+import com.cobblemoon.autoqiqi.common.NameKey;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indexed move table shared by {@link TrainerBattleEngine} and {@link CaptureEngine}.
+ * <p>
+ * Each move name is resolved through Cobblemon's {@link Moves} registry once and given a dense
+ * int id. Its descriptor (type ordinal, base power, priority, category, flags) is packed into a
+ * single int, so battle code maps a tile's move name to an id once and reads everything else
+ * from primitive arrays. Names the registry does not know resolve to {@link #UNKNOWN}
+ * (Normal, 50 power, physical). Such a miss is looked up and logged once, then remembered until
+ * {@link #forgetMisses()} (world change), so a registry that loads late is still picked up.
+ * <p>
+ * Client thread only, like the engines that use it.
+ */
+public final class MoveTable {
+
+    public static final int UNKNOWN = 0;
+
+    public static final int CATEGORY_PHYSICAL = 0;
+    public static final int CATEGORY_SPECIAL = 1;
+    public static final int CATEGORY_STATUS = 2;
+
+    public static final int FLAG_RECOVERY = 1;
+    public static final int FLAG_PRIORITY = 1 << 1;
+    public static final int FLAG_STATUS = 1 << 2;
+    public static final int FLAG_FALSE_SWIPE = 1 << 3;
+    public static final int FLAG_THUNDER_WAVE = 1 << 4;
+
+    // Packed layout: [0..4] type ordinal, [5..6] category, [7..10] priority + 8, [11..15] flags, [16..25] power
+    private static final int TYPE_BITS = 5, CATEGORY_BITS = 2, PRIORITY_BITS = 4, FLAG_BITS = 5, POWER_BITS = 10;
+    private static final int CATEGORY_SHIFT = TYPE_BITS;
+    private static final int PRIORITY_SHIFT = CATEGORY_SHIFT + CATEGORY_BITS;
+    private static final int FLAG_SHIFT = PRIORITY_SHIFT + PRIORITY_BITS;
+    private static final int POWER_SHIFT = FLAG_SHIFT + FLAG_BITS;
+    private static final int PRIORITY_OFFSET = 8;
+
+    /** Move ids (lowercase, no spaces) that restore HP. French names are mapped via {@link #ALIASES}. */
+    private static final Set<String> RECOVERY_MOVES = Set.of("recover", "roost");
+
+    /** Moves with positive priority (+1 or higher). Used when the Cobblemon template does not expose priority. */
+    private static final Set<String> PRIORITY_MOVES = Set.of(
+            "suckerpunch", "quickattack", "aquajet", "bulletpunch", "iceshard", "machpunch",
+            "vacuumwave", "watershuriken", "extremespeed", "accelerock", "shadowsneak", "firstimpression"
+    );
+
+    /** French move names seen in tiles / chat, mapped to their Showdown ids. */
+    private static final Map<String, String> ALIASES = Map.of(
+            "soin", "recover",
+            "atterrissage", "roost",
+            "fauxchage", "falseswipe",
+            "cageeclair", "thunderwave"
+    );
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    /** Names the registry did not know, until the next world change. */
+    private static final Set<String> MISSES = ConcurrentHashMap.newKeySet();
+    private static int[] packed = new int[256];
+    private static String[] names = new String[256];
+    private static int size = 0;
+
+    static {
+        register("", descriptor(TypeChart.typeOrdinal("normal"), 50, 0, CATEGORY_PHYSICAL, 0));
+    }
+
+    private MoveTable() {}
+
+    // ========================
+    // Resolution
+    // ========================
+
+    /** Id for a move name (Showdown id or display name, any case), or {@link #UNKNOWN}. */
+    public static int id(String moveName) {
+        if (moveName == null || moveName.isEmpty()) return UNKNOWN;
+        Integer cached = IDS.get(moveName);
+        if (cached != null) return cached;
+        if (MISSES.contains(moveName)) return UNKNOWN;
+        return resolve(moveName);
+    }
+
+    /** Id for a registry template. */
+    public static int id(MoveTemplate tpl) {
+        if (tpl == null) return UNKNOWN;
+        return id(tpl.getName());
+    }
+
+    private static synchronized int resolve(String moveName) {
+        Integer cached = IDS.get(moveName);
+        if (cached != null) return cached;
+
+        String key = canonicalKey(moveName);
+        Integer byKey = IDS.get(key);
+        if (byKey != null) {
+            IDS.put(moveName, byKey);
+            return byKey;
+        }
+
+        MoveTemplate tpl = lookupTemplate(key, moveName);
+        if (tpl == null) {
+            MISSES.add(moveName);
+            AutoQiqiClient.logDebug("MoveTable", "Move not found in registry: '" + moveName + "'");
+            return UNKNOWN;
+        }
+        int id = register(key, describe(key, tpl));
+        IDS.put(key, id);
+        IDS.put(moveName, id);
+        return id;
+    }
+
+    /** Look up previously unknown names again (world change: the registry may have been synced since). */
+    public static void forgetMisses() {
+        MISSES.clear();
+    }
+
+    private static MoveTemplate lookupTemplate(String key, String moveName) {
+        try {
+            MoveTemplate tpl = Moves.INSTANCE.getByName(key);
+            if (tpl == null) tpl = Moves.INSTANCE.getByName(moveName);
+            return tpl;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static int describe(String key, MoveTemplate tpl) {
+        int typeOrdinal = TypeChart.typeOrdinal("normal");
+        int power = 0;
+        int category = CATEGORY_PHYSICAL;
+        try {
+            typeOrdinal = TypeChart.typeOrdinal(tpl.getElementalType().getName());
+            power = (int) Math.round(tpl.getPower());
+        } catch (Exception ignored) {}
+        try {
+            category = categoryOf(tpl.getDamageCategory().getName());
+        } catch (Exception e) {
+            if (power <= 0) category = CATEGORY_STATUS;
+        }
+        int priority = priorityOf(tpl);
+        if (priority == 0 && PRIORITY_MOVES.contains(key)) priority = 1;
+        return descriptor(typeOrdinal, power, priority, category, flagsFor(key, category, priority));
+    }
+
+    /** Move priority from the template (e.g. Sucker Punch +1). Reflection for API compatibility; runs once per move. */
+    private static int priorityOf(MoveTemplate tpl) {
+        try {
+            Object v = tpl.getClass().getMethod("getPriority").invoke(tpl);
+            if (v instanceof Number n) return n.intValue();
+        } catch (Exception ignored) {}
+        return 0;
+    }
+
+    private static int register(String name, int descriptor) {
+        if (size == packed.length) {
+            packed = Arrays.copyOf(packed, size * 2);
+            names = Arrays.copyOf(names, size * 2);
+        }
+        packed[size] = descriptor;
+        names[size] = name;
+        return size++;
+    }
+
+    // ========================
+    // Descriptor reads
+    // ========================
+
+    /** Lowercase type name (shared constant from {@link TypeChart}). */
+    public static String type(int id) {
+        return TypeChart.typeName(typeOrdinal(id));
+    }
+
+    public static int typeOrdinal(int id) {
+        return packed[id] & mask(TYPE_BITS);
+    }
+
+    public static int power(int id) {
+        return (packed[id] >>> POWER_SHIFT) & mask(POWER_BITS);
+    }
+
+    public static int priority(int id) {
+        return ((packed[id] >>> PRIORITY_SHIFT) & mask(PRIORITY_BITS)) - PRIORITY_OFFSET;
+    }
+
+    public static int category(int id) {
+        return (packed[id] >>> CATEGORY_SHIFT) & mask(CATEGORY_BITS);
+    }
+
+    /** All {@code FLAG_*} bits of a move. */
+    public static int flags(int id) {
+        return (packed[id] >>> FLAG_SHIFT) & mask(FLAG_BITS);
+    }
+
+    public static boolean has(int id, int flag) {
+        return (flags(id) & flag) != 0;
+    }
+
+    public static boolean isDamaging(int id) {
+        return power(id) > 0;
+    }
+
+    /** Canonical name the id was registered under ("" for {@link #UNKNOWN}). */
+    public static String name(int id) {
+        return names[id];
+    }
+
+    public static int size() {
+        return size;
+    }
+
+    // ========================
+    // Packing (pure, testable)
+    // ========================
+
+    /** Showdown-style id for a move name, with French aliases mapped to the English id. */
+    static String canonicalKey(String moveName) {
+        String key = NameKey.of(moveName);
+        return ALIASES.getOrDefault(key, key);
+    }
+
+    static int categoryOf(String categoryName) {
+        if (categoryName == null) return CATEGORY_PHYSICAL;
+        return switch (categoryName.toLowerCase()) {
+            case "special" -> CATEGORY_SPECIAL;
+            case "status" -> CATEGORY_STATUS;
+            default -> CATEGORY_PHYSICAL;
+        };
+    }
+
+    static int flagsFor(String key, int category, int priority) {
+        int flags = 0;
+        if (RECOVERY_MOVES.contains(key)) flags |= FLAG_RECOVERY;
+        if (priority > 0) flags |= FLAG_PRIORITY;
+        if (category == CATEGORY_STATUS) flags |= FLAG_STATUS;
+        if (key.equals("falseswipe")) flags |= FLAG_FALSE_SWIPE;
+        if (key.equals("thunderwave")) flags |= FLAG_THUNDER_WAVE;
+        return flags;
+    }
+
+    static int descriptor(int typeOrdinal, int power, int priority, int category, int flags) {
+        int p = Math.max(0, Math.min(power, mask(POWER_BITS)));
+        int prio = Math.max(0, Math.min(priority + PRIORITY_OFFSET, mask(PRIORITY_BITS)));
+        return (typeOrdinal & mask(TYPE_BITS))
+                | (category & mask(CATEGORY_BITS)) << CATEGORY_SHIFT
+                | prio << PRIORITY_SHIFT
+                | (flags & mask(FLAG_BITS)) << FLAG_SHIFT
+                | p << POWER_SHIFT;
+    }
+
+    /** Registers a descriptor directly; lets tests exercise reads without the Cobblemon registry. */
+    static synchronized int registerForTest(String moveName, int descriptor) {
+        String key = canonicalKey(moveName);
+        int id = register(key, descriptor);
+        IDS.put(key, id);
+        IDS.put(moveName, id);
+        return id;
+    }
+
+    private static int mask(int bits) {
+        return (1 << bits) - 1;
+    }
+}
@@ -0,0 +1,338 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import com.cobblemoon.autoqiqi.common.NameKey;
+import com.cobblemoon.autoqiqi.common.SpeciesKey;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bayesian guess of the opponent's set (item, ability, speed spread) from Smogon priors
+ * and whatever the battle has revealed so far.
+ *
+ * <p>Candidate sets are built once per species from {@link SmogonData} (top items × top
+ * abilities × listed spreads, prior = product of usage shares) and cached. Each observation
+ * multiplies the posterior by a likelihood and renormalizes, so an update is a single pass
+ * over a few dozen doubles. If evidence contradicts every candidate the posterior falls back
+ * to the prior and the revealed value simply overrides it.
+ * Only {@link #reset(String)} touches {@link SmogonData}; everything else is pure and testable in isolation.
+ */
+public final class OpponentSetInference {
+
+    private static final int MAX_ITEMS = 4;
+    private static final int MAX_ABILITIES = 3;
+    private static final int MAX_SPREADS = 3;
+    /** Same threshold as {@link SmogonData.SmogonEntry#likelyScarfUser()}. */
+    private static final double SCARF_THRESHOLD = 0.20;
+    /** Posterior mass above which an ability immunity is trusted for move scoring. */
+    private static final double IMMUNITY_THRESHOLD = 0.5;
+    /** Smogon move share (%) above which an unrevealed move is considered likely. */
+    private static final double LIKELY_MOVE_PCT = 15.0;
+    /** Likelihood of seeing a status move from a Choice / Assault Vest holder (Trick, etc.). */
+    private static final double STATUS_MOVE_ON_LOCKED_ITEM = 0.05;
+
+    private static final int FLAG_CHOICE = 1;
+    private static final int FLAG_SCARF = 2;
+    private static final int FLAG_ASSAULT_VEST = 4;
+
+    /** Abilities that make the holder immune to an attacking type. */
+    private static final Map<String, String> ABILITY_IMMUNITIES = Map.ofEntries(
+            Map.entry("levitate", "ground"),
+            Map.entry("eartheater", "ground"),
+            Map.entry("flashfire", "fire"),
+            Map.entry("wellbakedbody", "fire"),
+            Map.entry("waterabsorb", "water"),
+            Map.entry("stormdrain", "water"),
+            Map.entry("dryskin", "water"),
+            Map.entry("voltabsorb", "electric"),
+            Map.entry("lightningrod", "electric"),
+            Map.entry("motordrive", "electric"),
+            Map.entry("sapsipper", "grass")
+    );
+
+    /** One candidate set. {@code item == null} is the "some other item" bucket. */
+    public record CandidateSet(String item, String ability, String nature, int speEv, double prior, int flags) {
+        boolean is(int flag) { return (flags & flag) != 0; }
+    }
+
+    private static final Map<String, CandidateSet[]> CANDIDATES = new ConcurrentHashMap<>();
+    private static final CandidateSet[] NO_CANDIDATES = new CandidateSet[0];
+
+    private String speciesKey = "";
+    private SmogonData.SmogonEntry entry;
+    private CandidateSet[] sets = NO_CANDIDATES;
+    private double[] posterior = new double[0];
+    private final Set<String> revealedMoves = new LinkedHashSet<>();
+    private String revealedItem;
+    private String revealedAbility;
+    /** Bumped on every reset or posterior change, so callers can cache derived values. */
+    private int version = 0;
+
+    /** Start tracking a new opponent. Pass a species name or {@link SpeciesKey}. */
+    public void reset(String species) {
+        speciesKey = SpeciesKey.of(species);
+        entry = SmogonData.get(speciesKey);
+        sets = entry != null ? CANDIDATES.computeIfAbsent(speciesKey, k -> buildCandidates(entry)) : NO_CANDIDATES;
+        posterior = priors(sets);
+        revealedMoves.clear();
+        revealedItem = null;
+        revealedAbility = null;
+        version++;
+    }
+
+    /** Same as {@link #reset(String)} with an already-loaded entry (tests, replays). */
+    void reset(String species, SmogonData.SmogonEntry smogonEntry) {
+        speciesKey = SpeciesKey.of(species);
+        entry = smogonEntry;
+        sets = smogonEntry != null ? buildCandidates(smogonEntry) : NO_CANDIDATES;
+        posterior = priors(sets);
+        revealedMoves.clear();
+        revealedItem = null;
+        revealedAbility = null;
+        version++;
+    }
+
+    public String speciesKey() { return speciesKey; }
+
+    public boolean hasData() { return sets.length > 0; }
+
+    public int version() { return version; }
+
+    // ========================
+    // Evidence
+    // ========================
+
+    /**
+     * Opponent used a move. Status moves are strong evidence against Choice items and Assault Vest.
+     * Returns true if this was new information.
+     */
+    public boolean observeMove(String move, boolean isStatus) {
+        String key = NameKey.of(move);
+        if (key.isEmpty() || !revealedMoves.add(key)) return false;
+        version++;
+        if (isStatus) {
+            update(s -> s.is(FLAG_CHOICE) || s.is(FLAG_ASSAULT_VEST) ? STATUS_MOVE_ON_LOCKED_ITEM : 1.0);
+        }
+        return true;
+    }
+
+    /** Opponent's item was revealed (Frisk, Knock Off, Leftovers message...). */
+    public boolean observeItem(String item) {
+        String key = NameKey.of(item);
+        if (key.isEmpty() || key.equals(revealedItem)) return false;
+        revealedItem = key;
+        version++;
+        boolean listed = false;
+        for (CandidateSet s : sets) if (key.equals(s.item())) { listed = true; break; }
+        final boolean inList = listed;
+        update(s -> inList ? (key.equals(s.item()) ? 1.0 : 0.0) : (s.item() == null ? 1.0 : 0.0));
+        return true;
+    }
+
+    /** Opponent's ability was revealed (announcement, Trace, Skill Swap...). */
+    public boolean observeAbility(String ability) {
+        String key = NameKey.of(ability);
+        if (key.isEmpty() || key.equals(revealedAbility)) return false;
+        revealedAbility = key;
+        version++;
+        update(s -> key.equals(s.ability()) ? 1.0 : 0.0);
+        return true;
+    }
+
+    private interface Likelihood { double of(CandidateSet s); }
+
+    private void update(Likelihood likelihood) {
+        if (sets.length == 0) return;
+        double total = 0;
+        double[] next = new double[sets.length];
+        for (int i = 0; i < sets.length; i++) {
+            next[i] = posterior[i] * likelihood.of(sets[i]);
+            total += next[i];
+        }
+        if (total <= 0) {
+            // Evidence outside every candidate: keep the prior, revealed values still override
+            posterior = priors(sets);
+            return;
+        }
+        for (int i = 0; i < next.length; i++) next[i] /= total;
+        posterior = next;
+    }
+
+    // ========================
+    // Queries
+    // ========================
+
+    public double itemProbability(String item) {
+        String key = NameKey.of(item);
+        if (revealedItem != null) return revealedItem.equals(key) ? 1.0 : 0.0;
+        double p = 0;
+        for (int i = 0; i < sets.length; i++) if (key.equals(sets[i].item())) p += posterior[i];
+        return p;
+    }
+
+    public double abilityProbability(String ability) {
+        String key = NameKey.of(ability);
+        if (revealedAbility != null) return revealedAbility.equals(key) ? 1.0 : 0.0;
+        double p = 0;
+        for (int i = 0; i < sets.length; i++) if (key.equals(sets[i].ability())) p += posterior[i];
+        return p;
+    }
+
+    /** Posterior version of {@link SmogonData.SmogonEntry#likelyScarfUser()}. */
+    public boolean likelyScarfUser() {
+        return itemProbability("choicescarf") >= SCARF_THRESHOLD;
+    }
+
+    /** Speed nature/EVs of the most probable set, or null if nothing is known about this species. */
+    public SmogonData.SpeedInfo speedInfo() {
+        int best = argMax();
+        if (best < 0) return entry != null ? entry.speed() : null;
+        return new SmogonData.SpeedInfo(sets[best].nature(), sets[best].speEv());
+    }
+
+    /**
+     * Estimated in-battle speed: stat from the most probable spread (31 IV),
+     * ×1.5 when a Choice Scarf is likely. Returns -1 if base speed is unknown.
+     */
+    public int estimateSpeed(int baseSpeed, int level) {
+        if (baseSpeed <= 0) return -1;
+        SmogonData.SpeedInfo info = speedInfo();
+        int ev = info != null ? info.speEv() : 0;
+        String nature = info != null ? info.nature() : "Hardy";
+        int lvl = level > 0 ? level : 100;
+        int stat = (int) Math.floor((Math.floor((2.0 * baseSpeed + 31 + ev / 4) * lvl / 100.0) + 5) * natureSpeedModifier(nature));
+        if (likelyScarfUser()) stat = (int) Math.floor(stat * 1.5);
+        return Math.max(1, stat);
+    }
+
+    /** True if the opponent is probably immune to the attack type through its ability (Levitate, Flash Fire...). */
+    public boolean likelyImmuneTo(String attackType) {
+        if (attackType == null) return false;
+        String atk = attackType.toLowerCase();
+        if (revealedAbility != null) return atk.equals(immunityOf(revealedAbility));
+        double p = 0;
+        for (int i = 0; i < sets.length; i++) {
+            if (atk.equals(immunityOf(sets[i].ability()))) p += posterior[i];
+        }
+        return p >= IMMUNITY_THRESHOLD;
+    }
+
+    /** Revealed moves followed by commonly run Smogon moves (normalized names). */
+    public List<String> likelyMoves() {
+        List<String> out = new ArrayList<>(revealedMoves);
+        if (entry != null) {
+            for (var e : entry.moves().entrySet()) {
+                if (e.getValue() >= LIKELY_MOVE_PCT && !out.contains(e.getKey())) out.add(e.getKey());
+            }
+        }
+        return out;
+    }
+
+    public Set<String> revealedMoves() { return revealedMoves; }
+
+    public String summary() {
+        if (sets.length == 0) return speciesKey + ": no Smogon data";
+        int best = argMax();
+        CandidateSet s = sets[best];
+        return speciesKey + ": " + (s.item() != null ? s.item() : "other") + "/" + s.ability()
+                + " " + s.nature() + " " + s.speEv() + "spe p=" + String.format("%.2f", posterior[best])
+                + " scarf=" + String.format("%.2f", itemProbability("choicescarf"))
+                + (revealedMoves.isEmpty() ? "" : " revealed=" + revealedMoves);
+    }
+
+    // ========================
+    // Candidate construction
+    // ========================
+
+    static CandidateSet[] buildCandidates(SmogonData.SmogonEntry e) {
+        List<String> itemNames = new ArrayList<>();
+        List<Double> itemWeights = new ArrayList<>();
+        double itemListed = 0;
+        for (var it : e.items().entrySet()) {
+            if (itemNames.size() >= MAX_ITEMS) break;
+            itemNames.add(it.getKey());
+            itemWeights.add(it.getValue());
+            itemListed += it.getValue();
+        }
+        if (itemListed < 100.0) {
+            itemNames.add(null);
+            itemWeights.add(Math.max(1.0, 100.0 - itemListed));
+        }
+
+        List<String> abilityNames = new ArrayList<>();
+        List<Double> abilityWeights = new ArrayList<>();
+        for (var ab : e.abilities().entrySet()) {
+            if (abilityNames.size() >= MAX_ABILITIES) break;
+            abilityNames.add(ab.getKey());
+            abilityWeights.add(ab.getValue());
+        }
+        if (abilityNames.isEmpty()) {
+            abilityNames.add("");
+            abilityWeights.add(100.0);
+        }
+
+        List<SmogonData.SpeedInfo> spreads = new ArrayList<>();
+        for (SmogonData.SpreadInfo sp : e.spreads()) {
+            if (spreads.size() >= MAX_SPREADS) break;
+            spreads.add(new SmogonData.SpeedInfo(sp.nature(), sp.spe()));
+        }
+        if (spreads.isEmpty()) {
+            spreads.add(e.speed() != null ? e.speed() : new SmogonData.SpeedInfo("Hardy", 0));
+        }
+
+        List<CandidateSet> out = new ArrayList<>();
+        double total = 0;
+        for (int i = 0; i < itemNames.size(); i++) {
+            String item = itemNames.get(i);
+            int flags = 0;
+            if (item != null && item.startsWith("choice")) flags |= FLAG_CHOICE;
+            if ("choicescarf".equals(item)) flags |= FLAG_SCARF;
+            if ("assaultvest".equals(item)) flags |= FLAG_ASSAULT_VEST;
+            for (int a = 0; a < abilityNames.size(); a++) {
+                for (int s = 0; s < spreads.size(); s++) {
+                    // Spreads are listed by usage; give earlier ones more weight
+                    double w = itemWeights.get(i) * abilityWeights.get(a) / (s + 1);
+                    total += w;
+                    out.add(new CandidateSet(item, abilityNames.get(a), spreads.get(s).nature(), spreads.get(s).speEv(), w, flags));
+                }
+            }
+        }
+        CandidateSet[] arr = new CandidateSet[out.size()];
+        for (int i = 0; i < arr.length; i++) {
+            CandidateSet c = out.get(i);
+            arr[i] = new CandidateSet(c.item(), c.ability(), c.nature(), c.speEv(), total > 0 ? c.prior() / total : 0, c.flags());
+        }
+        return arr;
+    }
+
+    private static double[] priors(CandidateSet[] sets) {
+        double[] p = new double[sets.length];
+        for (int i = 0; i < sets.length; i++) p[i] = sets[i].prior();
+        return p;
+    }
+
+    private int argMax() {
+        int best = -1;
+        for (int i = 0; i < posterior.length; i++) {
+            if (best < 0 || posterior[i] > posterior[best]) best = i;
+        }
+        return best;
+    }
+
+    private static String immunityOf(String ability) {
+        return ability != null ? ABILITY_IMMUNITIES.get(ability) : null;
+    }
+
+    static double natureSpeedModifier(String nature) {
+        if (nature == null) return 1.0;
+        return switch (nature.toLowerCase()) {
+            case "timid", "jolly", "hasty", "naive" -> 1.1;
+            case "brave", "relaxed", "quiet", "sassy" -> 0.9;
+            default -> 1.0;
+        };
+    }
+}
@@ -0,0 +1,136 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import com.cobblemon.mod.common.pokemon.Pokemon;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Per-battle party × opponent switch-score matrix for {@link TrainerBattleEngine}.
+ * <p>
+ * One column per opponent (species key), one row per party Pokemon (UUID). When the opponent's
+ * inferred set changes ({@link OpponentSetInference#version()}) the column's {@link OpponentContext}
+ * is rebuilt, and its rows are dropped only if that context differs (a revealed move often changes
+ * nothing the scores use); a row is rebuilt only when that Pokemon's HP or PP signature changes. Everything else is
+ * a map read, so repeated switch prompts against the same opponent cost almost nothing.
+ * Also holds the party slot list so it is resolved (by reflection) once per battle.
+ * Cleared at battle end.
+ */
+final class PartyMatchupCache {
+
+    /** Opponent-side inputs shared by every row of a column; immune types come from inferred abilities. */
+    record OpponentContext(String speciesKey, List<String> types, List<String> coverageTypes, List<String> immuneTypes,
+                           int speed) {}
+
+    /** One cached cell: all switch-score factors for a party Pokemon vs the column's opponent. */
+    record Matchup(
+            String species,
+            List<String> types,
+            float hpPercent,
+            double offensive,
+            double oppEffAgainstMe,
+            double defensive,
+            double survivalFactor,
+            int speed,
+            double speedFactor,
+            double score
+    ) {}
+
+    interface Scorer {
+        Matchup score(Pokemon pokemon, OpponentContext opponent);
+    }
+
+    /** Opponent context of the selected column, or null if none is selected. */
+    OpponentContext opponent() {
+        return current != null ? current.opponent : null;
+    }
+
+    private static final class Row {
+        int hp;
+        int ppSignature;
+        Matchup matchup;
+    }
+
+    private static final class Column {
+        final OpponentContext opponent;
+        int inferenceVersion;
+        final Map<UUID, Row> rows = new HashMap<>();
+
+        Column(OpponentContext opponent, int inferenceVersion) {
+            this.opponent = opponent;
+            this.inferenceVersion = inferenceVersion;
+        }
+    }
+
+    private final Map<String, Column> columns = new HashMap<>();
+    private Column current;
+    private List<Pokemon> party;
+    private int rowsComputed = 0;
+    private int rowsReused = 0;
+
+    void clear() {
+        columns.clear();
+        current = null;
+        party = null;
+        rowsComputed = 0;
+        rowsReused = 0;
+    }
+
+    /**
+     * Select the column for the current opponent. The context supplier is only called when
+     * the column is new or the inference version moved on; the rows are kept if the context is unchanged.
+     */
+    OpponentContext selectOpponent(String speciesKey, int inferenceVersion, Supplier<OpponentContext> context) {
+        Column col = columns.get(speciesKey);
+        if (col == null || col.inferenceVersion != inferenceVersion) {
+            OpponentContext opponent = context.get();
+            if (col != null && col.opponent.equals(opponent)) {
+                col.inferenceVersion = inferenceVersion;
+            } else {
+                col = new Column(opponent, inferenceVersion);
+                columns.put(speciesKey, col);
+            }
+        }
+        current = col;
+        return col.opponent;
+    }
+
+    /**
+     * Cached matchup for a party Pokemon in the selected column; recomputed when HP or PP changed.
+     * Returns null if no column is selected.
+     */
+    Matchup get(Pokemon pokemon, int hp, int ppSignature, Scorer scorer) {
+        if (current == null) return null;
+        UUID pokemonId = pokemon.getUuid();
+        Row row = current.rows.get(pokemonId);
+        if (row != null && row.matchup != null && row.hp == hp && row.ppSignature == ppSignature) {
+            rowsReused++;
+            return row.matchup;
+        }
+        if (row == null) {
+            row = new Row();
+            current.rows.put(pokemonId, row);
+        }
+        row.hp = hp;
+        row.ppSignature = ppSignature;
+        row.matchup = scorer.score(pokemon, current.opponent);
+        rowsComputed++;
+        return row.matchup;
+    }
+
+    /** Party slots captured for this battle, or null if not resolved yet. */
+    List<Pokemon> party() {
+        return party;
+    }
+
+    void setParty(List<Pokemon> slots) {
+        party = slots;
+    }
+
+    String stats() {
+        return "columns=" + columns.size() + " computed=" + rowsComputed + " reused=" + rowsReused;
+    }
+}
@@ -0,0 +1,93 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import com.cobblemoon.autoqiqi.AutoQiqiClient;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reflection bridge to CobblemonExtendedBattleUI's revealed moves/items/abilities tracker.
+ * Each accessor is resolved independently, so a partial API match still yields what it can.
+ * Gracefully returns {@link Revealed#EMPTY} if the mod isn't loaded.
+ *
+ * Expected tracker (Kotlin object, INSTANCE field):
+ *   com.cobblemonextendedbattleui.BattleStateTracker
+ *     getRevealedMoves(UUID)   → Collection&lt;String&gt;
+ *     getRevealedItem(UUID)    → String (nullable)
+ *     getRevealedAbility(UUID) → String (nullable)
+ */
+final class RevealedInfoBridge {
+
+    private static final String TRACKER_CLASS = "com.cobblemonextendedbattleui.BattleStateTracker";
+
+    /** What the battle has revealed about one Pokemon. Names are raw (display or internal). */
+    record Revealed(List<String> moves, String item, String ability) {
+        static final Revealed EMPTY = new Revealed(List.of(), null, null);
+    }
+
+    private static Boolean available;
+    private static Object tracker;
+    private static Method movesMethod;
+    private static Method itemMethod;
+    private static Method abilityMethod;
+
+    private RevealedInfoBridge() {}
+
+    static boolean isAvailable() {
+        if (available == null) {
+            try {
+                Class<?> cls = Class.forName(TRACKER_CLASS);
+                try {
+                    tracker = cls.getField("INSTANCE").get(null);
+                } catch (NoSuchFieldException e) {
+                    tracker = null; // static methods
+                }
+                movesMethod = findMethod(cls, "getRevealedMoves");
+                itemMethod = findMethod(cls, "getRevealedItem");
+                abilityMethod = findMethod(cls, "getRevealedAbility");
+                available = movesMethod != null || itemMethod != null || abilityMethod != null;
+                AutoQiqiClient.logDebug("Revealed", available
+                        ? "ExtendedBattleUI detected (moves=" + (movesMethod != null) + " item=" + (itemMethod != null)
+                            + " ability=" + (abilityMethod != null) + ")"
+                        : "ExtendedBattleUI found but no revealed-info accessors");
+            } catch (Exception e) {
+                available = false;
+                AutoQiqiClient.logDebug("Revealed", "ExtendedBattleUI not found: " + e.getMessage());
+            }
+        }
+        return available;
+    }
+
+    /** Revealed info for the battle Pokemon with this UUID. */
+    static Revealed read(UUID pokemonUuid) {
+        if (pokemonUuid == null || !isAvailable()) return Revealed.EMPTY;
+        List<String> moves = new ArrayList<>();
+        Object m = call(movesMethod, pokemonUuid);
+        if (m instanceof Collection<?> c) {
+            for (Object o : c) if (o != null) moves.add(o.toString());
+        }
+        Object item = call(itemMethod, pokemonUuid);
+        Object ability = call(abilityMethod, pokemonUuid);
+        return new Revealed(moves, item != null ? item.toString() : null, ability != null ? ability.toString() : null);
+    }
+
+    private static Object call(Method method, UUID uuid) {
+        if (method == null) return null;
+        try {
+            return method.invoke(tracker, uuid);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Method findMethod(Class<?> cls, String name) {
+        try {
+            return cls.getMethod(name, UUID.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package com.cobblemoon.autoqiqi.battle;
 
 import com.cobblemoon.autoqiqi.AutoQiqiClient;
+import com.cobblemoon.autoqiqi.common.SpeciesKey;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 
@@ -39,15 +41,7 @@ public class SmogonData {
                 loaded = true;
                 return;
             }
-            JsonObject root = new Gson().fromJson(new InputStreamReader(is, StandardCharsets.UTF_8), JsonObject.class);
-            JsonObject pokemon = root.getAsJsonObject("pokemon");
-            if (pokemon == null) {
-                loaded = true;
-                return;
-            }
-            for (var entry : pokemon.entrySet()) {
-                ENTRIES.put(entry.getKey(), parseEntry(entry.getValue().getAsJsonObject()));
-            }
+            ENTRIES.putAll(parse(new InputStreamReader(is, StandardCharsets.UTF_8)));
             AutoQiqiClient.logDebug("Smogon", "Loaded " + ENTRIES.size() + " Pokemon from Smogon OU stats");
         } catch (Exception e) {
             AutoQiqiClient.logDebug("Smogon", "Failed to load Smogon data: " + e.getMessage());
@@ -55,11 +49,30 @@ public class SmogonData {
         loaded = true;
     }
 
-    /** Look up by normalized species name (lowercase, no special chars). */
+    /** Entries of a smogon_ou.json document by species key (empty without a "pokemon" object). */
+    static Map<String, SmogonEntry> parse(Reader reader) {
+        Map<String, SmogonEntry> entries = new HashMap<>();
+        JsonObject root = new Gson().fromJson(reader, JsonObject.class);
+        JsonObject pokemon = root.getAsJsonObject("pokemon");
+        if (pokemon == null) return entries;
+        for (var entry : pokemon.entrySet()) {
+            entries.put(SpeciesKey.of(entry.getKey()), parseEntry(entry.getValue().getAsJsonObject()));
+        }
+        return entries;
+    }
+
+    /** Look up by species name; normalized through {@link SpeciesKey}. */
     public static SmogonEntry get(String normalizedSpecies) {
         if (!loaded) load();
         if (normalizedSpecies == null) return null;
-        return ENTRIES.get(normalizedSpecies.toLowerCase().replaceAll("[^a-z0-9]", ""));
+        return ENTRIES.get(SpeciesKey.of(normalizedSpecies));
+    }
+
+    /** Look up by Cobblemon species (identity-cached key). */
+    public static SmogonEntry get(com.cobblemon.mod.common.pokemon.Species species) {
+        if (!loaded) load();
+        if (species == null) return null;
+        return ENTRIES.get(SpeciesKey.of(species));
     }
 
     /** Check if we have data for a species. */
@@ -1,7 +1,7 @@
 package com.cobblemoon.autoqiqi.battle;
 
 import com.cobblemon.mod.common.api.moves.MoveTemplate;
-import com.cobblemon.mod.common.api.moves.Moves;
+import com.cobblemon.mod.common.api.pokemon.stats.Stats;
 import com.cobblemon.mod.common.client.CobblemonClient;
 import com.cobblemon.mod.common.client.battle.ClientBattle;
 import com.cobblemon.mod.common.client.battle.ClientBattlePokemon;
@@ -9,11 +9,11 @@ import com.cobblemon.mod.common.client.gui.battle.subscreen.BattleMoveSelection.
 import com.cobblemon.mod.common.client.gui.battle.subscreen.BattleSwitchPokemonSelection.SwitchTile;
 import com.cobblemon.mod.common.pokemon.Pokemon;
 import com.cobblemoon.autoqiqi.AutoQiqiClient;
+import com.cobblemoon.autoqiqi.common.Metrics;
+import com.cobblemoon.autoqiqi.common.SpeciesKey;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Smart battle engine for hard trainer fights (Lv.100 etc.).
@@ -23,39 +23,31 @@ import java.util.Set;
  *   <li>When switching, picks the Pokemon with the strongest attack vs the opponent.</li>
  *   <li>Advisor shows "better option" only when current is fainted or has only ineffective moves.</li>
  *   <li>When active Pokemon HP is below 40%, prefers recovery moves (Recover/Soin, Roost/Atterrissage) if available.</li>
+ *   <li>Opponent item/ability/speed are inferred by {@link OpponentSetInference} from Smogon priors and revealed info.</li>
  * </ul>
  */
 public class TrainerBattleEngine {
     private static final TrainerBattleEngine INSTANCE = new TrainerBattleEngine();
-
-    /** Normalized (lowercase, no spaces) move names that restore HP. Use recovery when HP &lt; 40%. */
-    private static final Set<String> RECOVERY_MOVE_NAMES = Set.of(
-            "recover", "soin",
-            "roost", "atterrissage"
-    );
-
-    /** Normalized move names with positive priority (+1 or higher). Used when Cobblemon template does not expose priority. */
-    private static final Set<String> PRIORITY_MOVE_NAMES = Set.of(
-            "suckerpunch", "quickattack", "aquajet", "bulletpunch", "iceshard", "machpunch",
-            "vacuumwave", "watershuriken", "extremespeed", "accelerock", "shadowsneak", "firstimpression"
-    );
+    private static final Metrics.Histogram CHOOSE_MOVE_NANOS = Metrics.histogram("battle.chooseBestMove");
 
     /** After this many attacks on the same opponent without KO, advise/auto-switch. */
     public static final int ATTACKS_BEFORE_SWITCH_ADVICE = 5;
 
     /** Species where we don't trust type info and cycle through our moves instead. */
     private static boolean shouldCycleMoves(String speciesName) {
-        if (speciesName == null) return false;
-        String lower = speciesName.toLowerCase();
-        return lower.startsWith("rotom") || lower.equals("motisma") || lower.equals("heatran");
+        return TrainerStrategy.shouldCycleMoves(SpeciesKey.of(speciesName));
     }
 
     private boolean justSwitched = false;
     private int turnCount = 0;
-    /** Opponent identity key (internal name); when it changes, attack count resets. */
+    /** Opponent identity key ({@link SpeciesKey}); when it changes, attack count resets. */
     private String lastOpponentKey = "";
     /** Number of attacks we've used against the current opponent (same lastOpponentKey). */
     private int attacksAgainstCurrentOpponent = 0;
+    /** Posterior over the current opponent's set; reset when the opponent changes. */
+    private final OpponentSetInference opponentSets = new OpponentSetInference();
+    /** Party × opponent switch scores for this battle. */
+    private final PartyMatchupCache matchups = new PartyMatchupCache();
 
     private TrainerBattleEngine() {}
 
@@ -66,17 +58,53 @@ public class TrainerBattleEngine {
         turnCount = 0;
         lastOpponentKey = "";
         attacksAgainstCurrentOpponent = 0;
+        opponentSets.reset("");
+        matchups.clear();
     }
 
     /**
-     * Call at start of each turn (general action). Resets attack count if the opponent changed.
+     * Call at start of each turn (general action). Resets attack count if the opponent changed,
+     * then feeds newly revealed opponent info into the set inference. A new opponent gets its
+     * party matchup column computed here, so later switch prompts only read it.
      */
     public void syncOpponentAndAttackCount() {
         String key = getOpponentPokemonNameInternal();
         if (key == null) key = "";
-        if (!key.equals(lastOpponentKey)) {
+        boolean newOpponent = !key.equals(lastOpponentKey);
+        if (newOpponent) {
             lastOpponentKey = key;
             attacksAgainstCurrentOpponent = 0;
+            opponentSets.reset(key);
+        }
+        updateOpponentSetInference();
+        if (newOpponent) {
+            precomputeMatchups();
+        }
+    }
+
+    /** Current opponent set inference (read-only use: HUD, advisor). */
+    public OpponentSetInference getOpponentSets() {
+        return opponentSets;
+    }
+
+    private void updateOpponentSetInference() {
+        if (!opponentSets.hasData()) return;
+        ClientBattlePokemon bp = getOpponentBattlePokemon();
+        if (bp == null) return;
+        RevealedInfoBridge.Revealed revealed;
+        try {
+            revealed = RevealedInfoBridge.read(bp.getUuid());
+        } catch (Exception e) {
+            return;
+        }
+        boolean changed = false;
+        for (String move : revealed.moves()) {
+            changed |= opponentSets.observeMove(move, MoveTable.has(MoveTable.id(move), MoveTable.FLAG_STATUS));
+        }
+        if (revealed.item() != null) changed |= opponentSets.observeItem(revealed.item());
+        if (revealed.ability() != null) changed |= opponentSets.observeAbility(revealed.ability());
+        if (changed) {
+            AutoQiqiClient.logDebug("Trainer", "Opponent set: " + opponentSets.summary());
         }
     }
 
@@ -164,135 +192,54 @@ public class TrainerBattleEngine {
     // ========================
 
     /**
-     * Pick the move that will deal the most estimated damage.
-     * In BERSERK mode, only considers moves that guarantee a KO (min damage >= opponent current HP).
+     * Pick the move that will deal the most estimated damage (see {@link TrainerStrategy#chooseMove}).
+     * In BERSERK mode, only damaging moves are considered.
      * Score = basePower × typeEffectiveness × STAB.
      */
     public MoveTile chooseBestMove(List<MoveTile> tiles) {
-        List<String> oppTypes = getOpponentTypes();
-        List<String> myTypes = getActiveTypes();
-        String oppSpecies = getOpponentPokemonNameInternal();
-        List<String> oppTypesForCalc = shouldCycleMoves(oppSpecies) ? List.of() : oppTypes;
-
-        // In Berserk mode: prefer highest-raw-damage moves using same heuristic (power * eff * stab)
-        // No damage calculator needed — just pick the strongest hit
-        if (AutoQiqiClient.getBattleMode() == BattleMode.BERSERK) {
-            List<MoveTile> damaging = new ArrayList<>();
-            for (MoveTile tile : tiles) {
-                if (getMoveCurrentPp(tile) == 0) continue;
-                MoveInfo info = lookupMove(tile.getMove().getMove());
-                if (info != null && info.power() > 0) damaging.add(tile);
-            }
-            if (!damaging.isEmpty()) {
-                tiles = damaging;
-                AutoQiqiClient.logDebug("Trainer", "Berserk: restricted to " + damaging.size() + " damaging move(s)");
-            }
+        if (tiles.isEmpty()) return null;
+        long t0 = System.nanoTime();
+        try {
+            return selectMove(tiles);
+        } finally {
+            CHOOSE_MOVE_NANOS.recordSince(t0);
         }
+    }
 
-        // Filter out moves with 0 PP (unknown PP -1 is treated as usable)
-        List<MoveTile> withPp = tiles.stream().filter(t -> getMoveCurrentPp(t) != 0).toList();
-        if (withPp.isEmpty() && !tiles.isEmpty()) {
-            withPp = tiles; // fallback: all reported 0 PP, pick first (e.g. Struggle)
+    private MoveTile selectMove(List<MoveTile> tiles) {
+        TrainerStrategy.MoveInput input = buildMoveInput(tiles);
+        for (TrainerStrategy.MoveOption m : input.moves()) {
+            AutoQiqiClient.logDebug("Trainer", "  Move " + m.name() + " type=" + m.type() + " pow=" + m.power()
+                    + " prio=" + m.priority() + " pp=" + m.pp());
         }
-        if (withPp.isEmpty()) {
-            return tiles.isEmpty() ? null : tiles.get(0);
-        }
-        tiles = withPp;
 
-        // When HP below 40%, prefer recovery moves (Soin/Recover, Atterrissage/Roost)
-        float myHp = getActiveHpPercent();
-        if (myHp >= 0 && myHp < 40) {
-            for (MoveTile tile : tiles) {
-                if (isRecoveryMove(tile.getMove().getMove()) && getMoveCurrentPp(tile) != 0) {
-                    AutoQiqiClient.logDebug("Trainer", "HP=" + f(myHp) + "% < 40%: using recovery move " + tile.getMove().getMove());
-                    return tile;
-                }
-            }
-        }
+        long start = System.nanoTime();
+        TrainerStrategy.MoveDecision decision = TrainerStrategy.chooseMove(input);
+        DecisionRecorder.get().recordMove(input, decision, System.nanoTime() - start);
 
-        // Rotom/Motisma/Heatran: don't trust type info — cycle through current Pokemon's damaging moves
-        if (shouldCycleMoves(oppSpecies)) {
-            List<MoveTile> damaging = new ArrayList<>();
-            for (MoveTile tile : tiles) {
-                if (getMoveCurrentPp(tile) == 0) continue;
-                MoveInfo info = lookupMove(tile.getMove().getMove());
-                if (info != null && info.power() > 0) damaging.add(tile);
-            }
-            if (!damaging.isEmpty()) {
-                damaging.sort(Comparator.comparing(t -> t.getMove().getMove().toLowerCase()));
-                int idx = attacksAgainstCurrentOpponent % damaging.size();
-                MoveTile chosen = damaging.get(idx);
-                AutoQiqiClient.logDebug("Trainer", "CycleMoves: cycling move " + (idx + 1) + "/" + damaging.size() + " -> " + chosen.getMove().getMove());
-                return chosen;
-            }
-        }
-
-        MoveTile best = null;
-        double bestScore = -1;
-        MoveInfo bestInfo = null;
-        List<MoveTile> candidatesWithScore = new ArrayList<>();
+        if (decision.switchPriorityConsumed()) justSwitched = false;
+        if (decision.index() < 0) return tiles.get(0);
+        MoveTile chosen = tiles.get(decision.index());
+        AutoQiqiClient.logDebug("Trainer", "Selected move: " + chosen.getMove().getMove()
+                + " (" + decision.reason() + ", score=" + f(decision.score()) + ")");
+        return chosen;
+    }
 
+    /** Snapshot of everything move choice reads: tiles resolved through {@link MoveTable}, types, HP, mode. */
+    private TrainerStrategy.MoveInput buildMoveInput(List<MoveTile> tiles) {
+        List<TrainerStrategy.MoveOption> moves = new ArrayList<>(tiles.size());
         for (MoveTile tile : tiles) {
-            if (getMoveCurrentPp(tile) == 0) {
-                AutoQiqiClient.logDebug("Trainer", "  Move " + tile.getMove().getMove() + " skipped (0 PP)");
-                continue;
-            }
-            String moveName = tile.getMove().getMove();
-            MoveInfo info = lookupMove(moveName);
-
-            double eff = TypeChart.getEffectiveness(info.type, oppTypesForCalc, oppSpecies);
-            double stab = myTypes.contains(info.type) ? 1.5 : 1.0;
-            double score;
-
-            if (info.power > 0) {
-                score = info.power * eff * stab;
-            } else {
-                score = 5.0;
-            }
-
-            AutoQiqiClient.logDebug("Trainer", "  Move " + moveName
-                    + " type=" + info.type + " pow=" + info.power + " prio=" + info.priority
-                    + " eff=" + eff + " stab=" + stab + " => score=" + f(score));
-
-            candidatesWithScore.add(tile);
-            if (score > bestScore) {
-                bestScore = score;
-                best = tile;
-                bestInfo = info;
-            }
-        }
-
-        // First attack after switch: prefer highest-priority move among damaging moves (e.g. Coup Bas/Sucker Punch for Shifours), only if not resisted
-        if (justSwitched && best != null && bestInfo != null && !candidatesWithScore.isEmpty()) {
-            MoveTile priorityPick = null;
-            int bestPriority = Integer.MIN_VALUE;
-            double bestScoreAmongPriority = -1;
-            for (MoveTile tile : candidatesWithScore) {
-                if (getMoveCurrentPp(tile) == 0) continue;
-                MoveInfo info = lookupMove(tile.getMove().getMove());
-                if (info.power <= 0) continue;
-                double eff = TypeChart.getEffectiveness(info.type, oppTypesForCalc, oppSpecies);
-                if (eff < 1.0) continue; // Only consider priority move if not resisted
-                double stab = myTypes.contains(info.type) ? 1.5 : 1.0;
-                double score = info.power * eff * stab;
-                if (info.priority > bestPriority || (info.priority == bestPriority && score > bestScoreAmongPriority)) {
-                    bestPriority = info.priority;
-                    bestScoreAmongPriority = score;
-                    priorityPick = tile;
-                }
-            }
-            if (priorityPick != null && bestPriority > 0) {
-                AutoQiqiClient.logDebug("Trainer", "First attack after switch: preferring priority move " + priorityPick.getMove().getMove() + " (priority=" + bestPriority + ")");
-                best = priorityPick;
-            }
-            justSwitched = false;
+            String name = tile.getMove().getMove();
+            moves.add(moveOption(name, MoveTable.id(name), getMoveCurrentPp(tile)));
         }
+        return new TrainerStrategy.MoveInput(moves, getActiveTypes(), getOpponentTypes(),
+                getOpponentPokemonNameInternal(), getInferredImmuneTypes(), getActiveHpPercent(),
+                AutoQiqiClient.getBattleMode() == BattleMode.BERSERK, justSwitched, attacksAgainstCurrentOpponent);
+    }
 
-        if (best != null) {
-            AutoQiqiClient.logDebug("Trainer", "Selected move: " + best.getMove().getMove()
-                    + " (score=" + f(bestScore) + ")");
-        }
-        return best != null ? best : (tiles.isEmpty() ? null : tiles.get(0));
+    private static TrainerStrategy.MoveOption moveOption(String name, int id, int pp) {
+        return new TrainerStrategy.MoveOption(name, MoveTable.type(id), MoveTable.power(id),
+                MoveTable.priority(id), MoveTable.flags(id), pp);
     }
 
     // ========================
@@ -305,122 +252,161 @@ public class TrainerBattleEngine {
      * <ul>
      *   <li>Defensive = 1 / opponent's best STAB effectiveness vs this Pokemon.</li>
      *   <li>SurvivalFactor: heavily penalizes candidates the opponent can likely OHKO (2x/4x super effective).</li>
-     *   <li>SpeedFactor: rewards fast candidates with strong attacks; penalizes slow ones facing super effective hits.</li>
+     *   <li>SpeedFactor: rewards fast candidates with strong attacks; penalizes slow ones facing super effective hits.
+     *       Opponent speed comes from the inferred spread, ×1.5 when a Choice Scarf is likely.</li>
+     *   <li>Opponent threat includes likely coverage moves from {@link OpponentSetInference}, not just STAB.</li>
      * </ul>
      * Fainted Pokemon are excluded via hpFactor.
      */
     public SwitchTile chooseBestSwitch(List<SwitchTile> tiles) {
-        List<String> oppTypes = getOpponentTypes();
-        String oppSpecies = getOpponentPokemonNameInternal();
-        int oppSpeed = getOpponentSpeed();
-
-        SwitchTile best = null;
-        double bestScore = -1;
+        long start = System.nanoTime();
+        PartyMatchupCache.OpponentContext opp = selectMatchupColumn();
 
+        List<PartyMatchupCache.Matchup> scored = new ArrayList<>(tiles.size());
         for (SwitchTile tile : tiles) {
-            Pokemon pokemon = tile.getPokemon();
-            float hpPct = getPokemonHpPercent(pokemon);
-            if (hpPct <= 0) continue; // Skip fainted
-
-            double hpFactor = hpPct / 100.0;
-            double offensive = evaluateOffensivePotential(pokemon, oppTypes, oppSpecies);
-            List<String> pokTypes = extractTypes(pokemon);
-            String candidateSpecies = pokemon.getSpecies().getName();
-            double oppEffAgainstMe = TypeChart.getBestStabEffectiveness(oppTypes, pokTypes, candidateSpecies);
-            double defensive = 1.0 / Math.max(0.25, oppEffAgainstMe);
-
-            // Survivability: penalize candidates the opponent can likely OHKO
-            double survivalFactor = 1.0;
-            if (oppEffAgainstMe >= 4.0) {
-                survivalFactor = 0.05; // double super effective = almost certain OHKO
-            } else if (oppEffAgainstMe >= 2.0) {
-                survivalFactor = 0.3;  // super effective = high risk of OHKO
-            }
+            PartyMatchupCache.Matchup m = getMatchup(tile.getPokemon());
+            scored.add(m);
+            if (m == null || m.hpPercent() <= 0) continue; // Skip fainted
+
+            AutoQiqiClient.logDebug("Trainer", "  Switch " + m.species()
+                    + " types=" + m.types() + " HP=" + f(m.hpPercent()) + "%"
+                    + " off=" + f(m.offensive()) + " oppEff=" + f(m.oppEffAgainstMe()) + " def=" + f(m.defensive())
+                    + " surv=" + f(m.survivalFactor()) + " spd=" + m.speed() + (m.speed() > opp.speed() ? ">" : "<=") + opp.speed()
+                    + " spdF=" + f(m.speedFactor())
+                    + " => score=" + f(m.score()));
+        }
+        int bestIdx = TrainerStrategy.chooseSwitch(scored);
+        long nanos = System.nanoTime() - start;
 
-            // Speed: reward being faster with strong offense; penalize being slower under threat
-            int candidateSpeed = getSpeed(pokemon);
-            boolean isFaster = candidateSpeed > oppSpeed;
-            boolean hasSuperEffective = offensive > 150; // power*eff*stab threshold for strong hit
+        if (DecisionRecorder.get().isEnabled()) {
+            List<TrainerStrategy.PartyMember> party = new ArrayList<>(tiles.size());
+            for (SwitchTile tile : tiles) party.add(partyMember(tile.getPokemon()));
+            DecisionRecorder.get().recordSwitch(opp, party, bestIdx, nanos);
+        }
 
-            double speedFactor = 1.0;
-            if (isFaster && hasSuperEffective) {
-                speedFactor = 1.5; // fast + strong = great switch-in
-            } else if (!isFaster && oppEffAgainstMe >= 2.0) {
-                speedFactor = 0.5; // slow + takes super effective = bad switch-in
-            }
+        if (bestIdx < 0) return tiles.isEmpty() ? null : tiles.get(0);
+        SwitchTile best = tiles.get(bestIdx);
+        AutoQiqiClient.logDebug("Trainer", "Switch to: " + best.getPokemon().getSpecies().getName()
+                + " (off+def+surv+spd, score=" + f(scored.get(bestIdx).score()) + ", matchups " + matchups.stats() + ")");
+        return best;
+    }
 
-            double score = (offensive + defensive * 50.0) * hpFactor * survivalFactor * speedFactor;
+    // ========================
+    // Party matchup matrix
+    // ========================
 
-            String name = candidateSpecies;
-            AutoQiqiClient.logDebug("Trainer", "  Switch " + name
-                    + " types=" + pokTypes + " HP=" + f(hpPct) + "%"
-                    + " off=" + f(offensive) + " oppEff=" + f(oppEffAgainstMe) + " def=" + f(defensive)
-                    + " surv=" + f(survivalFactor) + " spd=" + candidateSpeed + (isFaster ? ">" : "<=") + oppSpeed
-                    + " spdF=" + f(speedFactor)
-                    + " => score=" + f(score));
+    /** Fill the current opponent's column for every party member (called when a new opponent appears). */
+    private void precomputeMatchups() {
+        selectMatchupColumn();
+        List<Pokemon> party = getPartySlots();
+        if (party == null) return;
+        for (Pokemon p : party) {
+            if (p != null) getMatchup(p);
+        }
+        AutoQiqiClient.logDebug("Trainer", "Matchups vs " + lastOpponentKey + ": " + matchups.stats());
+    }
+
+    private PartyMatchupCache.OpponentContext selectMatchupColumn() {
+        return matchups.selectOpponent(getOpponentPokemonNameInternal(), opponentSets.version(),
+                () -> new PartyMatchupCache.OpponentContext(
+                        getOpponentPokemonNameInternal(), getOpponentTypes(),
+                        getOpponentLikelyAttackTypes(), getInferredImmuneTypes(), getOpponentSpeed()));
+    }
 
-            if (score > bestScore) {
-                bestScore = score;
-                best = tile;
+    private PartyMatchupCache.Matchup getMatchup(Pokemon pokemon) {
+        if (pokemon == null) return null;
+        try {
+            return matchups.get(pokemon, pokemon.getCurrentHealth(), ppSignature(pokemon), this::computeMatchup);
+        } catch (Exception e) {
+            return computeMatchup(pokemon, selectMatchupColumn());
+        }
+    }
+
+    /** One matrix cell, scored by {@link TrainerStrategy#scoreMatchup}. */
+    private PartyMatchupCache.Matchup computeMatchup(Pokemon pokemon, PartyMatchupCache.OpponentContext opp) {
+        return TrainerStrategy.scoreMatchup(partyMember(pokemon), opp);
+    }
+
+    /** Party Pokemon as plain data: types, HP, speed and moves (null if the moveset is unreadable). */
+    private TrainerStrategy.PartyMember partyMember(Pokemon pokemon) {
+        List<?> moveObjs = getMoves(pokemon);
+        List<TrainerStrategy.MoveOption> moves = null;
+        if (!moveObjs.isEmpty()) {
+            moves = new ArrayList<>(moveObjs.size());
+            for (Object moveObj : moveObjs) {
+                if (moveObj == null) continue;
+                try {
+                    MoveTemplate tpl = getTemplate(moveObj);
+                    moves.add(moveOption(tpl.getName(), MoveTable.id(tpl), getCurrentPp(moveObj)));
+                } catch (Exception ignored) {}
             }
         }
+        return new TrainerStrategy.PartyMember(pokemon.getSpecies().getName(), SpeciesKey.of(pokemon.getSpecies()),
+                extractTypes(pokemon), getPokemonHpPercent(pokemon), getSpeed(pokemon), moves);
+    }
 
-        if (best != null) {
-            AutoQiqiClient.logDebug("Trainer", "Switch to: " + best.getPokemon().getSpecies().getName()
-                    + " (off+def+surv+spd, score=" + f(bestScore) + ")");
+    /** Hash of current PP over the moveset; changes whenever any move is used. */
+    private static int ppSignature(Pokemon pokemon) {
+        int sum = 0;
+        for (Object move : getMoves(pokemon)) {
+            sum = sum * 31 + getCurrentPp(move);
         }
-        return best != null ? best : (tiles.isEmpty() ? null : tiles.get(0));
+        return sum;
     }
 
     // ========================
-    // Move lookup via Cobblemon registry
+    // Move lookup via MoveTable
     // ========================
 
-    private record MoveInfo(String type, double power, int priority) {}
-
-    private MoveInfo lookupMove(String moveName) {
-        MoveTemplate tpl = lookupMoveTemplate(moveName);
-        if (tpl != null) {
-            String type = tpl.getElementalType().getName().toLowerCase();
-            double power = tpl.getPower();
-            int priority = getMovePriorityFromTemplate(tpl);
-            if (priority == 0) {
-                String normalized = moveName.toLowerCase().replaceAll("[^a-z0-9]", "");
-                if (PRIORITY_MOVE_NAMES.contains(normalized)) priority = 1;
-            }
-            return new MoveInfo(type, power, priority);
-        }
-        AutoQiqiClient.logDebug("Trainer", "Move not found in registry: '" + moveName + "'");
-        return new MoveInfo("normal", 50, 0);
+    /** Type effectiveness plus inferred ability immunities (Levitate, Flash Fire...) of the current opponent. */
+    private double moveEffectiveness(String moveType, List<String> oppTypes, String oppSpeciesName) {
+        if (opponentSets.likelyImmuneTo(moveType)) return 0.0;
+        return TypeChart.getEffectiveness(moveType, oppTypes, oppSpeciesName);
     }
 
-    /** Read move priority from Cobblemon MoveTemplate (e.g. Sucker Punch +1). Uses reflection for API compatibility. */
-    private static int getMovePriorityFromTemplate(MoveTemplate tpl) {
-        if (tpl == null) return 0;
-        try {
-            var m = tpl.getClass().getMethod("getPriority");
-            Object v = m.invoke(tpl);
-            if (v instanceof Number) return ((Number) v).intValue();
-        } catch (Exception ignored) {}
-        return 0;
+    /** Attack types the current opponent is likely immune to through its (inferred) ability. */
+    private List<String> getInferredImmuneTypes() {
+        List<String> immune = new ArrayList<>(2);
+        for (int i = 0; i < TypeChart.typeCount(); i++) {
+            String type = TypeChart.typeName(i);
+            if (opponentSets.likelyImmuneTo(type)) immune.add(type);
+        }
+        return immune;
     }
 
-    private MoveTemplate lookupMoveTemplate(String moveName) {
+    // Reflection to bypass MoveSet's KMappedMarker (Kotlin marker inaccessible from Java).
+    // Methods are resolved once and reused for every party member.
+    private static java.lang.reflect.Method getMoveSetMethod;
+    private static java.lang.reflect.Method getMovesMethod;
+    private static java.lang.reflect.Method getTemplateMethod;
+    private static java.lang.reflect.Method getCurrentPpMethod;
+
+    /** Moves of a party Pokemon (Cobblemon Move objects), or empty if unavailable. */
+    private static List<?> getMoves(Pokemon pokemon) {
         try {
-            String normalized = moveName.toLowerCase().replaceAll("[^a-z0-9]", "");
-            MoveTemplate tpl = Moves.INSTANCE.getByName(normalized);
-            if (tpl == null) tpl = Moves.INSTANCE.getByName(moveName);
-            return tpl;
+            if (getMoveSetMethod == null) getMoveSetMethod = pokemon.getClass().getMethod("getMoveSet");
+            Object moveSetObj = getMoveSetMethod.invoke(pokemon);
+            if (getMovesMethod == null) getMovesMethod = moveSetObj.getClass().getMethod("getMoves");
+            return (List<?>) getMovesMethod.invoke(moveSetObj);
         } catch (Exception e) {
-            return null;
+            return List.of();
         }
     }
 
-    /** True if the move is a known recovery move (Recover/Soin, Roost/Atterrissage). */
-    private static boolean isRecoveryMove(String moveName) {
-        if (moveName == null) return false;
-        String normalized = moveName.toLowerCase().replaceAll("[^a-z0-9]", "");
-        return RECOVERY_MOVE_NAMES.contains(normalized);
+    private static MoveTemplate getTemplate(Object move) throws ReflectiveOperationException {
+        if (getTemplateMethod == null) getTemplateMethod = move.getClass().getMethod("getTemplate");
+        return (MoveTemplate) getTemplateMethod.invoke(move);
+    }
+
+    /** Current PP of a party move, or -1 if unknown. */
+    private static int getCurrentPp(Object move) {
+        if (move == null) return -1;
+        try {
+            if (getCurrentPpMethod == null) getCurrentPpMethod = move.getClass().getMethod("getCurrentPp");
+            Object v = getCurrentPpMethod.invoke(move);
+            if (v instanceof Number n) return n.intValue();
+        } catch (Exception ignored) {}
+        return -1;
     }
 
     /**
@@ -450,66 +436,19 @@ public class TrainerBattleEngine {
      * Uses opponent species for overrides (e.g. Heatran immune to Fire).
      * For cycle-moves species we don't trust type info: true if the Pokemon has any damaging move.
      */
-    @SuppressWarnings("unchecked")
     private boolean hasEffectiveMoveAgainst(Pokemon pokemon, List<String> oppTypes, String oppSpeciesName) {
-        try {
-            Object moveSetObj = pokemon.getClass().getMethod("getMoveSet").invoke(pokemon);
-            java.util.List<?> moves = (java.util.List<?>) moveSetObj.getClass()
-                    .getMethod("getMoves").invoke(moveSetObj);
-            for (Object moveObj : moves) {
-                if (moveObj == null) continue;
-                try {
-                    MoveTemplate tpl = (MoveTemplate) moveObj.getClass()
-                            .getMethod("getTemplate").invoke(moveObj);
-                    if (tpl.getPower() <= 0) continue;
-                    if (shouldCycleMoves(oppSpeciesName)) return true;
-                    String mType = tpl.getElementalType().getName().toLowerCase();
-                    double eff = TypeChart.getEffectiveness(mType, oppTypes, oppSpeciesName);
-                    if (eff > 0.5) return true;
-                } catch (Exception ignored) {}
-            }
-        } catch (Exception ignored) {}
-        return false;
-    }
-
-    /**
-     * Evaluate how much damage a Pokemon's moves can deal to the opponent.
-     * Returns the best single-move score (power × effectiveness × STAB).
-     * Uses opponent species for overrides (e.g. Heatran immune to Fire).
-     * For cycle-moves species we don't trust type info: use effectiveness 1.0 (power × STAB only).
-     */
-    @SuppressWarnings("unchecked")
-    private double evaluateOffensivePotential(Pokemon pokemon, List<String> oppTypes, String oppSpeciesName) {
-        List<String> pokTypes = extractTypes(pokemon);
-        double best = 0;
-        boolean ignoreTypes = shouldCycleMoves(oppSpeciesName);
-        try {
-            // Reflection to bypass MoveSet's KMappedMarker (Kotlin marker inaccessible from Java)
-            Object moveSetObj = pokemon.getClass().getMethod("getMoveSet").invoke(pokemon);
-            java.util.List<?> moves = (java.util.List<?>) moveSetObj.getClass()
-                    .getMethod("getMoves").invoke(moveSetObj);
-            for (Object moveObj : moves) {
-                if (moveObj == null) continue;
-                try {
-                    MoveTemplate tpl = (MoveTemplate) moveObj.getClass()
-                            .getMethod("getTemplate").invoke(moveObj);
-                    String mType = tpl.getElementalType().getName().toLowerCase();
-                    double pow = tpl.getPower();
-                    if (pow <= 0) continue;
-                    double eff = ignoreTypes ? 1.0 : TypeChart.getEffectiveness(mType, oppTypes, oppSpeciesName);
-                    double stab = pokTypes.contains(mType) ? 1.5 : 1.0;
-                    double score = pow * eff * stab;
-                    if (score > best) best = score;
-                } catch (Exception ignored) {}
-            }
-        } catch (Exception e) {
-            if (!ignoreTypes) {
-                best = TypeChart.getBestStabEffectiveness(pokTypes, oppTypes, oppSpeciesName) * 80;
-            } else if (best == 0) {
-                best = 80;
-            }
+        for (Object moveObj : getMoves(pokemon)) {
+            if (moveObj == null) continue;
+            try {
+                int id = MoveTable.id(getTemplate(moveObj));
+                if (!MoveTable.isDamaging(id)) continue;
+                if (shouldCycleMoves(oppSpeciesName)) return true;
+                String mType = MoveTable.type(id);
+                double eff = moveEffectiveness(mType, oppTypes, oppSpeciesName);
+                if (eff > 0.5) return true;
+            } catch (Exception ignored) {}
         }
-        return best;
+        return false;
     }
 
     // ========================
@@ -530,13 +469,13 @@ public class TrainerBattleEngine {
         } catch (Exception e) { return -1; }
     }
 
-    /** Internal name (English) for cache and matching. */
+    /** Species key of our active Pokemon, for cache and matching. */
     private String getActivePokemonNameInternal() {
         try {
             ClientBattle battle = CobblemonClient.INSTANCE.getBattle();
             if (battle == null) return "?";
             var bp = battle.getSide1().getActors().get(0).getActivePokemon().get(0).getBattlePokemon();
-            return bp != null ? bp.getSpecies().getName() : "?";
+            return bp != null ? SpeciesKey.of(bp.getSpecies()) : "?";
         } catch (Exception e) { return "?"; }
     }
 
@@ -560,13 +499,13 @@ public class TrainerBattleEngine {
         } catch (Exception e) { return List.of(); }
     }
 
-    /** Internal name (English) for cache. */
+    /** Species key of the opponent, for cache and species overrides. */
     private String getOpponentPokemonNameInternal() {
         try {
             ClientBattle battle = CobblemonClient.INSTANCE.getBattle();
             if (battle == null) return "?";
             var bp = battle.getSide2().getActors().get(0).getActivePokemon().get(0).getBattlePokemon();
-            return bp != null ? bp.getSpecies().getName() : "?";
+            return bp != null ? SpeciesKey.of(bp.getSpecies()) : "?";
         } catch (Exception e) { return "?"; }
     }
 
@@ -580,17 +519,49 @@ public class TrainerBattleEngine {
         } catch (Exception e) { return "?"; }
     }
 
-    /** Opponent's speed stat (for switch-in speed comparison). */
+    /**
+     * Opponent's speed stat (for switch-in speed comparison). Uses the real stat when the client
+     * has it, otherwise the spread inferred by {@link OpponentSetInference}; Scarf applied if likely.
+     */
     private int getOpponentSpeed() {
         ClientBattlePokemon bp = getOpponentBattlePokemon();
         if (bp == null) return 100; // fallback
         try {
             Object pokemon = bp.getClass().getMethod("getPokemon").invoke(bp);
-            if (pokemon instanceof Pokemon p) return Math.max(1, getSpeed(p));
+            if (pokemon instanceof Pokemon p) {
+                int speed = Math.max(1, getSpeed(p));
+                return opponentSets.likelyScarfUser() ? (int) (speed * 1.5) : speed;
+            }
+        } catch (Exception ignored) {}
+        try {
+            Integer base = bp.getSpecies().getBaseStats().get(Stats.SPEED);
+            int estimate = opponentSets.estimateSpeed(base != null ? base : 0, getBattlePokemonLevel(bp));
+            if (estimate > 0) return estimate;
         } catch (Exception ignored) {}
         return 100;
     }
 
+    /** Level of a battle Pokemon (reflection; client battle API varies). Defaults to 100 for trainer fights. */
+    private static int getBattlePokemonLevel(ClientBattlePokemon bp) {
+        try {
+            Object v = bp.getClass().getMethod("getLevel").invoke(bp);
+            if (v instanceof Number n && n.intValue() > 0) return n.intValue();
+        } catch (Exception ignored) {}
+        return 100;
+    }
+
+    /** Attack types of the opponent's revealed and commonly run damaging moves. */
+    private List<String> getOpponentLikelyAttackTypes() {
+        List<String> types = new ArrayList<>();
+        for (String move : opponentSets.likelyMoves()) {
+            int id = MoveTable.id(move);
+            if (id == MoveTable.UNKNOWN || !MoveTable.isDamaging(id)) continue;
+            String type = MoveTable.type(id);
+            if (!types.contains(type)) types.add(type);
+        }
+        return types;
+    }
+
     /** Get speed stat from a Pokemon. */
     private static int getSpeed(Pokemon p) {
         try {
@@ -627,33 +598,60 @@ public class TrainerBattleEngine {
      * Public so the decision router can use it for BERSERK/ROAMING.
      */
     public boolean hasOtherSwitchablePokemon() {
-        var party = CobblemonClient.INSTANCE.getStorage().getParty();
-        if (party == null) return false;
+        List<Pokemon> slots = refreshPartySlots();
+        if (slots == null) return false;
         try {
-            Object partyObj = (Object) party;
-            @SuppressWarnings("unchecked")
-            java.util.List<Pokemon> slots = (java.util.List<Pokemon>) partyObj.getClass().getMethod("getSlots").invoke(partyObj);
-            int nonFainted = 0;
+            // The active Pokemon comes from the battle, not the party: its party HP can lag behind a faint.
+            String activeName = getActivePokemonNameInternal();
+            boolean activeKnown = !"?".equals(activeName);
+            boolean activeSkipped = !activeKnown;
+            int others = 0;
             for (Pokemon p : slots) {
-                if (p != null && p.getCurrentHealth() > 0) nonFainted++;
+                if (p == null || p.getCurrentHealth() <= 0) continue;
+                if (!activeSkipped && activeName.equals(SpeciesKey.of(p.getSpecies()))) {
+                    activeSkipped = true;
+                    continue;
+                }
+                others++;
             }
-            return nonFainted >= 2;
+            return activeKnown ? others >= 1 : others >= 2;
         } catch (Exception ignored) {}
         return false;
     }
 
-    /** Our active Pokémon from party (by internal name match). */
-    private Pokemon getActivePokemonFromParty(String activeNameInternal) {
-        if (activeNameInternal == null) return null;
+    /** Party slot list, resolved by reflection once per battle and kept in the matchup cache. */
+    private List<Pokemon> getPartySlots() {
+        List<Pokemon> slots = matchups.party();
+        return slots != null ? slots : refreshPartySlots();
+    }
+
+    /**
+     * Re-reads the party slots from client storage (the server may have re-synced the party since the
+     * battle started) and updates the matchup cache's copy. Used where a stale list would mis-decide.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Pokemon> refreshPartySlots() {
         var party = CobblemonClient.INSTANCE.getStorage().getParty();
-        if (party == null) return null;
+        if (party == null) return matchups.party();
         try {
             Object partyObj = (Object) party;
-            @SuppressWarnings("unchecked")
-            java.util.List<Pokemon> slots = (java.util.List<Pokemon>) partyObj.getClass().getMethod("getSlots").invoke(partyObj);
+            List<Pokemon> slots = (List<Pokemon>) partyObj.getClass().getMethod("getSlots").invoke(partyObj);
+            matchups.setParty(slots);
+            return slots;
+        } catch (Exception e) {
+            return matchups.party();
+        }
+    }
+
+    /** Our active Pokémon from party (by species key match). */
+    private Pokemon getActivePokemonFromParty(String activeNameInternal) {
+        if (activeNameInternal == null) return null;
+        List<Pokemon> slots = getPartySlots();
+        if (slots == null) return null;
+        try {
             for (Pokemon p : slots) {
                 if (p != null && p.getCurrentHealth() > 0
-                        && activeNameInternal.equalsIgnoreCase(p.getSpecies().getName())) {
+                        && activeNameInternal.equals(SpeciesKey.of(p.getSpecies()))) {
                     return p;
                 }
             }
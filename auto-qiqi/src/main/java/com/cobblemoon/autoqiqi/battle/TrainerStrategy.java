@@ -0,0 +1,258 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Pure decision logic for trainer battles: move choice and switch-in scoring.
+ * {@link TrainerBattleEngine} builds the inputs from Cobblemon state; {@link DecisionRecorder}
+ * logs them and {@link DecisionReplay} re-runs them headless.
+ * No Minecraft/Cobblemon dependencies — testable in isolation.
+ */
+public final class TrainerStrategy {
+
+    /** HP % under which a recovery move is preferred. */
+    private static final float RECOVERY_HP_THRESHOLD = 40f;
+    /** Score given to status moves so any damaging move wins over them. */
+    private static final double STATUS_MOVE_SCORE = 5.0;
+    /** power × eff × STAB above which a switch-in counts as hitting hard. */
+    private static final double STRONG_HIT_THRESHOLD = 150;
+    /** Assumed power per STAB type when a party moveset cannot be read. */
+    private static final double UNKNOWN_MOVESET_POWER = 80;
+
+    /** One usable move: descriptor from {@link MoveTable} plus current PP (-1 = unknown). */
+    public record MoveOption(String name, String type, int power, int priority, int flags, int pp) {
+        boolean has(int flag) {
+            return (flags & flag) != 0;
+        }
+
+        boolean outOfPp() {
+            return pp == 0;
+        }
+    }
+
+    /** Everything {@link #chooseMove} reads. */
+    public record MoveInput(
+            List<MoveOption> moves,
+            List<String> myTypes,
+            List<String> oppTypes,
+            String oppSpecies,
+            List<String> immuneTypes,
+            float myHp,
+            boolean berserk,
+            boolean justSwitched,
+            int attacksAgainstOpponent
+    ) {}
+
+    /**
+     * Chosen move index into {@link MoveInput#moves()} (-1 if none), its score, and whether the
+     * "first attack after switch" preference was evaluated (engine clears its justSwitched flag).
+     */
+    public record MoveDecision(int index, double score, boolean switchPriorityConsumed, String reason) {}
+
+    /** A party Pokemon as seen by switch scoring. {@code moves} is null when the moveset could not be read. */
+    public record PartyMember(String species, String speciesKey, List<String> types, float hpPercent, int speed,
+                              List<MoveOption> moves) {}
+
+    private TrainerStrategy() {}
+
+    /** Species (by {@link com.cobblemoon.autoqiqi.common.SpeciesKey}) where we don't trust type info and cycle moves instead. */
+    static boolean shouldCycleMoves(String speciesKey) {
+        if (speciesKey == null) return false;
+        return speciesKey.startsWith("rotom") || speciesKey.equals("motisma") || speciesKey.equals("heatran");
+    }
+
+    // ========================
+    // Move choice
+    // ========================
+
+    /**
+     * Pick the move that will deal the most estimated damage (power × effectiveness × STAB).
+     * Berserk restricts to damaging moves; 0-PP moves are skipped; below 40% HP a recovery move wins;
+     * vs cycle-moves species damaging moves are rotated; the first attack after a switch prefers a
+     * non-resisted priority move.
+     */
+    public static MoveDecision chooseMove(MoveInput in) {
+        List<MoveOption> all = in.moves();
+        if (all.isEmpty()) return new MoveDecision(-1, 0, false, "no moves");
+
+        boolean cycle = shouldCycleMoves(in.oppSpecies());
+        List<String> oppTypes = cycle ? List.of() : in.oppTypes();
+
+        List<Integer> candidates = new ArrayList<>(all.size());
+        for (int i = 0; i < all.size(); i++) candidates.add(i);
+
+        if (in.berserk()) {
+            List<Integer> damaging = damagingWithPp(all, candidates);
+            if (!damaging.isEmpty()) candidates = damaging;
+        }
+
+        // Filter out moves with 0 PP (unknown PP -1 is usable); if all are 0 keep them (e.g. Struggle)
+        List<Integer> withPp = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            if (!all.get(i).outOfPp()) withPp.add(i);
+        }
+        if (!withPp.isEmpty()) candidates = withPp;
+
+        float myHp = in.myHp();
+        if (myHp >= 0 && myHp < RECOVERY_HP_THRESHOLD) {
+            for (int i : candidates) {
+                MoveOption m = all.get(i);
+                if (m.has(MoveTable.FLAG_RECOVERY) && !m.outOfPp()) {
+                    return new MoveDecision(i, 0, false, "HP < 40%: recovery move");
+                }
+            }
+        }
+
+        if (cycle) {
+            List<Integer> damaging = damagingWithPp(all, candidates);
+            if (!damaging.isEmpty()) {
+                damaging.sort(Comparator.comparing(i -> all.get(i).name().toLowerCase()));
+                int idx = in.attacksAgainstOpponent() % damaging.size();
+                return new MoveDecision(damaging.get(idx), 0, false,
+                        "cycling move " + (idx + 1) + "/" + damaging.size());
+            }
+        }
+
+        int best = -1;
+        double bestScore = -1;
+        List<Integer> scored = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            MoveOption m = all.get(i);
+            if (m.outOfPp()) continue;
+            double score = m.power() > 0 ? damageScore(m, in.myTypes(), oppTypes, in) : STATUS_MOVE_SCORE;
+            scored.add(i);
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+
+        // First attack after switch: prefer the highest-priority damaging move, only if not resisted
+        if (in.justSwitched() && best >= 0 && !scored.isEmpty()) {
+            int priorityPick = -1;
+            int bestPriority = Integer.MIN_VALUE;
+            double bestScoreAmongPriority = -1;
+            for (int i : scored) {
+                MoveOption m = all.get(i);
+                if (m.power() <= 0) continue;
+                double eff = effectiveness(m.type(), oppTypes, in.oppSpecies(), in.immuneTypes());
+                if (eff < 1.0) continue;
+                double score = damageScore(m, in.myTypes(), oppTypes, in);
+                if (m.priority() > bestPriority || (m.priority() == bestPriority && score > bestScoreAmongPriority)) {
+                    bestPriority = m.priority();
+                    bestScoreAmongPriority = score;
+                    priorityPick = i;
+                }
+            }
+            if (priorityPick >= 0 && bestPriority > 0) {
+                return new MoveDecision(priorityPick, bestScoreAmongPriority, true,
+                        "first attack after switch, priority=" + bestPriority);
+            }
+            return new MoveDecision(best, bestScore, true, "best score");
+        }
+
+        if (best >= 0) return new MoveDecision(best, bestScore, false, "best score");
+        return new MoveDecision(candidates.get(0), 0, false, "no scorable move");
+    }
+
+    private static List<Integer> damagingWithPp(List<MoveOption> all, List<Integer> candidates) {
+        List<Integer> damaging = new ArrayList<>();
+        for (int i : candidates) {
+            MoveOption m = all.get(i);
+            if (!m.outOfPp() && m.power() > 0) damaging.add(i);
+        }
+        return damaging;
+    }
+
+    private static double damageScore(MoveOption m, List<String> myTypes, List<String> oppTypes, MoveInput in) {
+        double eff = effectiveness(m.type(), oppTypes, in.oppSpecies(), in.immuneTypes());
+        double stab = myTypes.contains(m.type()) ? 1.5 : 1.0;
+        return m.power() * eff * stab;
+    }
+
+    /** Type effectiveness plus inferred ability immunities (Levitate, Flash Fire...) of the opponent. */
+    static double effectiveness(String moveType, List<String> oppTypes, String oppSpecies, List<String> immuneTypes) {
+        if (immuneTypes != null && immuneTypes.contains(moveType)) return 0.0;
+        return TypeChart.getEffectiveness(moveType, oppTypes, oppSpecies);
+    }
+
+    // ========================
+    // Switch scoring
+    // ========================
+
+    /** One matrix cell: offense, survivability and speed of a switch-in vs the opponent. */
+    static PartyMatchupCache.Matchup scoreMatchup(PartyMember member, PartyMatchupCache.OpponentContext opp) {
+        float hpPct = member.hpPercent();
+        double hpFactor = Math.max(0, hpPct) / 100.0;
+        double offensive = offensivePotential(member, opp);
+        List<String> pokTypes = member.types();
+        double oppEffAgainstMe = TypeChart.getBestStabEffectiveness(opp.types(), pokTypes, member.speciesKey());
+        // Likely coverage (revealed or common Smogon moves) counts as a threat too
+        for (String coverageType : opp.coverageTypes()) {
+            oppEffAgainstMe = Math.max(oppEffAgainstMe, TypeChart.getEffectiveness(coverageType, pokTypes, member.speciesKey()));
+        }
+        double defensive = 1.0 / Math.max(0.25, oppEffAgainstMe);
+
+        // Survivability: penalize candidates the opponent can likely OHKO
+        double survivalFactor = 1.0;
+        if (oppEffAgainstMe >= 4.0) {
+            survivalFactor = 0.05; // double super effective = almost certain OHKO
+        } else if (oppEffAgainstMe >= 2.0) {
+            survivalFactor = 0.3;  // super effective = high risk of OHKO
+        }
+
+        // Speed: reward being faster with strong offense; penalize being slower under threat
+        boolean isFaster = member.speed() > opp.speed();
+        boolean hasSuperEffective = offensive > STRONG_HIT_THRESHOLD;
+
+        double speedFactor = 1.0;
+        if (isFaster && hasSuperEffective) {
+            speedFactor = 1.5; // fast + strong = great switch-in
+        } else if (!isFaster && oppEffAgainstMe >= 2.0) {
+            speedFactor = 0.5; // slow + takes super effective = bad switch-in
+        }
+
+        double score = (offensive + defensive * 50.0) * hpFactor * survivalFactor * speedFactor;
+        return new PartyMatchupCache.Matchup(member.species(), pokTypes, hpPct,
+                offensive, oppEffAgainstMe, defensive, survivalFactor, member.speed(), speedFactor, score);
+    }
+
+    /**
+     * Best single-move score (power × effectiveness × STAB) of a party member vs the opponent.
+     * Vs cycle-moves species effectiveness is ignored. Moves with 0 PP are skipped.
+     */
+    static double offensivePotential(PartyMember member, PartyMatchupCache.OpponentContext opp) {
+        boolean ignoreTypes = shouldCycleMoves(opp.speciesKey());
+        if (member.moves() == null) {
+            // Moveset unreadable: estimate from STAB types only
+            return ignoreTypes ? UNKNOWN_MOVESET_POWER
+                    : TypeChart.getBestStabEffectiveness(member.types(), opp.types(), opp.speciesKey()) * UNKNOWN_MOVESET_POWER;
+        }
+        double best = 0;
+        for (MoveOption m : member.moves()) {
+            if (m.outOfPp() || m.power() <= 0) continue;
+            double eff = ignoreTypes ? 1.0 : effectiveness(m.type(), opp.types(), opp.speciesKey(), opp.immuneTypes());
+            double stab = member.types().contains(m.type()) ? 1.5 : 1.0;
+            double score = m.power() * eff * stab;
+            if (score > best) best = score;
+        }
+        return best;
+    }
+
+    /** Index of the highest-scoring non-fainted matchup, or -1. */
+    static int chooseSwitch(List<PartyMatchupCache.Matchup> matchups) {
+        int best = -1;
+        double bestScore = -1;
+        for (int i = 0; i < matchups.size(); i++) {
+            PartyMatchupCache.Matchup m = matchups.get(i);
+            if (m == null || m.hpPercent() <= 0) continue;
+            if (m.score() > bestScore) {
+                bestScore = m.score();
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -1,5 +1,7 @@
 package com.cobblemoon.autoqiqi.battle;
 
+import com.cobblemoon.autoqiqi.common.SpeciesKey;
+
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -14,7 +16,13 @@ public final class TypeChart {
 
     private static final Map<String, Map<String, Double>> CHART = new HashMap<>();
 
-    /** Species (internal name, lowercase) that are immune to specific attack types (e.g. Heatran: Fire). */
+    /** The 18 types in a fixed order; {@link MoveTable} packs indexes into this array. */
+    private static final String[] TYPES = {
+            "normal", "fire", "water", "electric", "grass", "ice", "fighting", "poison", "ground",
+            "flying", "psychic", "bug", "rock", "ghost", "dragon", "dark", "steel", "fairy"
+    };
+
+    /** Species ({@link SpeciesKey}) that are immune to specific attack types (e.g. Heatran: Fire). */
     private static final Map<String, Set<String>> SPECIES_ATTACK_IMMUNITIES = new HashMap<>();
     static {
         SPECIES_ATTACK_IMMUNITIES.put("heatran", Set.of("fire"));
@@ -120,7 +128,7 @@ public final class TypeChart {
         if (attackType == null || defenderTypes == null || defenderTypes.isEmpty()) return 1.0;
         String atk = attackType.toLowerCase();
         if (defenderSpeciesName != null && !defenderSpeciesName.isEmpty()) {
-            Set<String> immunities = SPECIES_ATTACK_IMMUNITIES.get(defenderSpeciesName.toLowerCase());
+            Set<String> immunities = SPECIES_ATTACK_IMMUNITIES.get(SpeciesKey.of(defenderSpeciesName));
             if (immunities != null && immunities.contains(atk)) return 0.0;
         }
         Map<String, Double> row = CHART.get(atk);
@@ -154,6 +162,24 @@ public final class TypeChart {
         return best;
     }
 
+    /** Index of a type in the fixed type order (case-insensitive); unknown types map to Normal (0). */
+    static int typeOrdinal(String type) {
+        if (type == null) return 0;
+        for (int i = 0; i < TYPES.length; i++) {
+            if (TYPES[i].equalsIgnoreCase(type)) return i;
+        }
+        return 0;
+    }
+
+    static int typeCount() {
+        return TYPES.length;
+    }
+
+    /** Lowercase type name for an ordinal from {@link #typeOrdinal(String)}. */
+    static String typeName(int ordinal) {
+        return ordinal >= 0 && ordinal < TYPES.length ? TYPES[ordinal] : TYPES[0];
+    }
+
     // ---- helpers for building the chart ----
 
     private static void se(String atk, String... defs) {
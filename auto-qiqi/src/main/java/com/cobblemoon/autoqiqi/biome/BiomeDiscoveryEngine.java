@@ -2,6 +2,7 @@ package com.cobblemoon.autoqiqi.biome;
 
 import com.cobblemoon.autoqiqi.AutoQiqiClient;
 import com.cobblemoon.autoqiqi.common.ChatUtil;
+import com.cobblemoon.autoqiqi.common.Metrics;
 import com.cobblemoon.autoqiqi.common.MovementHelper;
 import com.cobblemoon.autoqiqi.config.AutoQiqiConfig;
 import com.cobblemoon.autoqiqi.legendary.WorldTracker;
@@ -27,6 +28,15 @@ import java.util.*;
  * block flown (no revisits, fast access to distant biome regions). /rtp between cycles
  * provides the spatial randomisation that a spiral would give.
  * <p>
+ * While ascending and flying, {@link LoadedBiomeSampler} samples the biome of every loaded
+ * chunk; as soon as a target biome shows up within view distance, the heading turns toward
+ * its nearest sampled point instead of holding the random line. Blocks flown per target
+ * found are logged at the end of each cycle.
+ * <p>
+ * Sampled chunks are also recorded per world in {@link ExploredRegionStore}, across sessions:
+ * /rtp is retried when it lands in an area already explored, and the initial heading is the
+ * least explored of a dozen directions.
+ * <p>
  * When a target biome is found, sends /sethome autodisco_N. Stops when the global timer
  * drops to the configured threshold (default 3:15) or all targets are found.
  */
@@ -57,6 +67,21 @@ public class BiomeDiscoveryEngine {
     /** Sprint-fly speed is ~10.9 blocks/s → ~21.8 blocks in 2s → ~475 sq.
      *  Threshold at 80% speed (17.4 blocks → 304 sq) catches wall-sliding at steep angles. */
     private static final double STUCK_MIN_DISTANCE_SQ = 304.0;
+    /** Horizontal distance at which a steered-to sample must show its biome, or it is rejected. */
+    private static final double STEER_ARRIVAL_DISTANCE_SQ = 8.0 * 8.0;
+    /** After a stuck turn, hold the new heading this long before steering again. */
+    private static final int STEER_HOLD_AFTER_STUCK_TICKS = 100;
+
+    // --- Explored-region index ---
+    /** Re-send /rtp (at most this many times per cycle) when the landing area is already explored. */
+    private static final int MAX_RTP_RETRIES = 3;
+    private static final int RTP_COVERAGE_RADIUS_CHUNKS = 4;
+    private static final double RTP_COVERED_FRACTION = 0.5;
+    private static final int HEADING_CANDIDATES = 12;
+    private static final int HEADING_PROBE_RANGE = 2048; // blocks
+
+    private static final Metrics.Counter BLOCKS_FLOWN = Metrics.counter("biome.blocksFlown");
+    private static final Metrics.Counter TARGETS_FOUND = Metrics.counter("biome.targetsFound");
 
     // --- State ---
     private State state = State.IDLE;
@@ -64,10 +89,21 @@ public class BiomeDiscoveryEngine {
     /** When true, tick() is a no-op even if enabled. Set after reconnect, cleared when auto-hop sends /home. */
     private boolean suspended = false;
 
-    private float flyYaw; // random heading for straight-line flight
+    private float flyYaw; // random heading for straight-line flight, or toward a loaded target
+
+    private final LoadedBiomeSampler sampler = new LoadedBiomeSampler();
+    private BiomeSampleMap.Sample steerTarget;
+    private int steerHoldUntilTick;
+
+    // Per-cycle stats (reset when FLYING starts)
+    private double cycleFlown;
+    private int cycleFound;
+    private int cycleSteers;
+    private Vec3d lastFlightPos;
 
     private final Set<String> foundBiomes = new LinkedHashSet<>();
-    private final Set<String> discoveredBiomes = new LinkedHashSet<>();
+    private final Random random = new Random();
+    private int rtpRetries;
 
     // Pending retroactive checks: homeName -> (biomeId, tickWhenToCheck)
     private final Map<String, PendingCheck> pendingChecks = new LinkedHashMap<>();
@@ -113,7 +149,7 @@ public class BiomeDiscoveryEngine {
         enabled = true;
         lastTimerResetMs = System.currentTimeMillis(); // start grace period from now
         foundBiomes.clear();
-        discoveredBiomes.clear();
+        sampler.clear();
         AutoQiqiClient.log("Biome", "Biome discovery enabled. Targets: " + config.biomeDiscoveryTargets);
         ChatUtil.msg("§a[Biome]§r Recherche activee. Cibles: §f" + String.join(", ", config.biomeDiscoveryTargets));
     }
@@ -123,8 +159,10 @@ public class BiomeDiscoveryEngine {
             releaseKeys();
             AutoQiqiClient.log("Biome", "Biome discovery stopped (was " + state + ")");
         }
+        if (state == State.FLYING) logCycleStats();
         state = State.IDLE;
         enabled = false;
+        ExploredRegionStore.get().close();
     }
 
     /** Suspend biome discovery (e.g. after reconnect). tick() becomes a no-op until unsuspend(). */
@@ -173,9 +211,16 @@ public class BiomeDiscoveryEngine {
                 MinecraftClient c = MinecraftClient.getInstance();
                 int y = c.player != null ? (int) c.player.getY() : 0;
                 String biomeList = String.join(", ", foundBiomes);
+                BiomeSampleMap.Sample target = steerTarget;
+                String steering = "";
+                if (target != null && c.player != null) {
+                    int dist = (int) Math.hypot(target.x() - c.player.getX(), target.z() - c.player.getZ());
+                    steering = " | -> " + target.biomeId() + " " + dist + "m";
+                }
                 yield "Vol Y=" + y + "/" + AutoQiqiConfig.get().biomeDiscoveryMaxAltitude
                         + " | " + found + "/" + total
-                        + (biomeList.isEmpty() ? "" : " | " + biomeList);
+                        + (biomeList.isEmpty() ? "" : " | " + biomeList)
+                        + steering;
             }
         };
     }
@@ -291,6 +336,17 @@ public class BiomeDiscoveryEngine {
             ClientPlayerEntity player = client.player;
             if (player != null) {
                 AutoQiqiClient.log("Biome", "RTP done at " + (int) player.getX() + ", " + (int) player.getZ());
+                ExploredRegionIndex explored = ExploredRegionStore.get().current();
+                if (explored != null && rtpRetries < MAX_RTP_RETRIES) {
+                    double covered = explored.coverage(player.getBlockX() >> 4, player.getBlockZ() >> 4, RTP_COVERAGE_RADIUS_CHUNKS);
+                    if (covered >= RTP_COVERED_FRACTION) {
+                        rtpRetries++;
+                        AutoQiqiClient.log("Biome", "RTP landed in explored area (" + (int) (covered * 100) + "% covered), retry "
+                                + rtpRetries + "/" + MAX_RTP_RETRIES);
+                        transitionTo(State.SENDING_RTP);
+                        return;
+                    }
+                }
             }
             transitionTo(State.SENDING_FLY);
         }
@@ -365,13 +421,18 @@ public class BiomeDiscoveryEngine {
         }
 
         int targetAlt = AutoQiqiConfig.get().biomeDiscoveryAltitude;
+        sampleLoadedBiomes(client, player);
 
         if (player.getY() >= targetAlt) {
             client.options.jumpKey.setPressed(false);
             client.options.forwardKey.setPressed(false);
             client.options.sprintKey.setPressed(false);
-            // Pick a random heading for straight-line flight
-            flyYaw = (float) (Math.random() * 360.0 - 180.0);
+            // Head for the least explored direction (random when nothing is explored around); the
+            // first flying tick turns toward a target biome instead if the sampler has one loaded
+            ExploredRegionIndex explored = ExploredRegionStore.get().current();
+            flyYaw = explored != null
+                    ? explored.leastExploredHeading(player.getX(), player.getZ(), HEADING_CANDIDATES, HEADING_PROBE_RANGE, random)
+                    : (float) (Math.random() * 360.0 - 180.0);
             player.setYaw(flyYaw);
             player.setPitch(0);
             AutoQiqiClient.log("Biome", "Reached altitude " + (int) player.getY() + ", flying heading " + (int) flyYaw + "°");
@@ -399,10 +460,13 @@ public class BiomeDiscoveryEngine {
 
         AutoQiqiConfig config = AutoQiqiConfig.get();
 
+        sampleLoadedBiomes(client, player);
+
         // Biome check
         if (tickCounter % BIOME_CHECK_INTERVAL == 0) {
             checkBiome(client, player, config);
         }
+        if (state != State.FLYING) return; // all targets found
 
         // Pause flight while retroactive checks are pending — stay hovering in place
         // so Legend Tracker has time to write the world to the file.
@@ -424,6 +488,13 @@ public class BiomeDiscoveryEngine {
             lastStuckCheckTick = tickCounter;
         }
 
+        if (lastFlightPos != null) {
+            double fx = player.getX() - lastFlightPos.x;
+            double fz = player.getZ() - lastFlightPos.z;
+            cycleFlown += Math.sqrt(fx * fx + fz * fz);
+        }
+        lastFlightPos = player.getPos();
+
         // Altitude: keep ascending toward maxAltitude while flying
         int maxAlt = config.biomeDiscoveryMaxAltitude;
         if (tickCounter % ALTITUDE_CHECK_INTERVAL == 0) {
@@ -447,6 +518,8 @@ public class BiomeDiscoveryEngine {
                     flyYaw = flyYaw + turn;
                     if (flyYaw > 180) flyYaw -= 360;
                     if (flyYaw < -180) flyYaw += 360;
+                    steerTarget = null;
+                    steerHoldUntilTick = tickCounter + STEER_HOLD_AFTER_STUCK_TICKS;
                     AutoQiqiClient.log("Biome", "Stuck detected (moved² " + String.format("%.1f", distSq)
                             + "), new heading " + (int) flyYaw + "°");
                     ChatUtil.msg("§e[Biome]§r Mur detecte, nouveau cap: " + (int) flyYaw + "°");
@@ -456,6 +529,9 @@ public class BiomeDiscoveryEngine {
             lastStuckCheckTick = tickCounter;
         }
 
+        steerTowardLoadedTarget(player, config);
+        if (state != State.FLYING) return;
+
         // Maintain heading and fly forward
         player.setYaw(flyYaw);
         player.setPitch(0);
@@ -475,10 +551,11 @@ public class BiomeDiscoveryEngine {
             Optional<RegistryKey<Biome>> key = biomeEntry.getKey();
             if (key.isEmpty()) return;
             String id = key.get().getValue().toString();
-            discoveredBiomes.add(id);
 
             if (config.biomeDiscoveryTargets.contains(id) && !foundBiomes.contains(id)) {
                 foundBiomes.add(id);
+                cycleFound++;
+                TARGETS_FOUND.increment();
                 // Prefer LegendTracker's world (always set after timer parse),
                 // fall back to WorldTracker (may be null early in session).
                 String world = LegendTrackerBridge.getCurrentWorld();
@@ -508,6 +585,66 @@ public class BiomeDiscoveryEngine {
         }
     }
 
+    // ========================
+    // Loaded-chunk sampling and steering
+    // ========================
+
+    private void sampleLoadedBiomes(MinecraftClient client, ClientPlayerEntity player) {
+        if (client.world == null) return;
+        int y = Math.max((int) player.getY(), AutoQiqiConfig.get().biomeDiscoveryAltitude);
+        sampler.tick(client.world, player.getX(), player.getZ(), y, client.options.getClampedViewDistance(),
+                ExploredRegionStore.get().current());
+    }
+
+    /**
+     * Points {@link #flyYaw} at the nearest loaded sample of a target biome not found yet. Once within
+     * arrival distance the biome is checked on the spot; a sample that does not match there (biome
+     * edge, other height) is rejected so the next nearest one is used.
+     */
+    private void steerTowardLoadedTarget(ClientPlayerEntity player, AutoQiqiConfig config) {
+        if (tickCounter < steerHoldUntilTick) return;
+        BiomeSampleMap.Sample target = sampler.map().closestTarget(
+                config.biomeDiscoveryTargets, foundBiomes, player.getX(), player.getZ());
+        if (target == null) {
+            steerTarget = null;
+            return;
+        }
+
+        double dx = target.x() + 0.5 - player.getX();
+        double dz = target.z() + 0.5 - player.getZ();
+        if (dx * dx + dz * dz <= STEER_ARRIVAL_DISTANCE_SQ) {
+            MinecraftClient client = MinecraftClient.getInstance();
+            checkBiome(client, player, config);
+            if (!foundBiomes.contains(target.biomeId())) {
+                AutoQiqiClient.logDebug("Biome", "Sample " + target.biomeId() + " at " + target.x() + ", " + target.z()
+                        + " not confirmed on arrival, rejected");
+                sampler.map().reject(target);
+            }
+            steerTarget = null;
+            return;
+        }
+
+        if (!target.equals(steerTarget)) {
+            cycleSteers++;
+            AutoQiqiClient.log("Biome", "Steering toward " + target.biomeId() + " at " + target.x() + ", " + target.z()
+                    + " (" + (int) Math.sqrt(dx * dx + dz * dz) + " blocks)");
+            steerTarget = target;
+        }
+        flyYaw = BiomeSampleMap.yawTowards(player.getX(), player.getZ(), target.x() + 0.5, target.z() + 0.5);
+    }
+
+    private void logCycleStats() {
+        long flown = Math.round(cycleFlown);
+        BLOCKS_FLOWN.add(flown);
+        String perTarget = cycleFound > 0 ? String.valueOf(flown / cycleFound) : "-";
+        long sessionFound = TARGETS_FOUND.get();
+        String sessionPerTarget = sessionFound > 0 ? String.valueOf(BLOCKS_FLOWN.get() / sessionFound) : "-";
+        AutoQiqiClient.log("Biome", "Cycle stats: flown " + flown + " blocks, found " + cycleFound
+                + " target(s) (" + perTarget + " blocks/target), " + cycleSteers + " steer(s), "
+                + sampler.map().seen().size() + " biomes sampled over " + sampler.map().sweeps() + " sweeps"
+                + " | all sessions: " + sessionPerTarget + " blocks/target");
+    }
+
     /**
      * After /sethome, Legend Tracker writes the home with its world to legendtracker.properties.
      * We reload the file and check if another home already covers the same biome in the same world.
@@ -712,6 +849,12 @@ public class BiomeDiscoveryEngine {
 
     private void transitionTo(State newState) {
         AutoQiqiClient.log("Biome", "State: " + state + " -> " + newState);
+        if (state == State.FLYING && newState != State.FLYING) {
+            logCycleStats();
+        }
+        if (state == State.IDLE && newState == State.SENDING_RTP) {
+            rtpRetries = 0;
+        }
         state = newState;
         stateStartMs = System.currentTimeMillis();
 
@@ -724,6 +867,14 @@ public class BiomeDiscoveryEngine {
         if (newState == State.FLYING) {
             lastStuckCheckPos = null;
             lastStuckCheckTick = tickCounter;
+            lastFlightPos = null;
+            steerHoldUntilTick = 0;
+            cycleFlown = 0;
+            cycleFound = 0;
+            cycleSteers = 0;
+        }
+        if (newState != State.FLYING) {
+            steerTarget = null;
         }
     }
 
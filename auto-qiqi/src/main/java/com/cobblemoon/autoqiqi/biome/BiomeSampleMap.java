@@ -0,0 +1,122 @@
+package com.cobblemoon.autoqiqi.biome;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-session map of biome id → nearest sampled coordinate, fed by sweeps over the loaded chunks.
+ * <p>
+ * A sweep ({@link #beginSweep}, {@link #add} per sample, {@link #endSweep}) keeps, for each biome,
+ * the sample closest to where the sweep started. Biomes of the last finished sweep are "loaded"
+ * (their coordinate can be flown to now); biomes only seen by older sweeps keep their last coordinate
+ * for the session but are never picked as a target. Chunks {@link #reject}ed (we got there and the
+ * biome did not match) are skipped until {@link #clear()}. Pure logic (coordinates and ids only).
+ */
+public final class BiomeSampleMap {
+
+    /** A sampled block column: biome id, x/z, and the sweep that saw it. */
+    public record Sample(String biomeId, int x, int z, int sweep) {}
+
+    private final Map<String, Sample> nearest = new LinkedHashMap<>();
+    private final Map<String, Sample> building = new HashMap<>();
+    private final Set<Long> rejectedChunks = new HashSet<>();
+    private double originX, originZ;
+    private int sweep = 0;
+    private boolean sweeping = false;
+
+    /** Start a sweep around {@code (x, z)} (the player position). */
+    public void beginSweep(double x, double z) {
+        building.clear();
+        originX = x;
+        originZ = z;
+        sweeping = true;
+    }
+
+    /** Record that block column {@code (x, z)} is {@code biomeId}; ignored outside a sweep. */
+    public void add(String biomeId, int x, int z) {
+        if (!sweeping || biomeId == null) return;
+        if (rejectedChunks.contains(chunkKey(x >> 4, z >> 4))) return;
+        Sample best = building.get(biomeId);
+        if (best == null || distSq(x, z, originX, originZ) < distSq(best.x(), best.z(), originX, originZ)) {
+            building.put(biomeId, new Sample(biomeId, x, z, sweep + 1));
+        }
+    }
+
+    /** Finish the sweep: its samples become the loaded ones. Returns how many biomes it saw. */
+    public int endSweep() {
+        if (!sweeping) return 0;
+        sweeping = false;
+        sweep++;
+        nearest.putAll(building);
+        int seen = building.size();
+        building.clear();
+        return seen;
+    }
+
+    /**
+     * Closest loaded sample to {@code (x, z)} among {@code targets}, skipping {@code exclude}
+     * (e.g. biomes already found), or null when no target biome is loaded.
+     */
+    public Sample closestTarget(Collection<String> targets, Set<String> exclude, double x, double z) {
+        Sample best = null;
+        double bestDist = Double.MAX_VALUE;
+        for (String id : targets) {
+            if (exclude.contains(id)) continue;
+            Sample s = nearest.get(id);
+            if (s == null || s.sweep() != sweep) continue;
+            double d = distSq(s.x(), s.z(), x, z);
+            if (d < bestDist) {
+                bestDist = d;
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    /** The sample turned out wrong (biome not there on arrival): drop it and skip its chunk from now on. */
+    public void reject(Sample sample) {
+        rejectedChunks.add(chunkKey(sample.x() >> 4, sample.z() >> 4));
+        nearest.remove(sample.biomeId(), sample);
+    }
+
+    /** Every biome sampled this session, with its last known nearest coordinate. */
+    public Map<String, Sample> seen() {
+        return Collections.unmodifiableMap(nearest);
+    }
+
+    /** Number of finished sweeps. */
+    public int sweeps() {
+        return sweep;
+    }
+
+    /** Forget everything (new session or other world). */
+    public void clear() {
+        nearest.clear();
+        building.clear();
+        rejectedChunks.clear();
+        sweeping = false;
+        sweep = 0;
+    }
+
+    /** Yaw (Minecraft convention: 0 = +Z, 90 = -X) to face {@code (toX, toZ)} from {@code (fromX, fromZ)}. */
+    public static float yawTowards(double fromX, double fromZ, double toX, double toZ) {
+        float yaw = (float) Math.toDegrees(Math.atan2(toZ - fromZ, toX - fromX)) - 90.0f;
+        if (yaw < -180) yaw += 360;
+        if (yaw > 180) yaw -= 360;
+        return yaw;
+    }
+
+    static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static double distSq(double ax, double az, double bx, double bz) {
+        double dx = ax - bx, dz = az - bz;
+        return dx * dx + dz * dz;
+    }
+}
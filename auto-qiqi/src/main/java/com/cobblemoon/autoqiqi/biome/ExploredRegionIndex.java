@@ -0,0 +1,277 @@
+package com.cobblemoon.autoqiqi.biome;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Chunks of one world we already had biome data for, kept across sessions in a memory-mapped file.
+ * <p>
+ * The file holds a 16-byte header ({@code "AQEX"}, version, page count) then one page per 32×32-chunk
+ * region that has at least one explored chunk: region x/z, a 1024-bit visited bitmap, and one
+ * {@code short} biome per chunk (index into the palette, 0 = unknown). Pages are only created where we
+ * went, so the file grows with explored area, not world size: ~2.1 KB per region, i.e. ~2 bytes per
+ * explored chunk (a million chunks ≈ 2 MB). Biome ids are listed once, in order, in the text file
+ * {@code <file>.palette}, which is written before a new index is used.
+ * <p>
+ * Writes go straight to the mapping (the OS writes them back; {@link #flush()} forces it). The file
+ * keeps up to twice the pages it uses, as a mapped file cannot be shrunk on every platform.
+ * Not thread-safe.
+ */
+public final class ExploredRegionIndex implements Closeable {
+
+    static final int MAGIC = 0x41514558; // "AQEX"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    private static final int REGION_SHIFT = 5;
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+    private static final int CHUNKS_PER_REGION = 1 << (2 * REGION_SHIFT);
+    private static final int BITMAP_BYTES = CHUNKS_PER_REGION / 8;
+    static final int PAGE_BYTES = 8 + BITMAP_BYTES + 2 * CHUNKS_PER_REGION;
+    private static final int INITIAL_PAGES = 16;
+    private static final int MAX_PALETTE = 0xFFFF;
+
+    private final Path file;
+    private final Path paletteFile;
+    private final FileChannel channel;
+    private MappedByteBuffer map;
+    private int capacity;
+    private int pages;
+    private long visited;
+    private final Map<Long, Integer> pageOffsets = new HashMap<>();
+    private final List<String> palette = new ArrayList<>();
+    private final Map<String, Integer> paletteIndex = new HashMap<>();
+
+    private ExploredRegionIndex(Path file, FileChannel channel) {
+        this.file = file;
+        this.paletteFile = file.resolveSibling(file.getFileName() + ".palette");
+        this.channel = channel;
+    }
+
+    /** Opens (or creates) the index in {@code file}. Throws on an unreadable file, which is left untouched. */
+    public static ExploredRegionIndex open(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ExploredRegionIndex index = new ExploredRegionIndex(file, channel);
+        try {
+            index.load();
+        } catch (IOException | RuntimeException e) {
+            index.map = null;
+            channel.close();
+            throw e instanceof IOException io ? io : new IOException(e.getMessage(), e);
+        }
+        return index;
+    }
+
+    // ========================
+    // Queries
+    // ========================
+
+    public boolean isVisited(int chunkX, int chunkZ) {
+        Integer page = pageOffsets.get(regionKey(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT));
+        if (page == null) return false;
+        int slot = slot(chunkX, chunkZ);
+        return (map.get(page + 8 + (slot >> 3)) & (1 << (slot & 7))) != 0;
+    }
+
+    /** Biome sampled in that chunk, or null if unexplored or unknown. */
+    public String biomeAt(int chunkX, int chunkZ) {
+        Integer page = pageOffsets.get(regionKey(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT));
+        if (page == null) return null;
+        int id = Short.toUnsignedInt(map.getShort(page + 8 + BITMAP_BYTES + 2 * slot(chunkX, chunkZ)));
+        return id > 0 && id <= palette.size() ? palette.get(id - 1) : null;
+    }
+
+    /** Fraction of visited chunks in the square of {@code radius} chunks around the chunk. */
+    public double coverage(int chunkX, int chunkZ, int radius) {
+        int seen = 0, total = 0;
+        for (int dz = -radius; dz <= radius; dz++) {
+            for (int dx = -radius; dx <= radius; dx++) {
+                total++;
+                if (isVisited(chunkX + dx, chunkZ + dz)) seen++;
+            }
+        }
+        return (double) seen / total;
+    }
+
+    /**
+     * Yaw (Minecraft convention) of the least explored of {@code candidates} evenly spread headings from
+     * {@code (x, z)}, counting unvisited chunks every 64 blocks out to {@code rangeBlocks}. The spread
+     * starts at a random angle and ties keep the first, so unexplored surroundings give a random heading.
+     */
+    public float leastExploredHeading(double x, double z, int candidates, int rangeBlocks, Random random) {
+        float start = random.nextFloat() * 360.0f - 180.0f;
+        float best = start;
+        int bestScore = -1;
+        for (int i = 0; i < candidates; i++) {
+            float yaw = start + i * 360.0f / candidates;
+            double rad = Math.toRadians(yaw);
+            double dirX = -Math.sin(rad), dirZ = Math.cos(rad);
+            int score = 0;
+            for (int d = 64; d <= rangeBlocks; d += 64) {
+                int cx = (int) Math.floor(x + dirX * d) >> 4;
+                int cz = (int) Math.floor(z + dirZ * d) >> 4;
+                if (!isVisited(cx, cz)) score++;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                best = yaw;
+            }
+        }
+        if (best > 180) best -= 360;
+        return best;
+    }
+
+    /** Every biome sampled in this world, in order of first sighting. */
+    public Set<String> biomes() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(palette));
+    }
+
+    public long visitedChunks() {
+        return visited;
+    }
+
+    public int regions() {
+        return pages;
+    }
+
+    /** Bytes used on disk by the pages in use (the file itself may be up to twice that). */
+    public long usedBytes() {
+        return HEADER_BYTES + (long) pages * PAGE_BYTES;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    // ========================
+    // Updates
+    // ========================
+
+    /** Marks the chunk explored with its sampled biome (null keeps the one already stored). Returns true if it was new. */
+    public boolean mark(int chunkX, int chunkZ, String biomeId) throws IOException {
+        int page = pageFor(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+        int slot = slot(chunkX, chunkZ);
+        int bitAt = page + 8 + (slot >> 3);
+        byte bits = map.get(bitAt);
+        boolean fresh = (bits & (1 << (slot & 7))) == 0;
+        if (fresh) {
+            map.put(bitAt, (byte) (bits | (1 << (slot & 7))));
+            visited++;
+        }
+        if (biomeId != null) {
+            int id = paletteId(biomeId);
+            int biomeAt = page + 8 + BITMAP_BYTES + 2 * slot;
+            if (id > 0 && Short.toUnsignedInt(map.getShort(biomeAt)) != id) map.putShort(biomeAt, (short) id);
+        }
+        return fresh;
+    }
+
+    /** Forces pending writes to disk. */
+    public void flush() {
+        if (map != null) map.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        map = null;
+        channel.close();
+    }
+
+    // ========================
+    // File layout
+    // ========================
+
+    private void load() throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            // A palette left without its pages (index deleted or never written) would shift every new id
+            Files.deleteIfExists(paletteFile);
+            remap(INITIAL_PAGES);
+            map.putInt(0, MAGIC);
+            map.putInt(4, VERSION);
+            map.putInt(8, 0);
+            return;
+        }
+        // Check the header with a plain read: a bad file must not stay mapped (it could not be moved aside on Windows)
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) throw new IOException("bad header");
+        if (header.getInt() != VERSION) throw new IOException("unsupported version");
+        int count = header.getInt();
+        int fits = (int) Math.min(Integer.MAX_VALUE, (size - HEADER_BYTES) / PAGE_BYTES);
+        if (count < 0 || count > fits) throw new IOException("page count " + count + " beyond file end");
+
+        if (Files.exists(paletteFile)) {
+            for (String line : Files.readAllLines(paletteFile, StandardCharsets.UTF_8)) {
+                if (line.isEmpty()) continue;
+                palette.add(line);
+                paletteIndex.putIfAbsent(line, palette.size());
+            }
+        }
+
+        remap(Math.max(fits, INITIAL_PAGES));
+        pages = count;
+        for (int i = 0; i < pages; i++) {
+            int page = HEADER_BYTES + i * PAGE_BYTES;
+            pageOffsets.put(regionKey(map.getInt(page), map.getInt(page + 4)), page);
+            for (int b = 0; b < BITMAP_BYTES; b += 8) visited += Long.bitCount(map.getLong(page + 8 + b));
+        }
+    }
+
+    private int pageFor(int regionX, int regionZ) throws IOException {
+        long key = regionKey(regionX, regionZ);
+        Integer page = pageOffsets.get(key);
+        if (page != null) return page;
+        if (pages == capacity) remap(capacity * 2);
+        int offset = HEADER_BYTES + pages * PAGE_BYTES;
+        map.putInt(offset, regionX);
+        map.putInt(offset + 4, regionZ);
+        pages++;
+        map.putInt(8, pages);
+        pageOffsets.put(key, offset);
+        return offset;
+    }
+
+    private void remap(int newCapacity) throws IOException {
+        // Mapping past the end grows the file (zero-filled)
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) newCapacity * PAGE_BYTES);
+        capacity = newCapacity;
+    }
+
+    private int paletteId(String biomeId) throws IOException {
+        Integer id = paletteIndex.get(biomeId);
+        if (id != null) return id;
+        if (palette.size() >= MAX_PALETTE || biomeId.isEmpty() || biomeId.indexOf('\n') >= 0) return 0;
+        Files.writeString(paletteFile, biomeId + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        palette.add(biomeId);
+        paletteIndex.put(biomeId, palette.size());
+        return palette.size();
+    }
+
+    private static int slot(int chunkX, int chunkZ) {
+        return ((chunkZ & REGION_MASK) << REGION_SHIFT) | (chunkX & REGION_MASK);
+    }
+
+    private static long regionKey(int regionX, int regionZ) {
+        return ((long) regionX << 32) | (regionZ & 0xFFFFFFFFL);
+    }
+}
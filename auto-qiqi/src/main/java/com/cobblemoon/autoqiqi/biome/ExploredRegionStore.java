@@ -0,0 +1,109 @@
+package com.cobblemoon.autoqiqi.biome;
+
+import com.cobblemoon.autoqiqi.AutoQiqiClient;
+import com.cobblemoon.autoqiqi.common.Metrics;
+import com.cobblemoon.autoqiqi.legendary.WorldTracker;
+import com.cobblemoon.autoqiqi.legendary.predict.LegendTrackerBridge;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ServerInfo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * One {@link ExploredRegionIndex} per server world and dimension, in
+ * {@code config/auto-qiqi-explored/<server>_<world>_<dimension>.aqex}. {@link #current()} opens the
+ * index of the world the player is in and closes the previous one; nothing is opened while the server
+ * world name is unknown, so coordinates of two worlds never mix.
+ * <p>
+ * An unreadable file is moved aside to {@code .bak} and the index starts over. Client thread only.
+ */
+public final class ExploredRegionStore {
+
+    private static final ExploredRegionStore INSTANCE = new ExploredRegionStore();
+    private static final String DIR = "auto-qiqi-explored";
+
+    private ExploredRegionIndex index;
+    private String key;
+    private String failedKey;
+    private String lastWorldId;
+    private String lastKey;
+
+    private ExploredRegionStore() {
+        Metrics.gauge("biome.exploredChunks", () -> index != null ? index.visitedChunks() : 0);
+        Metrics.gauge("biome.exploredKb", () -> index != null ? index.usedBytes() / 1024 : 0);
+    }
+
+    public static ExploredRegionStore get() { return INSTANCE; }
+
+    /** Index of the current world, or null if the world is not known yet or its file cannot be used. */
+    public ExploredRegionIndex current() {
+        String k = worldKey(MinecraftClient.getInstance());
+        if (k == null) return null;
+        if (k.equals(key)) return index;
+        close();
+        if (k.equals(failedKey)) return null;
+
+        Path file = FabricLoader.getInstance().getConfigDir().resolve(DIR).resolve(k + ".aqex");
+        try {
+            index = openOrStartOver(file);
+            key = k;
+            AutoQiqiClient.logDebug("Biome", "Explored index " + k + ": " + index.visitedChunks() + " chunks, "
+                    + index.regions() + " regions, " + index.biomes().size() + " biomes");
+        } catch (IOException e) {
+            AutoQiqiClient.logDebug("Biome", "Explored index " + k + " unavailable: " + e.getMessage());
+            failedKey = k;
+        }
+        return index;
+    }
+
+    /** Flushes and closes the open index (world change, discovery stopped). */
+    public void close() {
+        if (index == null) return;
+        try {
+            index.close();
+        } catch (IOException e) {
+            AutoQiqiClient.logDebug("Biome", "Explored index close failed: " + e.getMessage());
+        }
+        index = null;
+        key = null;
+    }
+
+    private static ExploredRegionIndex openOrStartOver(Path file) throws IOException {
+        try {
+            return ExploredRegionIndex.open(file);
+        } catch (IOException e) {
+            if (!Files.exists(file)) throw e;
+            AutoQiqiClient.logDebug("Biome", "Unreadable explored index (" + e.getMessage() + "), starting over");
+            Files.move(file, file.resolveSibling(file.getFileName() + ".bak"), StandardCopyOption.REPLACE_EXISTING);
+            Path palette = file.resolveSibling(file.getFileName() + ".palette");
+            if (Files.exists(palette)) {
+                Files.move(palette, palette.resolveSibling(palette.getFileName() + ".bak"), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return ExploredRegionIndex.open(file);
+        }
+    }
+
+    /** File name of the player's world; called every flying tick, so only re-sanitized when the world changes. */
+    private String worldKey(MinecraftClient client) {
+        if (client.world == null) return null;
+        String world = LegendTrackerBridge.getCurrentWorld();
+        if (world == null) world = WorldTracker.get().getCurrentWorld();
+        if (world == null || world.isEmpty()) return null;
+        ServerInfo server = client.getCurrentServerEntry();
+        String host = server != null ? server.address : "local";
+        String id = host + "|" + world + "|" + client.world.getRegistryKey().getValue().getPath();
+        if (!id.equals(lastWorldId)) {
+            lastWorldId = id;
+            lastKey = sanitize(host) + "_" + sanitize(world) + "_" + sanitize(client.world.getRegistryKey().getValue().getPath());
+        }
+        return lastKey;
+    }
+
+    private static String sanitize(String s) {
+        return s.toLowerCase().replaceAll("[^a-z0-9._-]", "-");
+    }
+}
@@ -0,0 +1,87 @@
+package com.cobblemoon.autoqiqi.biome;
+
+import com.cobblemoon.autoqiqi.common.Metrics;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.biome.source.BiomeCoords;
+
+import java.lang.ref.WeakReference;
+import java.util.Optional;
+
+/**
+ * Sweeps the loaded chunks around the player into a {@link BiomeSampleMap}: one biome sample per chunk
+ * (chunk centre, at the given height), a slice of chunks per tick so a full view-distance sweep never
+ * costs a frame. The client already holds biome data for every loaded chunk, so this sees biomes up to
+ * the view distance instead of only under the player. Each sampled chunk is also marked in the world's
+ * {@link ExploredRegionIndex} when one is given.
+ * <p>
+ * Client thread only (client chunk storage is not safe to read from another thread); the slicing is
+ * what keeps it in the background. A new world clears the map.
+ */
+final class LoadedBiomeSampler {
+
+    /** ~625 chunks at view distance 12: a sweep every ~7 ticks. */
+    private static final int CHUNKS_PER_TICK = 96;
+    private static final Metrics.Histogram SWEEP_NANOS = Metrics.histogram("biome.sampleSweep");
+
+    private final BiomeSampleMap map = new BiomeSampleMap();
+    private WeakReference<ClientWorld> lastWorld = new WeakReference<>(null);
+    private int cursor = -1;
+    private int side, originChunkX, originChunkZ, sampleY;
+    private long sweepNanos;
+
+    BiomeSampleMap map() {
+        return map;
+    }
+
+    /** Sample the next slice of the sweep around {@code (x, z)}; starts a new sweep when the last one ended. */
+    void tick(ClientWorld world, double x, double z, int y, int viewDistance, ExploredRegionIndex explored) {
+        if (world != lastWorld.get()) {
+            clear();
+            lastWorld = new WeakReference<>(world);
+        }
+        long t0 = System.nanoTime();
+        if (cursor < 0) {
+            side = 2 * Math.max(1, viewDistance) + 1;
+            originChunkX = MathHelper.floor(x) >> 4;
+            originChunkZ = MathHelper.floor(z) >> 4;
+            sampleY = MathHelper.clamp(y, world.getBottomY(), world.getTopY() - 1);
+            sweepNanos = 0;
+            cursor = 0;
+            map.beginSweep(x, z);
+        }
+
+        int total = side * side;
+        int end = Math.min(total, cursor + CHUNKS_PER_TICK);
+        int half = side / 2;
+        for (; cursor < end; cursor++) {
+            int cx = originChunkX + cursor % side - half;
+            int cz = originChunkZ + cursor / side - half;
+            if (!world.getChunkManager().isChunkLoaded(cx, cz)) continue;
+            int bx = (cx << 4) + 8;
+            int bz = (cz << 4) + 8;
+            try {
+                Optional<RegistryKey<Biome>> key = world.getBiomeForNoiseGen(
+                        BiomeCoords.fromBlock(bx), BiomeCoords.fromBlock(sampleY), BiomeCoords.fromBlock(bz)).getKey();
+                String id = key.isPresent() ? key.get().getValue().toString() : null;
+                if (id != null) map.add(id, bx, bz);
+                if (explored != null) explored.mark(cx, cz, id);
+            } catch (Exception ignored) {}
+        }
+        sweepNanos += System.nanoTime() - t0;
+
+        if (cursor >= total) {
+            map.endSweep();
+            SWEEP_NANOS.record(sweepNanos);
+            cursor = -1;
+        }
+    }
+
+    /** Forget the session (map and any sweep in progress). */
+    void clear() {
+        map.clear();
+        cursor = -1;
+    }
+}
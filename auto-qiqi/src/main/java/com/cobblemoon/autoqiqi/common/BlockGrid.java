@@ -0,0 +1,67 @@
+package com.cobblemoon.autoqiqi.common;
+
+/**
+ * Read-only block queries for {@link PathFinder}, by packed coordinates.
+ * <p>
+ * Coordinates use the same packing as {@code BlockPos.asLong} (26 bits X, 26 bits Z, 12 bits Y),
+ * so callers holding a {@code BlockPos} can pass {@code pos.asLong()} directly.
+ * Implementations: {@link ClientWorldGrid} (live world, client thread only),
+ * {@link ChunkSnapshotGrid} (immutable copy of loaded chunks, any thread) and
+ * {@link VoxelGrid} (in-memory voxel array, loadable from files for tests and benchmarks).
+ */
+public interface BlockGrid {
+
+    /** Entities can move through the block (air, plants, water). */
+    boolean isPassable(long packedPos);
+
+    /** The block blocks movement (can be stood on). */
+    default boolean isSolid(long packedPos) {
+        return !isPassable(packedPos);
+    }
+
+    /** The block holds a fluid (water, lava). */
+    boolean isLiquid(long packedPos);
+
+    /** The block's collision box reaches above its voxel (fences, walls, gates). Grids without shapes say no. */
+    default boolean isTallerThanCube(long packedPos) {
+        return false;
+    }
+
+    // ========================
+    // Packing (BlockPos.asLong layout)
+    // ========================
+
+    int SIZE_BITS_XZ = 26;
+    int SIZE_BITS_Y = 12;
+    long MASK_XZ = (1L << SIZE_BITS_XZ) - 1;
+    long MASK_Y = (1L << SIZE_BITS_Y) - 1;
+    int Z_OFFSET = SIZE_BITS_Y;
+    int X_OFFSET = SIZE_BITS_Y + SIZE_BITS_XZ;
+
+    static long pack(int x, int y, int z) {
+        return ((x & MASK_XZ) << X_OFFSET) | ((z & MASK_XZ) << Z_OFFSET) | (y & MASK_Y);
+    }
+
+    static int unpackX(long packed) {
+        return (int) (packed << (64 - X_OFFSET - SIZE_BITS_XZ) >> (64 - SIZE_BITS_XZ));
+    }
+
+    static int unpackY(long packed) {
+        return (int) (packed << (64 - SIZE_BITS_Y) >> (64 - SIZE_BITS_Y));
+    }
+
+    static int unpackZ(long packed) {
+        return (int) (packed << (64 - Z_OFFSET - SIZE_BITS_XZ) >> (64 - SIZE_BITS_XZ));
+    }
+
+    /** Block coordinate containing {@code v} ({@code Math.floor} without the round trip through double). */
+    static int floor(double v) {
+        int i = (int) v;
+        return v < i ? i - 1 : i;
+    }
+
+    /** {@code packed} moved by (dx, dy, dz). */
+    static long offset(long packed, int dx, int dy, int dz) {
+        return pack(unpackX(packed) + dx, unpackY(packed) + dy, unpackZ(packed) + dz);
+    }
+}
@@ -0,0 +1,98 @@
+package com.cobblemoon.autoqiqi.common;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Immutable {@link BlockGrid} over a rectangle of loaded chunks, copied on the client thread.
+ * <p>
+ * Each non-empty section's block-state container is copied, so the snapshot can be read from any
+ * thread while the world keeps changing. Blocks outside the snapshot, in unloaded chunks or in empty
+ * sections read as air, like the live world does for unloaded chunks.
+ */
+public final class ChunkSnapshotGrid implements BlockGrid {
+
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final int widthChunks;
+    private final int depthChunks;
+    private final int bottomSection;
+    /** [chunk index][section index], null for unloaded chunks and empty sections. */
+    private final PalettedContainer<BlockState>[][] sections;
+
+    private ChunkSnapshotGrid(int minChunkX, int minChunkZ, int widthChunks, int depthChunks, int bottomSection,
+                              PalettedContainer<BlockState>[][] sections) {
+        this.minChunkX = minChunkX;
+        this.minChunkZ = minChunkZ;
+        this.widthChunks = widthChunks;
+        this.depthChunks = depthChunks;
+        this.bottomSection = bottomSection;
+        this.sections = sections;
+    }
+
+    /**
+     * Copy the chunks covering both positions plus {@code marginBlocks} on every side.
+     * Must be called on the client thread.
+     */
+    @SuppressWarnings("unchecked")
+    public static ChunkSnapshotGrid capture(ClientWorld world, BlockPos a, BlockPos b, int marginBlocks) {
+        int minCx = (Math.min(a.getX(), b.getX()) - marginBlocks) >> 4;
+        int maxCx = (Math.max(a.getX(), b.getX()) + marginBlocks) >> 4;
+        int minCz = (Math.min(a.getZ(), b.getZ()) - marginBlocks) >> 4;
+        int maxCz = (Math.max(a.getZ(), b.getZ()) + marginBlocks) >> 4;
+        int width = maxCx - minCx + 1;
+        int depth = maxCz - minCz + 1;
+
+        PalettedContainer<BlockState>[][] copied = new PalettedContainer[width * depth][];
+        for (int cz = minCz; cz <= maxCz; cz++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                if (!world.getChunkManager().isChunkLoaded(cx, cz)) continue;
+                WorldChunk chunk = world.getChunk(cx, cz);
+                ChunkSection[] chunkSections = chunk.getSectionArray();
+                PalettedContainer<BlockState>[] column = new PalettedContainer[chunkSections.length];
+                for (int i = 0; i < chunkSections.length; i++) {
+                    ChunkSection section = chunkSections[i];
+                    if (section != null && !section.isEmpty()) column[i] = section.getBlockStateContainer().copy();
+                }
+                copied[(cz - minCz) * width + (cx - minCx)] = column;
+            }
+        }
+        return new ChunkSnapshotGrid(minCx, minCz, width, depth, world.getBottomSectionCoord(), copied);
+    }
+
+    private BlockState stateAt(long packedPos) {
+        int x = BlockGrid.unpackX(packedPos);
+        int z = BlockGrid.unpackZ(packedPos);
+        int cx = (x >> 4) - minChunkX;
+        int cz = (z >> 4) - minChunkZ;
+        if (cx < 0 || cz < 0 || cx >= widthChunks || cz >= depthChunks) return null;
+        PalettedContainer<BlockState>[] column = sections[cz * widthChunks + cx];
+        if (column == null) return null;
+        int y = BlockGrid.unpackY(packedPos);
+        int s = (y >> 4) - bottomSection;
+        if (s < 0 || s >= column.length || column[s] == null) return null;
+        return column[s].get(x & 15, y & 15, z & 15);
+    }
+
+    @Override
+    public boolean isPassable(long packedPos) {
+        BlockState state = stateAt(packedPos);
+        return state == null || !state.blocksMovement();
+    }
+
+    @Override
+    public boolean isSolid(long packedPos) {
+        BlockState state = stateAt(packedPos);
+        return state != null && state.blocksMovement();
+    }
+
+    @Override
+    public boolean isLiquid(long packedPos) {
+        BlockState state = stateAt(packedPos);
+        return state != null && state.isLiquid();
+    }
+}
@@ -0,0 +1,117 @@
+package com.cobblemoon.autoqiqi.common;
+
+import com.cobblemoon.autoqiqi.AutoQiqiClient;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.Entity;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Releases client-side references to previous worlds. On every world change (teleport to another
+ * dimension, respawn, reconnect) the registered releasers drop entity references that still point
+ * into the old world: an Entity keeps its ClientWorld, and with it every chunk, reachable.
+ * {@link #flush} goes further (GC plus chunk renderer reload) and is the step tried before a full
+ * reconnect when hops get slow.
+ * <p>
+ * Metrics: {@code heap.usedMb}, {@code client.loadedChunks}, {@code client.retainedWorlds}
+ * (previous worlds not yet collected: after a GC, anything above 0 is a leak) and the
+ * {@code client.worldChanges} / {@code client.cacheFlushes} counters.
+ */
+public final class ClientCacheFlusher {
+
+    private static final ClientCacheFlusher INSTANCE = new ClientCacheFlusher();
+    /** Chunk reload temporarily doubles chunk memory — skip it below this much free heap. */
+    private static final long MIN_FREE_MB_FOR_RELOAD = 200;
+
+    /** Outcome of a {@link #flush}: heap after it and whether chunks were reloaded. */
+    public record Result(long freeMb, long totalMb, boolean chunksReloaded) {}
+
+    private final List<Runnable> releasers = new ArrayList<>();
+    private final List<WeakReference<ClientWorld>> previousWorlds = new ArrayList<>();
+    private WeakReference<ClientWorld> lastWorld = new WeakReference<>(null);
+    private final Metrics.Counter worldChanges = Metrics.counter("client.worldChanges");
+    private final Metrics.Counter flushes = Metrics.counter("client.cacheFlushes");
+
+    private ClientCacheFlusher() {
+        Metrics.gauge("heap.usedMb", () -> {
+            Runtime rt = Runtime.getRuntime();
+            return (rt.totalMemory() - rt.freeMemory()) / (1024 * 1024);
+        });
+        Metrics.gauge("client.loadedChunks", () -> {
+            ClientWorld world = MinecraftClient.getInstance().world;
+            return world != null ? world.getChunkManager().getLoadedChunkCount() : 0;
+        });
+        Metrics.gauge("client.retainedWorlds", this::retainedWorlds);
+    }
+
+    public static ClientCacheFlusher get() { return INSTANCE; }
+
+    /** Register a callback that drops references into worlds other than the current one. */
+    public void addReleaser(Runnable releaser) {
+        releasers.add(releaser);
+    }
+
+    /** True if {@code entity} belongs to a world other than the client's current one. */
+    public static boolean isFromOtherWorld(Entity entity) {
+        return entity != null && entity.getWorld() != MinecraftClient.getInstance().world;
+    }
+
+    /** Detect world changes; run the releasers once per change. Call every tick, before other engines. */
+    public void tick() {
+        ClientWorld world = MinecraftClient.getInstance().world;
+        ClientWorld last = lastWorld.get();
+        if (world == last) return;
+        if (last != null) previousWorlds.add(new WeakReference<>(last));
+        lastWorld = new WeakReference<>(world);
+        if (world == null) return;
+        worldChanges.increment();
+        release();
+        AutoQiqiClient.logDebug("CacheFlush", "World changed — released old-world references (retained worlds: "
+                + retainedWorlds() + ")");
+    }
+
+    /**
+     * Release old-world references, run a GC and, when there is headroom, rebuild the chunk renderer
+     * (F3+A). Costs a few hundred ms of frames instead of the tens of seconds of a reconnect.
+     */
+    public Result flush(boolean reloadChunks) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        release();
+        flushes.increment();
+        System.gc();
+
+        Runtime rt = Runtime.getRuntime();
+        long freeMb = rt.freeMemory() / (1024 * 1024);
+        boolean reloaded = false;
+        if (reloadChunks && client.world != null && freeMb >= MIN_FREE_MB_FOR_RELOAD) {
+            client.worldRenderer.reload();
+            System.gc(); // second pass for the freed chunk buffers
+            freeMb = rt.freeMemory() / (1024 * 1024);
+            reloaded = true;
+        }
+        Result result = new Result(freeMb, rt.totalMemory() / (1024 * 1024), reloaded);
+        AutoQiqiClient.logDebug("CacheFlush", "Flush: chunksReloaded=" + reloaded + " free=" + result.freeMb()
+                + "/" + result.totalMb() + "MB retainedWorlds=" + retainedWorlds());
+        return result;
+    }
+
+    /** Previous worlds still reachable (cleared weak references are pruned). */
+    public int retainedWorlds() {
+        ClientWorld current = MinecraftClient.getInstance().world;
+        previousWorlds.removeIf(ref -> ref.get() == null || ref.get() == current);
+        return previousWorlds.size();
+    }
+
+    private void release() {
+        for (Runnable releaser : releasers) {
+            try {
+                releaser.run();
+            } catch (RuntimeException e) {
+                AutoQiqiClient.logDebug("CacheFlush", "Releaser failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.cobblemoon.autoqiqi.common;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+
+/**
+ * {@link BlockGrid} over the live {@link ClientWorld}. Reuses one mutable position, so it must only be
+ * used on the client thread (take a {@link ChunkSnapshotGrid} to path-find elsewhere).
+ */
+public final class ClientWorldGrid implements BlockGrid {
+
+    private final ClientWorld world;
+    private final BlockPos.Mutable cursor = new BlockPos.Mutable();
+
+    public ClientWorldGrid(ClientWorld world) {
+        this.world = world;
+    }
+
+    @Override
+    public boolean isPassable(long packedPos) {
+        return !world.getBlockState(cursor.set(packedPos)).blocksMovement();
+    }
+
+    @Override
+    public boolean isSolid(long packedPos) {
+        return world.getBlockState(cursor.set(packedPos)).blocksMovement();
+    }
+
+    @Override
+    public boolean isLiquid(long packedPos) {
+        return world.getBlockState(cursor.set(packedPos)).isLiquid();
+    }
+
+    @Override
+    public boolean isTallerThanCube(long packedPos) {
+        BlockState state = world.getBlockState(cursor.set(packedPos));
+        return state.blocksMovement() && state.getCollisionShape(world, cursor).getMax(Direction.Axis.Y) > 1.0;
+    }
+}
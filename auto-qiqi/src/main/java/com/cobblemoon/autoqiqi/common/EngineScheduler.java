@@ -0,0 +1,174 @@
+package com.cobblemoon.autoqiqi.common;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs the per-tick engines registered by {@code AutoQiqiClient} from END_CLIENT_TICK.
+ * <p>
+ * Each engine has a priority and a period (in client ticks). Engines run in priority order
+ * (registration order within a priority). Once the tick has spent more than the frame budget,
+ * {@link Priority#DEFERRABLE} engines that are due are pushed to the next tick instead of
+ * running — at most {@link #MAX_DEFERRED_TICKS} ticks in a row, so they never starve.
+ * An engine that throws is counted and reported to the {@link FailureListener}; the engines after it
+ * still run. Per-engine timing (recent average, max, deferrals, failures) is kept for {@code /pk ticks}.
+ * <p>
+ * No Minecraft dependencies: the clock is injectable so scheduling is testable in isolation.
+ */
+public final class EngineScheduler {
+
+    public enum Priority {
+        /** Input, battle and movement engines: always run when due. */
+        CRITICAL,
+        /** Regular engines: always run when due, after critical ones. */
+        NORMAL,
+        /** Prediction, scans, biome checks: skipped to the next tick when over budget. */
+        DEFERRABLE
+    }
+
+    @FunctionalInterface
+    public interface TickTask {
+        void tick();
+    }
+
+    /** Told about an engine's first failure, then every {@link #FAILURE_REPORT_EVERY}th one. */
+    @FunctionalInterface
+    public interface FailureListener {
+        void failed(EngineStats engine, RuntimeException error);
+    }
+
+    /** Timing of one engine. Average is an exponential moving average over recent runs. */
+    public static final class EngineStats {
+        private final String name;
+        private final Priority priority;
+        private final int periodTicks;
+        private long runs;
+        private long deferrals;
+        private long failures;
+        private long lastNanos;
+        private long maxNanos;
+        private double avgNanos;
+
+        EngineStats(String name, Priority priority, int periodTicks) {
+            this.name = name;
+            this.priority = priority;
+            this.periodTicks = periodTicks;
+        }
+
+        void record(long nanos) {
+            runs++;
+            lastNanos = nanos;
+            if (nanos > maxNanos) maxNanos = nanos;
+            avgNanos = runs == 1 ? nanos : avgNanos + AVG_ALPHA * (nanos - avgNanos);
+        }
+
+        public String name() { return name; }
+        public Priority priority() { return priority; }
+        public int periodTicks() { return periodTicks; }
+        public long runs() { return runs; }
+        public long deferrals() { return deferrals; }
+        public long failures() { return failures; }
+        public long lastNanos() { return lastNanos; }
+        public long maxNanos() { return maxNanos; }
+        public double avgNanos() { return avgNanos; }
+    }
+
+    private static final class Entry {
+        final TickTask task;
+        final EngineStats stats;
+        long nextDueTick;
+        int deferredTicks;
+
+        Entry(TickTask task, EngineStats stats, long firstDueTick) {
+            this.task = task;
+            this.stats = stats;
+            this.nextDueTick = firstDueTick;
+        }
+    }
+
+    /** Deferrable engines run anyway after this many consecutive deferred ticks (1 s). */
+    static final int MAX_DEFERRED_TICKS = 20;
+    /** A failing engine usually fails every tick: report once, then once per this many failures. */
+    static final int FAILURE_REPORT_EVERY = 200;
+    private static final double AVG_ALPHA = 0.05;
+
+    private static final EngineScheduler INSTANCE = new EngineScheduler(System::nanoTime);
+
+    private final LongSupplier clock;
+    private final List<Entry> entries = new ArrayList<>();
+    private FailureListener failureListener = (engine, error) -> {};
+    private long tick = 0;
+    private long lastFrameNanos = 0;
+    private long maxFrameNanos = 0;
+    private long overBudgetTicks = 0;
+
+    EngineScheduler(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static EngineScheduler get() { return INSTANCE; }
+
+    public void setFailureListener(FailureListener listener) {
+        this.failureListener = listener;
+    }
+
+    /** Register an engine that runs every {@code periodTicks} ticks, starting on the next tick. */
+    public void register(String name, Priority priority, int periodTicks, TickTask task) {
+        register(name, priority, periodTicks, 0, task);
+    }
+
+    /**
+     * Register an engine whose first run is delayed by {@code initialDelayTicks}.
+     * Entries are kept sorted by priority; registration order is preserved within a priority.
+     */
+    public void register(String name, Priority priority, int periodTicks, int initialDelayTicks, TickTask task) {
+        Entry entry = new Entry(task, new EngineStats(name, priority, Math.max(1, periodTicks)), tick + initialDelayTicks);
+        int idx = entries.size();
+        while (idx > 0 && entries.get(idx - 1).stats.priority.compareTo(priority) > 0) idx--;
+        entries.add(idx, entry);
+    }
+
+    /** Run every due engine for this tick within {@code budgetNanos} (deferrable engines only). */
+    public void runTick(long budgetNanos) {
+        tick++;
+        long frameStart = clock.getAsLong();
+        for (Entry e : entries) {
+            if (tick < e.nextDueTick) continue;
+            if (e.stats.priority == Priority.DEFERRABLE && e.deferredTicks < MAX_DEFERRED_TICKS
+                    && clock.getAsLong() - frameStart > budgetNanos) {
+                e.deferredTicks++;
+                e.stats.deferrals++;
+                continue;
+            }
+            long start = clock.getAsLong();
+            try {
+                e.task.tick();
+            } catch (RuntimeException ex) {
+                e.stats.failures++;
+                if (e.stats.failures % FAILURE_REPORT_EVERY == 1) failureListener.failed(e.stats, ex);
+            } finally {
+                e.stats.record(clock.getAsLong() - start);
+                e.deferredTicks = 0;
+                e.nextDueTick = tick + e.stats.periodTicks;
+            }
+        }
+        lastFrameNanos = clock.getAsLong() - frameStart;
+        if (lastFrameNanos > maxFrameNanos) maxFrameNanos = lastFrameNanos;
+        if (lastFrameNanos > budgetNanos) overBudgetTicks++;
+    }
+
+    /** Engine stats, most expensive (recent average) first. */
+    public List<EngineStats> stats() {
+        List<EngineStats> list = new ArrayList<>(entries.size());
+        for (Entry e : entries) list.add(e.stats);
+        list.sort(Comparator.comparingDouble(EngineStats::avgNanos).reversed());
+        return list;
+    }
+
+    public long ticks() { return tick; }
+    public long lastFrameNanos() { return lastFrameNanos; }
+    public long maxFrameNanos() { return maxFrameNanos; }
+    public long overBudgetTicks() { return overBudgetTicks; }
+}
@@ -0,0 +1,133 @@
+package com.cobblemoon.autoqiqi.common;
+
+/**
+ * Line-of-sight geometry on a {@link BlockGrid}: voxel traversal (Amanatides–Woo DDA) of a segment,
+ * segment-vs-box tests for entities, and the search for the nearest sideways position with a clear
+ * line. Pure logic with no world access, so it runs on {@link VoxelGrid}s in tests.
+ * <p>
+ * Blocks count as full cubes ({@link BlockGrid#isSolid}), which is slightly stricter than a collider
+ * raycast on slabs and stairs. Blocks taller than a cube (fences, walls) are only covered if the grid
+ * also reports the voxel above them as solid, as {@link LineOfSightService} does with
+ * {@link BlockGrid#isTallerThanCube}.
+ */
+public final class LineOfSight {
+
+    /**
+     * Solid blocks entered past this fraction of the squared distance are ignored, as the raycast
+     * check did: a hit in the last ~2.5 % of the line counts as reaching the target.
+     */
+    public static final double TAIL_TOLERANCE_SQ = 0.95;
+
+    private LineOfSight() {}
+
+    /**
+     * True if no solid block lies on the segment before {@link #TAIL_TOLERANCE_SQ} of its squared length.
+     * Visits each voxel the segment crosses exactly once.
+     */
+    public static boolean isClear(BlockGrid grid, double x0, double y0, double z0, double x1, double y1, double z1) {
+        double dx = x1 - x0, dy = y1 - y0, dz = z1 - z0;
+        int x = BlockGrid.floor(x0), y = BlockGrid.floor(y0), z = BlockGrid.floor(z0);
+        int endX = BlockGrid.floor(x1), endY = BlockGrid.floor(y1), endZ = BlockGrid.floor(z1);
+        int stepX = dx > 0 ? 1 : dx < 0 ? -1 : 0;
+        int stepY = dy > 0 ? 1 : dy < 0 ? -1 : 0;
+        int stepZ = dz > 0 ? 1 : dz < 0 ? -1 : 0;
+        // Parameter t (0..1 along the segment) at the next voxel boundary on each axis, and per voxel
+        double tMaxX = stepX == 0 ? Double.MAX_VALUE : ((stepX > 0 ? x + 1 : x) - x0) / dx;
+        double tMaxY = stepY == 0 ? Double.MAX_VALUE : ((stepY > 0 ? y + 1 : y) - y0) / dy;
+        double tMaxZ = stepZ == 0 ? Double.MAX_VALUE : ((stepZ > 0 ? z + 1 : z) - z0) / dz;
+        double tDeltaX = stepX == 0 ? Double.MAX_VALUE : Math.abs(1 / dx);
+        double tDeltaY = stepY == 0 ? Double.MAX_VALUE : Math.abs(1 / dy);
+        double tDeltaZ = stepZ == 0 ? Double.MAX_VALUE : Math.abs(1 / dz);
+        double tEnter = 0;
+
+        while (true) {
+            if (tEnter * tEnter >= TAIL_TOLERANCE_SQ) return true;
+            if (grid.isSolid(BlockGrid.pack(x, y, z))) return false;
+            if (x == endX && y == endY && z == endZ) return true;
+            if (tMaxX <= tMaxY && tMaxX <= tMaxZ) {
+                tEnter = tMaxX;
+                x += stepX;
+                tMaxX += tDeltaX;
+            } else if (tMaxY <= tMaxZ) {
+                tEnter = tMaxY;
+                y += stepY;
+                tMaxY += tDeltaY;
+            } else {
+                tEnter = tMaxZ;
+                z += stepZ;
+                tMaxZ += tDeltaZ;
+            }
+            if (tEnter > 1) return true;
+        }
+    }
+
+    /**
+     * Where the segment enters the box, as t in [0, 1] along the segment, or -1 if it misses (slab test).
+     * A box containing the start point is ignored (-1), like {@code Box.raycast}: an entity overlapping
+     * the eye (our own Pokemon at our feet) does not block every line.
+     */
+    public static double segmentEntersBox(double x0, double y0, double z0, double x1, double y1, double z1,
+                                          double minX, double minY, double minZ,
+                                          double maxX, double maxY, double maxZ) {
+        if (x0 >= minX && x0 <= maxX && y0 >= minY && y0 <= maxY && z0 >= minZ && z0 <= maxZ) return -1;
+        double tMin = 0, tMax = 1;
+        double[] origin = {x0, y0, z0};
+        double[] delta = {x1 - x0, y1 - y0, z1 - z0};
+        double[] lo = {minX, minY, minZ};
+        double[] hi = {maxX, maxY, maxZ};
+        for (int axis = 0; axis < 3; axis++) {
+            if (Math.abs(delta[axis]) < 1e-9) {
+                if (origin[axis] < lo[axis] || origin[axis] > hi[axis]) return -1;
+                continue;
+            }
+            double t1 = (lo[axis] - origin[axis]) / delta[axis];
+            double t2 = (hi[axis] - origin[axis]) / delta[axis];
+            if (t1 > t2) { double tmp = t1; t1 = t2; t2 = tmp; }
+            tMin = Math.max(tMin, t1);
+            tMax = Math.min(tMax, t2);
+            if (tMin > tMax) return -1;
+        }
+        return tMin;
+    }
+
+    // ========================
+    // Sideways search
+    // ========================
+
+    /** Line test for one candidate eye position (blocks, and entities if the caller tracks them). */
+    @FunctionalInterface
+    public interface LineTest {
+        boolean isClear(double eyeX, double eyeY, double eyeZ);
+    }
+
+    /**
+     * Nearest sideways offset (perpendicular to the horizontal eye → target direction) whose eye
+     * position sees the target, trying {@code offsets} on the left and the right in order. A side is
+     * abandoned at the first offset where the player could not stand (solid feet or head block).
+     * Positive result = to the player's left, negative = right, 0 = no clear position found.
+     */
+    public static double nearestClearOffset(BlockGrid grid, double eyeX, double eyeY, double eyeZ, double eyeHeight,
+                                            double targetX, double targetZ, double[] offsets, LineTest test) {
+        double fx = targetX - eyeX, fz = targetZ - eyeZ;
+        double len = Math.sqrt(fx * fx + fz * fz);
+        if (len < 1e-6) return 0;
+        // Left of the facing direction in Minecraft's x-east / z-south frame
+        double leftX = fz / len, leftZ = -fx / len;
+        boolean leftOpen = true, rightOpen = true;
+        for (double offset : offsets) {
+            for (int side = 1; side >= -1; side -= 2) {
+                if (side > 0 ? !leftOpen : !rightOpen) continue;
+                double ex = eyeX + side * offset * leftX;
+                double ez = eyeZ + side * offset * leftZ;
+                int feetY = BlockGrid.floor(eyeY - eyeHeight);
+                if (grid.isSolid(BlockGrid.pack(BlockGrid.floor(ex), feetY, BlockGrid.floor(ez)))
+                        || grid.isSolid(BlockGrid.pack(BlockGrid.floor(ex), BlockGrid.floor(eyeY), BlockGrid.floor(ez)))) {
+                    if (side > 0) leftOpen = false; else rightOpen = false;
+                    continue;
+                }
+                if (test.isClear(ex, eyeY, ez)) return side * offset;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,221 @@
+package com.cobblemoon.autoqiqi.common;
+
+import com.cobblemon.mod.common.entity.pokemon.PokemonEntity;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayerEntity;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.Box;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-tick line of sight from the player's eyes to a target, shared by every caller in the tick.
+ * <p>
+ * {@link #beginTick()} (first engine of the tick) drops the previous answers. Within a tick, block
+ * visibility, the blocking entity and the sideways search are each computed at most once per target.
+ * Block reads go through a grid memoised for the tick, so the strafe candidates re-read none of
+ * the voxels the direct line already visited, and the Pokemon that could block a throw come from one
+ * entity query around the player–target segment instead of one box query per check.
+ * {@link #findThrowPosition} runs {@link ThrowPositionSolver} on the same grid and entity list.
+ * <p>
+ * The grid also marks the voxel above a fence, wall or fence gate as solid: their collision box is
+ * 1.5 blocks tall, so a line just over the block would pass a plain voxel check but not the game.
+ */
+public final class LineOfSightService {
+
+    private static final LineOfSightService INSTANCE = new LineOfSightService();
+    /** Entity hitboxes are grown by this much, as a thrown ball has a size too. */
+    private static final double ENTITY_MARGIN = 0.3;
+    /** Sideways positions tried by {@link #strafeDirectionToClear}, nearest first (blocks). */
+    private static final double[] STRAFE_OFFSETS = {0.5, 1.0, 1.5, 2.0, 2.5, 3.0};
+    /** Farthest a tested eye position gets from the player or the target (throw position rings, blocks). */
+    private static final double CANDIDATE_REACH = 6.0;
+    private static final Metrics.Histogram COMPUTE_NANOS = Metrics.histogram("los.compute");
+    private static final Metrics.Histogram THROW_POSITION_NANOS = Metrics.histogram("los.throwPosition");
+
+    private final Map<Long, Boolean> solidCache = new HashMap<>();
+    private ClientWorld gridWorld;
+    private BlockGrid liveGrid;
+    private final BlockGrid cachedGrid = new BlockGrid() {
+        @Override
+        public boolean isPassable(long packedPos) {
+            return !isSolid(packedPos);
+        }
+
+        @Override
+        public boolean isSolid(long packedPos) {
+            // The block below sticking into this voxel (fence, wall, gate) blocks the line too
+            return solidCache.computeIfAbsent(packedPos, p -> liveGrid.isSolid(p)
+                    || liveGrid.isTallerThanCube(BlockGrid.offset(p, 0, -1, 0)));
+        }
+
+        @Override
+        public boolean isLiquid(long packedPos) {
+            return liveGrid.isLiquid(packedPos);
+        }
+    };
+
+    // Answers for the current tick, for one target
+    private Entity target;
+    private Boolean blockLos;
+    private boolean blockerComputed;
+    private Entity blocker;
+    private Integer strafeDirection;
+    private List<Entity> candidates;
+
+    private LineOfSightService() {}
+
+    public static LineOfSightService get() { return INSTANCE; }
+
+    /** Forget last tick's answers. Call once per tick before any engine asks. */
+    public void beginTick() {
+        solidCache.clear();
+        candidates = null;
+        resetTarget(null);
+    }
+
+    /** Drop the world and everything read from it (world change). */
+    public void releaseWorldRefs() {
+        gridWorld = null;
+        liveGrid = null;
+        solidCache.clear();
+        candidates = null;
+        resetTarget(null);
+    }
+
+    /** True if no solid block is between the player's eyes and the center of the target. */
+    public boolean hasLineOfSight(ClientPlayerEntity player, Entity target) {
+        if (!prepare(player, target)) return false;
+        if (blockLos == null) {
+            long t0 = System.nanoTime();
+            double[] e = eye(player);
+            double[] t = center(target);
+            blockLos = LineOfSight.isClear(cachedGrid, e[0], e[1], e[2], t[0], t[1], t[2]);
+            COMPUTE_NANOS.recordSince(t0);
+        }
+        return blockLos;
+    }
+
+    /**
+     * A living Pokemon (other than the target) on the line from the player's eyes to the target,
+     * or null if the throw path is clear of entities.
+     */
+    public Entity getEntityBlockingThrow(ClientPlayerEntity player, Entity target) {
+        if (!prepare(player, target)) return null;
+        if (!blockerComputed) {
+            double[] e = eye(player);
+            double[] t = center(target);
+            blocker = firstEntityOnLine(player, target, e[0], e[1], e[2], t);
+            blockerComputed = true;
+        }
+        return blocker;
+    }
+
+    /**
+     * Which way to strafe to reach the nearest position that sees the target past both blocks and
+     * Pokemon: +1 left, -1 right, 0 if no position within {@code STRAFE_OFFSETS} does. All candidate
+     * positions are checked in one pass against the tick's cached grid and entity list.
+     */
+    public int strafeDirectionToClear(ClientPlayerEntity player, Entity target) {
+        if (!prepare(player, target)) return 0;
+        if (strafeDirection == null) {
+            long t0 = System.nanoTime();
+            double[] e = eye(player);
+            double[] t = center(target);
+            double offset = LineOfSight.nearestClearOffset(cachedGrid, e[0], e[1], e[2],
+                    player.getStandingEyeHeight(), t[0], t[2], STRAFE_OFFSETS,
+                    (x, y, z) -> LineOfSight.isClear(cachedGrid, x, y, z, t[0], t[1], t[2])
+                            && firstEntityOnLine(player, target, x, y, z, t) == null);
+            strafeDirection = (int) Math.signum(offset);
+            COMPUTE_NANOS.recordSince(t0);
+        }
+        return strafeDirection;
+    }
+
+    /**
+     * Nearest standing position from which a ball reaches the target, between {@code minDistance} and
+     * {@code maxDistance} of it (see {@link ThrowPositionSolver}), or null if none was found. With
+     * {@code checkEntities}, the line must also miss every other Pokemon.
+     */
+    public ThrowPositionSolver.Spot findThrowPosition(ClientPlayerEntity player, Entity target,
+                                                      double minDistance, double maxDistance, boolean checkEntities) {
+        if (!prepare(player, target)) return null;
+        long t0 = System.nanoTime();
+        try {
+            double[] t = center(target);
+            return ThrowPositionSolver.solve(cachedGrid, player.getX(), player.getY(), player.getZ(),
+                    player.getStandingEyeHeight(), t[0], t[1], t[2], minDistance,
+                    Math.min(maxDistance, CANDIDATE_REACH),
+                    (x, y, z) -> !checkEntities || firstEntityOnLine(player, target, x, y, z, t) == null);
+        } finally {
+            THROW_POSITION_NANOS.recordSince(t0);
+        }
+    }
+
+    // ========================
+    // Internals
+    // ========================
+
+    private boolean prepare(ClientPlayerEntity player, Entity target) {
+        if (player == null || target == null) return false;
+        ClientWorld world = MinecraftClient.getInstance().world;
+        if (world == null) return false;
+        if (world != gridWorld) {
+            gridWorld = world;
+            liveGrid = new ClientWorldGrid(world);
+            solidCache.clear();
+            candidates = null;
+        }
+        if (target != this.target) {
+            resetTarget(target);
+            candidates = null;
+        }
+        return true;
+    }
+
+    private void resetTarget(Entity target) {
+        this.target = target;
+        blockLos = null;
+        blockerComputed = false;
+        blocker = null;
+        strafeDirection = null;
+    }
+
+    private Entity firstEntityOnLine(ClientPlayerEntity player, Entity target, double x, double y, double z, double[] t) {
+        Entity first = null;
+        double firstT = Double.MAX_VALUE;
+        for (Entity entity : candidates(player, target)) {
+            Box b = entity.getBoundingBox().expand(ENTITY_MARGIN);
+            double hit = LineOfSight.segmentEntersBox(x, y, z, t[0], t[1], t[2],
+                    b.minX, b.minY, b.minZ, b.maxX, b.maxY, b.maxZ);
+            if (hit >= 0 && hit < 1 && hit < firstT) {
+                firstT = hit;
+                first = entity;
+            }
+        }
+        return first;
+    }
+
+    /** Pokemon near the player–target segment (wide enough for every strafe and throw position), once per tick. */
+    private List<Entity> candidates(ClientPlayerEntity player, Entity target) {
+        if (candidates == null) {
+            double reach = Math.max(STRAFE_OFFSETS[STRAFE_OFFSETS.length - 1], CANDIDATE_REACH) + ENTITY_MARGIN + 1;
+            Box area = player.getBoundingBox().union(target.getBoundingBox()).expand(reach);
+            candidates = new ArrayList<>(gridWorld.getOtherEntities(player, area,
+                    e -> e instanceof PokemonEntity && e != target && e.isAlive()));
+        }
+        return candidates;
+    }
+
+    private static double[] eye(ClientPlayerEntity player) {
+        return new double[]{player.getX(), player.getEyeY(), player.getZ()};
+    }
+
+    private static double[] center(Entity target) {
+        return new double[]{target.getX(), target.getY() + target.getHeight() / 2.0, target.getZ()};
+    }
+}
@@ -0,0 +1,196 @@
+package com.cobblemoon.autoqiqi.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide metrics registry for hot paths: counters, latency histograms and gauges.
+ * <p>
+ * Everything is lock-free on the recording side ({@link LongAdder}, atomic bucket arrays), so
+ * timers can sit on the client thread and on worker threads alike. Hot paths keep the returned
+ * {@link Histogram} in a static field and call {@link Histogram#recordSince(long)} in a finally block.
+ * Read by {@code /pk perf} and the optional CSV dump ({@link MetricsCsvDumper}).
+ * No Minecraft dependencies.
+ */
+public final class Metrics {
+
+    private static final Map<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentSkipListMap<>();
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentSkipListMap<>();
+
+    private Metrics() {}
+
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, k -> new Counter());
+    }
+
+    /** Latency histogram in nanoseconds. */
+    public static Histogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    /** Register (or replace) a gauge sampled on read. */
+    public static void gauge(String name, LongSupplier value) {
+        GAUGES.put(name, value);
+    }
+
+    /** Histograms by name (sorted). */
+    public static Map<String, Histogram> histograms() { return HISTOGRAMS; }
+
+    public static Map<String, Counter> counters() { return COUNTERS; }
+
+    public static Map<String, LongSupplier> gauges() { return GAUGES; }
+
+    /** Zero all counters and histograms (gauges are live values). */
+    public static void reset() {
+        COUNTERS.values().forEach(Counter::reset);
+        HISTOGRAMS.values().forEach(Histogram::reset);
+    }
+
+    /** Current value of a gauge, or 0 if its supplier throws. */
+    public static long sample(LongSupplier gauge) {
+        try {
+            return gauge.getAsLong();
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    // ========================
+    // Counter
+    // ========================
+
+    public static final class Counter {
+        private final LongAdder adder = new LongAdder();
+
+        public void increment() { adder.increment(); }
+
+        public void add(long n) { adder.add(n); }
+
+        public long get() { return adder.sum(); }
+
+        void reset() { adder.reset(); }
+    }
+
+    // ========================
+    // Histogram
+    // ========================
+
+    /**
+     * Log-linear histogram (HDR-style): each power of two is split into {@link #SUB_BUCKETS}
+     * linear sub-buckets, so any recorded value is reported within ~1/{@code SUB_BUCKETS}
+     * relative error. Values 0..{@code SUB_BUCKETS-1} get exact buckets; range covers up to 2^62.
+     */
+    public static final class Histogram {
+        static final int SUB_BUCKET_BITS = 3;
+        static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        /** Record the time elapsed since {@code startNanos} (from {@link System#nanoTime()}). */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        public void record(long value) {
+            if (value < 0) value = 0;
+            buckets.incrementAndGet(bucketIndex(value));
+            count.increment();
+            sum.add(value);
+            long m;
+            while (value > (m = max.get()) && !max.compareAndSet(m, value)) {
+                // retry
+            }
+        }
+
+        public long count() { return count.sum(); }
+
+        public long max() { return max.get(); }
+
+        public double mean() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) sum.sum() / n;
+        }
+
+        /**
+         * Value at percentile {@code p} (0..100): upper bound of the bucket holding that rank,
+         * capped at the recorded max. 0 when empty.
+         */
+        public long percentile(double p) {
+            long n = 0;
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = buckets.get(i);
+                n += snapshot[i];
+            }
+            if (n == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(p / 100.0 * n));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) return Math.min(bucketUpperBound(i), max.get());
+            }
+            return max.get();
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) buckets.set(i, 0);
+            count.reset();
+            sum.reset();
+            max.set(0);
+        }
+
+        static int bucketIndex(long value) {
+            if (value < SUB_BUCKETS) return (int) value;
+            int exponent = 63 - Long.numberOfLeadingZeros(value); // >= SUB_BUCKET_BITS
+            int shift = exponent - SUB_BUCKET_BITS;
+            int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+            return (shift + 1) * SUB_BUCKETS + sub;
+        }
+
+        static long bucketUpperBound(int index) {
+            if (index < SUB_BUCKETS) return index;
+            int shift = index / SUB_BUCKETS - 1;
+            long sub = index % SUB_BUCKETS;
+            return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+        }
+    }
+
+    // ========================
+    // Report
+    // ========================
+
+    /** One line per histogram: count, p50/p99/max in microseconds. */
+    public static List<String> report() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Histogram> e : HISTOGRAMS.entrySet()) {
+            Histogram h = e.getValue();
+            if (h.count() == 0) continue;
+            lines.add(String.format("%s n=%d p50=%s p99=%s max=%s", e.getKey(), h.count(),
+                    formatNanos(h.percentile(50)), formatNanos(h.percentile(99)), formatNanos(h.max())));
+        }
+        for (Map.Entry<String, Counter> e : COUNTERS.entrySet()) {
+            lines.add(e.getKey() + "=" + e.getValue().get());
+        }
+        for (Map.Entry<String, LongSupplier> e : GAUGES.entrySet()) {
+            lines.add(e.getKey() + "=" + sample(e.getValue()));
+        }
+        return lines;
+    }
+
+    /** Human-readable duration: µs below 10 ms, ms above. */
+    public static String formatNanos(long nanos) {
+        if (nanos < 10_000_000L) return String.format("%.0fµs", nanos / 1e3);
+        return String.format("%.1fms", nanos / 1e6);
+    }
+}
@@ -0,0 +1,99 @@
+package com.cobblemoon.autoqiqi.common;
+
+import com.cobblemoon.autoqiqi.AutoQiqiClient;
+import com.cobblemoon.autoqiqi.config.AutoQiqiConfig;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Appends a {@link Metrics} snapshot to {@code logs/auto-qiqi/perf-<timestamp>.csv} every
+ * {@code perfCsvIntervalSeconds} (0 = off). Values are cumulative since start (or {@code /pk perf reset}),
+ * so a session can be plotted offline. Ticked once per second by the engine scheduler.
+ */
+public final class MetricsCsvDumper {
+
+    static final String HEADER = "epoch_ms,metric,kind,count,p50_us,p99_us,max_us,mean_us,value";
+
+    private static final MetricsCsvDumper INSTANCE = new MetricsCsvDumper();
+
+    private Path file;
+    private boolean openFailed = false;
+    private long lastDumpMs = 0;
+
+    private MetricsCsvDumper() {}
+
+    public static MetricsCsvDumper get() { return INSTANCE; }
+
+    public void tick() {
+        int interval = AutoQiqiConfig.get().perfCsvIntervalSeconds;
+        if (interval <= 0) return;
+        long now = System.currentTimeMillis();
+        if (lastDumpMs == 0) { lastDumpMs = now; return; }
+        if (now - lastDumpMs < interval * 1000L) return;
+        lastDumpMs = now;
+        dump(now);
+    }
+
+    private void dump(long now) {
+        Path out = open();
+        if (out == null) return;
+        try (Writer w = Files.newBufferedWriter(out, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            w.write(rows(now));
+        } catch (IOException e) {
+            AutoQiqiClient.logDebug("Metrics", "CSV dump failed: " + e.getMessage());
+        }
+    }
+
+    /** CSV rows (no header) for the current registry contents. */
+    static String rows(long epochMs) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Metrics.Histogram> e : Metrics.histograms().entrySet()) {
+            Metrics.Histogram h = e.getValue();
+            sb.append(epochMs).append(',').append(e.getKey()).append(",histogram,").append(h.count()).append(',')
+                    .append(micros(h.percentile(50))).append(',').append(micros(h.percentile(99))).append(',')
+                    .append(micros(h.max())).append(',').append(micros((long) h.mean())).append(",\n");
+        }
+        for (Map.Entry<String, Metrics.Counter> e : Metrics.counters().entrySet()) {
+            sb.append(epochMs).append(',').append(e.getKey()).append(",counter,,,,,,")
+                    .append(e.getValue().get()).append('\n');
+        }
+        for (Map.Entry<String, LongSupplier> e : Metrics.gauges().entrySet()) {
+            sb.append(epochMs).append(',').append(e.getKey()).append(",gauge,,,,,,")
+                    .append(Metrics.sample(e.getValue())).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e3);
+    }
+
+    private Path open() {
+        if (file != null || openFailed) return file;
+        try {
+            Path dir = Paths.get("logs", "auto-qiqi");
+            Files.createDirectories(dir);
+            String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+            Path f = dir.resolve("perf-" + ts + ".csv");
+            Files.writeString(f, HEADER + "\n", StandardCharsets.UTF_8);
+            file = f;
+            AutoQiqiClient.logDebug("Metrics", "Dumping metrics to " + f);
+        } catch (IOException e) {
+            openFailed = true;
+            AutoQiqiClient.logDebug("Metrics", "Failed to open metrics CSV: " + e.getMessage());
+        }
+        return file;
+    }
+}
@@ -1,23 +1,14 @@
 package com.cobblemoon.autoqiqi.common;
 
-import com.cobblemon.mod.common.entity.pokemon.PokemonEntity;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.entity.Entity;
-import net.minecraft.util.hit.BlockHitResult;
-import net.minecraft.util.hit.HitResult;
-import net.minecraft.util.math.Box;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
-import net.minecraft.world.RaycastContext;
-import net.minecraft.world.World;
-
-import java.util.List;
-import java.util.Optional;
 
 /**
  * Shared rotation, aiming, and movement-key utilities used by
- * AutoBattle and PokemonWalker.
+ * AutoBattle and PokemonWalker. Line of sight lives in {@link LineOfSightService}.
  */
 public final class MovementHelper {
     private MovementHelper() {}
@@ -49,61 +40,6 @@ public final class MovementHelper {
                 yawSpeed, pitchSpeed);
     }
 
-    /**
-     * Returns true if there are no solid blocks between the player's eyes
-     * and the center of the target entity.
-     */
-    public static boolean hasLineOfSight(ClientPlayerEntity player, Entity target) {
-        if (player == null || target == null) return false;
-        World world = player.getWorld();
-        if (world == null) return false;
-
-        Vec3d eyePos = player.getEyePos();
-        Vec3d targetCenter = target.getPos().add(0, target.getHeight() / 2.0, 0);
-
-        BlockHitResult result = world.raycast(new RaycastContext(
-                eyePos, targetCenter,
-                RaycastContext.ShapeType.COLLIDER,
-                RaycastContext.FluidHandling.NONE,
-                player));
-
-        return result.getType() == HitResult.Type.MISS
-                || eyePos.squaredDistanceTo(result.getPos()) >= eyePos.squaredDistanceTo(targetCenter) * 0.95;
-    }
-
-    /**
-     * Checks if there's a friendly (non-wild) PokemonEntity between the player
-     * and the target entity. Returns the blocking entity, or null if path is clear.
-     */
-    public static Entity getEntityBlockingThrow(ClientPlayerEntity player, Entity target) {
-        if (player == null || target == null) return null;
-        MinecraftClient client = MinecraftClient.getInstance();
-        if (client.world == null) return null;
-
-        Vec3d eyePos = player.getEyePos();
-        Vec3d targetCenter = target.getPos().add(0, target.getHeight() / 2.0, 0);
-        Vec3d direction = targetCenter.subtract(eyePos);
-        double maxDist = direction.length();
-        if (maxDist < 0.1) return null;
-
-        Box searchBox = player.getBoundingBox().expand(maxDist);
-        List<Entity> entities = client.world.getOtherEntities(player, searchBox,
-                e -> e instanceof PokemonEntity && e != target && e.isAlive());
-
-        for (Entity entity : entities) {
-            Box entityBox = entity.getBoundingBox().expand(0.3);
-            Optional<Vec3d> hit = entityBox.raycast(eyePos, targetCenter);
-            if (hit.isPresent()) {
-                double hitDist = eyePos.distanceTo(hit.get());
-                double targetDist = eyePos.distanceTo(targetCenter);
-                if (hitDist < targetDist) {
-                    return entity;
-                }
-            }
-        }
-        return null;
-    }
-
     /**
      * Preferred strafe direction so the player moves to a position where the line
      * from player to target does not pass through the blocker (e.g. our Pokemon).
@@ -140,6 +76,31 @@ public final class MovementHelper {
         client.options.sprintKey.setPressed(false);
     }
 
+    /**
+     * Walk straight toward (x, z) while facing elsewhere (e.g. keeping aim on a target): presses the
+     * forward/back/left/right combination closest to the direction of the point from the current yaw.
+     */
+    public static void moveTowardWhileFacing(MinecraftClient client, ClientPlayerEntity player, double x, double z) {
+        double dx = x - player.getX();
+        double dz = z - player.getZ();
+        double len = Math.sqrt(dx * dx + dz * dz);
+        if (len < 1e-6) {
+            releaseMovementKeys(client);
+            return;
+        }
+        double yaw = Math.toRadians(player.getYaw());
+        double forward = (-Math.sin(yaw) * dx + Math.cos(yaw) * dz) / len;
+        double left = (Math.cos(yaw) * dx + Math.sin(yaw) * dz) / len;
+        // cos(67.5°): each key covers a 135° sector, so diagonals press two keys
+        double threshold = 0.38;
+        client.options.forwardKey.setPressed(forward > threshold);
+        client.options.backKey.setPressed(forward < -threshold);
+        client.options.leftKey.setPressed(left > threshold);
+        client.options.rightKey.setPressed(left < -threshold);
+        client.options.jumpKey.setPressed(player.horizontalCollision);
+        client.options.sprintKey.setPressed(false);
+    }
+
     public static void stopStrafe(MinecraftClient client) {
         client.options.leftKey.setPressed(false);
         client.options.rightKey.setPressed(false);
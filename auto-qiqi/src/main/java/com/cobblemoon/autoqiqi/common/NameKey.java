@@ -0,0 +1,56 @@
+package com.cobblemoon.autoqiqi.common;
+
+import java.text.Normalizer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Showdown-style ids for names matched across data sources: moves, items, abilities, and the species
+ * keys of {@link SpeciesKey}.
+ *
+ * <p>A key is the name lowercased, accents folded ("Évoli" → "evoli") and stripped of everything
+ * but {@code [a-z0-9]} ("U-turn" → "uturn", "Choice Scarf" → "choicescarf"). Keys are interned, so
+ * callers may compare with {@code ==}. Results are cached by raw string, so no regex or allocation
+ * happens on repeated lookups during a battle.
+ */
+public final class NameKey {
+    private static final Map<String, String> BY_NAME = new ConcurrentHashMap<>();
+
+    private NameKey() {}
+
+    /** Key for a raw or display name. Empty string if null. */
+    public static String of(String name) {
+        if (name == null || name.isEmpty()) return "";
+        String key = BY_NAME.get(name);
+        if (key == null) {
+            key = normalize(name).intern();
+            BY_NAME.put(name, key);
+        }
+        return key;
+    }
+
+    /** Uncached normalization; prefer {@link #of(String)}. */
+    static String normalize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        boolean needsFold = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = Character.toLowerCase(name.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                sb.append(c);
+            } else if (c > 0x7F) {
+                needsFold = true;
+                break;
+            }
+        }
+        if (!needsFold) return sb.toString();
+
+        // Non-ASCII input (French display names): fold accents, then filter again
+        String folded = Normalizer.normalize(name, Normalizer.Form.NFD);
+        sb.setLength(0);
+        for (int i = 0; i < folded.length(); i++) {
+            char c = Character.toLowerCase(folded.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -1,7 +1,5 @@
 package com.cobblemoon.autoqiqi.common;
 
-import net.minecraft.block.BlockState;
-import net.minecraft.client.world.ClientWorld;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 
@@ -11,6 +9,9 @@ import java.util.*;
  * Client-side A* pathfinder on the block grid.
  * Supports walk, jump-up-1, drop-down (up to 4), diagonals,
  * diagonal jump-ups, and swimming through water columns.
+ * Reads blocks only through a {@link BlockGrid}, so it runs on the live world (client thread),
+ * on a {@link ChunkSnapshotGrid} off-thread, or headless on a {@link VoxelGrid}.
+ * Instances are cheap and not shared: use one per search thread.
  */
 public class PathFinder {
 
@@ -25,13 +26,31 @@ public class PathFinder {
     private static final int[][] CARDINAL = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
     private static final int[][] DIAGONAL = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
 
-    private final ClientWorld world;
+    private static final Metrics.Histogram FIND_PATH_NANOS = Metrics.histogram("pathfinder.findPath");
 
-    public PathFinder(ClientWorld world) {
-        this.world = world;
+    private final BlockGrid grid;
+    private boolean quiet;
+
+    public PathFinder(BlockGrid grid) {
+        this.grid = grid;
+    }
+
+    /** No debug logging: required off the client thread, where logging would post to chat. */
+    public PathFinder quiet() {
+        this.quiet = true;
+        return this;
     }
 
     public List<Vec3d> findPath(BlockPos start, BlockPos goal, double arrivalDist) {
+        long t0 = System.nanoTime();
+        try {
+            return search(start, goal, arrivalDist);
+        } finally {
+            FIND_PATH_NANOS.recordSince(t0);
+        }
+    }
+
+    private List<Vec3d> search(BlockPos start, BlockPos goal, double arrivalDist) {
         log("A* start=" + fmt(start) + " goal=" + fmt(goal) + " dist=" + String.format("%.1f", Math.sqrt(start.getSquaredDistance(goal))));
 
         start = snapToGround(start);
@@ -271,17 +290,15 @@ public class PathFinder {
     }
 
     private boolean isPassable(BlockPos pos) {
-        BlockState state = world.getBlockState(pos);
-        return !state.blocksMovement();
+        return grid.isPassable(pos.asLong());
     }
 
     private boolean isSolid(BlockPos pos) {
-        BlockState state = world.getBlockState(pos);
-        return state.blocksMovement();
+        return grid.isSolid(pos.asLong());
     }
 
     private boolean isLiquid(BlockPos pos) {
-        return world.getBlockState(pos).isLiquid();
+        return grid.isLiquid(pos.asLong());
     }
 
     /**
@@ -341,7 +358,8 @@ public class PathFinder {
         return "(" + p.getX() + "," + p.getY() + "," + p.getZ() + ")";
     }
 
-    private static void log(String msg) {
+    private void log(String msg) {
+        if (quiet) return;
         com.cobblemoon.autoqiqi.AutoQiqiClient.logDebug("Path", msg);
     }
 }
@@ -2,52 +2,52 @@ package com.cobblemoon.autoqiqi.common;
 
 import com.cobblemoon.autoqiqi.AutoQiqiClient;
 import com.cobblemon.mod.common.entity.pokemon.PokemonEntity;
-import net.minecraft.client.MinecraftClient;
-import net.minecraft.client.network.ClientPlayerEntity;
+import com.cobblemoon.scancore.PokemonInfo;
+import com.cobblemoon.scancore.ScanService;
 import net.minecraft.entity.Entity;
 
 import com.cobblemoon.autoqiqi.config.AutoQiqiConfig;
 
 import java.util.*;
+
+/**
+ * Auto-Qiqi's view of the shared scan ({@link ScanService} from scan-core): manual scan results for
+ * /pk capture and /pk walk, plus config-dependent helpers (capture whitelist, notable forms).
+ * Entity detection and classification come from {@link PokemonInfo}.
+ */
 public class PokemonScanner {
     private static final PokemonScanner INSTANCE = new PokemonScanner();
-    private static final double SCAN_RANGE = 80.0;
+    private static final Metrics.Histogram SCAN_NANOS = Metrics.histogram("scanner.scan");
 
-    private List<Entity> lastScanResults = new ArrayList<>();
     private List<Entity> manualScanResults = new ArrayList<>();
 
-    /** Releases entity references. Called by /pk reset. */
+    /**
+     * Releases the manual scan's entity references (world change, /pk reset). The shared scan state is
+     * left alone: it is shared with Auto-Cobblemon and resets itself on world change.
+     */
     public void clearCaches() {
-        lastScanResults = Collections.emptyList();
         manualScanResults = Collections.emptyList();
     }
 
-    private PokemonScanner() {}
+    private PokemonScanner() {
+        Metrics.gauge("scanner.lastResults", () -> ScanService.get().lastResults().size());
+    }
 
     public static PokemonScanner get() {
         return INSTANCE;
     }
 
     /**
-     * Quick scan for periodic count. Does NOT overwrite manual scan results.
+     * Wild Pokemon in range, nearest first. Shares the scan with every other user of {@link ScanService}
+     * (at most one entity query per game tick). Does NOT overwrite manual scan results.
      */
     public List<Entity> scan() {
-        MinecraftClient client = MinecraftClient.getInstance();
-        ClientPlayerEntity player = client.player;
-        if (player == null || client.world == null) {
-            lastScanResults = Collections.emptyList();
-            return lastScanResults;
+        long t0 = System.nanoTime();
+        try {
+            return ScanService.get().scanNow();
+        } finally {
+            SCAN_NANOS.recordSince(t0);
         }
-
-        List<Entity> pokemon = client.world.getOtherEntities(
-                player,
-                player.getBoundingBox().expand(SCAN_RANGE),
-                entity -> isPokemonEntity(entity) && entity.isAlive() && isWild(entity)
-        );
-
-        pokemon.sort(Comparator.comparingDouble(e -> e.squaredDistanceTo(player)));
-        lastScanResults = new ArrayList<>(pokemon);
-        return lastScanResults;
     }
 
     /**
@@ -76,21 +76,12 @@ public class PokemonScanner {
     // ========================
 
     public static boolean isPokemonEntity(Entity entity) {
-        return entity instanceof PokemonEntity;
+        return PokemonInfo.isPokemonEntity(entity);
     }
 
-    private static boolean isWild(Entity entity) {
-        if (!(entity instanceof PokemonEntity pe)) return false;
-        try {
-            var pokemon = pe.getPokemon();
-            if (pokemon.isPlayerOwned()) return false;
-            if (pokemon.getOwnerUUID() != null) return false;
-            if (pe.isBusy()) return false;
-            if (pe.getOwner() != null) return false;
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+    /** True for a wild Pokemon nobody owns and no battle holds (what a scan lists and a capture can target). */
+    public static boolean isWild(Entity entity) {
+        return PokemonInfo.isWild(entity);
     }
 
     /**
@@ -114,53 +105,22 @@ public class PokemonScanner {
     // ========================
 
     public static String getPokemonName(Entity entity) {
-        if (entity instanceof PokemonEntity pe) {
-            try {
-                var pokemon = pe.getPokemon();
-                String baseName = pokemon.getSpecies().getTranslatedName().getString();
-                String formName = pokemon.getForm().getName();
-                // Default/standard form has name "Normal" or matches species — skip prefix
-                if (!formName.isEmpty()
-                        && !formName.equalsIgnoreCase("Normal")
-                        && !formName.equalsIgnoreCase("Standard")
-                        && !formName.equalsIgnoreCase(pokemon.getSpecies().getName())) {
-                    return formName + " " + baseName;
-                }
-                return baseName;
-            } catch (Exception ignored) {}
-        }
-        return entity.getDisplayName().getString();
+        return PokemonInfo.getPokemonName(entity);
     }
 
     /**
      * Returns the form name (e.g. "Hisuian", "Galarian", "Alolan") or empty string if default.
      */
     public static String getFormName(Entity entity) {
-        if (entity instanceof PokemonEntity pe) {
-            try {
-                String formName = pe.getPokemon().getForm().getName();
-                if (!formName.isEmpty()
-                        && !formName.equalsIgnoreCase("Normal")
-                        && !formName.equalsIgnoreCase("Standard")
-                        && !formName.equalsIgnoreCase(pe.getPokemon().getSpecies().getName())) {
-                    return formName;
-                }
-            } catch (Exception ignored) {}
-        }
-        return "";
+        return PokemonInfo.getFormName(entity);
     }
 
     public static int getPokemonLevel(Entity entity) {
-        if (entity instanceof PokemonEntity pe) {
-            try {
-                return pe.getPokemon().getLevel();
-            } catch (Exception ignored) {}
-        }
-        return -1;
+        return PokemonInfo.getPokemonLevel(entity);
     }
 
     public static boolean isBoss(Entity entity) {
-        return entity.getDisplayName().getString().toLowerCase().contains("boss");
+        return PokemonInfo.isBoss(entity);
     }
 
     // ========================
@@ -168,27 +128,7 @@ public class PokemonScanner {
     // ========================
 
     public static String getPokedexStatus(Entity entity) {
-        if (!(entity instanceof PokemonEntity pe)) return "?";
-        try {
-            var pokemon = pe.getPokemon();
-            var species = pokemon.getSpecies();
-            var resourceId = species.getResourceIdentifier();
-            if (resourceId == null) return "?";
-
-            var pokedexData = com.cobblemon.mod.common.client.CobblemonClient.INSTANCE.getClientPokedexData();
-            if (pokedexData == null) return "?";
-
-            var speciesRecords = pokedexData.getSpeciesRecords();
-            var record = speciesRecords.get(resourceId);
-            if (record != null) {
-                String k = record.getKnowledge().toString();
-                if ("CAUGHT".equals(k)) return "CAUGHT";
-                if ("ENCOUNTERED".equals(k)) return "SEEN";
-            }
-            return "NEW";
-        } catch (Exception e) {
-            return "?";
-        }
+        return PokemonInfo.getPokedexStatus(entity);
     }
 
     public static boolean isInScanCaptureWhitelist(Entity entity) {
@@ -251,29 +191,10 @@ public class PokemonScanner {
         return count;
     }
 
-    private static final java.util.Set<String> LEGENDARY_NAMES = java.util.Set.of(
-            "articuno", "zapdos", "moltres", "mewtwo", "mew",
-            "raikou", "entei", "suicune", "lugia", "hooh", "celebi",
-            "regirock", "regice", "registeel", "latias", "latios",
-            "kyogre", "groudon", "rayquaza", "jirachi", "deoxys",
-            "uxie", "mesprit", "azelf", "dialga", "palkia", "heatran",
-            "regigigas", "giratina", "cresselia", "phione", "manaphy",
-            "darkrai", "shaymin", "arceus",
-            "cobalion", "terrakion", "virizion", "tornadus", "thundurus",
-            "reshiram", "zekrom", "landorus", "kyurem", "keldeo",
-            "meloetta", "genesect",
-            "xerneas", "yveltal", "zygarde", "diancie", "hoopa", "volcanion",
-            "typenull", "type_null", "silvally",
-            "tapukoko", "tapulele", "tapubulu", "tapufini",
-            "cosmog", "cosmoem", "solgaleo", "lunala", "necrozma",
-            "magearna", "marshadow", "zeraora",
-            "zacian", "zamazenta", "eternatus", "kubfu", "urshifu",
-            "regieleki", "regidrago", "glastrier", "spectrier", "calyrex",
-            "enamorus",
-            "wochien", "chienpao", "tinglu", "chiyu",
-            "koraidon", "miraidon", "ogerpon", "terapagos", "pecharunt",
-            "okidogi", "munkidori", "fezandipiti"
-    );
+    /** True if worth capturing: species not caught yet, whitelisted, or a notable alternate form. */
+    public static boolean isWanted(Entity entity) {
+        return !isSpeciesCaught(entity) || isInScanCaptureWhitelist(entity) || hasNotableAlternateForm(entity);
+    }
 
     public static boolean isLegendary(Entity entity) {
         if (entity instanceof PokemonEntity pe) {
@@ -283,10 +204,10 @@ public class PokemonScanner {
                 if (pokemon.hasLabels("legendary") || pokemon.hasLabels("mythical")
                         || pokemon.hasLabels("ultra_beast") || pokemon.hasLabels("sub_legendary")
                         || pokemon.hasLabels("restricted")) return true;
+                if (PokemonInfo.isLegendaryKey(SpeciesKey.of(pokemon.getSpecies()))) return true;
             } catch (Exception ignored) {}
         }
-        String name = getPokemonName(entity).toLowerCase().replaceAll("[^a-z]", "");
-        return LEGENDARY_NAMES.contains(name);
+        return PokemonInfo.isLegendaryKey(SpeciesKey.of(getPokemonName(entity)));
     }
 
     public static String getDisplayInfo(Entity entity) {
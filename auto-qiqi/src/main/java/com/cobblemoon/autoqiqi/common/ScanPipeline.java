@@ -0,0 +1,50 @@
+package com.cobblemoon.autoqiqi.common;
+
+import com.cobblemoon.scancore.ScanDiff;
+import com.cobblemoon.scancore.ScanService;
+import com.cobblemoon.scancore.ScanSighting;
+
+/**
+ * Auto-Qiqi's subscriptions to the shared background scan ({@link ScanService} from scan-core, one
+ * scan per interval whichever mods are installed). Adds Auto-Qiqi's own tags to the shared
+ * classification ({@link #WHITELISTED}, {@link #NOTABLE_FORM}).
+ */
+public final class ScanPipeline {
+
+    /** Ticks between background scans (30 seconds at 20 tps). */
+    public static final int SCAN_INTERVAL = 600;
+    private static final Metrics.Histogram TICK_NANOS = Metrics.histogram("scanner.pipeline");
+    private static final Metrics.Counter EVENTS = Metrics.counter("scanner.events");
+
+    /** In the scan capture whitelist (captured even if the species is caught). */
+    public static final int WHITELISTED = ScanService.get().registerTag(PokemonScanner::isInScanCaptureWhitelist);
+    /** Notable alternate form, not in the form ignore list. */
+    public static final int NOTABLE_FORM = ScanService.get().registerTag(PokemonScanner::hasNotableAlternateForm);
+    /** What Auto-Qiqi counts as uncaught: species not caught, or whitelisted. */
+    public static final int WANTED = ScanSighting.UNCAUGHT | WHITELISTED;
+
+    private static final ScanPipeline INSTANCE = new ScanPipeline();
+
+    private ScanPipeline() {
+        ScanService.get().subscribe((changes, scan) -> EVENTS.add(changes.size()), SCAN_INTERVAL);
+        Metrics.gauge("scanner.tracked", () -> ScanService.get().current().size());
+    }
+
+    public static ScanPipeline get() { return INSTANCE; }
+
+    public void addListener(ScanService.Listener listener) {
+        ScanService.get().subscribe(listener, SCAN_INTERVAL);
+    }
+
+    /** Current set and counts, as of the last scan. */
+    public ScanDiff current() {
+        return ScanService.get().current();
+    }
+
+    /** Runs the shared scan if it is due (a no-op when another mod already scanned this tick). */
+    public void tick() {
+        long t0 = System.nanoTime();
+        ScanService.get().tick();
+        TICK_NANOS.recordSince(t0);
+    }
+}
@@ -0,0 +1,42 @@
+package com.cobblemoon.autoqiqi.common;
+
+import com.cobblemon.mod.common.pokemon.Species;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Canonical species keys shared by every module that matches Pokemon by name
+ * (Smogon stats, type-chart overrides, legendary list, capture preferences).
+ *
+ * <p>A species key is the {@link NameKey} of the species name ("Type: Null" → "typenull",
+ * "Porygon2" → "porygon2"), interned, so callers may compare with {@code ==}. Keys are also
+ * cached by {@link Species} identity. Moves, items and abilities use {@link NameKey} directly.
+ */
+public final class SpeciesKey {
+    private static final Map<Species, String> BY_SPECIES = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private SpeciesKey() {}
+
+    /** Key for a Cobblemon species (its internal English name). Empty string if null. */
+    public static String of(Species species) {
+        if (species == null) return "";
+        String key = BY_SPECIES.get(species);
+        if (key == null) {
+            key = of(species.getName());
+            BY_SPECIES.put(species, key);
+        }
+        return key;
+    }
+
+    /** Key for a raw or display species name. Empty string if null. */
+    public static String of(String name) {
+        return NameKey.of(name);
+    }
+
+    /** True if both names map to the same species key. */
+    public static boolean same(String a, String b) {
+        return of(a).equals(of(b));
+    }
+}
@@ -0,0 +1,106 @@
+package com.cobblemoon.autoqiqi.common;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Standing positions to throw a ball from. Candidates lie on rings around the target between the
+ * minimum throw distance and the engage range; each must be standable (solid ground, free feet and
+ * head), reachable by walking straight from the player (one block up or down at most between steps),
+ * and see the target past blocks and, through the caller's {@link LineOfSight.LineTest}, entities.
+ * The candidate with the lowest travel cost wins. Pure logic on a {@link BlockGrid}, like {@link LineOfSight}.
+ */
+public final class ThrowPositionSolver {
+
+    /** Directions sampled on each ring. */
+    static final int ANGLES = 16;
+    /** Rings from the minimum to the maximum radius. */
+    static final int RINGS = 3;
+    /** Spacing of the standability checks along the straight walk (blocks). */
+    private static final double WALK_STEP = 0.5;
+    /** Added cost per block climbed or dropped on the way, so flat walks win ties. */
+    private static final double HEIGHT_COST = 1.0;
+    /** Added cost per block away from the middle ring, to stay clear of both distance limits. */
+    private static final double EDGE_COST = 0.5;
+    /** Feet heights tried per column, relative to the previous step: level, one up, one down. */
+    private static final int[] STEP_DY = {0, 1, -1};
+
+    /** A throw position: feet at (x, y, z), and its travel cost from the player. */
+    public record Spot(double x, double y, double z, double cost) {}
+
+    private record Candidate(double x, int feetY, double z, double cost) {}
+
+    private ThrowPositionSolver() {}
+
+    /**
+     * Cheapest position within [minRadius, maxRadius] (horizontal distance to the target) that sees the
+     * point ({@code targetX}, {@code targetY}, {@code targetZ}), or null if no sampled position does.
+     * {@code entityTest} gets the candidate eye position; pass {@code (x, y, z) -> true} to ignore entities.
+     */
+    public static Spot solve(BlockGrid grid, double feetX, double feetY, double feetZ, double eyeHeight,
+                             double targetX, double targetY, double targetZ,
+                             double minRadius, double maxRadius, LineOfSight.LineTest entityTest) {
+        double lo = Math.min(minRadius, maxRadius);
+        double mid = (lo + maxRadius) / 2.0;
+        int rings = maxRadius > lo ? RINGS : 1;
+        int startY = BlockGrid.floor(feetY + 1e-3);
+
+        // Walkability and cost first (cheap), then line tests only in cost order until one passes
+        List<Candidate> walkable = new ArrayList<>(rings * ANGLES);
+        for (int ring = 0; ring < rings; ring++) {
+            double radius = rings == 1 ? lo : lo + (maxRadius - lo) * ring / (rings - 1);
+            for (int a = 0; a < ANGLES; a++) {
+                double angle = 2 * Math.PI * a / ANGLES;
+                double x = targetX + radius * Math.cos(angle);
+                double z = targetZ + radius * Math.sin(angle);
+                Candidate c = walkStraight(grid, feetX, startY, feetZ, x, z);
+                if (c == null) continue;
+                walkable.add(new Candidate(c.x, c.feetY, c.z, c.cost + EDGE_COST * Math.abs(radius - mid)));
+            }
+        }
+        walkable.sort(Comparator.comparingDouble(Candidate::cost));
+
+        for (Candidate c : walkable) {
+            double eyeY = c.feetY + eyeHeight;
+            if (!LineOfSight.isClear(grid, c.x, eyeY, c.z, targetX, targetY, targetZ)) continue;
+            if (!entityTest.isClear(c.x, eyeY, c.z)) continue;
+            return new Spot(c.x, c.feetY, c.z, c.cost);
+        }
+        return null;
+    }
+
+    /**
+     * Follows the straight line from the player to (x, z), keeping the feet on standable blocks.
+     * Returns the end position with its travel cost, or null if some step cannot stand.
+     */
+    private static Candidate walkStraight(BlockGrid grid, double fromX, int fromY, double fromZ, double x, double z) {
+        double dx = x - fromX, dz = z - fromZ;
+        double distance = Math.sqrt(dx * dx + dz * dz);
+        int steps = Math.max(1, (int) Math.ceil(distance / WALK_STEP));
+        int y = fromY;
+        int climbed = 0;
+        for (int i = 1; i <= steps; i++) {
+            double t = (double) i / steps;
+            int next = standY(grid, BlockGrid.floor(fromX + dx * t), y, BlockGrid.floor(fromZ + dz * t));
+            if (next == Integer.MIN_VALUE) return null;
+            climbed += Math.abs(next - y);
+            y = next;
+        }
+        return new Candidate(x, y, z, distance + HEIGHT_COST * climbed);
+    }
+
+    /** Feet block Y to stand at (out of fluids) in column (x, z) within one block of {@code nearY}, or MIN_VALUE. */
+    static int standY(BlockGrid grid, int x, int nearY, int z) {
+        for (int dy : STEP_DY) {
+            int y = nearY + dy;
+            long feet = BlockGrid.pack(x, y, z);
+            if (grid.isSolid(BlockGrid.pack(x, y - 1, z))
+                    && !grid.isSolid(feet) && !grid.isLiquid(feet)
+                    && !grid.isSolid(BlockGrid.pack(x, y + 1, z))) {
+                return y;
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+}
@@ -0,0 +1,164 @@
+package com.cobblemoon.autoqiqi.common;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-memory voxel {@link BlockGrid}: one byte per block ({@link #AIR}, {@link #SOLID}, {@link #LIQUID})
+ * over a box. Cells outside the box read as air. Used for headless path-finding tests and benchmarks;
+ * {@link #copyOf} captures any grid (e.g. a {@link ChunkSnapshotGrid}) and {@link #write}/{@link #read}
+ * store it as a gzipped {@code .aqvx} file.
+ * <p>
+ * File format: magic {@code "AQVX"}, version int, minX/minY/minZ, sizeX/sizeY/sizeZ ints, then
+ * sizeX*sizeY*sizeZ cell bytes in Y, Z, X order. No Minecraft dependencies.
+ */
+public final class VoxelGrid implements BlockGrid {
+
+    public static final byte AIR = 0;
+    public static final byte SOLID = 1;
+    public static final byte LIQUID = 2;
+
+    private static final int MAGIC = 0x41515658; // "AQVX"
+    private static final int VERSION = 1;
+
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final byte[] cells;
+
+    public VoxelGrid(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ) {
+        this(minX, minY, minZ, sizeX, sizeY, sizeZ, new byte[sizeX * sizeY * sizeZ]);
+    }
+
+    private VoxelGrid(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ, byte[] cells) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.cells = cells;
+    }
+
+    public int minX() { return minX; }
+    public int minY() { return minY; }
+    public int minZ() { return minZ; }
+    public int sizeX() { return sizeX; }
+    public int sizeY() { return sizeY; }
+    public int sizeZ() { return sizeZ; }
+
+    private int index(int x, int y, int z) {
+        int lx = x - minX, ly = y - minY, lz = z - minZ;
+        if (lx < 0 || ly < 0 || lz < 0 || lx >= sizeX || ly >= sizeY || lz >= sizeZ) return -1;
+        return (ly * sizeZ + lz) * sizeX + lx;
+    }
+
+    public byte get(int x, int y, int z) {
+        int i = index(x, y, z);
+        return i < 0 ? AIR : cells[i];
+    }
+
+    /** Set a cell; ignored outside the box. Not safe while other threads read the grid. */
+    public void set(int x, int y, int z, byte cell) {
+        int i = index(x, y, z);
+        if (i >= 0) cells[i] = cell;
+    }
+
+    /** Fill the inclusive box with {@code cell} (clipped to the grid). */
+    public void fill(int x0, int y0, int z0, int x1, int y1, int z1, byte cell) {
+        for (int y = y0; y <= y1; y++)
+            for (int z = z0; z <= z1; z++)
+                for (int x = x0; x <= x1; x++) set(x, y, z, cell);
+    }
+
+    @Override
+    public boolean isPassable(long packedPos) {
+        return cellAt(packedPos) != SOLID;
+    }
+
+    @Override
+    public boolean isSolid(long packedPos) {
+        return cellAt(packedPos) == SOLID;
+    }
+
+    @Override
+    public boolean isLiquid(long packedPos) {
+        return cellAt(packedPos) == LIQUID;
+    }
+
+    private byte cellAt(long packedPos) {
+        return get(BlockGrid.unpackX(packedPos), BlockGrid.unpackY(packedPos), BlockGrid.unpackZ(packedPos));
+    }
+
+    // ========================
+    // Capture and files
+    // ========================
+
+    /** Copy the inclusive box from another grid. Solid wins over liquid (waterlogged blocks). */
+    public static VoxelGrid copyOf(BlockGrid source, int x0, int y0, int z0, int x1, int y1, int z1) {
+        VoxelGrid grid = new VoxelGrid(x0, y0, z0, x1 - x0 + 1, y1 - y0 + 1, z1 - z0 + 1);
+        for (int y = y0; y <= y1; y++) {
+            for (int z = z0; z <= z1; z++) {
+                for (int x = x0; x <= x1; x++) {
+                    long p = BlockGrid.pack(x, y, z);
+                    if (source.isSolid(p)) grid.set(x, y, z, SOLID);
+                    else if (source.isLiquid(p)) grid.set(x, y, z, LIQUID);
+                }
+            }
+        }
+        return grid;
+    }
+
+    public void write(Path file) throws IOException {
+        try (OutputStream os = Files.newOutputStream(file)) {
+            write(os);
+        }
+    }
+
+    public void write(OutputStream os) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(os);
+        DataOutputStream out = new DataOutputStream(gzip);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(minX);
+        out.writeInt(minY);
+        out.writeInt(minZ);
+        out.writeInt(sizeX);
+        out.writeInt(sizeY);
+        out.writeInt(sizeZ);
+        out.write(cells);
+        out.flush();
+        gzip.finish();
+    }
+
+    public static VoxelGrid read(Path file) throws IOException {
+        try (InputStream is = Files.newInputStream(file)) {
+            return read(is);
+        }
+    }
+
+    public static VoxelGrid read(InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(new GZIPInputStream(is));
+        if (in.readInt() != MAGIC) throw new IOException("Not a voxel grid file");
+        int version = in.readInt();
+        if (version != VERSION) throw new IOException("Unsupported voxel grid version " + version);
+        int minX = in.readInt(), minY = in.readInt(), minZ = in.readInt();
+        int sizeX = in.readInt(), sizeY = in.readInt(), sizeZ = in.readInt();
+        if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0 || (long) sizeX * sizeY * sizeZ > Integer.MAX_VALUE) {
+            throw new IOException("Bad voxel grid size " + sizeX + "x" + sizeY + "x" + sizeZ);
+        }
+        byte[] cells = new byte[sizeX * sizeY * sizeZ];
+        in.readFully(cells);
+        return new VoxelGrid(minX, minY, minZ, sizeX, sizeY, sizeZ, cells);
+    }
+}
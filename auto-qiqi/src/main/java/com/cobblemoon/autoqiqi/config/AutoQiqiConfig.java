@@ -44,6 +44,9 @@ public class AutoQiqiConfig {
     /** Pokemon in this list always show as [WANT] in /pk scan, even if already caught. Case-insensitive. Reload with /pk reload. */
     public List<String> scanCaptureWhitelist = new ArrayList<>();
 
+    /** Record every battle decision's inputs to logs/auto-qiqi/decisions-*.jsonl.gz for offline replay (gradlew replayDecisions). */
+    public boolean recordBattleDecisions = false;
+
     /** Species for which all alternate forms are already captured. These won't trigger [FORM] alerts. Case-insensitive. */
     public List<String> formCompleteIgnoreList = new ArrayList<>();
 
@@ -114,10 +117,18 @@ public class AutoQiqiConfig {
     /** Minutes past midnight at which auto-hop switches from "off" to "all" (e.g. 150 = 2:30). -1 = disabled. */
     public int autohopSwitchOffToAllHour = -1;
 
-    /** Reconnect every N rotations to flush client-side dimension caches (0 = disabled).
-     *  World-hopping accumulates client caches that slow down subsequent hops;
+    /** Flush client-side caches once the last rotation's mean teleport latency exceeds this factor ×
+     *  the first rotations after the previous reconnect, and reconnect if the next rotation is still
+     *  that slow (0 = disabled). World-hopping accumulates client caches that slow down subsequent hops;
      *  a disconnect+reconnect clears them without a full game restart. */
-    public int autohopReconnectEveryNRotations = 5;
+    public double autohopReconnectLatencyFactor = 1.5;
+
+    /** Opt-in cap: also reconnect after this many rotations even if latency looks fine (0 = no cap,
+     *  latency alone decides). */
+    public int autohopReconnectEveryNRotations = 0;
+
+    /** Record each auto-hop rotation's confirm planning to logs/auto-qiqi/hops-*.jsonl.gz for offline simulation (gradlew replayHopCycles). */
+    public boolean recordHopCycles = false;
 
     /** Round-robin homes for auto-hop when LegendTracker is not installed. Map of display name → teleport command. */
     public Map<String, String> autohopHomes = new LinkedHashMap<>(Map.of(
@@ -222,6 +233,16 @@ public class AutoQiqiConfig {
     /** Wait this many seconds after timer reset before starting a new cycle. */
     public int biomeDiscoveryGraceSeconds = 10;
 
+    // ========================
+    // Performance
+    // ========================
+
+    /** Per-tick time budget (ms) for engines; deferrable engines (prediction, scans, biome checks) wait a tick once it is spent. */
+    public double engineTickBudgetMs = 5.0;
+
+    /** Append hot-path latency histograms to logs/auto-qiqi/perf-*.csv every N seconds (0 = off; see /pk perf). */
+    public int perfCsvIntervalSeconds = 0;
+
     // ========================
     // Teleport mode helpers
     // ========================
@@ -5,6 +5,7 @@ import com.cobblemoon.autoqiqi.biome.BiomeDiscoveryEngine;
 import com.cobblemoon.autoqiqi.battle.AutoBattleEngine;
 import com.cobblemoon.autoqiqi.battle.BattleMode;
 import com.cobblemoon.autoqiqi.battle.CaptureEngine;
+import com.cobblemoon.autoqiqi.battle.CaptureQueue;
 import com.cobblemoon.autoqiqi.legendary.PokemonWalker;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.screen.Screen;
@@ -80,6 +81,7 @@ public class AutoQiqiConfigScreen extends Screen {
         selectedMode = selectedMode.next();
         modeButton.setMessage(Text.literal("Mode: " + selectedMode.displayName()));
 
+        CaptureQueue.get().stop();
         if (CaptureEngine.get().isActive() || PokemonWalker.get().isActive()) {
             CaptureEngine.get().stop();
             PokemonWalker.get().stop();
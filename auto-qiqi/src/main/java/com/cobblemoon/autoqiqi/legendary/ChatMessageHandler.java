@@ -18,6 +18,7 @@ import net.minecraft.text.Text;
 import net.minecraft.util.math.Box;
 
 import com.cobblemoon.autoqiqi.common.ChatUtil;
+import com.cobblemoon.autoqiqi.common.Metrics;
 import com.cobblemoon.autoqiqi.common.MovementHelper;
 
 import java.util.LinkedHashMap;
@@ -33,6 +34,7 @@ import java.util.regex.Pattern;
  */
 public class ChatMessageHandler {
     private static final ChatMessageHandler INSTANCE = new ChatMessageHandler();
+    private static final Metrics.Histogram ON_CHAT_NANOS = Metrics.histogram("chat.onChatMessage");
 
     private long clearanceCooldownUntilMs = 0;
     private static final long POST_CLEAR_COOLDOWN_MS = 15_000;
@@ -115,6 +117,15 @@ public class ChatMessageHandler {
     }
 
     public boolean onChatMessage(String message, Text textObject) {
+        long t0 = System.nanoTime();
+        try {
+            return handleChatMessage(message, textObject);
+        } finally {
+            ON_CHAT_NANOS.recordSince(t0);
+        }
+    }
+
+    private boolean handleChatMessage(String message, Text textObject) {
         String stripped = TimerParser.stripFormatting(message);
         if (stripped.contains("[Auto-Qiqi]") || stripped.contains("[AutoLeg]")) return false;
 
@@ -1,6 +1,7 @@
 package com.cobblemoon.autoqiqi.legendary;
 
 import com.cobblemoon.autoqiqi.AutoQiqiClient;
+import com.cobblemoon.autoqiqi.common.ClientCacheFlusher;
 import com.cobblemoon.autoqiqi.common.PokemonScanner;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
@@ -39,6 +40,11 @@ public class DirectionGuide {
         }
     }
 
+    /** Clears the guide if its target was left in a previous world (dimension change). */
+    public void releaseWorldRefs() {
+        if (ClientCacheFlusher.isFromOtherWorld(target)) stop();
+    }
+
     public void stop() {
         if (target != null) {
             AutoQiqiClient.logDebug("Guide", "Direction guide cleared");
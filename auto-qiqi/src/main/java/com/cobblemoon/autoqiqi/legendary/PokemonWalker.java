@@ -2,7 +2,9 @@ package com.cobblemoon.autoqiqi.legendary;
 
 import com.cobblemoon.autoqiqi.AutoQiqiClient;
 import com.cobblemoon.autoqiqi.common.ChatUtil;
+import com.cobblemoon.autoqiqi.common.ClientCacheFlusher;
 import com.cobblemoon.autoqiqi.common.MovementHelper;
+import com.cobblemoon.autoqiqi.common.ClientWorldGrid;
 import com.cobblemoon.autoqiqi.common.PathFinder;
 import com.cobblemoon.autoqiqi.common.PokemonScanner;
 import net.minecraft.client.MinecraftClient;
@@ -89,6 +91,11 @@ public class PokemonWalker {
                 + " at " + fmtPos(targetEntity.getPos()));
     }
 
+    /** Stops walking if the target was left in a previous world (dimension change). */
+    public void releaseWorldRefs() {
+        if (ClientCacheFlusher.isFromOtherWorld(target)) stop();
+    }
+
     public void stop() {
         if (active) {
             AutoQiqiClient.logDebug("Walker", "Stopped (recalcs=" + recalcCount + ")");
@@ -232,7 +239,7 @@ public class PokemonWalker {
                 + " player=" + fmtBlock(start) + " target=" + fmtBlock(goal)
                 + " dist=" + String.format("%.1f", player.distanceTo(target)));
 
-        PathFinder pathFinder = new PathFinder(client.world);
+        PathFinder pathFinder = new PathFinder(new ClientWorldGrid(client.world));
         path = pathFinder.findPath(start, goal, ARRIVAL_DISTANCE);
         waypointIndex = 0;
         lastWaypointReachedMs = System.currentTimeMillis();
@@ -4,19 +4,23 @@ import com.cobblemon.mod.common.client.CobblemonClient;
 import com.cobblemoon.autoqiqi.AutoQiqiClient;
 import com.cobblemoon.autoqiqi.battle.CaptureEngine;
 import com.cobblemoon.autoqiqi.common.ChatUtil;
+import com.cobblemoon.autoqiqi.common.ClientCacheFlusher;
+import com.cobblemoon.autoqiqi.common.Metrics;
 import com.cobblemoon.autoqiqi.common.PokemonScanner;
 import com.cobblemoon.autoqiqi.config.AutoQiqiConfig;
 import com.cobblemoon.autoqiqi.legendary.ChatMessageHandler;
 import com.cobblemoon.autoqiqi.legendary.WorldTracker;
 import com.cobblemoon.autoqiqi.legendary.predict.LegendTrackerBridge;
 import com.cobblemoon.autoqiqi.legendary.predict.LegendTrackerBridge.HomePrediction;
-import com.cobblemoon.autoqiqi.legendary.predict.SpawnCondition;
-import com.cobblemoon.autoqiqi.legendary.predict.SpawnConditionRegistry;
+import com.cobblemoon.autoqiqi.legendary.predict.PredictionSnapshot;
 import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
 import net.minecraft.entity.Entity;
 import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 
+import java.lang.ref.WeakReference;
 import java.time.LocalTime;
 import java.util.*;
 
@@ -32,12 +36,22 @@ import java.util.*;
  */
 public class AutoHopEngine {
 
-    /** Fallback timeout if "Téléportation terminée" is never received. */
+    /** Fallback timeout if "Téléportation terminée" is never received (and the cap on the adaptive wait). */
     private static final long TELEPORT_FALLBACK_TICKS = 10 * 20;
+    /** Shortest adaptive teleport wait, however fast past teleports were. */
+    private static final long MIN_TELEPORT_WAIT_TICKS = 3 * 20;
+    /** Adaptive teleport wait = this × p95 of measured teleport latency for the world. */
+    private static final double TELEPORT_WAIT_MARGIN = 1.5;
     /** Delay after teleport confirmation before moving to next step. */
     private static final long POST_TELEPORT_DELAY_TICKS = 30; // 1.5s
-    /** Time to wait after arriving at a stale home for LT to refresh its data. */
+    /** Settle time after arriving at a home until enough latency has been measured. */
     private static final long SETTLE_DELAY_TICKS = 3 * 20; // 3s
+    /** Shortest settle: chunks may be cached from a previous visit, LT still needs a moment. */
+    private static final long MIN_SETTLE_TICKS = 20;
+    /** Longest adaptive settle when chunks are never seen loaded. */
+    private static final long MAX_SETTLE_TICKS = 2 * SETTLE_DELAY_TICKS;
+    /** How long to wait for the /nextleg answer once settled (poll mode). */
+    private static final long NEXTLEG_RESPONSE_TICKS = 5 * 20;
     /** Timeout waiting for TPA alt account to accept. */
     private static final long TPA_TIMEOUT_TICKS = 15 * 20;
 
@@ -84,6 +98,19 @@ public class AutoHopEngine {
 
     /** Number of completed rotations since last reconnect (for periodic cache flush). */
     private int rotationsSinceReconnect = 0;
+    /** Measured teleport / chunk-ready latencies: adaptive waits and degradation-triggered reconnects. */
+    private final HopLatencyModel latency = new HopLatencyModel();
+    /** When the current teleport command was sent. */
+    private long tpSentNanos;
+    /** World and position when the teleport command was sent: chunks only count as ready once we left them. */
+    private WeakReference<ClientWorld> tpFromWorld = new WeakReference<>(null);
+    private BlockPos tpFromPos;
+    /** Whether chunks around the player were seen loaded in the current settling state. */
+    private boolean chunksReady;
+    /** Tick the current settling state completed, -1 while still settling. */
+    private long settledTick = -1;
+    /** Rotation count when a cache flush was tried for degraded latency (reconnect is next), -1 if none. */
+    private int flushedAtRotation = -1;
     /** True when a reconnect was due but skipped because the player was disabled (e.g. legendary battle). */
     private boolean reconnectDeferred = false;
 
@@ -127,11 +154,26 @@ public class AutoHopEngine {
     private String pendingCommand;
     private long commandExecuteAtTick;
 
+    /** Measured hop costs (command queued → settled), used to budget confirm visits. */
+    private static final Metrics.Histogram CONFIRM_HOP_NANOS = Metrics.histogram("autohop.confirmHop");
+    private static final Metrics.Histogram BEST_HOP_NANOS = Metrics.histogram("autohop.bestHop");
+    /** Assumed hop cost until a few hops have been measured. */
+    private static final double DEFAULT_HOP_SECONDS = 8.0;
+    private static final int MIN_HOP_SAMPLES = 3;
+    /** Time kept free between arriving at the best home and the spawn. */
+    private static final double SPAWN_MARGIN_SECONDS = 10.0;
+    private long hopStartNanos;
+    /** Planner inputs of the current rotation, written to the hop log once confirms are done. */
+    private HopCycleRecorder.Cycle pendingCycle;
+    /** Last bridge snapshot read by this engine: presorted spawns and top-EV pokemon of its homes. */
+    private PredictionSnapshot snapshot = PredictionSnapshot.EMPTY;
+
     private AutoHopEngine() {
         // Listen for LT epoch changes (new legendary cycle) to reliably reset the cycle flag.
         // This covers the case where the timer jumps from 0 to ≤threshold without ever
         // going above threshold, which would otherwise leave firedThisCycle stuck.
         LegendTrackerBridge.addChangeListener(this::onNewCycle);
+        LegendTrackerBridge.setSpawnValuation(EvScenarioTable::current);
     }
 
     public static AutoHopEngine get() { return INSTANCE; }
@@ -228,6 +270,11 @@ public class AutoHopEngine {
         return confirmationHomes.get(confirmIndex).name();
     }
 
+    private String currentConfirmWorld() {
+        if (confirmationHomes == null || confirmIndex >= confirmationHomes.size()) return null;
+        return confirmationHomes.get(confirmIndex).world();
+    }
+
     // ========================
     // Entry point
     // ========================
@@ -259,7 +306,7 @@ public class AutoHopEngine {
         roundRobinMode = false;
 
         // Get predictions, filtered to "auto*" homes only
-        List<HomePrediction> all = filterAutoHomes(LegendTrackerBridge.getFreshPredictions());
+        List<HomePrediction> all = freshAutoHomes();
         if (all.isEmpty()) {
             // LT is loaded but has no predictions (e.g. no timer data from server yet).
             // Fall back to poll-based rotation instead of giving up.
@@ -268,43 +315,66 @@ public class AutoHopEngine {
             return;
         }
 
-        // Best "reliable" EV: highest EV among homes that don't need confirmation
-        // (non-stale world + non-weather-dependent top pokemon → prediction is trustworthy).
+        // A home needs a visit if its world is stale or its top pokemon is weather-dependent
+        // (weather changes faster than the staleness threshold). Decided once per home.
+        EvScenarioTable evTable = EvScenarioTable.current();
+        boolean[] needsVisit = new boolean[all.size()];
+        for (int i = 0; i < all.size(); i++) {
+            HomePrediction hp = all.get(i);
+            needsVisit[i] = hp.needsConfirmation() || ranked(hp).weatherDependent();
+        }
+
+        // Best "reliable" EV: highest EV among homes that don't need a visit.
         double bestReliableEV = 0;
-        for (HomePrediction hp : all) {
-            if (!hp.needsConfirmation() && !isWeatherDependent(hp) && hp.ev() > bestReliableEV) {
-                bestReliableEV = hp.ev();
+        for (int i = 0; i < all.size(); i++) {
+            if (!needsVisit[i] && all.get(i).ev() > bestReliableEV) {
+                bestReliableEV = all.get(i).ev();
             }
         }
 
         // Max possible EV per world (best-case across all time+weather combos).
         Map<String, Double> worldMaxEV = new HashMap<>();
-        for (HomePrediction hp : all) {
-            if (hp.needsConfirmation() || isWeatherDependent(hp)) {
-                double maxEV = computeMaxPossibleEV(hp);
-                worldMaxEV.merge(hp.world(), maxEV, Math::max);
+        for (int i = 0; i < all.size(); i++) {
+            if (needsVisit[i]) {
+                HomePrediction hp = all.get(i);
+                worldMaxEV.merge(hp.world(), evTable.maxEv(hp.biome(), hp.yLevel()), Math::max);
             }
         }
 
-        // Only visit worlds whose max possible EV strictly beats the best reliable EV.
-        Set<String> seenWorlds = new HashSet<>();
-        confirmationHomes = new ArrayList<>();
-        int skipped = 0;
-        for (HomePrediction hp : all) {
-            boolean needsVisit = hp.needsConfirmation() || isWeatherDependent(hp);
-            if (needsVisit && seenWorlds.add(hp.world())) {
-                double worldMax = worldMaxEV.getOrDefault(hp.world(), 0.0);
-                if (worldMax > bestReliableEV) {
-                    confirmationHomes.add(hp);
-                } else {
-                    skipped++;
-                    AutoQiqiClient.logDebug("AutoHop", "Skipping " + hp.world()
-                            + " (maxPossibleEV=" + String.format("%.2f", worldMax)
-                            + " <= reliableEV=" + String.format("%.2f", bestReliableEV) + ")");
-                }
+        // One confirm candidate per world (its best home, since predictions are sorted by EV),
+        // valued by what its possible weathers at the spawn hour could add over the best reliable EV.
+        Map<String, HomePrediction> worldHome = new LinkedHashMap<>();
+        List<ConfirmPlanner.Candidate> candidates = new ArrayList<>();
+        for (int i = 0; i < all.size(); i++) {
+            HomePrediction hp = all.get(i);
+            if (needsVisit[i] && worldHome.putIfAbsent(hp.world(), hp) == null) {
+                candidates.add(new ConfirmPlanner.Candidate(hp.world(), hp.ev(), worldMaxEV.get(hp.world()),
+                        evTable.weatherOutcomes(hp.biome(), hp.yLevel(), LegendTrackerBridge.getSpawnTick(hp.world()))));
             }
         }
+
+        // Confirms must leave time for the final hop before the spawn.
+        long remaining = LegendTrackerBridge.getRemainingSeconds();
+        double confirmSeconds = hopSeconds(CONFIRM_HOP_NANOS);
+        double budgetSeconds = remaining < 0 ? Double.MAX_VALUE
+                : remaining - hopSeconds(BEST_HOP_NANOS) - SPAWN_MARGIN_SECONDS;
+        ConfirmPlanner.Plan plan = ConfirmPlanner.plan(candidates, bestReliableEV, budgetSeconds, confirmSeconds);
+
+        confirmationHomes = new ArrayList<>();
+        for (ConfirmPlanner.Step step : plan.steps()) {
+            confirmationHomes.add(worldHome.get(step.candidate().world()));
+            AutoQiqiClient.logDebug("AutoHop", "Confirm " + step.candidate().world()
+                    + " (VOI=" + String.format("%.2f", step.voi()) + ")");
+        }
+        int skipped = plan.skippedNoValue() + plan.droppedForTime();
+        if (skipped > 0) {
+            AutoQiqiClient.logDebug("AutoHop", "Skipping " + plan.skippedNoValue() + " world(s) that can't beat reliableEV="
+                    + String.format("%.2f", bestReliableEV) + ", " + plan.droppedForTime() + " for lack of time (budget="
+                    + String.format("%.0f", budgetSeconds) + "s, hop=" + String.format("%.1f", confirmSeconds) + "s)");
+        }
         confirmIndex = 0;
+        pendingCycle = new HopCycleRecorder.Cycle(System.currentTimeMillis(), remaining, bestReliableEV,
+                budgetSeconds, confirmSeconds, candidates, List.of(), Map.of(), 0);
 
         // Optimization: if the #1 prediction's EV cannot be beaten by any other
         // world (neither reliable homes nor max-possible scenarios), skip all
@@ -326,6 +396,7 @@ public class AutoHopEngine {
                 int cleared = confirmationHomes.size();
                 confirmationHomes.clear();
                 skipped += cleared;
+                pendingCycle = null; // not a planner decision, nothing to replay
                 AutoQiqiClient.logDebug("AutoHop", "Top home " + top.name() + " (EV=" + String.format("%.2f", topEv)
                         + ") dominant — skipping " + cleared + " confirmation(s)");
             }
@@ -524,7 +595,7 @@ public class AutoHopEngine {
                     safetyTpFired[i] = true;
 
                     // Re-read predictions and pick the current #1
-                    List<HomePrediction> safetyFresh = filterAutoHomes(LegendTrackerBridge.getFreshPredictions());
+                    List<HomePrediction> safetyFresh = freshAutoHomes();
                     if (!safetyFresh.isEmpty()) {
                         logRanking("safety " + SAFETY_TP_THRESHOLDS[i] + "s", safetyFresh);
                         if (!safetyFresh.get(0).name().equals(bestHome.name())) {
@@ -582,17 +653,21 @@ public class AutoHopEngine {
                 + ": " + home.name() + " (world=" + home.world() + ")");
         setState(State.CONFIRM_TELEPORTING);
         queueCommand(home.command());
+        hopStartNanos = System.nanoTime();
     }
 
     private void tickConfirmWaitingTp() {
-        if (ticksSinceStateEntered() >= TELEPORT_FALLBACK_TICKS) {
+        long wait = teleportWaitTicks(currentConfirmWorld());
+        if (ticksSinceStateEntered() >= wait) {
             AutoQiqiClient.logDebug("AutoHop", "Confirm teleport fallback — settling");
+            // Unconfirmed: count it at the wait it took, so slow servers raise the next wait
+            latency.record(HopLatencyModel.Phase.TELEPORT, currentConfirmWorld(), wait * 50);
             setState(State.CONFIRM_SETTLING);
         }
     }
 
     private void tickConfirmSettling() {
-        if (ticksSinceStateEntered() < SETTLE_DELAY_TICKS) return;
+        if (!isSettled(currentConfirmWorld())) return;
 
         // In poll mode (no LT): send /nextleg to get spawn probabilities, then wait for response
         if (roundRobinMode) {
@@ -607,10 +682,12 @@ public class AutoHopEngine {
             }
             // Wait for response (pollResults gets populated by onSpawnProbabilitiesParsed)
             boolean hasResult = pollResults.containsKey(currentConfirmName());
-            if (!hasResult && ticksSinceStateEntered() < SETTLE_DELAY_TICKS + 5 * 20) {
+            if (!hasResult && tickCount - settledTick < NEXTLEG_RESPONSE_TICKS) {
                 return; // wait up to 5s for /nextleg response
             }
             nextlegSent = false;
+        } else {
+            CONFIRM_HOP_NANOS.recordSince(hopStartNanos);
         }
 
         ChatUtil.msg("§7[Auto-Hop]§r ✓ " + currentConfirmName() + " confirmé");
@@ -650,7 +727,7 @@ public class AutoHopEngine {
             });
         } else {
             // LT mode: re-read predictions now that all worlds are confirmed
-            fresh = filterAutoHomes(LegendTrackerBridge.getFreshPredictions());
+            fresh = freshAutoHomes();
         }
 
         if (fresh.isEmpty()) {
@@ -662,6 +739,7 @@ public class AutoHopEngine {
         bestHome = fresh.get(0);
         bestHomeOriginalEv = bestHome.ev();
         fallbackCount = 0;
+        if (!roundRobinMode) recordCycle(fresh);
 
         logRanking("initial", fresh);
         teleportToBestHome();
@@ -676,11 +754,15 @@ public class AutoHopEngine {
         ChatUtil.msg("§a[Auto-Hop]§r Meilleur: §b" + bestHome.name() + "§r (EV=" + String.format("%.2f", bestHome.ev()) + ")");
         setState(State.BEST_TELEPORTING);
         queueCommand(bestHome.command());
+        hopStartNanos = System.nanoTime();
     }
 
     private void tickBestWaitingTp() {
-        if (ticksSinceStateEntered() >= TELEPORT_FALLBACK_TICKS) {
+        String world = bestHome != null ? bestHome.world() : null;
+        long wait = teleportWaitTicks(world);
+        if (ticksSinceStateEntered() >= wait) {
             AutoQiqiClient.logDebug("AutoHop", "Best teleport fallback — settling to verify");
+            latency.record(HopLatencyModel.Phase.TELEPORT, world, wait * 50);
             setState(State.BEST_SETTLING);
         }
     }
@@ -697,7 +779,11 @@ public class AutoHopEngine {
      * from the current Spawn Info due to time-of-day shifts.
      */
     private void tickBestSettling() {
-        if (ticksSinceStateEntered() < SETTLE_DELAY_TICKS) return;
+        if (!isSettled(bestHome != null ? bestHome.world() : null)) return;
+        if (hopStartNanos != 0) {
+            BEST_HOP_NANOS.recordSince(hopStartNanos);
+            hopStartNanos = 0;
+        }
 
         // Round-robin mode: no EV to verify, just proceed to reset
         if (roundRobinMode) {
@@ -707,7 +793,7 @@ public class AutoHopEngine {
         }
 
         // Re-read LT predictions (needed for fallback candidates and LT-based EV check)
-        List<HomePrediction> fresh = filterAutoHomes(LegendTrackerBridge.getFreshPredictions());
+        List<HomePrediction> fresh = freshAutoHomes();
 
         // ── Weather check: predicted top pokemon must appear in server Spawn Info ──
         // LT predicts time-of-day accurately, so probability differences vs Spawn Info
@@ -715,7 +801,7 @@ public class AutoHopEngine {
         // COMPLETELY ABSENT from the Spawn Info, weather is almost certainly wrong
         // (e.g. LT assumed rain → Kyogre 100%, but server shows Manaphy 100% — no rain).
         if (bestHomeSpawnInfo != null && bestHome != null && !bestHome.pokemonProbabilities().isEmpty()) {
-            String topPredicted = findTopEvPokemon(bestHome.pokemonProbabilities());
+            String topPredicted = ranked(bestHome).topEvPokemon();
             if (topPredicted != null) {
                 boolean presentInSpawnInfo = bestHomeSpawnInfo.entrySet().stream()
                         .anyMatch(e -> e.getKey().equalsIgnoreCase(topPredicted) && e.getValue() > 0);
@@ -809,94 +895,6 @@ public class AutoHopEngine {
         teleportToBestHome();
     }
 
-    /**
-     * Finds the pokemon with the highest EV contribution in the prediction map.
-     * Returns the pokemon name, or null if no tiered pokemon found.
-     */
-    private String findTopEvPokemon(Map<String, Double> pokemonProbabilities) {
-        Map<String, Double> tierWeights = LegendTrackerProperties.getTierWeights();
-        String topName = null;
-        double topContribution = 0;
-        for (Map.Entry<String, Double> e : pokemonProbabilities.entrySet()) {
-            Double tierValue = tierWeights.get(e.getKey().toLowerCase());
-            if (tierValue != null) {
-                double contribution = (e.getValue() / 100.0) * tierValue;
-                if (contribution > topContribution) {
-                    topContribution = contribution;
-                    topName = e.getKey();
-                }
-            }
-        }
-        return topContribution > 5.0 ? topName : null; // Only flag if meaningful EV at stake
-    }
-
-    private static final Set<String> ALL_WEATHERS = Set.of("CLEAR", "RAIN", "STORM");
-
-    /**
-     * Returns true if the home's top EV pokemon requires specific weather (e.g. only RAIN/STORM).
-     * These homes need weather confirmation even when the world isn't stale, because weather
-     * changes faster than the 15-min staleness threshold.
-     */
-    private boolean isWeatherDependent(HomePrediction hp) {
-        String topPokemon = findTopEvPokemon(hp.pokemonProbabilities());
-        if (topPokemon == null) return false;
-        SpawnCondition cond = SpawnConditionRegistry.get(topPokemon);
-        return cond != null && !cond.weathers().isEmpty() && !cond.weathers().containsAll(ALL_WEATHERS);
-    }
-
-    private static final String[] ALL_TIMES = {"DAY", "NIGHT", "MIDNIGHT", "MORNING", "AFTERNOON", "DAWN", "DUSK", "MIDDAY"};
-
-    /**
-     * Computes the maximum possible EV for a home across all (time, weather) scenarios,
-     * using SpawnConditionRegistry and tier weights.
-     * Returns {@link Double#MAX_VALUE} if data is unavailable (safe fallback: always visit).
-     */
-    private double computeMaxPossibleEV(HomePrediction hp) {
-        Map<String, Double> tierWeights = LegendTrackerProperties.getTierWeights();
-        if (tierWeights.isEmpty()) return Double.MAX_VALUE;
-
-        Collection<SpawnCondition> conditions = SpawnConditionRegistry.all();
-        if (conditions.isEmpty()) return Double.MAX_VALUE;
-
-        // Find pokemon that can spawn at this home's biome + yLevel
-        List<SpawnCondition> eligible = new ArrayList<>();
-        for (SpawnCondition sc : conditions) {
-            if (sc.biomeTags().contains(hp.biome())
-                    && hp.yLevel() >= sc.minY() && hp.yLevel() <= sc.maxY()) {
-                eligible.add(sc);
-            }
-        }
-        if (eligible.isEmpty()) return 0;
-
-        double maxEV = 0;
-        for (String time : ALL_TIMES) {
-            for (String weather : ALL_WEATHERS) {
-                double totalWeight = 0;
-                double ev = 0;
-
-                // First pass: total spawn weight of all eligible pokemon (tiered or not)
-                for (SpawnCondition sc : eligible) {
-                    if (sc.times().contains(time) && sc.weathers().contains(weather)) {
-                        totalWeight += sc.weight();
-                    }
-                }
-                if (totalWeight == 0) continue;
-
-                // Second pass: EV contribution of tiered pokemon only
-                for (SpawnCondition sc : eligible) {
-                    if (sc.times().contains(time) && sc.weathers().contains(weather)) {
-                        Double tier = tierWeights.get(sc.name().toLowerCase());
-                        if (tier != null) {
-                            ev += (sc.weight() / totalWeight) * tier;
-                        }
-                    }
-                }
-                maxEV = Math.max(maxEV, ev);
-            }
-        }
-        return maxEV;
-    }
-
     /** Pick the next best home from fresh predictions, skipping the current one. */
     private HomePrediction pickFallback(List<HomePrediction> fresh) {
         for (HomePrediction hp : fresh) {
@@ -951,6 +949,11 @@ public class AutoHopEngine {
 
     public void onTeleportConfirmed() {
         AutoQiqiClient.logDebug("AutoHop", "onTeleportConfirmed in state=" + state);
+        if (state == State.CONFIRM_WAITING_TP || state == State.BEST_WAITING_TP) {
+            String world = state == State.CONFIRM_WAITING_TP ? currentConfirmWorld()
+                    : bestHome != null ? bestHome.world() : null;
+            latency.record(HopLatencyModel.Phase.TELEPORT, world, (System.nanoTime() - tpSentNanos) / 1_000_000L);
+        }
         switch (state) {
             case CONFIRM_WAITING_TP -> setState(State.CONFIRM_SETTLING);
             case BEST_WAITING_TP -> setState(State.BEST_SETTLING);
@@ -1001,12 +1004,41 @@ public class AutoHopEngine {
         }
     }
 
+    // ========================
+    // Confirm planning
+    // ========================
+
+    /** p90 of a measured hop cost in seconds, or the default until enough hops were measured. */
+    private static double hopSeconds(Metrics.Histogram hops) {
+        if (hops.count() < MIN_HOP_SAMPLES) return DEFAULT_HOP_SECONDS;
+        return hops.percentile(90) / 1e9;
+    }
+
+    /** Record the rotation's planner inputs plus what the confirms revealed (best EV per confirmed world). */
+    private void recordCycle(List<HomePrediction> fresh) {
+        HopCycleRecorder.Cycle cycle = pendingCycle;
+        pendingCycle = null;
+        if (cycle == null || !HopCycleRecorder.get().isEnabled()) return;
+        List<String> confirmed = new ArrayList<>();
+        Map<String, Double> actual = new HashMap<>();
+        for (HomePrediction hp : confirmationHomes) {
+            confirmed.add(hp.world());
+            for (HomePrediction f : fresh) {
+                if (f.world().equalsIgnoreCase(hp.world())) actual.merge(hp.world(), f.ev(), Math::max);
+            }
+        }
+        HopCycleRecorder.get().record(new HopCycleRecorder.Cycle(cycle.atMs(), cycle.remainingSeconds(),
+                cycle.baseline(), cycle.budgetSeconds(), cycle.confirmSeconds(), cycle.candidates(),
+                confirmed, actual, fresh.get(0).ev()));
+    }
+
     // ========================
     // Abort
     // ========================
 
     public void abort() {
         pendingCommand = null;
+        pendingCycle = null;
         forceRotation = false;
         roundRobinMode = false;
         setState(State.IDLE);
@@ -1050,14 +1082,17 @@ public class AutoHopEngine {
         switch (state) {
             case CONFIRM_TELEPORTING -> {
                 com.cobblemoon.autoqiqi.biome.BiomeDiscoveryEngine.get().unsuspend();
+                markTeleportSent();
                 setState(State.CONFIRM_WAITING_TP);
             }
             case BEST_TELEPORTING -> {
                 com.cobblemoon.autoqiqi.biome.BiomeDiscoveryEngine.get().unsuspend();
+                markTeleportSent();
                 setState(State.BEST_WAITING_TP);
             }
             case SENDING_RESET -> {
                 rotationsSinceReconnect++;
+                latency.endRotation();
                 AutoQiqiClient.logDebug("AutoHop", "Rotation complete — /pk reset sent (rotations since reconnect: " + rotationsSinceReconnect + ")");
                 ChatUtil.msg("§a[Auto-Hop]§r Rotation terminée");
                 if (shouldSendTpa()) {
@@ -1147,6 +1182,18 @@ public class AutoHopEngine {
         return filtered;
     }
 
+    /** Force-refresh the bridge snapshot and return its homes filtered by {@link #filterAutoHomes}. */
+    private List<HomePrediction> freshAutoHomes() {
+        snapshot = LegendTrackerBridge.getFreshSnapshot();
+        return filterAutoHomes(snapshot.predictions());
+    }
+
+    /** Precomputed ranking data of a home: from the snapshot it came from, else computed now (poll mode). */
+    private PredictionSnapshot.RankedHome ranked(HomePrediction hp) {
+        PredictionSnapshot.RankedHome r = snapshot.find(hp.name());
+        return r != null && r.home() == hp ? r : PredictionSnapshot.rank(hp, EvScenarioTable.current());
+    }
+
     /**
      * Returns the effective hop mode, accounting for the scheduled switch hour and manual override.
      * If base mode is "auto" and (current hour >= switchHour OR allHopOverrideActive), returns "all".
@@ -1206,18 +1253,118 @@ public class AutoHopEngine {
         }
         state = newState;
         stateEnteredTick = tickCount;
+        if (newState == State.CONFIRM_SETTLING || newState == State.BEST_SETTLING) {
+            chunksReady = false;
+            settledTick = -1;
+        }
     }
 
     private long ticksSinceStateEntered() {
         return tickCount - stateEnteredTick;
     }
 
+    // ========================
+    // Adaptive waits
+    // ========================
+
+    /** How long to wait for "Téléportation terminée": 1.5 × measured p95, within [3s, 10s]. */
+    private long teleportWaitTicks(String world) {
+        long p95 = latency.quantileMs(HopLatencyModel.Phase.TELEPORT, world, 0.95, -1);
+        if (p95 < 0) return TELEPORT_FALLBACK_TICKS;
+        long ticks = (long) (p95 * TELEPORT_WAIT_MARGIN) / 50;
+        return Math.max(MIN_TELEPORT_WAIT_TICKS, Math.min(TELEPORT_FALLBACK_TICKS, ticks));
+    }
+
+    /**
+     * Settled once chunks around the player are loaded at the destination (see {@link #hasLeftTeleportOrigin})
+     * and LT sees the target world (after at least
+     * {@link #MIN_SETTLE_TICKS}), or after the measured p95 chunk-ready time if that never happens.
+     * Latches {@link #settledTick} on the first tick it returns true.
+     */
+    private boolean isSettled(String world) {
+        if (settledTick >= 0) return true;
+        long elapsed = ticksSinceStateEntered();
+        if (!chunksReady && hasLeftTeleportOrigin() && areChunksAroundPlayerLoaded()) {
+            chunksReady = true;
+            latency.record(HopLatencyModel.Phase.CHUNKS, world, elapsed * 50);
+        }
+        if (elapsed < MIN_SETTLE_TICKS) return false;
+
+        boolean ltReady = !LegendTrackerBridge.isAvailable() || world == null
+                || world.equalsIgnoreCase(LegendTrackerBridge.getCurrentWorld());
+        boolean ready = chunksReady && ltReady;
+        if (!ready) {
+            long p95 = latency.quantileMs(HopLatencyModel.Phase.CHUNKS, world, 0.95, -1);
+            long timeout = p95 < 0 ? SETTLE_DELAY_TICKS
+                    : Math.max(MIN_SETTLE_TICKS, Math.min(MAX_SETTLE_TICKS, p95 / 50 + MIN_SETTLE_TICKS));
+            if (elapsed < timeout) return false;
+        }
+        settledTick = tickCount;
+        return true;
+    }
+
+    private void markTeleportSent() {
+        tpSentNanos = System.nanoTime();
+        MinecraftClient client = MinecraftClient.getInstance();
+        tpFromWorld = new WeakReference<>(client.world);
+        tpFromPos = client.player != null ? client.player.getBlockPos() : null;
+    }
+
+    /**
+     * True once the player is in another world or more than 2 blocks from where the teleport was
+     * sent. Before that, the loaded chunks are the ones we teleported from and say nothing about the hop.
+     */
+    private boolean hasLeftTeleportOrigin() {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player == null || client.world == null) return false;
+        if (tpFromPos == null || client.world != tpFromWorld.get()) return true;
+        return client.player.getBlockPos().getSquaredDistance(tpFromPos) > 4;
+    }
+
+    private static boolean areChunksAroundPlayerLoaded() {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player == null || client.world == null) return false;
+        int cx = client.player.getBlockX() >> 4;
+        int cz = client.player.getBlockZ() >> 4;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                if (!client.world.getChunkManager().isChunkLoaded(cx + dx, cz + dz)) return false;
+            }
+        }
+        return true;
+    }
+
     // ========================
     // Periodic reconnect (cache flush)
     // ========================
 
+    /**
+     * Reconnect when hops have measurably slowed down since the last reconnect
+     * ({@code autohopReconnectLatencyFactor}) and an in-place cache flush already failed to bring
+     * them back, or after {@code autohopReconnectEveryNRotations} rotations regardless (0 = no cap).
+     * The first time latency degrades, flushes client caches instead and returns false; the flush
+     * is judged on the next measured rotation.
+     */
     private boolean shouldReconnectForCacheFlush() {
-        int n = AutoQiqiConfig.get().autohopReconnectEveryNRotations;
+        AutoQiqiConfig config = AutoQiqiConfig.get();
+        boolean judged = flushedAtRotation < 0 || latency.rotationsMeasured() > flushedAtRotation;
+        if (judged && latency.isDegraded(config.autohopReconnectLatencyFactor)) {
+            AutoQiqiClient.logDebug("AutoHop", "Teleport latency degraded: last rotation "
+                    + String.format("%.0f", latency.lastRotationMeanMs()) + "ms after "
+                    + latency.rotationsMeasured() + " rotations");
+            if (flushedAtRotation < 0) {
+                flushedAtRotation = latency.rotationsMeasured();
+                ChatUtil.msg("§6[Auto-Hop]§r Téléportations ralenties — vidage du cache client");
+                ClientCacheFlusher.get().flush(true);
+                return false;
+            }
+            return true;
+        }
+        if (judged && flushedAtRotation >= 0) {
+            AutoQiqiClient.logDebug("AutoHop", "Teleport latency back to baseline after cache flush");
+            flushedAtRotation = -1;
+        }
+        int n = config.autohopReconnectEveryNRotations;
         return n > 0 && rotationsSinceReconnect >= n;
     }
 
@@ -1229,6 +1376,8 @@ public class AutoHopEngine {
     private void triggerCacheFlushReconnect(MinecraftClient client) {
         rotationsSinceReconnect = 0;
         reconnectDeferred = false;
+        flushedAtRotation = -1;
+        latency.resetRotations();
         ChatUtil.msg("§6[Auto-Hop]§r Reconnexion pour vider le cache client...");
         AutoQiqiClient.logDebug("AutoHop", "Triggering cache-flush reconnect");
 
@@ -0,0 +1,167 @@
+package com.cobblemoon.autoqiqi.legendary.autohop;
+
+import com.cobblemoon.autoqiqi.legendary.autohop.HopCycleRecorder.Cycle;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Offline simulator for logs written by {@link HopCycleRecorder}. For every recorded rotation it
+ * compares the confirm rule used before the planner (visit every world whose best EV over all times
+ * and weathers beats the baseline, in ranking order, with no time limit) with {@link ConfirmPlanner},
+ * and reports the EV reached, the confirm time spent and how many cycles overran the time budget.
+ * <p>
+ * The EV reached is the best of the baseline and the actual EVs of the confirmed worlds. A world the
+ * recording did not confirm has no actual EV; the mean of its weather outcomes stands in for it.
+ * Overrunning the budget is only counted: whether the late hop still made the spawn is not known.
+ * <p>
+ * Usage: {@code ./gradlew replayHopCycles --args="logs/auto-qiqi/hops-<timestamp>.jsonl.gz ..."}
+ */
+public final class ConfirmPlanReplay {
+
+    private static final Gson GSON = new Gson();
+
+    /** Result of one policy on one cycle (or totals over cycles). */
+    record Outcome(int confirms, double ev, double seconds, int overBudget) {}
+
+    /** Totals over all cycles for the old rule and the planner. */
+    record Report(int cycles, Outcome legacy, Outcome planned) {
+        double evGainPerCycle() {
+            return cycles == 0 ? 0 : (planned.ev() - legacy.ev()) / cycles;
+        }
+    }
+
+    private ConfirmPlanReplay() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: ConfirmPlanReplay <hops-*.jsonl[.gz]>...");
+            return;
+        }
+        List<Cycle> cycles = new ArrayList<>();
+        for (String arg : args) cycles.addAll(read(Path.of(arg)));
+        System.out.println("Loaded " + cycles.size() + " cycles from " + args.length + " file(s)");
+        if (cycles.isEmpty()) return;
+        System.out.print(format(replay(cycles)));
+    }
+
+    // ========================
+    // Reading
+    // ========================
+
+    static List<Cycle> read(Path file) throws IOException {
+        try (InputStream in = open(file)) {
+            return read(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        }
+    }
+
+    static List<Cycle> read(BufferedReader reader) throws IOException {
+        List<Cycle> cycles = new ArrayList<>();
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    Cycle c = GSON.fromJson(line, Cycle.class);
+                    if (c != null && c.candidates() != null) cycles.add(c);
+                } catch (JsonParseException ignored) {
+                    // partial last line
+                }
+            }
+        } catch (EOFException ignored) {
+            // log of a session that crashed before closing it (no gzip trailer)
+        }
+        return cycles;
+    }
+
+    private static InputStream open(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        return file.toString().endsWith(".gz") ? new GZIPInputStream(in) : in;
+    }
+
+    // ========================
+    // Simulation
+    // ========================
+
+    /**
+     * Worlds the pre-planner rule confirms: {@code maxEv > baseline}, in ranking order, all of them
+     * (AutoHopEngine before the planner; the dominance shortcut applies to both and is not logged).
+     */
+    static List<ConfirmPlanner.Candidate> legacyConfirms(Cycle c) {
+        List<ConfirmPlanner.Candidate> out = new ArrayList<>();
+        for (ConfirmPlanner.Candidate cand : c.candidates()) {
+            if (cand.maxEv() > c.baseline()) out.add(cand);
+        }
+        return out;
+    }
+
+    static List<ConfirmPlanner.Candidate> plannedConfirms(Cycle c) {
+        List<ConfirmPlanner.Candidate> out = new ArrayList<>();
+        for (ConfirmPlanner.Step step : ConfirmPlanner.plan(c.candidates(), c.baseline(),
+                c.budgetSeconds(), c.confirmSeconds()).steps()) {
+            out.add(step.candidate());
+        }
+        return out;
+    }
+
+    static Outcome simulate(Cycle c, List<ConfirmPlanner.Candidate> confirms) {
+        double ev = c.baseline();
+        for (ConfirmPlanner.Candidate cand : confirms) ev = Math.max(ev, actualEv(c, cand));
+        double seconds = confirms.size() * c.confirmSeconds();
+        return new Outcome(confirms.size(), ev, seconds, seconds > c.budgetSeconds() ? 1 : 0);
+    }
+
+    static Report replay(List<Cycle> cycles) {
+        int legacyConfirms = 0, plannedConfirms = 0, legacyOver = 0, plannedOver = 0;
+        double legacyEv = 0, plannedEv = 0, legacySeconds = 0, plannedSeconds = 0;
+        for (Cycle c : cycles) {
+            Outcome legacy = simulate(c, legacyConfirms(c));
+            Outcome planned = simulate(c, plannedConfirms(c));
+            legacyConfirms += legacy.confirms();
+            legacyEv += legacy.ev();
+            legacySeconds += legacy.seconds();
+            legacyOver += legacy.overBudget();
+            plannedConfirms += planned.confirms();
+            plannedEv += planned.ev();
+            plannedSeconds += planned.seconds();
+            plannedOver += planned.overBudget();
+        }
+        return new Report(cycles.size(),
+                new Outcome(legacyConfirms, legacyEv, legacySeconds, legacyOver),
+                new Outcome(plannedConfirms, plannedEv, plannedSeconds, plannedOver));
+    }
+
+    private static double actualEv(Cycle c, ConfirmPlanner.Candidate cand) {
+        Double actual = c.actualEvs() != null ? c.actualEvs().get(cand.world()) : null;
+        if (actual != null) return actual;
+        double[] outcomes = cand.outcomes();
+        if (outcomes == null || outcomes.length == 0) return cand.predictedEv();
+        double sum = 0;
+        for (double o : outcomes) sum += o;
+        return sum / outcomes.length;
+    }
+
+    static String format(Report report) {
+        int n = Math.max(1, report.cycles());
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Simulated %d cycles%n", report.cycles()));
+        for (String name : new String[]{"legacy", "planned"}) {
+            Outcome o = name.equals("legacy") ? report.legacy() : report.planned();
+            sb.append(String.format("  %-8s confirms/cycle=%5.2f  confirm time/cycle=%6.1f s  EV/cycle=%7.2f  over budget=%d%n",
+                    name, (double) o.confirms() / n, o.seconds() / n, o.ev() / n, o.overBudget()));
+        }
+        sb.append(String.format("EV gained per cycle by planner: %+.2f%n", report.evGainPerCycle()));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,78 @@
+package com.cobblemoon.autoqiqi.legendary.autohop;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decides which worlds to confirm before a rotation teleports to its best home, and in what order.
+ * <p>
+ * A confirm visit reveals the world's actual weather. Its value of information (VOI) is the expected
+ * EV gain over the best home we can already trust: {@code mean(max(outcome - baseline, 0))} over the
+ * world's equally likely weather outcomes. Each confirm costs one measured hop (teleport + settle).
+ * The planner keeps worlds with positive VOI, orders them by VOI per second, and drops whatever does
+ * not fit in the time left before the spawn. A world whose every outcome is at or below the baseline
+ * is never visited. VOI is myopic: it ignores that a good find lowers the value of later confirms,
+ * which is why the most valuable confirm goes first.
+ * <p>
+ * Pure logic (no Minecraft types), so {@link ConfirmPlanReplay} can run it over recorded cycles.
+ */
+public final class ConfirmPlanner {
+
+    /**
+     * A world that could be confirmed: LT's predicted EV, its best EV over every time and weather
+     * (what the pre-planner rule compared), and the EVs it may turn out to have at the spawn.
+     */
+    public record Candidate(String world, double predictedEv, double maxEv, double[] outcomes) {}
+
+    /** One planned confirm visit. */
+    public record Step(Candidate candidate, double voi) {}
+
+    /**
+     * Planned confirm visits in order, plus how many candidates were skipped for having no value
+     * and how many were dropped for lack of time.
+     */
+    public record Plan(List<Step> steps, int skippedNoValue, int droppedForTime) {
+        public double expectedGain() {
+            double best = 0;
+            for (Step s : steps) best = Math.max(best, s.voi());
+            return best;
+        }
+    }
+
+    private ConfirmPlanner() {}
+
+    /**
+     * Expected EV gain from confirming {@code c} when {@code baseline} is already reachable.
+     * A candidate without outcomes (no scenario data) is worth {@link Double#POSITIVE_INFINITY}:
+     * without data there is nothing to rule the visit out, so it is always made (as before the planner).
+     */
+    public static double valueOfInformation(Candidate c, double baseline) {
+        double[] outcomes = c.outcomes();
+        if (outcomes == null || outcomes.length == 0) return Double.POSITIVE_INFINITY;
+        double gain = 0;
+        for (double o : outcomes) gain += Math.max(0, o - baseline);
+        return gain / outcomes.length;
+    }
+
+    /**
+     * @param baseline       best EV reachable without any confirm (reliable homes)
+     * @param budgetSeconds  time available for confirms (remaining time minus the final hop)
+     * @param confirmSeconds expected cost of one confirm hop
+     */
+    public static Plan plan(List<Candidate> candidates, double baseline, double budgetSeconds, double confirmSeconds) {
+        List<Step> valuable = new ArrayList<>();
+        int skipped = 0;
+        for (Candidate c : candidates) {
+            double voi = valueOfInformation(c, baseline);
+            if (voi > 0) valuable.add(new Step(c, voi));
+            else skipped++;
+        }
+        // Equal hop cost per confirm, so VOI per second orders like VOI; stable for ties.
+        valuable.sort(Comparator.comparingDouble(Step::voi).reversed());
+
+        int fit = confirmSeconds <= 0 ? valuable.size()
+                : (int) Math.max(0, Math.min(valuable.size(), Math.floor(budgetSeconds / confirmSeconds)));
+        return new Plan(List.copyOf(valuable.subList(0, fit)), skipped, valuable.size() - fit);
+    }
+}
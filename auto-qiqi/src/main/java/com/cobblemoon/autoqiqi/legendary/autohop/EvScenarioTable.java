@@ -0,0 +1,183 @@
+package com.cobblemoon.autoqiqi.legendary.autohop;
+
+import com.cobblemoon.autoqiqi.legendary.predict.SpawnCondition;
+import com.cobblemoon.autoqiqi.legendary.predict.PredictionSnapshot;
+import com.cobblemoon.autoqiqi.legendary.predict.SpawnConditionRegistry;
+import com.cobblemoon.autoqiqi.legendary.predict.SpawnValuation;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed EV for every (time, weather) scenario of a home, keyed by the home's biome and Y level
+ * (the only home inputs that matter to spawn eligibility). Built from tier weights and spawn
+ * conditions; {@link #current()} rebuilds it only when either of those changes, so ranking homes
+ * is a table lookup instead of a pass over all conditions per scenario.
+ *
+ * Rows are filled on first lookup for a (biome, yLevel) and kept until the inputs change.
+ * Also the {@link SpawnValuation} behind the bridge's prediction snapshots.
+ */
+final class EvScenarioTable implements SpawnValuation {
+
+    static final String[] TIMES = {"DAY", "NIGHT", "MIDNIGHT", "MORNING", "AFTERNOON", "DAWN", "DUSK", "MIDDAY"};
+    static final String[] WEATHERS = {"CLEAR", "RAIN", "STORM"};
+    static final int SCENARIOS = TIMES.length * WEATHERS.length;
+
+    private static final Set<String> ALL_WEATHERS = Set.of(WEATHERS);
+
+    private static volatile EvScenarioTable current;
+
+    private final Map<String, Double> tierWeights;
+    private final int registryVersion;
+    private final List<SpawnCondition> conditions;
+    /** Lowercase names of pokemon that only spawn in some weathers. */
+    private final Set<String> weatherDependent = new HashSet<>();
+    /** "biome|yLevel" → EV per scenario (index {@code time * WEATHERS.length + weather}), max last. */
+    private final Map<String, double[]> rows = new ConcurrentHashMap<>();
+    /** "biome|yLevel|hour" → EV per weather at that hour of the day. */
+    private final Map<String, double[]> hourRows = new ConcurrentHashMap<>();
+
+    EvScenarioTable(Map<String, Double> tierWeights, Collection<SpawnCondition> conditions, int registryVersion) {
+        this.tierWeights = tierWeights;
+        this.registryVersion = registryVersion;
+        this.conditions = List.copyOf(conditions);
+        for (SpawnCondition sc : this.conditions) {
+            if (!sc.weathers().isEmpty() && !sc.weathers().containsAll(ALL_WEATHERS)) {
+                weatherDependent.add(sc.name().toLowerCase());
+            }
+        }
+    }
+
+    /** The table for the current tier weights and spawn registry, rebuilt if either changed. */
+    static EvScenarioTable current() {
+        Map<String, Double> weights = LegendTrackerProperties.getTierWeights();
+        int version = SpawnConditionRegistry.version();
+        EvScenarioTable table = current;
+        if (table == null || table.tierWeights != weights || table.registryVersion != version) {
+            table = new EvScenarioTable(weights, SpawnConditionRegistry.all(), version);
+            current = table;
+        }
+        return table;
+    }
+
+    /** True when there is nothing to score against: ranking must treat every home as worth a visit. */
+    boolean isEmpty() {
+        return tierWeights.isEmpty() || conditions.isEmpty();
+    }
+
+    /** Best EV over all scenarios; {@link Double#MAX_VALUE} when the table is empty (always visit). */
+    double maxEv(String biome, int yLevel) {
+        if (isEmpty()) return Double.MAX_VALUE;
+        return row(biome, yLevel)[SCENARIOS];
+    }
+
+    /** EV for one scenario; 0 when the table is empty or no eligible pokemon matches. */
+    double ev(String biome, int yLevel, int timeIndex, int weatherIndex) {
+        if (isEmpty()) return 0;
+        return row(biome, yLevel)[timeIndex * WEATHERS.length + weatherIndex];
+    }
+
+    /**
+     * EV of a home under each weather (indexed like {@link #WEATHERS}) at the hour of {@code spawnTick}.
+     * The time of day at spawn is known from the world's timer; only the weather is uncertain. With
+     * no spawn tick ({@code < 0}), each weather gets its best EV over all times. Empty when the table is empty.
+     */
+    double[] weatherOutcomes(String biome, int yLevel, long spawnTick) {
+        if (isEmpty()) return new double[0];
+        if (spawnTick < 0) {
+            double[] row = row(biome, yLevel);
+            double[] outcomes = new double[WEATHERS.length];
+            for (int t = 0; t < TIMES.length; t++) {
+                for (int w = 0; w < WEATHERS.length; w++) {
+                    outcomes[w] = Math.max(outcomes[w], row[t * WEATHERS.length + w]);
+                }
+            }
+            return outcomes;
+        }
+        int hour = SpawnCondition.hourOf(spawnTick);
+        return hourRows.computeIfAbsent(biome + "|" + yLevel + "|" + hour,
+                k -> computeHourRow(biome, yLevel, spawnTick)).clone();
+    }
+
+    @Override
+    public double value(String pokemon) {
+        return tierWeights.getOrDefault(pokemon.toLowerCase(), 0.0);
+    }
+
+    @Override
+    public boolean isWeatherDependent(String pokemon) {
+        return weatherDependent.contains(pokemon.toLowerCase());
+    }
+
+    /** The pokemon with the highest EV contribution in a prediction map (see {@link PredictionSnapshot#topEvPokemon}). */
+    String topEvPokemon(Map<String, Double> pokemonProbabilities) {
+        return PredictionSnapshot.topEvPokemon(pokemonProbabilities, this);
+    }
+
+    /** True if the top EV pokemon of the prediction map only spawns in some weathers. */
+    boolean isWeatherDependent(Map<String, Double> pokemonProbabilities) {
+        String top = topEvPokemon(pokemonProbabilities);
+        return top != null && isWeatherDependent(top);
+    }
+
+    private double[] row(String biome, int yLevel) {
+        return rows.computeIfAbsent(biome + "|" + yLevel, k -> computeRow(biome, yLevel));
+    }
+
+    private List<SpawnCondition> eligible(String biome, int yLevel) {
+        List<SpawnCondition> eligible = new ArrayList<>();
+        for (SpawnCondition sc : conditions) {
+            if (sc.biomeTags().contains(biome) && yLevel >= sc.minY() && yLevel <= sc.maxY()) {
+                eligible.add(sc);
+            }
+        }
+        return eligible;
+    }
+
+    /** Same EV as {@link #computeRow} per weather, with times matched against the tick like the spawn itself. */
+    private double[] computeHourRow(String biome, int yLevel, long tick) {
+        double[] row = new double[WEATHERS.length];
+        List<SpawnCondition> eligible = eligible(biome, yLevel);
+        for (int w = 0; w < WEATHERS.length; w++) {
+            double totalWeight = 0;
+            double weighted = 0;
+            for (SpawnCondition sc : eligible) {
+                if (SpawnCondition.isTimeMatch(tick, sc.times()) && sc.weathers().contains(WEATHERS[w])) {
+                    totalWeight += sc.weight();
+                    Double tier = tierWeights.get(sc.name().toLowerCase());
+                    if (tier != null) weighted += sc.weight() * tier;
+                }
+            }
+            row[w] = totalWeight == 0 ? 0 : weighted / totalWeight;
+        }
+        return row;
+    }
+
+    private double[] computeRow(String biome, int yLevel) {
+        double[] row = new double[SCENARIOS + 1];
+
+        List<SpawnCondition> eligible = eligible(biome, yLevel);
+        if (eligible.isEmpty()) return row;
+
+        double maxEv = 0;
+        for (int t = 0; t < TIMES.length; t++) {
+            for (int w = 0; w < WEATHERS.length; w++) {
+                double totalWeight = 0;
+                double weighted = 0;
+                // Total spawn weight of all eligible pokemon (tiered or not), and of tiered ones × tier
+                for (SpawnCondition sc : eligible) {
+                    if (sc.times().contains(TIMES[t]) && sc.weathers().contains(WEATHERS[w])) {
+                        totalWeight += sc.weight();
+                        Double tier = tierWeights.get(sc.name().toLowerCase());
+                        if (tier != null) weighted += sc.weight() * tier;
+                    }
+                }
+                double ev = totalWeight == 0 ? 0 : weighted / totalWeight;
+                row[t * WEATHERS.length + w] = ev;
+                maxEv = Math.max(maxEv, ev);
+            }
+        }
+        row[SCENARIOS] = maxEv;
+        return row;
+    }
+}
@@ -0,0 +1,142 @@
+package com.cobblemoon.autoqiqi.legendary.autohop;
+
+import com.cobblemoon.autoqiqi.AutoQiqiClient;
+import com.cobblemoon.autoqiqi.config.AutoQiqiConfig;
+import com.google.gson.Gson;
+import net.minecraft.client.MinecraftClient;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records each LT-mode auto-hop rotation's confirm-planning inputs and what the confirms revealed to
+ * {@code logs/auto-qiqi/hops-<timestamp>.jsonl.gz} (one {@link Cycle} per line) when
+ * {@code recordHopCycles} is on. {@link ConfirmPlanReplay} simulates confirm policies over the logs.
+ * <p>
+ * Cycles are serialized on the caller's thread and written by a single background thread, sync-flushed
+ * one by one (rotations are rare), and the file is closed on disconnect and client exit so it ends
+ * cleanly; the next cycle starts a new file.
+ */
+public final class HopCycleRecorder {
+
+    /**
+     * One rotation: the candidates offered to {@link ConfirmPlanner}, the time budget, and the
+     * actual best EV of every world that was confirmed (world → EV after the visit).
+     */
+    public record Cycle(long atMs, long remainingSeconds, double baseline, double budgetSeconds,
+                        double confirmSeconds, List<ConfirmPlanner.Candidate> candidates,
+                        List<String> confirmed, Map<String, Double> actualEvs, double chosenEv) {}
+
+    private static final HopCycleRecorder INSTANCE = new HopCycleRecorder();
+    private static final Gson GSON = new Gson();
+
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "auto-qiqi-hop-log");
+        t.setDaemon(true);
+        return t;
+    });
+    // Only touched on the io thread
+    private Writer writer;
+    private boolean openFailed = false;
+    private int recorded = 0;
+
+    private HopCycleRecorder() {}
+
+    public static HopCycleRecorder get() { return INSTANCE; }
+
+    public boolean isEnabled() {
+        return AutoQiqiConfig.get().recordHopCycles;
+    }
+
+    /** Append one cycle and flush: rotations are rare, so every one reaches disk. */
+    public void record(Cycle cycle) {
+        if (!isEnabled()) return;
+        String line = GSON.toJson(cycle);
+        submit(() -> {
+            Writer w = open();
+            if (w == null) return;
+            try {
+                w.write(line);
+                w.write('\n');
+                w.flush();
+                recorded++;
+            } catch (IOException e) {
+                log("write failed: " + e.getMessage());
+            }
+        });
+    }
+
+    /** Finish the current file (gzip trailer included); the next cycle opens a new one. Disconnect. */
+    public void close() {
+        submit(this::closeWriter);
+    }
+
+    /** Close the current file and wait for pending writes (client exit). */
+    public void shutdown() {
+        submit(this::closeWriter);
+        io.shutdown();
+        try {
+            io.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(Runnable task) {
+        try {
+            io.execute(task);
+        } catch (RejectedExecutionException ignored) {
+            // after shutdown (client exiting)
+        }
+    }
+
+    private void closeWriter() {
+        if (writer == null) return;
+        try {
+            writer.close();
+            log("Closed hop log (" + recorded + " cycles)");
+        } catch (IOException e) {
+            log("close failed: " + e.getMessage());
+        }
+        writer = null;
+        recorded = 0;
+    }
+
+    /** Logging goes through the client thread (chat output when debug is on). */
+    private static void log(String message) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client != null) client.execute(() -> AutoQiqiClient.logDebug("HopRecorder", message));
+    }
+
+    private Writer open() {
+        if (writer != null || openFailed) return writer;
+        try {
+            Path dir = Paths.get("logs", "auto-qiqi");
+            Files.createDirectories(dir);
+            String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+            Path file = dir.resolve("hops-" + ts + ".jsonl.gz");
+            writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(file), true), StandardCharsets.UTF_8));
+            log("Recording auto-hop cycles to " + file);
+        } catch (IOException e) {
+            openFailed = true;
+            log("Failed to open hop log: " + e.getMessage());
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,125 @@
+package com.cobblemoon.autoqiqi.legendary.autohop;
+
+import com.cobblemoon.autoqiqi.common.Metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measured auto-hop latencies: teleport confirmation (command sent → "Téléportation terminée") and
+ * chunk readiness (confirmation → chunks around the player loaded), per world. Quantiles come from
+ * the last {@link #WINDOW} samples, so they follow the server as it speeds up or slows down.
+ * <p>
+ * Also tracks the mean teleport latency of each rotation since the last reconnect: client dimension
+ * caches make successive hops slower, and {@link #isDegraded} tells when a reconnect is worth it.
+ * Samples are mirrored into {@link Metrics} ({@code autohop.teleport}, {@code autohop.chunks},
+ * {@code autohop.teleport.rotN}) for {@code /pk perf}.
+ */
+final class HopLatencyModel {
+
+    enum Phase { TELEPORT, CHUNKS }
+
+    /** Samples kept per (phase, world). */
+    static final int WINDOW = 32;
+    /** Fewer samples than this: fall back to all worlds, then to the caller's default. */
+    static final int MIN_SAMPLES = 5;
+    /** Rotations after a reconnect whose latency is the "fresh client" baseline. */
+    static final int BASELINE_ROTATIONS = 2;
+    private static final int MAX_ROTATION_METRIC = 9;
+
+    private final Map<String, Window> windows = new HashMap<>();
+    private final List<Double> rotationMeansMs = new ArrayList<>();
+    private double rotationSumMs;
+    private int rotationSamples;
+
+    void record(Phase phase, String world, long ms) {
+        window(phase, world).add(ms);
+        window(phase, null).add(ms);
+        Metrics.histogram(phase == Phase.TELEPORT ? "autohop.teleport" : "autohop.chunks").record(ms * 1_000_000L);
+        if (phase == Phase.TELEPORT) {
+            rotationSumMs += ms;
+            rotationSamples++;
+            int idx = Math.min(rotationMeansMs.size(), MAX_ROTATION_METRIC);
+            Metrics.histogram("autohop.teleport.rot" + idx).record(ms * 1_000_000L);
+        }
+    }
+
+    /**
+     * Latency quantile {@code q} (0..1) in ms for a world; uses all worlds if this one has too few
+     * samples, and {@code fallbackMs} if there are too few overall.
+     */
+    long quantileMs(Phase phase, String world, double q, long fallbackMs) {
+        Window w = windows.get(key(phase, world));
+        if (w == null || w.size() < MIN_SAMPLES) w = windows.get(key(phase, null));
+        if (w == null || w.size() < MIN_SAMPLES) return fallbackMs;
+        return w.quantile(q);
+    }
+
+    /** Close the current rotation: its mean teleport latency joins the per-rotation series. */
+    void endRotation() {
+        if (rotationSamples == 0) return;
+        rotationMeansMs.add(rotationSumMs / rotationSamples);
+        rotationSumMs = 0;
+        rotationSamples = 0;
+    }
+
+    /** Start a new per-rotation series (after a reconnect flushed the client caches). */
+    void resetRotations() {
+        rotationMeansMs.clear();
+        rotationSumMs = 0;
+        rotationSamples = 0;
+    }
+
+    int rotationsMeasured() { return rotationMeansMs.size(); }
+
+    /**
+     * True when the last rotation's mean teleport latency exceeds {@code factor} times the mean of
+     * the first {@link #BASELINE_ROTATIONS} rotations after the reconnect. Never before there is
+     * at least one rotation past the baseline; never if {@code factor <= 0}.
+     */
+    boolean isDegraded(double factor) {
+        if (factor <= 0 || rotationMeansMs.size() <= BASELINE_ROTATIONS) return false;
+        double baseline = 0;
+        for (int i = 0; i < BASELINE_ROTATIONS; i++) baseline += rotationMeansMs.get(i);
+        baseline /= BASELINE_ROTATIONS;
+        return rotationMeansMs.get(rotationMeansMs.size() - 1) > factor * baseline;
+    }
+
+    double lastRotationMeanMs() {
+        return rotationMeansMs.isEmpty() ? 0 : rotationMeansMs.get(rotationMeansMs.size() - 1);
+    }
+
+    private Window window(Phase phase, String world) {
+        return windows.computeIfAbsent(key(phase, world), k -> new Window());
+    }
+
+    private static String key(Phase phase, String world) {
+        return phase + "|" + (world == null ? "*" : world.toLowerCase());
+    }
+
+    /** Ring buffer of the last {@link #WINDOW} samples. */
+    private static final class Window {
+        private final long[] samples = new long[WINDOW];
+        private int next;
+        private int size;
+
+        void add(long v) {
+            samples[next] = v;
+            next = (next + 1) % WINDOW;
+            if (size < WINDOW) size++;
+        }
+
+        int size() { return size; }
+
+        /** Nearest-rank quantile. */
+        long quantile(double q) {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(q * size);
+            return sorted[Math.max(0, Math.min(size - 1, rank - 1))];
+        }
+    }
+}
@@ -1,17 +1,25 @@
 package com.cobblemoon.autoqiqi.legendary.predict;
 
 import com.cobblemoon.autoqiqi.AutoQiqiClient;
+import com.cobblemoon.autoqiqi.common.Metrics;
 import com.cobblemoon.autoqiqi.legendary.WorldTracker;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Reflection bridge to LegendTracker mod's prediction engine.
  * Reads computed predictions directly from LegendTracker instead of reimplementing the logic.
  * Gracefully returns empty results if LegendTracker isn't loaded.
+ * A refresh reads every home's inputs, makes one prediction call per home and publishes the ranked
+ * homes as one immutable {@link PredictionSnapshot}. Everything runs on the client thread: nothing says
+ * LegendTracker's prediction code is thread-safe. Periodic (TTL) refreshes are spread over ticks,
+ * {@link #HOMES_PER_TICK} homes at a time; timer changes and {@link #getFreshSnapshot()} refresh at once.
  *
  * Key LegendTracker classes (obfuscated):
  *   client.legendtracker.g     = TimerParser — g.a(e$a, long) → g$b prediction, g.c = spawn epoch ms, g.d = timer map
@@ -19,25 +27,30 @@ import java.util.concurrent.ConcurrentHashMap;
  *   client.legendtracker.g$c   = TimerData { long b (spawnTickTarget), long c (syncUtcMs), long d (worldTicksAtSync), double e (tps) }
  *   client.legendtracker.e$a   = HomeConfig { String a (name), b (world), c (cmd), d (biome), int f (yLevel) }
  *   client.legendtracker.e.e   = Map<String, e$a> all home configs
+ *
+ * All members are resolved once into {@code static final} {@link MethodHandle}s in {@link LT}
+ * (lazily, on first use), so the JIT treats them as constants and inlines the field reads.
  */
 public final class LegendTrackerBridge {
 
-    private static Boolean available;
-
     // ── Change detection & caching ──────────────────────────────────────
 
-    /** g.c — epoch millis when legendary spawns (changes when LT gets new timer data). */
-    private static Field spawnEpochField;
-    /** g.g — current world name as detected by LegendTracker's timer parser. */
-    private static Field currentWorldField;
-
     /** Last observed spawn epoch — used to detect timer updates. */
     private static long lastSpawnEpoch = 0;
 
-    /** Cached prediction results — recomputed on timer change or every CACHE_TTL_MS. */
-    private static volatile List<HomePrediction> cachedPredictions = List.of();
+    /** Last published snapshot — recomputed on timer change or every CACHE_TTL_MS. */
+    private static volatile PredictionSnapshot snapshot = PredictionSnapshot.EMPTY;
+    private static long snapshotVersion = 0;
+    private static Supplier<SpawnValuation> valuation = () -> SpawnValuation.NONE;
     private static long cacheComputedAtMs = 0;
     private static final long CACHE_TTL_MS = 3_000; // refresh at most every 3s even if no change
+    private static final Metrics.Histogram REFRESH_NANOS = Metrics.histogram("legendBridge.refreshCache");
+    private static final Metrics.Histogram REFRESH_SLICE_NANOS = Metrics.histogram("legendBridge.refreshSlice");
+    /** LegendTracker predictions made per tick by a periodic refresh. */
+    static final int HOMES_PER_TICK = 8;
+
+    /** Periodic refresh in progress (inputs frozen when it started), or null. */
+    private static RefreshPass pass;
 
     /**
      * Homes that were physically visited this cycle and found to have dropped EV.
@@ -54,6 +67,11 @@ public final class LegendTrackerBridge {
         changeListeners.add(listener);
     }
 
+    /** Set where snapshots get pokemon values and weather dependence from (asked on every refresh). */
+    public static void setSpawnValuation(Supplier<SpawnValuation> source) {
+        valuation = source;
+    }
+
     /**
      * Record that a home was physically visited and its EV was found to have dropped.
      * Prevents subsequent cache refreshes (e.g. epoch-triggered) from reverting the
@@ -74,90 +92,151 @@ public final class LegendTrackerBridge {
 
     /**
      * Call every client tick. Checks if LegendTracker's timer has changed
-     * (new spawn epoch) and fires listeners + refreshes cache if so.
+     * (new spawn epoch) and fires listeners + refreshes cache if so; otherwise
+     * advances the periodic refresh by {@link #HOMES_PER_TICK} homes.
      */
     public static void tick() {
         if (!isAvailable()) return;
+        long currentEpoch;
         try {
-            long currentEpoch = spawnEpochField.getLong(null);
-            if (currentEpoch != lastSpawnEpoch && currentEpoch > 0) {
-                lastSpawnEpoch = currentEpoch;
-                AutoQiqiClient.logDebug("LTBridge", "Timer changed — spawn epoch=" + currentEpoch);
-                refreshCache();
-                for (Runnable listener : changeListeners) {
-                    try { listener.run(); } catch (Exception e) {
-                        AutoQiqiClient.logDebug("LTBridge", "Listener error: " + e.getMessage());
-                    }
+            currentEpoch = (long) LT.SPAWN_EPOCH.invokeExact();
+        } catch (Throwable t) {
+            return;
+        }
+        if (currentEpoch != lastSpawnEpoch && currentEpoch > 0) {
+            lastSpawnEpoch = currentEpoch;
+            AutoQiqiClient.logDebug("LTBridge", "Timer changed — spawn epoch=" + currentEpoch);
+            refreshCache();
+            for (Runnable listener : changeListeners) {
+                try { listener.run(); } catch (Exception e) {
+                    AutoQiqiClient.logDebug("LTBridge", "Listener error: " + e.getMessage());
                 }
             }
-        } catch (Exception ignored) {}
-    }
-
-    // TimerParser (g) class and fields
-    private static Class<?> timerParserClass;       // client.legendtracker.g
-    private static Class<?> predictionResultClass;  // client.legendtracker.g$b
-    private static Class<?> timerDataClass;         // client.legendtracker.g$c
-    private static Class<?> homeConfigClass;        // client.legendtracker.e$a
-    // g.a(e$a, long) → g$b  — prediction for a home at a given tick
-    private static Method predictMethod;
-    // g$c.a() → int remaining seconds (LegendTracker's own computation)
-    private static Method timerRemainingMethod;
-    // g.d — Map<String, g$c> timer data per world
-    private static Field timerDataMapField;
-    // e.e — Map<String, e$a> all home configs from ModConfig
-    private static Field allHomesMapField;
-    // g$b.a (EV double), g$b.b (Map<String,Double>)
-    private static Field predictionEvField;
-    private static Field predictionMapField;
-    // g$c.b (spawnTickTarget), g$c.c (syncUtcMs)
-    private static Field timerSpawnTickField;
-    private static Field timerSyncUtcField;
-    // e$a fields: a(name), b(world), c(cmd), d(biome), f(yLevel)
-    private static Field homeNameField;
-    private static Field homeWorldField;
-    private static Field homeCmdField;
-    private static Field homeBiomeField;
-    private static Field homeYLevelField;
+            return;
+        }
 
-    private LegendTrackerBridge() {}
+        if (pass == null && System.currentTimeMillis() - cacheComputedAtMs <= CACHE_TTL_MS) return;
+        long t0 = System.nanoTime();
+        try {
+            if (pass == null) pass = startPass();
+            if (pass != null && pass.advance(HOMES_PER_TICK)) {
+                publishRanked(pass.results);
+                pass = null;
+            }
+        } catch (Exception e) {
+            AutoQiqiClient.logDebug("LTBridge", "refresh slice failed: " + e.getMessage());
+            pass = null;
+        } finally {
+            REFRESH_SLICE_NANOS.recordSince(t0);
+        }
+    }
 
-    public static boolean isAvailable() {
-        if (available == null) {
+    /**
+     * LegendTracker members as typed {@code static final} handles, resolved when this holder is first
+     * touched. Static getters are typed {@code ()T}, instance getters {@code (Object)T}, so call sites
+     * use {@code invokeExact} without boxing. All handles are null when LegendTracker is absent.
+     */
+    private static final class LT {
+        static final boolean AVAILABLE;
+        static final String ERROR;
+        /** g.a(e$a, long) → g$b — prediction for a home at a given tick: (Object, long) → Object. */
+        static final MethodHandle PREDICT;
+        /** g$c.a() → remaining seconds (LegendTracker's own computation): (Object) → long. */
+        static final MethodHandle TIMER_REMAINING;
+        /** g.c spawn epoch ms: () → long; g.g current world, g.d timer map, e.e home map: () → Object. */
+        static final MethodHandle SPAWN_EPOCH;
+        static final MethodHandle CURRENT_WORLD;
+        static final MethodHandle TIMER_MAP;
+        static final MethodHandle ALL_HOMES;
+        /** g$b.a EV: (Object) → double; g$b.b pokemon → %: (Object) → Object. */
+        static final MethodHandle PREDICTION_EV;
+        static final MethodHandle PREDICTION_MAP;
+        /** g$c.b spawnTickTarget, g$c.c syncUtcMs: (Object) → long. */
+        static final MethodHandle TIMER_SPAWN_TICK;
+        static final MethodHandle TIMER_SYNC_UTC;
+        /** e$a a(name), b(world), c(cmd), d(biome): (Object) → Object; f(yLevel): (Object) → int. */
+        static final MethodHandle HOME_NAME;
+        static final MethodHandle HOME_WORLD;
+        static final MethodHandle HOME_CMD;
+        static final MethodHandle HOME_BIOME;
+        static final MethodHandle HOME_Y_LEVEL;
+
+        static {
+            MethodHandle[] h = new MethodHandle[15];
+            String error = null;
             try {
-                timerParserClass = Class.forName("client.legendtracker.g");
-                predictionResultClass = Class.forName("client.legendtracker.g$b");
-                timerDataClass = Class.forName("client.legendtracker.g$c");
-                homeConfigClass = Class.forName("client.legendtracker.e$a");
-
-                Class<?> modConfigClass = Class.forName("client.legendtracker.e");
-
-                predictMethod = timerParserClass.getMethod("a", homeConfigClass, long.class);
-                timerRemainingMethod = timerDataClass.getMethod("a");
-                timerDataMapField = accessible(timerParserClass.getDeclaredField("d"));
-                allHomesMapField = accessible(modConfigClass.getDeclaredField("e"));
-                spawnEpochField = accessible(timerParserClass.getDeclaredField("c"));
-                currentWorldField = accessible(timerParserClass.getDeclaredField("g"));
-
-                predictionEvField = accessible(predictionResultClass.getDeclaredField("a"));
-                predictionMapField = accessible(predictionResultClass.getDeclaredField("b"));
-
-                timerSpawnTickField = accessible(timerDataClass.getDeclaredField("b"));
-                timerSyncUtcField = accessible(timerDataClass.getDeclaredField("c"));
-
-                homeNameField = accessible(homeConfigClass.getDeclaredField("a"));
-                homeWorldField = accessible(homeConfigClass.getDeclaredField("b"));
-                homeCmdField = accessible(homeConfigClass.getDeclaredField("c"));
-                homeBiomeField = accessible(homeConfigClass.getDeclaredField("d"));
-                homeYLevelField = accessible(homeConfigClass.getDeclaredField("f"));
-
-                available = true;
-                AutoQiqiClient.logDebug("LTBridge", "LegendTracker detected — using native predictions");
-            } catch (Exception e) {
-                available = false;
-                AutoQiqiClient.logDebug("LTBridge", "LegendTracker not found: " + e.getMessage());
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                Class<?> timerParser = Class.forName("client.legendtracker.g");
+                Class<?> predictionResult = Class.forName("client.legendtracker.g$b");
+                Class<?> timerData = Class.forName("client.legendtracker.g$c");
+                Class<?> homeConfig = Class.forName("client.legendtracker.e$a");
+                Class<?> modConfig = Class.forName("client.legendtracker.e");
+
+                h[0] = lookup.unreflect(timerParser.getMethod("a", homeConfig, long.class))
+                        .asType(MethodType.methodType(Object.class, Object.class, long.class));
+                h[1] = lookup.unreflect(timerData.getMethod("a"))
+                        .asType(MethodType.methodType(long.class, Object.class));
+                h[2] = staticGetter(lookup, timerParser, "c", long.class);
+                h[3] = staticGetter(lookup, timerParser, "g", Object.class);
+                h[4] = staticGetter(lookup, timerParser, "d", Object.class);
+                h[5] = staticGetter(lookup, modConfig, "e", Object.class);
+                h[6] = getter(lookup, predictionResult, "a", double.class);
+                h[7] = getter(lookup, predictionResult, "b", Object.class);
+                h[8] = getter(lookup, timerData, "b", long.class);
+                h[9] = getter(lookup, timerData, "c", long.class);
+                h[10] = getter(lookup, homeConfig, "a", Object.class);
+                h[11] = getter(lookup, homeConfig, "b", Object.class);
+                h[12] = getter(lookup, homeConfig, "c", Object.class);
+                h[13] = getter(lookup, homeConfig, "d", Object.class);
+                h[14] = getter(lookup, homeConfig, "f", int.class);
+            } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+                Arrays.fill(h, null);
+                error = String.valueOf(e.getMessage());
             }
+            AVAILABLE = error == null;
+            ERROR = error;
+            PREDICT = h[0];
+            TIMER_REMAINING = h[1];
+            SPAWN_EPOCH = h[2];
+            CURRENT_WORLD = h[3];
+            TIMER_MAP = h[4];
+            ALL_HOMES = h[5];
+            PREDICTION_EV = h[6];
+            PREDICTION_MAP = h[7];
+            TIMER_SPAWN_TICK = h[8];
+            TIMER_SYNC_UTC = h[9];
+            HOME_NAME = h[10];
+            HOME_WORLD = h[11];
+            HOME_CMD = h[12];
+            HOME_BIOME = h[13];
+            HOME_Y_LEVEL = h[14];
+        }
+
+        private static MethodHandle staticGetter(MethodHandles.Lookup lookup, Class<?> owner, String name, Class<?> type)
+                throws ReflectiveOperationException {
+            return lookup.unreflectGetter(accessible(owner.getDeclaredField(name)))
+                    .asType(MethodType.methodType(type));
+        }
+
+        private static MethodHandle getter(MethodHandles.Lookup lookup, Class<?> owner, String name, Class<?> type)
+                throws ReflectiveOperationException {
+            return lookup.unreflectGetter(accessible(owner.getDeclaredField(name)))
+                    .asType(MethodType.methodType(type, Object.class));
+        }
+    }
+
+    private static boolean availabilityLogged = false;
+
+    private LegendTrackerBridge() {}
+
+    public static boolean isAvailable() {
+        if (!availabilityLogged) {
+            availabilityLogged = true;
+            AutoQiqiClient.logDebug("LTBridge", LT.AVAILABLE
+                    ? "LegendTracker detected — using native predictions"
+                    : "LegendTracker not found: " + LT.ERROR);
         }
-        return available;
+        return LT.AVAILABLE;
     }
 
     /**
@@ -167,46 +246,47 @@ public final class LegendTrackerBridge {
     public static String getCurrentWorld() {
         if (!isAvailable()) return null;
         try {
-            String world = (String) currentWorldField.get(null);
+            String world = (String) (Object) LT.CURRENT_WORLD.invokeExact();
             if (world == null || world.isEmpty() || "Inconnu".equalsIgnoreCase(world)) return null;
             return world;
-        } catch (Exception e) {
+        } catch (Throwable t) {
             return null;
         }
     }
 
     // ── Prediction for a specific home ──────────────────────────────────
 
+    /** One LegendTracker prediction (g$b): pokemon → spawn probability (0-100%) and its EV. */
+    public record Prediction(Map<String, Double> probabilities, double ev) {
+        static final Prediction EMPTY = new Prediction(Map.of(), 0);
+    }
+
     /**
-     * Calls LegendTracker's prediction for the given home at a predicted tick.
-     * Returns a map of pokemon name → spawn probability (0-100%).
+     * Calls LegendTracker's prediction for the given home at a predicted tick, once, and reads
+     * both the probability map and the EV from the same result. Client thread only.
      */
     @SuppressWarnings("unchecked")
-    public static Map<String, Double> predictForHome(Object homeConfig, long predictedTick) {
-        if (!isAvailable()) return Map.of();
+    public static Prediction predict(Object homeConfig, long predictedTick) {
+        if (!isAvailable()) return Prediction.EMPTY;
         try {
-            Object result = predictMethod.invoke(null, homeConfig, predictedTick);
-            if (result == null) return Map.of();
-            Map<String, Double> map = (Map<String, Double>) predictionMapField.get(result);
-            return map != null ? map : Map.of();
-        } catch (Exception e) {
-            AutoQiqiClient.logDebug("LTBridge", "predictForHome failed: " + e.getMessage());
-            return Map.of();
+            Object result = (Object) LT.PREDICT.invokeExact(homeConfig, predictedTick);
+            if (result == null) return Prediction.EMPTY;
+            Map<String, Double> map = (Map<String, Double>) (Object) LT.PREDICTION_MAP.invokeExact(result);
+            return new Prediction(map != null ? map : Map.of(), (double) LT.PREDICTION_EV.invokeExact(result));
+        } catch (Throwable e) {
+            AutoQiqiClient.logDebug("LTBridge", "predict failed: " + e.getMessage());
+            return Prediction.EMPTY;
         }
     }
 
-    /**
-     * Returns the EV (weighted score) from a prediction result.
-     */
+    /** Map of pokemon name → spawn probability (0-100%); see {@link #predict}. */
+    public static Map<String, Double> predictForHome(Object homeConfig, long predictedTick) {
+        return predict(homeConfig, predictedTick).probabilities();
+    }
+
+    /** The EV (weighted score) of the prediction; see {@link #predict}. */
     public static double getPredictionEV(Object homeConfig, long predictedTick) {
-        if (!isAvailable()) return 0;
-        try {
-            Object result = predictMethod.invoke(null, homeConfig, predictedTick);
-            if (result == null) return 0;
-            return predictionEvField.getDouble(result);
-        } catch (Exception e) {
-            return 0;
-        }
+        return predict(homeConfig, predictedTick).ev();
     }
 
     // ── Read LegendTracker's sorted home rotation ───────────────────────
@@ -218,9 +298,9 @@ public final class LegendTrackerBridge {
     public static Collection<Object> getAllHomes() {
         if (!isAvailable()) return List.of();
         try {
-            Map<String, Object> map = (Map<String, Object>) allHomesMapField.get(null);
+            Map<String, Object> map = (Map<String, Object>) (Object) LT.ALL_HOMES.invokeExact();
             return map != null ? map.values() : List.of();
-        } catch (Exception e) {
+        } catch (Throwable t) {
             return List.of();
         }
     }
@@ -255,9 +335,9 @@ public final class LegendTrackerBridge {
     public static Map<String, Object> getTimerDataMap() {
         if (!isAvailable()) return Map.of();
         try {
-            Map<String, Object> map = (Map<String, Object>) timerDataMapField.get(null);
+            Map<String, Object> map = (Map<String, Object>) (Object) LT.TIMER_MAP.invokeExact();
             return map != null ? map : Map.of();
-        } catch (Exception e) {
+        } catch (Throwable t) {
             return Map.of();
         }
     }
@@ -266,8 +346,8 @@ public final class LegendTrackerBridge {
     public static long getTimerRemainingSeconds(Object timerData) {
         if (timerData == null) return -1;
         try {
-            return ((Number) timerRemainingMethod.invoke(timerData)).longValue();
-        } catch (Exception e) {
+            return (long) LT.TIMER_REMAINING.invokeExact(timerData);
+        } catch (Throwable t) {
             return -1;
         }
     }
@@ -276,129 +356,203 @@ public final class LegendTrackerBridge {
     public static long getSpawnTickTarget(Object timerData) {
         if (timerData == null) return -1;
         try {
-            return timerSpawnTickField.getLong(timerData);
-        } catch (Exception e) {
+            return (long) LT.TIMER_SPAWN_TICK.invokeExact(timerData);
+        } catch (Throwable t) {
             return -1;
         }
     }
 
+    /** Spawn tick target of a world's timer (same world matching as the predictions), -1 if unknown. */
+    public static long getSpawnTick(String world) {
+        return getSpawnTickTarget(findTimerForWorld(getTimerDataMap(), world));
+    }
+
     // ── HomeConfig field accessors (used by refreshCache) ────────────────
 
     private static String getHomeName(Object home) {
-        try { return (String) homeNameField.get(home); } catch (Exception e) { return ""; }
+        try { return (String) (Object) LT.HOME_NAME.invokeExact(home); } catch (Throwable t) { return ""; }
     }
     private static String getHomeWorld(Object home) {
-        try { return (String) homeWorldField.get(home); } catch (Exception e) { return ""; }
+        try { return (String) (Object) LT.HOME_WORLD.invokeExact(home); } catch (Throwable t) { return ""; }
     }
     private static String getHomeCmd(Object home) {
-        try { return (String) homeCmdField.get(home); } catch (Exception e) { return ""; }
+        try { return (String) (Object) LT.HOME_CMD.invokeExact(home); } catch (Throwable t) { return ""; }
     }
     private static String getHomeBiome(Object home) {
-        try { return (String) homeBiomeField.get(home); } catch (Exception e) { return ""; }
+        try { return (String) (Object) LT.HOME_BIOME.invokeExact(home); } catch (Throwable t) { return ""; }
     }
     private static int getHomeYLevel(Object home) {
-        try { return homeYLevelField.getInt(home); } catch (Exception e) { return 64; }
+        try { return (int) LT.HOME_Y_LEVEL.invokeExact(home); } catch (Throwable t) { return 64; }
+    }
+
+    /** g$c.c — when the world's timer was last synced (UTC ms), 0 if unreadable. */
+    private static long getTimerSyncUtc(Object timerData) {
+        if (timerData == null) return 0;
+        try { return (long) LT.TIMER_SYNC_UTC.invokeExact(timerData); } catch (Throwable t) { return 0; }
     }
 
     // ── Convenience: full prediction snapshot ───────────────────────────
 
     /**
-     * Returns cached predictions. Cache is refreshed on timer change (via tick())
-     * or if older than CACHE_TTL_MS.
+     * Returns the cached snapshot. Cache is refreshed on timer change and, once older than
+     * CACHE_TTL_MS, over the next ticks (via tick()); only the very first call refreshes inline.
      */
-    public static List<HomePrediction> getFullPredictions() {
-        if (!isAvailable()) return List.of();
-        long now = System.currentTimeMillis();
-        if (now - cacheComputedAtMs > CACHE_TTL_MS) {
+    public static PredictionSnapshot getSnapshot() {
+        if (!isAvailable()) return PredictionSnapshot.EMPTY;
+        if (cacheComputedAtMs == 0) {
             refreshCache();
         }
-        return cachedPredictions;
+        return snapshot;
     }
 
     /**
-     * Force-refresh predictions, bypassing the cache TTL.
+     * Force-refresh the snapshot, bypassing the cache TTL.
      * Used by auto-hop when it needs guaranteed fresh data (e.g. after teleporting).
      */
-    public static List<HomePrediction> getFreshPredictions() {
-        if (!isAvailable()) return List.of();
+    public static PredictionSnapshot getFreshSnapshot() {
+        if (!isAvailable()) return PredictionSnapshot.EMPTY;
         refreshCache();
-        return cachedPredictions;
+        return snapshot;
     }
 
+    /** Ranked predictions of {@link #getSnapshot()}. */
+    public static List<HomePrediction> getFullPredictions() {
+        return getSnapshot().predictions();
+    }
+
+    /** Ranked predictions of {@link #getFreshSnapshot()}. */
+    public static List<HomePrediction> getFreshPredictions() {
+        return getFreshSnapshot().predictions();
+    }
+
+    /** Full refresh now (drops any periodic pass in progress). */
     private static void refreshCache() {
-        cacheComputedAtMs = System.currentTimeMillis();
+        long t0 = System.nanoTime();
+        pass = null;
         try {
-            Collection<Object> homes = getAllHomes();
-            Map<String, Object> timers = getTimerDataMap();
-            if (homes.isEmpty() || timers.isEmpty()) {
-                cachedPredictions = List.of();
-                snapshotTimeMs = 0;   // reset so getRemainingSeconds() returns -1
-                snapshotRemainingSecs = -1;
-                return;
+            RefreshPass full = startPass();
+            if (full != null) {
+                full.advance(Integer.MAX_VALUE);
+                publishRanked(full.results);
             }
+        } catch (Exception e) {
+            AutoQiqiClient.logDebug("LTBridge", "refreshCache failed: " + e.getMessage());
+            publish(List.of());
+        } finally {
+            REFRESH_NANOS.recordSince(t0);
+        }
+    }
 
-            // Find the freshest timer for the global remaining seconds display
-            Object freshestTimer = null;
-            long freshestSync = 0;
-            for (Object timer : timers.values()) {
-                long sync = timerSyncUtcField.getLong(timer);
-                if (sync > freshestSync) {
-                    freshestSync = sync;
-                    freshestTimer = timer;
-                }
-            }
-            if (freshestTimer == null) {
-                cachedPredictions = List.of();
-                return;
+    /**
+     * Reads the timers and every home's inputs (so the whole pass ranks homes against the same
+     * timers). Returns null, after publishing an empty snapshot, when there is nothing to rank.
+     */
+    private static RefreshPass startPass() {
+        cacheComputedAtMs = System.currentTimeMillis();
+        Collection<Object> homes = getAllHomes();
+        Map<String, Object> timers = getTimerDataMap();
+        if (homes.isEmpty() || timers.isEmpty()) {
+            publish(List.of());
+            snapshotTimeMs = 0;   // reset so getRemainingSeconds() returns -1
+            snapshotRemainingSecs = -1;
+            return null;
+        }
+
+        // Find the freshest timer for the global remaining seconds display
+        Object freshestTimer = null;
+        long freshestSync = 0;
+        for (Object timer : timers.values()) {
+            long sync = getTimerSyncUtc(timer);
+            if (sync > freshestSync) {
+                freshestSync = sync;
+                freshestTimer = timer;
             }
+        }
+        if (freshestTimer == null) {
+            publish(List.of());
+            return null;
+        }
 
-            snapshotRemainingSecs = getTimerRemainingSeconds(freshestTimer);
-            long now = System.currentTimeMillis();
-            snapshotTimeMs = now;
+        snapshotRemainingSecs = getTimerRemainingSeconds(freshestTimer);
+        long now = System.currentTimeMillis();
+        snapshotTimeMs = now;
+
+        List<HomeInput> inputs = new ArrayList<>(homes.size());
+        for (Object home : homes) {
+            String homeWorld = getHomeWorld(home);
+
+            // Find the timer matching this home's world — skip if no timer at all
+            Object worldTimer = findTimerForWorld(timers, homeWorld);
+            if (worldTimer == null) continue; // no timer data for this world
+
+            // If this home was physically assessed this cycle, use the assessed EV
+            // to prevent epoch-triggered refreshes from reverting the ranking.
+            String homeName = getHomeName(home);
+            inputs.add(new HomeInput(home, homeName, homeWorld, getHomeCmd(home), getHomeBiome(home),
+                    getHomeYLevel(home), getSpawnTickTarget(worldTimer), isTimerStale(worldTimer, now),
+                    assessedHomeEvs.get(homeName)));
+        }
+        return new RefreshPass(inputs);
+    }
 
-            List<HomePrediction> results = new ArrayList<>();
-            for (Object home : homes) {
-                String homeWorld = getHomeWorld(home);
-
-                // Find the timer matching this home's world — skip if no timer at all
-                Object worldTimer = findTimerForWorld(timers, homeWorld);
-                if (worldTimer == null) continue; // no timer data for this world
-                boolean needsConfirm = isTimerStale(worldTimer, now);
-
-                long spawnTick = getSpawnTickTarget(worldTimer);
-                Map<String, Double> predictions = predictForHome(home, spawnTick);
-                if (predictions.isEmpty()) continue;
-                double ev = getPredictionEV(home, spawnTick);
-
-                // If this home was physically assessed this cycle, use the assessed EV
-                // to prevent epoch-triggered refreshes from reverting the ranking.
-                String homeName = getHomeName(home);
-                Double assessedEv = assessedHomeEvs.get(homeName);
-                if (assessedEv != null) {
-                    ev = assessedEv;
-                }
+    private static void publishRanked(List<HomePrediction> results) {
+        // Sort by EV descending; on tie, prefer the home in the current world
+        // (avoids an unnecessary teleport when two homes have equal EV).
+        String currentWorld = WorldTracker.get().getCurrentWorld();
+        results.sort((a, b) -> {
+            int cmp = Double.compare(b.ev(), a.ev());
+            if (cmp != 0) return cmp;
+            boolean aLocal = currentWorld != null && currentWorld.equalsIgnoreCase(a.world());
+            boolean bLocal = currentWorld != null && currentWorld.equalsIgnoreCase(b.world());
+            return Boolean.compare(bLocal, aLocal); // true (local) first
+        });
+        publish(results);
+    }
+
+    /** One refresh: frozen inputs, evaluated a few homes at a time. */
+    private static final class RefreshPass {
+        final List<HomeInput> inputs;
+        final List<HomePrediction> results;
+        int next;
 
-                results.add(new HomePrediction(
-                        homeName, homeWorld, getHomeCmd(home),
-                        getHomeBiome(home), getHomeYLevel(home),
-                        predictions, ev, needsConfirm
-                ));
+        RefreshPass(List<HomeInput> inputs) {
+            this.inputs = inputs;
+            this.results = new ArrayList<>(inputs.size());
+        }
+
+        /** Evaluates up to {@code maxHomes} more homes; true once every home is done. */
+        boolean advance(int maxHomes) {
+            int end = (int) Math.min(inputs.size(), (long) next + maxHomes);
+            for (; next < end; next++) {
+                HomePrediction p = evaluate(inputs.get(next));
+                if (p != null) results.add(p);
             }
-            // Sort by EV descending; on tie, prefer the home in the current world
-            // (avoids an unnecessary teleport when two homes have equal EV).
-            String currentWorld = WorldTracker.get().getCurrentWorld();
-            results.sort((a, b) -> {
-                int cmp = Double.compare(b.ev(), a.ev());
-                if (cmp != 0) return cmp;
-                boolean aLocal = currentWorld != null && currentWorld.equalsIgnoreCase(a.world());
-                boolean bLocal = currentWorld != null && currentWorld.equalsIgnoreCase(b.world());
-                return Boolean.compare(bLocal, aLocal); // true (local) first
-            });
-            cachedPredictions = Collections.unmodifiableList(results);
-        } catch (Exception e) {
-            AutoQiqiClient.logDebug("LTBridge", "refreshCache failed: " + e.getMessage());
-            cachedPredictions = List.of();
+            return next >= inputs.size();
+        }
+    }
+
+    /** Rank-time work done once per refresh; one volatile write makes the whole snapshot visible. */
+    private static void publish(List<HomePrediction> ranked) {
+        SpawnValuation values;
+        try {
+            values = valuation.get();
+        } catch (RuntimeException e) {
+            values = SpawnValuation.NONE;
         }
+        snapshot = PredictionSnapshot.of(++snapshotVersion, System.currentTimeMillis(), ranked, values);
+    }
+
+    /** Everything one home's prediction needs, read when the refresh starts. */
+    private record HomeInput(Object config, String name, String world, String command, String biome, int yLevel,
+                             long spawnTick, boolean needsConfirm, Double assessedEv) {}
+
+    /** One prediction call, reused for both the probability map and the EV. */
+    private static HomePrediction evaluate(HomeInput in) {
+        Prediction p = predict(in.config(), in.spawnTick());
+        if (p.probabilities().isEmpty()) return null;
+        double ev = in.assessedEv() != null ? in.assessedEv() : p.ev();
+        return new HomePrediction(in.name(), in.world(), in.command(), in.biome(), in.yLevel(),
+                p.probabilities(), ev, in.needsConfirm());
     }
 
     /** Find timer matching a world name (case-insensitive partial match, same as LegendTracker). */
@@ -449,12 +603,8 @@ public final class LegendTrackerBridge {
      */
     private static boolean isTimerStale(Object worldTimer, long nowMs) {
         if (worldTimer == null) return true;
-        try {
-            long syncUtc = timerSyncUtcField.getLong(worldTimer);
-            return (nowMs - syncUtc) > STALE_THRESHOLD_MS;
-        } catch (Exception e) {
-            return true;
-        }
+        long syncUtc = getTimerSyncUtc(worldTimer);
+        return syncUtc == 0 || (nowMs - syncUtc) > STALE_THRESHOLD_MS;
     }
 
     /**
@@ -0,0 +1,63 @@
+package com.cobblemoon.autoqiqi.legendary.predict;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Small daemon worker pool for per-home spawn-condition matching ({@link SpawnPredictor}). {@link #map}
+ * evaluates one task per home in parallel and blocks until all are done. Tasks must only read inputs
+ * frozen by the caller and must not log (logging posts to chat): LegendTracker and game state are not
+ * safe to touch from here, which is why {@link LegendTrackerBridge} stays on the client thread.
+ */
+final class PredictionPool {
+
+    /** Below this many homes, evaluate inline: hand-off costs more than it saves. */
+    static final int MIN_PARALLEL_ITEMS = 4;
+
+    private static final int THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(THREADS, r -> {
+        Thread t = new Thread(r, "auto-qiqi-predict-" + THREAD_ID.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private PredictionPool() {}
+
+    /**
+     * Apply {@code fn} to every input (in parallel when worthwhile) and return the non-null
+     * results in input order. A task that throws is dropped, like a home that has no prediction.
+     */
+    static <T, R> List<R> map(List<T> inputs, Function<T, R> fn) {
+        List<R> out = new ArrayList<>(inputs.size());
+        if (THREADS == 1 || inputs.size() < MIN_PARALLEL_ITEMS) {
+            for (T input : inputs) {
+                try {
+                    R r = fn.apply(input);
+                    if (r != null) out.add(r);
+                } catch (RuntimeException ignored) {}
+            }
+            return out;
+        }
+        List<Callable<R>> tasks = new ArrayList<>(inputs.size());
+        for (T input : inputs) tasks.add(() -> fn.apply(input));
+        try {
+            for (Future<R> f : POOL.invokeAll(tasks)) {
+                try {
+                    R r = f.get();
+                    if (r != null) out.add(r);
+                } catch (ExecutionException ignored) {}
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return out;
+    }
+}
@@ -0,0 +1,109 @@
+package com.cobblemoon.autoqiqi.legendary.predict;
+
+import com.cobblemoon.autoqiqi.legendary.predict.LegendTrackerBridge.HomePrediction;
+
+import java.util.*;
+
+/**
+ * One LegendTracker refresh, published as a whole by {@link LegendTrackerBridge}: homes ranked by
+ * EV, with each home's top spawns sorted into arrays and its top-EV pokemon and weather dependence
+ * worked out once. Immutable, so any thread can read it without locking; {@link #version()} grows
+ * with every refresh, so consumers can tell whether anything changed with one comparison.
+ */
+public final class PredictionSnapshot {
+
+    /** Spawns kept per home, by probability. */
+    public static final int TOP_SPAWNS = 5;
+    /** Only name a top-EV pokemon if its EV contribution is meaningful. */
+    public static final double TOP_CONTRIBUTION_MIN = 5.0;
+
+    public static final PredictionSnapshot EMPTY = new PredictionSnapshot(0, 0, List.of());
+
+    /**
+     * A home of the snapshot. {@code topSpawns}/{@code topPercents} hold up to {@link #TOP_SPAWNS}
+     * pokemon by descending probability (callers must not modify them); {@code topEvPokemon} is null
+     * when no pokemon contributes more than {@link #TOP_CONTRIBUTION_MIN}.
+     */
+    public record RankedHome(HomePrediction home, String[] topSpawns, double[] topPercents,
+                             String topEvPokemon, boolean weatherDependent) {}
+
+    private final long version;
+    private final long builtAtMs;
+    private final List<RankedHome> homes;
+    private final List<HomePrediction> predictions;
+    private final Map<String, RankedHome> byName;
+
+    private PredictionSnapshot(long version, long builtAtMs, List<RankedHome> homes) {
+        this.version = version;
+        this.builtAtMs = builtAtMs;
+        this.homes = homes;
+        List<HomePrediction> predictions = new ArrayList<>(homes.size());
+        Map<String, RankedHome> byName = new HashMap<>();
+        for (RankedHome h : homes) {
+            predictions.add(h.home());
+            byName.putIfAbsent(h.home().name(), h);
+        }
+        this.predictions = Collections.unmodifiableList(predictions);
+        this.byName = byName;
+    }
+
+    /** Build a snapshot from predictions already ranked by EV. */
+    public static PredictionSnapshot of(long version, long builtAtMs, List<HomePrediction> ranked, SpawnValuation valuation) {
+        List<RankedHome> homes = new ArrayList<>(ranked.size());
+        for (HomePrediction hp : ranked) homes.add(rank(hp, valuation));
+        return new PredictionSnapshot(version, builtAtMs, Collections.unmodifiableList(homes));
+    }
+
+    public long version() { return version; }
+
+    public long builtAtMs() { return builtAtMs; }
+
+    public boolean isEmpty() { return homes.isEmpty(); }
+
+    /** Homes by descending EV (ties: home in the current world first). */
+    public List<RankedHome> homes() { return homes; }
+
+    /** The same homes as plain predictions. */
+    public List<HomePrediction> predictions() { return predictions; }
+
+    /** The ranked entry for a home name, or null. */
+    public RankedHome find(String homeName) {
+        return homeName == null ? null : byName.get(homeName);
+    }
+
+    // ========================
+    // Per-home precomputation
+    // ========================
+
+    public static RankedHome rank(HomePrediction hp, SpawnValuation valuation) {
+        Map<String, Double> probabilities = hp.pokemonProbabilities();
+        List<Map.Entry<String, Double>> sorted = new ArrayList<>(probabilities.entrySet());
+        sorted.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+        int k = Math.min(sorted.size(), TOP_SPAWNS);
+        String[] names = new String[k];
+        double[] percents = new double[k];
+        for (int i = 0; i < k; i++) {
+            names[i] = sorted.get(i).getKey();
+            percents[i] = sorted.get(i).getValue();
+        }
+        String top = topEvPokemon(probabilities, valuation);
+        return new RankedHome(hp, names, percents, top, top != null && valuation.isWeatherDependent(top));
+    }
+
+    /**
+     * The pokemon with the highest EV contribution ({@code percent / 100 × value}), or null if none
+     * contributes more than {@link #TOP_CONTRIBUTION_MIN}.
+     */
+    public static String topEvPokemon(Map<String, Double> pokemonProbabilities, SpawnValuation valuation) {
+        String topName = null;
+        double topContribution = 0;
+        for (Map.Entry<String, Double> e : pokemonProbabilities.entrySet()) {
+            double contribution = (e.getValue() / 100.0) * valuation.value(e.getKey());
+            if (contribution > topContribution) {
+                topContribution = contribution;
+                topName = e.getKey();
+            }
+        }
+        return topContribution > TOP_CONTRIBUTION_MIN ? topName : null;
+    }
+}
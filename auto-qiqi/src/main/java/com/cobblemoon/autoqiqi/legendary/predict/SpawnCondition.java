@@ -26,14 +26,19 @@ public record SpawnCondition(
      */
     public static boolean isTimeMatch(long tick, Set<String> times) {
         if (times == null || times.isEmpty()) return true;
-        tick = ((tick % 24000) + 24000) % 24000;
-        int hour = (int) ((tick / 1000 + 6) % 24);
+        int hour = hourOf(tick);
         for (String label : times) {
             if (isHourMatch(hour, label.toUpperCase())) return true;
         }
         return false;
     }
 
+    /** Hour of the day (0-23, 0 = midnight) of a world tick, as LegendTracker computes it. */
+    public static int hourOf(long tick) {
+        tick = ((tick % 24000) + 24000) % 24000;
+        return (int) ((tick / 1000 + 6) % 24);
+    }
+
     private static boolean isHourMatch(int hour, String label) {
         return switch (label) {
             case "DAY", "JOURNÉE" -> hour >= 6 && hour < 18;
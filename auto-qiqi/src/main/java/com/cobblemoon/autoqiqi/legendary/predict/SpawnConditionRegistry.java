@@ -20,10 +20,13 @@ public final class SpawnConditionRegistry {
     private static final String ASSET_PATH = "/assets/auto-qiqi/spawns.json";
     private static final Map<String, SpawnCondition> ENTRIES = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
     private static boolean loaded = false;
+    /** Bumped on every load so derived tables can tell when the entries changed. */
+    private static volatile int version = 0;
 
     private SpawnConditionRegistry() {}
 
     public static void load() {
+        version++;
         ENTRIES.clear();
         try (InputStream is = SpawnConditionRegistry.class.getResourceAsStream(ASSET_PATH)) {
             if (is == null) {
@@ -57,6 +60,7 @@ public final class SpawnConditionRegistry {
     public static SpawnCondition get(String name) { return ENTRIES.get(name); }
     public static Collection<SpawnCondition> all() { return ENTRIES.values(); }
     public static boolean isLoaded() { return loaded; }
+    public static int version() { return version; }
 
     private static Set<String> parseStringSet(JsonObject obj, String key) {
         Set<String> set = new LinkedHashSet<>();
@@ -1,6 +1,7 @@
 package com.cobblemoon.autoqiqi.legendary.predict;
 
 import com.cobblemoon.autoqiqi.AutoQiqiClient;
+import com.cobblemoon.autoqiqi.common.Metrics;
 import com.cobblemoon.autoqiqi.config.AutoQiqiConfig;
 import com.cobblemoon.autoqiqi.legendary.LegendTimerSync;
 import net.minecraft.client.MinecraftClient;
@@ -13,10 +14,13 @@ import java.util.*;
  * biome tags, time-of-day, y-level, and underground/underwater constraints.
  *
  * Runs on the client tick thread; recomputes periodically (not every frame).
+ * Homes are matched in parallel on {@link PredictionPool} against inputs frozen on the client thread;
+ * the sorted result list is published in one volatile write.
  */
 public class SpawnPredictor {
 
     private static final SpawnPredictor INSTANCE = new SpawnPredictor();
+    private static final Metrics.Histogram RECOMPUTE_NANOS = Metrics.histogram("predictor.recompute");
     public static SpawnPredictor get() { return INSTANCE; }
 
     private volatile List<PredictionResult> lastResults = List.of();
@@ -37,7 +41,15 @@ public class SpawnPredictor {
 
     private void recompute() {
         if (!SpawnConditionRegistry.isLoaded() || !BiomeTagMap.isLoaded()) return;
+        long t0 = System.nanoTime();
+        try {
+            computePredictions();
+        } finally {
+            RECOMPUTE_NANOS.recordSince(t0);
+        }
+    }
 
+    private void computePredictions() {
         LegendTimerSync sync = LegendTimerSync.get();
         Map<String, LegendTimerSync.TimerRow> rows = sync.getLastRows();
         if (rows.isEmpty()) return;
@@ -50,7 +62,7 @@ public class SpawnPredictor {
         List<HomeDefinition> homes = HomeDefinitionLoader.get();
         if (homes.isEmpty()) return;
 
-        Collection<SpawnCondition> allConditions = SpawnConditionRegistry.all();
+        List<SpawnCondition> allConditions = List.copyOf(SpawnConditionRegistry.all());
         if (allConditions.isEmpty()) return;
 
         // Pokemon values now live in legendtracker.properties tiers — fallback predictor uses empty map
@@ -68,56 +80,65 @@ public class SpawnPredictor {
             clientPredictedTick = ((currentTime + futureTicks) % 24000 + 24000) % 24000;
         }
 
-        List<PredictionResult> results = new ArrayList<>();
-
+        // Freeze per-home inputs here, then match every home against the conditions on the worker pool
+        List<HomeInput> inputs = new ArrayList<>(homes.size());
         for (HomeDefinition home : homes) {
             // Find the timer row for this home's world (for time-of-day only)
             LegendTimerSync.TimerRow row = findRowForWorld(rows, home.world());
             if (row == null) continue;
 
-            // Time-of-day is world-specific; remaining seconds is global
-            long remainingSecs = globalRemainingSecs;
             // Use client-side time prediction (accurate); fall back to DB if unavailable
             long predictedTick = clientPredictedTick >= 0
                     ? clientPredictedTick
                     : ((row.spawnTickTarget() % 24000) + 24000) % 24000;
+            // Time-of-day is world-specific; remaining seconds is global
+            inputs.add(new HomeInput(home, predictedTick, globalRemainingSecs));
+        }
 
-            // Find all matching spawn conditions for this home
-            List<PredictionResult.MatchedSpawn> matched = new ArrayList<>();
-            int totalWeight = 0;
+        List<PredictionResult> results = new ArrayList<>(
+                PredictionPool.map(inputs, in -> evaluate(in, allConditions, pokemonValues)));
+        Collections.sort(results);
+        lastResults = Collections.unmodifiableList(results);
+    }
 
-            for (SpawnCondition cond : allConditions) {
-                if (!matches(cond, home, predictedTick)) continue;
-                totalWeight += cond.weight();
-                matched.add(new PredictionResult.MatchedSpawn(
-                        cond.name(), 0, cond.weight(), 0, 0));
-            }
+    private record HomeInput(HomeDefinition home, long predictedTick, long remainingSecs) {}
 
-            if (totalWeight == 0) continue;
-
-            // Compute probabilities and EV
-            double ev = 0;
-            List<PredictionResult.MatchedSpawn> finalMatched = new ArrayList<>();
-            for (PredictionResult.MatchedSpawn m : matched) {
-                double probability = (double) m.weight() / totalWeight;
-                double value = getPokemonValue(pokemonValues, m.pokemonName());
-                double contribution = probability * value;
-                ev += contribution;
-                finalMatched.add(new PredictionResult.MatchedSpawn(
-                        m.pokemonName(), value, m.weight(), probability, contribution));
-            }
+    /** Matches one home against every spawn condition; null if nothing can spawn there. */
+    private static PredictionResult evaluate(HomeInput in, List<SpawnCondition> conditions,
+                                             Map<String, Double> pokemonValues) {
+        // Find all matching spawn conditions for this home
+        List<PredictionResult.MatchedSpawn> matched = new ArrayList<>();
+        int totalWeight = 0;
 
-            // Sort matched spawns by contribution descending
-            finalMatched.sort((a, b) -> Double.compare(b.contribution(), a.contribution()));
+        for (SpawnCondition cond : conditions) {
+            if (!matches(cond, in.home(), in.predictedTick())) continue;
+            totalWeight += cond.weight();
+            matched.add(new PredictionResult.MatchedSpawn(
+                    cond.name(), 0, cond.weight(), 0, 0));
+        }
 
-            results.add(new PredictionResult(home, ev, finalMatched, predictedTick, remainingSecs));
+        if (totalWeight == 0) return null;
+
+        // Compute probabilities and EV
+        double ev = 0;
+        List<PredictionResult.MatchedSpawn> finalMatched = new ArrayList<>();
+        for (PredictionResult.MatchedSpawn m : matched) {
+            double probability = (double) m.weight() / totalWeight;
+            double value = getPokemonValue(pokemonValues, m.pokemonName());
+            double contribution = probability * value;
+            ev += contribution;
+            finalMatched.add(new PredictionResult.MatchedSpawn(
+                    m.pokemonName(), value, m.weight(), probability, contribution));
         }
 
-        Collections.sort(results);
-        lastResults = Collections.unmodifiableList(results);
+        // Sort matched spawns by contribution descending
+        finalMatched.sort((a, b) -> Double.compare(b.contribution(), a.contribution()));
+
+        return new PredictionResult(in.home(), ev, finalMatched, in.predictedTick(), in.remainingSecs());
     }
 
-    private static boolean matches(SpawnCondition cond, HomeDefinition home, long predictedTick) {
+    /** Package-private for the jmh matching benchmark. */
+    static boolean matches(SpawnCondition cond, HomeDefinition home, long predictedTick) {
         // Time of day (same hour-based logic as LegendTracker)
         if (!SpawnCondition.isTimeMatch(predictedTick, cond.times())) return false;
 
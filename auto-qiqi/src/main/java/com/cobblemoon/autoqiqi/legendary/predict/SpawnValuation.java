@@ -0,0 +1,20 @@
+package com.cobblemoon.autoqiqi.legendary.predict;
+
+/**
+ * How much each pokemon is worth to the player and whether its spawn depends on weather. Supplied to
+ * {@link LegendTrackerBridge#setSpawnValuation} so snapshots can precompute each home's top-EV pokemon.
+ */
+public interface SpawnValuation {
+
+    /** No tier values: no pokemon is worth anything, none is weather-dependent. */
+    SpawnValuation NONE = new SpawnValuation() {
+        @Override public double value(String pokemon) { return 0; }
+        @Override public boolean isWeatherDependent(String pokemon) { return false; }
+    };
+
+    /** Tier value of a pokemon (0 if it has none). */
+    double value(String pokemon);
+
+    /** True if the pokemon only spawns in some weathers. */
+    boolean isWeatherDependent(String pokemon);
+}
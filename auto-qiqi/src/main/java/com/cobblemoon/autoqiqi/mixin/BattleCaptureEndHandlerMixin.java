@@ -38,6 +38,7 @@ public abstract class BattleCaptureEndHandlerMixin {
         boolean succeeded = packet.getSucceeded();
         AutoQiqiClient.logDebug("Capture", "Ball HIT confirmed via BattleCaptureEndPacket (succeeded=" + succeeded + ")");
         CaptureEngine.chatBall("Packet: hit confirmed, succeeded=" + succeeded + (succeeded ? " (caught)" : " (breakout)"));
+        CaptureEngine.get().onCaptureAttemptEnded(succeeded);
         CaptureEngine.get().onBallHitConfirmed();
 
         if (!succeeded) {
@@ -2,6 +2,8 @@ package com.cobblemoon.autoqiqi.npc;
 
 import com.cobblemon.mod.common.client.CobblemonClient;
 import com.cobblemoon.autoqiqi.AutoQiqiClient;
+import com.cobblemoon.autoqiqi.common.ClientCacheFlusher;
+import com.cobblemoon.autoqiqi.common.LineOfSightService;
 import com.cobblemoon.autoqiqi.common.MovementHelper;
 import net.minecraft.block.BlockState;
 import net.minecraft.client.MinecraftClient;
@@ -389,7 +391,7 @@ public class TowerNpcEngine {
     // ========================
 
     private boolean interactWith(MinecraftClient client, ClientPlayerEntity player, Entity npc, boolean isEntrance) {
-        if (!MovementHelper.hasLineOfSight(player, npc)) {
+        if (!LineOfSightService.get().hasLineOfSight(player, npc)) {
             AutoQiqiClient.logDebug("Tower", "interactWith: no line of sight to '" + getEntityName(npc) + "'");
             return false;
         }
@@ -428,6 +430,11 @@ public class TowerNpcEngine {
         }
     }
 
+    /** Drops the walk target if it was left in a previous world (dimension change); the walk then sees it as gone. */
+    public void releaseWorldRefs() {
+        if (ClientCacheFlusher.isFromOtherWorld(walkTarget)) walkTarget = null;
+    }
+
     private void cancelWalk(String reason) {
         if (state != State.IDLE) {
             AutoQiqiClient.logDebug("Tower", "Walk cancelled: " + reason);
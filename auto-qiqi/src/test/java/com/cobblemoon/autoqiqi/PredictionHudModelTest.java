@@ -0,0 +1,53 @@
+package com.cobblemoon.autoqiqi;
+
+import com.cobblemoon.autoqiqi.legendary.predict.LegendTrackerBridge.HomePrediction;
+import com.cobblemoon.autoqiqi.legendary.predict.PredictionSnapshot;
+import com.cobblemoon.autoqiqi.legendary.predict.SpawnValuation;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PredictionHudModelTest {
+
+    private static HomePrediction home(String name, String world, double ev, boolean confirm) {
+        return new HomePrediction(name, world, "/home " + name, "minecraft:plains", 64,
+                Map.of("Mew", 10.0, "Lugia", 60.0, "Ho-Oh", 25.0, "Celebi", 5.0), ev, confirm);
+    }
+
+    private static PredictionSnapshot snapshot(long version, HomePrediction... homes) {
+        return PredictionSnapshot.of(version, 0, List.of(homes), SpawnValuation.NONE);
+    }
+
+    @Test
+    void formatsTopSpawnsByProbability() {
+        List<String> lines = PredictionHudModel.legendTrackerLines(
+                snapshot(1, home("temple", "Ultra-Lune", 42.25, true), home("lac", "Soleil", 7, false)).homes(), 1);
+        assertEquals(List.of("§b#1 §ftemple §7(UL) §eEV:42.3 §c⚠  §7Lugia 60% Ho-Oh 25% Mew 10%"), lines);
+        assertEquals("§e4:05", PredictionHudModel.formatTime(245));
+        assertEquals("§c--:--", PredictionHudModel.formatTime(0));
+    }
+
+    @Test
+    void rebuildsOnlyWhenSnapshotOrTimerSecondChanges() {
+        PredictionHudModel model = new PredictionHudModel();
+        PredictionSnapshot snapshot = snapshot(1, home("temple", "Lune", 42, false));
+
+        assertTrue(model.updateLegendTracker(snapshot, 8, 300));
+        int version = model.version();
+        List<String> lines = model.lines();
+        assertEquals("§8[LegendTracker] §71 homes | §a5:00", lines.get(0));
+
+        assertFalse(model.updateLegendTracker(snapshot, 8, 300));
+        assertSame(lines, model.lines());
+        assertEquals(version, model.version());
+
+        assertTrue(model.updateLegendTracker(snapshot, 8, 299));
+        assertEquals(lines.get(1), model.lines().get(1));
+        assertTrue(model.updateLegendTracker(snapshot(2, home("lac", "Lune", 50, false)), 8, 299));
+        assertFalse(model.updateLegendTracker(snapshot(2, home("lac", "Lune", 50, false)), 8, 299)); // same version
+        assertEquals(version + 2, model.version());
+    }
+}
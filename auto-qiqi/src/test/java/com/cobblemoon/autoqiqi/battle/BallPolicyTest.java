@@ -0,0 +1,92 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import com.cobblemoon.autoqiqi.battle.CaptureOutcome.Result;
+import com.cobblemoon.autoqiqi.battle.CaptureOutcome.Status;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BallPolicyTest {
+
+    private static final List<String> BALLS = List.of("poke_ball", "great_ball", "ultra_ball");
+
+    private static List<CaptureOutcome> throwsOf(String ball, int level, int caught, int brokeOut) {
+        List<CaptureOutcome> list = new ArrayList<>();
+        for (int i = 0; i < caught; i++) list.add(new CaptureOutcome(45, level, 1, Status.NONE, ball, i, Result.CAUGHT));
+        for (int i = 0; i < brokeOut; i++) list.add(new CaptureOutcome(45, level, 1, Status.NONE, ball, i, Result.BROKE_OUT));
+        return list;
+    }
+
+    @Test
+    void formulaFollowsHpStatusBallAndCatchRate() {
+        double full = BallPolicy.formulaChance(45, 40, 100, Status.NONE, 1.0);
+        double oneHp = BallPolicy.formulaChance(45, 40, 1, Status.NONE, 1.0);
+        assertTrue(oneHp > full);
+        assertTrue(BallPolicy.formulaChance(45, 40, 1, Status.SLEEP_FREEZE, 1.0) > BallPolicy.formulaChance(45, 40, 1, Status.MINOR, 1.0));
+        assertTrue(BallPolicy.formulaChance(45, 40, 1, Status.NONE, 2.0) > oneHp);
+        assertTrue(BallPolicy.formulaChance(3, 40, 1, Status.NONE, 1.0) < oneHp);
+        assertEquals(1.0, BallPolicy.formulaChance(255, 40, 1, Status.SLEEP_FREEZE, 2.0));
+        assertEquals(BallPolicy.formulaChance(BallPolicy.DEFAULT_CATCH_RATE, 40, 1, Status.NONE, 1.0),
+                BallPolicy.formulaChance(-1, 40, 1, Status.NONE, 1.0));
+        assertEquals(Status.MINOR, Status.of("cobblemon:paralysis"));
+        assertEquals(Status.SLEEP_FREEZE, Status.of("SLEEP"));
+        assertEquals(Status.NONE, Status.of(null));
+    }
+
+    @Test
+    void noOrderUntilTheLevelBandHasEnoughHits() {
+        List<CaptureOutcome> samples = throwsOf("poke_ball", 35, 5, BallPolicy.MIN_SAMPLES - 6);
+        samples.add(new CaptureOutcome(45, 35, 1, Status.NONE, "poke_ball", 1, Result.MISSED));
+        assertNull(BallPolicy.from(samples).order(BALLS, 45, 35, 1, Status.NONE));
+
+        samples.addAll(throwsOf("poke_ball", 35, 1, 0));
+        assertNotNull(BallPolicy.from(samples).order(BALLS, 45, 35, 1, Status.NONE));
+        assertNull(BallPolicy.from(samples).order(BALLS, 45, 55, 1, Status.NONE), "other level bands still need samples");
+    }
+
+    @Test
+    void throwsWithUnknownCatchRateAreNotLearnedFrom() {
+        List<CaptureOutcome> samples = new ArrayList<>();
+        for (int i = 0; i < BallPolicy.MIN_SAMPLES; i++) {
+            samples.add(new CaptureOutcome(0, 35, 1, Status.NONE, "poke_ball", i, Result.CAUGHT));
+        }
+        assertNull(BallPolicy.from(samples).order(BALLS, 45, 35, 1, Status.NONE));
+    }
+
+    @Test
+    void empiricalRatesReorderTheBalls() {
+        // On this server cheap balls work far better than the formula says: they win on cost
+        List<CaptureOutcome> samples = throwsOf("poke_ball", 35, 30, 2);
+        List<String> order = BallPolicy.from(samples).order(BALLS, 45, 35, 1, Status.NONE);
+        assertEquals("poke_ball", order.get(0));
+
+        // Poke balls almost never work: a stronger ball is cheaper per capture
+        samples = throwsOf("poke_ball", 35, 0, 60);
+        order = BallPolicy.from(samples).order(BALLS, 45, 35, 1, Status.NONE);
+        assertNotEquals("poke_ball", order.get(0));
+        assertEquals("poke_ball", order.get(2));
+
+        BallPolicy policy = BallPolicy.from(samples);
+        assertTrue(policy.chance("poke_ball", 45, 35, 1, Status.NONE)
+                < BallPolicy.formulaChance(45, 35, 1, Status.NONE, 1.0));
+    }
+
+    @Test
+    void aBallThatStoppedBeingThrownIsTriedAgain() {
+        List<String> balls = List.of("poke_ball", "great_ball");
+        // Great balls broke out on their first throws; Poke balls catch about as the formula says
+        List<CaptureOutcome> samples = throwsOf("great_ball", 35, 0, 5);
+        samples.addAll(throwsOf("poke_ball", 35, 5, 15));
+        assertEquals("poke_ball", BallPolicy.from(samples).order(balls, 45, 35, 1, Status.NONE).get(0));
+
+        // Many Poke ball throws later, the great ball's estimate is still based on 5 throws: retry it
+        samples.addAll(throwsOf("poke_ball", 35, 22, 58));
+        BallPolicy policy = BallPolicy.from(samples);
+        assertEquals("great_ball", policy.order(balls, 45, 35, 1, Status.NONE).get(0));
+        assertTrue(policy.chance("great_ball", 45, 35, 1, Status.NONE) * 3 < policy.chance("poke_ball", 45, 35, 1, Status.NONE) * 4,
+                "exploring, not a better expected cost");
+    }
+}
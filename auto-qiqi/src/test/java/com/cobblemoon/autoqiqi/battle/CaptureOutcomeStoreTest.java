@@ -0,0 +1,101 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import com.cobblemoon.autoqiqi.battle.CaptureOutcome.Result;
+import com.cobblemoon.autoqiqi.battle.CaptureOutcome.Status;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaptureOutcomeStoreTest {
+
+    @Test
+    void outcomesSurviveAReloadAndATruncatedTail() throws Exception {
+        Path dir = Files.createTempDirectory("captures");
+        Path file = dir.resolve("captures.bin");
+        CaptureOutcome a = new CaptureOutcome(45, 32, 1, Status.MINOR, "great_ball", 7, Result.BROKE_OUT);
+        CaptureOutcome b = new CaptureOutcome(3, 70, 2, Status.NONE, "ultra_ball", 12, Result.CAUGHT);
+
+        CaptureOutcomeStore store = new CaptureOutcomeStore(() -> file, Runnable::run);
+        store.record(a);
+        store.record(b);
+        store.record(a.withResult(null)); // unresolved throws are not stored
+        assertEquals(2, store.outcomes().size());
+
+        assertEquals(java.util.List.of(a, b), new CaptureOutcomeStore(() -> file, Runnable::run).outcomes());
+
+        // Crash mid-write: the partial last record is dropped
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+        assertEquals(java.util.List.of(a), new CaptureOutcomeStore(() -> file, Runnable::run).outcomes());
+    }
+
+    @Test
+    void appendsAfterATruncatedTailStayAligned() throws Exception {
+        Path dir = Files.createTempDirectory("captures");
+        Path file = dir.resolve("captures.bin");
+        CaptureOutcome a = new CaptureOutcome(45, 32, 1, Status.MINOR, "great_ball", 7, Result.BROKE_OUT);
+        CaptureOutcome b = new CaptureOutcome(3, 70, 2, Status.NONE, "ultra_ball", 12, Result.CAUGHT);
+        CaptureOutcome c = new CaptureOutcome(190, 5, 40, Status.SLEEP_FREEZE, "poke_ball", 2, Result.CAUGHT);
+
+        CaptureOutcomeStore store = new CaptureOutcomeStore(() -> file, Runnable::run);
+        store.record(a);
+        store.record(b);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        // Loading cuts the partial record, so the next append starts on a record boundary
+        CaptureOutcomeStore reloaded = new CaptureOutcomeStore(() -> file, Runnable::run);
+        assertEquals(java.util.List.of(a), reloaded.outcomes());
+        reloaded.record(c);
+
+        assertEquals(java.util.List.of(a, c), new CaptureOutcomeStore(() -> file, Runnable::run).outcomes());
+        assertFalse(Files.exists(dir.resolve("captures.bin.bak")));
+    }
+
+    @Test
+    void appendsRunOnTheIoExecutorInOrder() throws Exception {
+        Path file = Files.createTempDirectory("captures").resolve("captures.bin");
+        java.util.List<Runnable> pending = new java.util.ArrayList<>();
+        CaptureOutcome a = new CaptureOutcome(45, 32, 1, Status.MINOR, "great_ball", 7, Result.BROKE_OUT);
+        CaptureOutcome b = new CaptureOutcome(3, 70, 2, Status.NONE, "ultra_ball", 12, Result.CAUGHT);
+
+        CaptureOutcomeStore store = new CaptureOutcomeStore(() -> file, pending::add);
+        store.record(a);
+        store.record(b);
+        assertEquals(java.util.List.of(a, b), store.outcomes(), "the policy sees throws before they reach disk");
+        assertFalse(Files.exists(file));
+
+        pending.forEach(Runnable::run);
+        assertEquals(java.util.List.of(a, b), new CaptureOutcomeStore(() -> file, Runnable::run).outcomes());
+    }
+
+    @Test
+    void unknownCatchRateIsStoredAsZero() throws Exception {
+        Path file = Files.createTempDirectory("captures").resolve("captures.bin");
+        CaptureOutcomeStore store = new CaptureOutcomeStore(() -> file, Runnable::run);
+        store.record(new CaptureOutcome(-1, 20, 50, Status.NONE, "poke_ball", 1, Result.CAUGHT));
+
+        CaptureOutcome read = new CaptureOutcomeStore(() -> file, Runnable::run).outcomes().get(0);
+        assertEquals(0, read.catchRate());
+        assertFalse(read.knownCatchRate());
+    }
+
+    @Test
+    void unreadableFileIsMovedAsideAndTheStoreStartsOver() throws Exception {
+        Path dir = Files.createTempDirectory("captures");
+        Path file = dir.resolve("captures.bin");
+        Files.writeString(file, "not a capture store");
+
+        CaptureOutcomeStore store = new CaptureOutcomeStore(() -> file, Runnable::run);
+        assertTrue(store.outcomes().isEmpty());
+        assertTrue(Files.exists(dir.resolve("captures.bin.bak")));
+
+        store.record(new CaptureOutcome(45, 10, 100, Status.NONE, "poke_ball", 1, Result.MISSED));
+        assertEquals(1, new CaptureOutcomeStore(() -> file, Runnable::run).outcomes().size());
+        assertNull(store.policy().order(java.util.List.of("poke_ball"), 45, 10, 100, Status.NONE));
+    }
+}
@@ -0,0 +1,64 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaptureTourTest {
+
+    /** Euclidean costs; point 0 is the player. */
+    private static double[][] costs(double[][] points) {
+        int n = points.length;
+        double[][] cost = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                cost[i][j] = Math.hypot(points[i][0] - points[j][0], points[i][1] - points[j][1]);
+            }
+        }
+        return cost;
+    }
+
+    @Test
+    void twoOptFixesTheNearestNeighbourDetour() {
+        // Player at 0 on a line, targets at 1, -2 and 4: nearest first goes 1 → -2 → 4 (10 blocks)
+        double[][] cost = costs(new double[][] {{0, 0}, {1, 0}, {-2, 0}, {4, 0}});
+        int[] greedy = CaptureTour.nearestNeighbour(cost);
+        assertArrayEquals(new int[] {0, 1, 2, 3}, greedy);
+
+        int[] order = CaptureTour.order(cost);
+        assertArrayEquals(new int[] {2, 1, 3}, order);
+        assertEquals(8.0, CaptureTour.length(order, cost), 1e-9);
+    }
+
+    @Test
+    void orderVisitsEveryTargetOnceAndNeverBeatsGreedyBackwards() {
+        Random random = new Random(46);
+        for (int round = 0; round < 50; round++) {
+            int n = 1 + random.nextInt(10);
+            double[][] points = new double[n + 1][2];
+            for (int i = 1; i <= n; i++) {
+                points[i][0] = random.nextDouble() * 160 - 80;
+                points[i][1] = random.nextDouble() * 160 - 80;
+            }
+            double[][] cost = costs(points);
+            int[] order = CaptureTour.order(cost);
+
+            int[] sorted = order.clone();
+            Arrays.sort(sorted);
+            for (int i = 0; i < n; i++) assertEquals(i + 1, sorted[i]);
+
+            int[] greedy = CaptureTour.nearestNeighbour(cost);
+            double greedyLength = CaptureTour.length(Arrays.copyOfRange(greedy, 1, greedy.length), cost);
+            assertTrue(CaptureTour.length(order, cost) <= greedyLength + 1e-9);
+        }
+    }
+
+    @Test
+    void singleTargetAndEmptyQueue() {
+        assertArrayEquals(new int[] {1}, CaptureTour.order(costs(new double[][] {{0, 0}, {5, 5}})));
+        assertArrayEquals(new int[0], CaptureTour.order(costs(new double[][] {{0, 0}})));
+    }
+}
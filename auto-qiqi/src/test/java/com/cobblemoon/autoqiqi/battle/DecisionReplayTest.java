@@ -0,0 +1,68 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionReplayTest {
+
+    private static final Gson GSON = new Gson();
+
+    private static DecisionRecord captureRecord(String recordedOutput) {
+        var session = new CaptureSessionSnapshot("Mewtwo", 70, true, false, false, 0, -1f,
+                false, 0, false, 0, null, 0, 1);
+        var battle = new BattleSnapshot("Gallade", 100f, 100f, "Mewtwo", null, true, false);
+        return new DecisionRecord(DecisionRecord.Kind.CAPTURE, 1L, 1000L,
+                new DecisionRecord.CaptureInput(session, battle, false, false), null, null, recordedOutput);
+    }
+
+    private static DecisionRecord moveRecord(String recordedOutput) {
+        var input = new TrainerStrategy.MoveInput(List.of(
+                new TrainerStrategy.MoveOption("earthquake", "ground", 100, 0, 0, 10),
+                new TrainerStrategy.MoveOption("icebeam", "ice", 90, 0, 0, 10)),
+                List.of("water"), List.of("dragon", "ground"), "garchomp", List.of(), 100f, false, false, 0);
+        return new DecisionRecord(DecisionRecord.Kind.MOVE, 2L, 1000L, null, input, null, recordedOutput);
+    }
+
+    private static List<DecisionRecord> roundTrip(DecisionRecord... records) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (DecisionRecord r : records) sb.append(GSON.toJson(r)).append('\n');
+        sb.append("{\"kind\":\"MOVE\",\"atMs\":3"); // truncated last line
+        return DecisionReplay.read(new BufferedReader(new StringReader(sb.toString())));
+    }
+
+    @Test
+    void recordsSurviveJsonRoundTripAndReplayWithoutDiffs() throws Exception {
+        DecisionRecord capture = captureRecord(null);
+        capture = captureRecord(DecisionReplay.decide(capture));
+        List<DecisionRecord> records = roundTrip(capture, moveRecord("icebeam"));
+
+        assertEquals(2, records.size());
+        DecisionReplay.Report report = DecisionReplay.replay(records, 3);
+        assertTrue(report.diffs().isEmpty(), "diffs: " + report.diffs());
+        assertEquals(6, report.decisions());
+        assertEquals(3, report.latencies().get(DecisionRecord.Kind.MOVE).length);
+    }
+
+    @Test
+    void changedDecisionIsReportedAsDiff() throws Exception {
+        DecisionReplay.Report report = DecisionReplay.replay(roundTrip(moveRecord("earthquake")), 1);
+        assertEquals(1, report.diffs().size());
+        assertEquals("earthquake", report.diffs().get(0).recorded());
+        assertEquals("icebeam", report.diffs().get(0).replayed());
+    }
+
+    @Test
+    void percentileUsesNearestRank() {
+        long[] sorted = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        assertEquals(5, DecisionReplay.percentile(sorted, 50));
+        assertEquals(10, DecisionReplay.percentile(sorted, 99));
+        assertEquals(1, DecisionReplay.percentile(sorted, 0));
+        assertEquals(0, DecisionReplay.percentile(new long[0], 50));
+    }
+}
@@ -0,0 +1,77 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveTableTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "False Swipe, falseswipe",
+            "falseswipe, falseswipe",
+            "Faux-Chage, falseswipe",
+            "Cage-Éclair, thunderwave",
+            "Soin, recover",
+            "Atterrissage, roost",
+            "Sucker Punch, suckerpunch"
+    })
+    void canonicalKeyMapsDisplayAndFrenchNames(String input, String expected) {
+        assertEquals(expected, MoveTable.canonicalKey(input));
+    }
+
+    @Test
+    void descriptorRoundTrips() {
+        int id = MoveTable.registerForTest("test-sucker-punch", MoveTable.descriptor(
+                TypeChart.typeOrdinal("dark"), 70, 1, MoveTable.CATEGORY_PHYSICAL,
+                MoveTable.flagsFor("suckerpunch", MoveTable.CATEGORY_PHYSICAL, 1)));
+
+        assertEquals("dark", MoveTable.type(id));
+        assertEquals(70, MoveTable.power(id));
+        assertEquals(1, MoveTable.priority(id));
+        assertEquals(MoveTable.CATEGORY_PHYSICAL, MoveTable.category(id));
+        assertTrue(MoveTable.has(id, MoveTable.FLAG_PRIORITY));
+        assertFalse(MoveTable.has(id, MoveTable.FLAG_STATUS | MoveTable.FLAG_RECOVERY));
+        assertTrue(MoveTable.isDamaging(id));
+        assertEquals(id, MoveTable.id("test-sucker-punch"));
+    }
+
+    @Test
+    void negativePriorityAndLargePowerFit() {
+        int id = MoveTable.registerForTest("test-trick-room", MoveTable.descriptor(
+                TypeChart.typeOrdinal("psychic"), 250, -7, MoveTable.CATEGORY_STATUS,
+                MoveTable.flagsFor("trickroom", MoveTable.CATEGORY_STATUS, -7)));
+
+        assertEquals(-7, MoveTable.priority(id));
+        assertEquals(250, MoveTable.power(id));
+        assertEquals(MoveTable.CATEGORY_STATUS, MoveTable.category(id));
+        assertTrue(MoveTable.has(id, MoveTable.FLAG_STATUS));
+        assertFalse(MoveTable.has(id, MoveTable.FLAG_PRIORITY));
+    }
+
+    @Test
+    void flagsForCaptureAndRecoveryMoves() {
+        assertTrue((MoveTable.flagsFor("falseswipe", MoveTable.CATEGORY_PHYSICAL, 0) & MoveTable.FLAG_FALSE_SWIPE) != 0);
+        assertTrue((MoveTable.flagsFor("thunderwave", MoveTable.CATEGORY_STATUS, 0) & MoveTable.FLAG_THUNDER_WAVE) != 0);
+        assertTrue((MoveTable.flagsFor("roost", MoveTable.CATEGORY_STATUS, 0) & MoveTable.FLAG_RECOVERY) != 0);
+        assertEquals(0, MoveTable.flagsFor("tackle", MoveTable.CATEGORY_PHYSICAL, 0));
+    }
+
+    @Test
+    void unknownIsNeutralNormalAttack() {
+        assertEquals(MoveTable.UNKNOWN, MoveTable.id((String) null));
+        assertEquals(MoveTable.UNKNOWN, MoveTable.id(""));
+        assertEquals("normal", MoveTable.type(MoveTable.UNKNOWN));
+        assertEquals(50, MoveTable.power(MoveTable.UNKNOWN));
+        assertEquals(0, MoveTable.priority(MoveTable.UNKNOWN));
+    }
+
+    @Test
+    void categoryNames() {
+        assertEquals(MoveTable.CATEGORY_SPECIAL, MoveTable.categoryOf("Special"));
+        assertEquals(MoveTable.CATEGORY_STATUS, MoveTable.categoryOf("status"));
+        assertEquals(MoveTable.CATEGORY_PHYSICAL, MoveTable.categoryOf(null));
+    }
+}
@@ -0,0 +1,88 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpponentSetInferenceTest {
+
+    private OpponentSetInference inference;
+
+    @BeforeEach
+    void setUp() {
+        inference = new OpponentSetInference();
+        inference.reset("Dragapult", entry());
+    }
+
+    private static SmogonData.SmogonEntry entry() {
+        LinkedHashMap<String, Double> moves = new LinkedHashMap<>();
+        moves.put("dracometeor", 40.0);
+        moves.put("shadowball", 35.0);
+        moves.put("willowisp", 10.0);
+        LinkedHashMap<String, Double> items = new LinkedHashMap<>();
+        items.put("choicespecs", 40.0);
+        items.put("choicescarf", 30.0);
+        items.put("heavydutyboots", 30.0);
+        LinkedHashMap<String, Double> abilities = new LinkedHashMap<>();
+        abilities.put("infiltrator", 70.0);
+        abilities.put("clearbody", 30.0);
+        return new SmogonData.SmogonEntry("Dragapult", List.of("CHOICE"), moves, items, abilities, List.of(),
+                List.of(new SmogonData.SpreadInfo("Timid", 0, 0, 0, 252, 4, 252)),
+                new SmogonData.SpeedInfo("Timid", 252));
+    }
+
+    @Test
+    void priorMatchesSmogonUsage() {
+        assertEquals(0.30, inference.itemProbability("Choice Scarf"), 1e-9);
+        assertEquals(0.70, inference.abilityProbability("infiltrator"), 1e-9);
+        assertTrue(inference.likelyScarfUser());
+    }
+
+    @Test
+    void statusMoveRulesOutChoiceItems() {
+        assertTrue(inference.observeMove("Will-O-Wisp", true));
+        assertTrue(inference.itemProbability("choicescarf") < 0.1);
+        assertFalse(inference.likelyScarfUser());
+        assertFalse(inference.observeMove("willowisp", true), "same move twice is not new information");
+    }
+
+    @Test
+    void revealedItemOverridesPosterior() {
+        inference.observeItem("Choice Scarf");
+        assertEquals(1.0, inference.itemProbability("choicescarf"), 1e-9);
+        assertEquals(0.0, inference.itemProbability("choicespecs"), 1e-9);
+    }
+
+    @Test
+    void estimateSpeedAppliesSpreadAndScarf() {
+        // Base 142, Timid 252 EVs, Lv.100 = 421; scarf is likely (30%) => 631
+        assertEquals(631, inference.estimateSpeed(142, 100));
+        inference.observeItem("heavydutyboots");
+        assertEquals(421, inference.estimateSpeed(142, 100));
+    }
+
+    @Test
+    void revealedMovesComeFirstInLikelyMoves() {
+        inference.observeMove("U-turn", false);
+        assertEquals(List.of("uturn", "dracometeor", "shadowball"), inference.likelyMoves());
+    }
+
+    @Test
+    void abilityImmunityNeedsEvidence() {
+        assertFalse(inference.likelyImmuneTo("ground"));
+        inference.observeAbility("Levitate");
+        assertTrue(inference.likelyImmuneTo("Ground"));
+    }
+
+    @Test
+    void unknownSpeciesHasNoData() {
+        inference.reset("missingno", null);
+        assertFalse(inference.hasData());
+        assertFalse(inference.likelyScarfUser());
+        assertEquals(-1, inference.estimateSpeed(0, 100));
+    }
+}
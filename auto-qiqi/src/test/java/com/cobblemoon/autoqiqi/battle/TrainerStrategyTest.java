@@ -0,0 +1,91 @@
+package com.cobblemoon.autoqiqi.battle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainerStrategyTest {
+
+    private static TrainerStrategy.MoveOption move(String name, String type, int power, int priority, int flags, int pp) {
+        return new TrainerStrategy.MoveOption(name, type, power, priority, flags, pp);
+    }
+
+    private static TrainerStrategy.MoveInput input(List<TrainerStrategy.MoveOption> moves, List<String> oppTypes,
+                                                   float myHp, boolean justSwitched) {
+        return new TrainerStrategy.MoveInput(moves, List.of("water"), oppTypes, "garchomp", List.of(),
+                myHp, false, justSwitched, 0);
+    }
+
+    @Test
+    void picksSuperEffectiveStabOverRawPower() {
+        var moves = List.of(
+                move("earthquake", "ground", 100, 0, 0, 10),
+                move("icebeam", "ice", 90, 0, 0, 10),
+                move("surf", "water", 90, 0, 0, 10));
+        var d = TrainerStrategy.chooseMove(input(moves, List.of("dragon", "ground"), 100, false));
+        assertEquals(1, d.index());
+        assertEquals(90 * 4.0, d.score(), 1e-9);
+    }
+
+    @Test
+    void skipsMovesWithoutPp() {
+        var moves = List.of(
+                move("icebeam", "ice", 90, 0, 0, 0),
+                move("surf", "water", 90, 0, 0, 5));
+        assertEquals(1, TrainerStrategy.chooseMove(input(moves, List.of("dragon", "ground"), 100, false)).index());
+    }
+
+    @Test
+    void lowHpPrefersRecovery() {
+        var moves = List.of(
+                move("icebeam", "ice", 90, 0, 0, 10),
+                move("recover", "normal", 0, 0, MoveTable.FLAG_RECOVERY | MoveTable.FLAG_STATUS, 5));
+        assertEquals(1, TrainerStrategy.chooseMove(input(moves, List.of("dragon"), 30, false)).index());
+        assertEquals(0, TrainerStrategy.chooseMove(input(moves, List.of("dragon"), 80, false)).index());
+    }
+
+    @Test
+    void firstAttackAfterSwitchPrefersUnresistedPriority() {
+        var moves = List.of(
+                move("icebeam", "ice", 90, 0, 0, 10),
+                move("iceshard", "ice", 40, 1, MoveTable.FLAG_PRIORITY, 10));
+        var d = TrainerStrategy.chooseMove(input(moves, List.of("dragon"), 100, true));
+        assertEquals(1, d.index());
+        assertTrue(d.switchPriorityConsumed());
+    }
+
+    @Test
+    void inferredImmunityZeroesEffectiveness() {
+        var moves = List.of(
+                move("earthquake", "ground", 100, 0, 0, 10),
+                move("surf", "water", 90, 0, 0, 10));
+        var in = new TrainerStrategy.MoveInput(moves, List.of(), List.of("electric"), "rotomwash",
+                List.of("ground"), 100, false, false, 0);
+        // Rotom is a cycle-moves species: first damaging move by name
+        assertEquals(0, TrainerStrategy.chooseMove(in).index());
+
+        var levitating = new TrainerStrategy.MoveInput(moves, List.of(), List.of("electric"), "magnezone",
+                List.of("ground"), 100, false, false, 0);
+        assertEquals(1, TrainerStrategy.chooseMove(levitating).index());
+    }
+
+    @Test
+    void switchPicksBestNonFaintedMatchup() {
+        var opp = new PartyMatchupCache.OpponentContext("garchomp", List.of("dragon", "ground"),
+                List.of(), List.of(), 102);
+        var weavile = new TrainerStrategy.PartyMember("Weavile", "weavile", List.of("dark", "ice"), 100, 125,
+                List.of(move("iceshard", "ice", 40, 1, MoveTable.FLAG_PRIORITY, 10)));
+        var fainted = new TrainerStrategy.PartyMember("Mamoswine", "mamoswine", List.of("ice", "ground"), 0, 80,
+                List.of(move("iciclecrash", "ice", 85, 0, 0, 10)));
+        var blissey = new TrainerStrategy.PartyMember("Blissey", "blissey", List.of("normal"), 100, 55, null);
+
+        var scored = List.of(
+                TrainerStrategy.scoreMatchup(fainted, opp),
+                TrainerStrategy.scoreMatchup(blissey, opp),
+                TrainerStrategy.scoreMatchup(weavile, opp));
+        assertEquals(2, TrainerStrategy.chooseSwitch(scored));
+        assertEquals(40 * 4.0 * 1.5, scored.get(2).offensive(), 1e-9);
+    }
+}
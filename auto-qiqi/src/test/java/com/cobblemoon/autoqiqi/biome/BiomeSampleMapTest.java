@@ -0,0 +1,81 @@
+package com.cobblemoon.autoqiqi.biome;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BiomeSampleMapTest {
+
+    @Test
+    void keepsTheSampleNearestToTheSweepOrigin() {
+        BiomeSampleMap map = new BiomeSampleMap();
+        map.beginSweep(0, 0);
+        map.add("minecraft:jungle", 200, 0);
+        map.add("minecraft:jungle", 40, 24);
+        map.add("minecraft:desert", -100, 0);
+        map.add("minecraft:jungle", 120, 0);
+        assertEquals(2, map.endSweep());
+
+        BiomeSampleMap.Sample jungle = map.seen().get("minecraft:jungle");
+        assertEquals(40, jungle.x());
+        assertEquals(24, jungle.z());
+    }
+
+    @Test
+    void closestTargetIgnoresFoundAndNoLongerLoadedBiomes() {
+        BiomeSampleMap map = new BiomeSampleMap();
+        map.beginSweep(0, 0);
+        map.add("minecraft:jungle", 50, 0);
+        map.add("minecraft:desert", -20, 0);
+        map.endSweep();
+        List<String> targets = List.of("minecraft:jungle", "minecraft:desert", "minecraft:badlands");
+
+        assertEquals("minecraft:desert", map.closestTarget(targets, Set.of(), 0, 0).biomeId());
+        assertEquals("minecraft:jungle", map.closestTarget(targets, Set.of("minecraft:desert"), 0, 0).biomeId());
+        // From further east the jungle is closer
+        assertEquals("minecraft:jungle", map.closestTarget(targets, Set.of(), 60, 0).biomeId());
+
+        // Next sweep no longer sees the desert: still known for the session, but not a target
+        map.beginSweep(400, 0);
+        map.add("minecraft:jungle", 420, 0);
+        map.endSweep();
+        assertTrue(map.seen().containsKey("minecraft:desert"));
+        assertEquals("minecraft:jungle", map.closestTarget(targets, Set.of(), 0, 0).biomeId());
+        assertNull(map.closestTarget(targets, Set.of("minecraft:jungle"), 0, 0));
+    }
+
+    @Test
+    void rejectedChunkIsSkippedUntilClear() {
+        BiomeSampleMap map = new BiomeSampleMap();
+        map.beginSweep(0, 0);
+        map.add("minecraft:jungle", 40, 40);
+        map.add("minecraft:jungle", 100, 100);
+        map.endSweep();
+        BiomeSampleMap.Sample wrong = map.closestTarget(List.of("minecraft:jungle"), Set.of(), 0, 0);
+        map.reject(wrong);
+        assertNull(map.closestTarget(List.of("minecraft:jungle"), Set.of(), 0, 0));
+
+        map.beginSweep(0, 0);
+        map.add("minecraft:jungle", 44, 36); // same chunk as the rejected sample
+        map.add("minecraft:jungle", 100, 100);
+        map.endSweep();
+        assertEquals(100, map.closestTarget(List.of("minecraft:jungle"), Set.of(), 0, 0).x());
+
+        map.clear();
+        assertEquals(0, map.sweeps());
+        assertTrue(map.seen().isEmpty());
+        map.add("minecraft:jungle", 0, 0); // outside a sweep
+        assertEquals(0, map.endSweep());
+    }
+
+    @Test
+    void yawFollowsMinecraftConvention() {
+        assertEquals(0f, BiomeSampleMap.yawTowards(0, 0, 0, 10), 1e-4);    // south (+Z)
+        assertEquals(90f, BiomeSampleMap.yawTowards(0, 0, -10, 0), 1e-4);  // west (-X)
+        assertEquals(-90f, BiomeSampleMap.yawTowards(0, 0, 10, 0), 1e-4);  // east (+X)
+        assertEquals(180f, Math.abs(BiomeSampleMap.yawTowards(0, 0, 0, -10)), 1e-4); // north
+    }
+}
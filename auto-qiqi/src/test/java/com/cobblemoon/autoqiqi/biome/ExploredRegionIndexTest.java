@@ -0,0 +1,104 @@
+package com.cobblemoon.autoqiqi.biome;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExploredRegionIndexTest {
+
+    @Test
+    void visitedChunksAndBiomesSurviveAReopen() throws Exception {
+        Path file = Files.createTempDirectory("explored").resolve("world.aqex");
+        try (ExploredRegionIndex index = ExploredRegionIndex.open(file)) {
+            assertTrue(index.mark(0, 0, "minecraft:plains"));
+            assertTrue(index.mark(-1, -33, "minecraft:jungle"));
+            assertTrue(index.mark(31, 31, null));
+            assertFalse(index.mark(0, 0, "minecraft:desert")); // already visited, biome updated
+            assertEquals(3, index.visitedChunks());
+            assertEquals(2, index.regions());
+        }
+
+        try (ExploredRegionIndex index = ExploredRegionIndex.open(file)) {
+            assertEquals(3, index.visitedChunks());
+            assertTrue(index.isVisited(-1, -33));
+            assertFalse(index.isVisited(-1, -32));
+            assertFalse(index.isVisited(1000, 1000));
+            assertEquals("minecraft:desert", index.biomeAt(0, 0));
+            assertEquals("minecraft:jungle", index.biomeAt(-1, -33));
+            assertNull(index.biomeAt(31, 31));
+            assertEquals(3, index.biomes().size());
+        }
+    }
+
+    @Test
+    void growsPastItsInitialCapacityAndStaysCompact() throws Exception {
+        Path file = Files.createTempDirectory("explored").resolve("world.aqex");
+        try (ExploredRegionIndex index = ExploredRegionIndex.open(file)) {
+            // 40 × 40 regions with every chunk visited: 1.6 million chunks
+            for (int rz = -20; rz < 20; rz++) {
+                for (int rx = -20; rx < 20; rx++) {
+                    for (int c = 0; c < 1024; c++) {
+                        index.mark(rx * 32 + (c & 31), rz * 32 + (c >> 5), (rx & 1) == 0 ? "a:even" : "a:odd");
+                    }
+                }
+            }
+            assertEquals(1_638_400, index.visitedChunks());
+            assertEquals(1600, index.regions());
+            assertTrue(index.usedBytes() < 4 * 1024 * 1024, "used " + index.usedBytes());
+        }
+        assertTrue(Files.size(file) < 8 * 1024 * 1024, "file " + Files.size(file));
+
+        try (ExploredRegionIndex index = ExploredRegionIndex.open(file)) {
+            assertEquals(1_638_400, index.visitedChunks());
+            assertEquals("a:odd", index.biomeAt(-608, 600));
+            assertEquals(1.0, index.coverage(0, 0, 8), 1e-9);
+            assertEquals(0.0, index.coverage(5000, 5000, 2), 1e-9);
+        }
+    }
+
+    @Test
+    void headingPrefersUnexploredSpace() throws Exception {
+        Path file = Files.createTempDirectory("explored").resolve("world.aqex");
+        try (ExploredRegionIndex index = ExploredRegionIndex.open(file)) {
+            // Everything explored except the +X half-plane (east, yaw -90)
+            for (int cz = -80; cz <= 80; cz++) {
+                for (int cx = -80; cx <= 0; cx++) index.mark(cx, cz, null);
+            }
+            Random random = new Random(50);
+            for (int i = 0; i < 20; i++) {
+                float yaw = index.leastExploredHeading(8, 8, 12, 1024, random);
+                assertTrue(yaw >= -180 && yaw <= 180);
+                double dirX = -Math.sin(Math.toRadians(yaw));
+                assertTrue(dirX > 0, "yaw " + yaw);
+            }
+        }
+    }
+
+    @Test
+    void newIndexDropsAStalePalette() throws Exception {
+        Path file = Files.createTempDirectory("explored").resolve("world.aqex");
+        Files.writeString(file.resolveSibling("world.aqex.palette"), "minecraft:ocean\nminecraft:desert\n");
+        Files.createFile(file); // empty index, e.g. left by a crash before the header was written
+        try (ExploredRegionIndex index = ExploredRegionIndex.open(file)) {
+            index.mark(0, 0, "minecraft:plains");
+            assertEquals(Set.of("minecraft:plains"), index.biomes());
+        }
+        try (ExploredRegionIndex index = ExploredRegionIndex.open(file)) {
+            assertEquals("minecraft:plains", index.biomeAt(0, 0));
+        }
+    }
+
+    @Test
+    void unreadableFileIsRejectedAndLeftAsIs() throws Exception {
+        Path file = Files.createTempDirectory("explored").resolve("world.aqex");
+        Files.writeString(file, "not an explored index");
+        assertThrows(IOException.class, () -> ExploredRegionIndex.open(file));
+        assertEquals("not an explored index", Files.readString(file));
+    }
+}
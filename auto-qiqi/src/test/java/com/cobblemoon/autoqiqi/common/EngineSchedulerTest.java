@@ -0,0 +1,111 @@
+package com.cobblemoon.autoqiqi.common;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EngineSchedulerTest {
+
+    private static final long MS = 1_000_000L;
+
+    private long now;
+    private EngineScheduler scheduler;
+    private List<String> ran;
+
+    @BeforeEach
+    void setUp() {
+        now = 0;
+        scheduler = new EngineScheduler(() -> now);
+        ran = new ArrayList<>();
+    }
+
+    private EngineScheduler.TickTask task(String name, long costNanos) {
+        return () -> {
+            ran.add(name);
+            now += costNanos;
+        };
+    }
+
+    @Test
+    void runsInPriorityThenRegistrationOrder() {
+        scheduler.register("scan", EngineScheduler.Priority.DEFERRABLE, 1, task("scan", 0));
+        scheduler.register("hop", EngineScheduler.Priority.NORMAL, 1, task("hop", 0));
+        scheduler.register("capture", EngineScheduler.Priority.CRITICAL, 1, task("capture", 0));
+        scheduler.register("battle", EngineScheduler.Priority.CRITICAL, 1, task("battle", 0));
+
+        scheduler.runTick(5 * MS);
+        assertEquals(List.of("capture", "battle", "hop", "scan"), ran);
+    }
+
+    @Test
+    void honorsPeriodAndInitialDelay() {
+        scheduler.register("every3", EngineScheduler.Priority.NORMAL, 3, task("every3", 0));
+        scheduler.register("delayed", EngineScheduler.Priority.NORMAL, 5, 5, task("delayed", 0));
+
+        for (int i = 0; i < 10; i++) scheduler.runTick(5 * MS);
+        assertEquals(4, ran.stream().filter("every3"::equals).count()); // ticks 1, 4, 7, 10
+        assertEquals(2, ran.stream().filter("delayed"::equals).count()); // ticks 5, 10
+    }
+
+    @Test
+    void defersOnlyDeferrableEnginesWhenOverBudget() {
+        scheduler.register("heavy", EngineScheduler.Priority.CRITICAL, 1, task("heavy", 6 * MS));
+        scheduler.register("hop", EngineScheduler.Priority.NORMAL, 1, task("hop", 0));
+        scheduler.register("predict", EngineScheduler.Priority.DEFERRABLE, 1, task("predict", 0));
+
+        scheduler.runTick(5 * MS);
+        assertEquals(List.of("heavy", "hop"), ran);
+        assertEquals(1, scheduler.overBudgetTicks());
+
+        EngineScheduler.EngineStats predict = scheduler.stats().stream()
+                .filter(s -> s.name().equals("predict")).findFirst().orElseThrow();
+        assertEquals(1, predict.deferrals());
+        assertEquals(0, predict.runs());
+    }
+
+    @Test
+    void deferredEngineRunsAfterMaxDeferrals() {
+        scheduler.register("heavy", EngineScheduler.Priority.CRITICAL, 1, task("heavy", 6 * MS));
+        scheduler.register("predict", EngineScheduler.Priority.DEFERRABLE, 1, task("predict", 0));
+
+        for (int i = 0; i < EngineScheduler.MAX_DEFERRED_TICKS; i++) scheduler.runTick(5 * MS);
+        assertFalse(ran.contains("predict"));
+        scheduler.runTick(5 * MS);
+        assertTrue(ran.contains("predict"));
+    }
+
+    @Test
+    void failingEngineDoesNotStopTheOthers() {
+        List<String> reported = new ArrayList<>();
+        scheduler.setFailureListener((engine, error) -> reported.add(engine.name() + ":" + error.getMessage()));
+        scheduler.register("broken", EngineScheduler.Priority.CRITICAL, 1, () -> {
+            throw new IllegalStateException("boom");
+        });
+        scheduler.register("hop", EngineScheduler.Priority.NORMAL, 1, task("hop", 0));
+
+        for (int i = 0; i < EngineScheduler.FAILURE_REPORT_EVERY + 1; i++) scheduler.runTick(5 * MS);
+        assertEquals(EngineScheduler.FAILURE_REPORT_EVERY + 1, ran.size());
+        assertEquals(List.of("broken:boom", "broken:boom"), reported);
+
+        EngineScheduler.EngineStats broken = scheduler.stats().stream()
+                .filter(s -> s.name().equals("broken")).findFirst().orElseThrow();
+        assertEquals(EngineScheduler.FAILURE_REPORT_EVERY + 1, broken.failures());
+        assertEquals(EngineScheduler.FAILURE_REPORT_EVERY + 1, broken.runs());
+    }
+
+    @Test
+    void statsSortedByAverageCost() {
+        scheduler.register("cheap", EngineScheduler.Priority.NORMAL, 1, task("cheap", 10_000));
+        scheduler.register("costly", EngineScheduler.Priority.NORMAL, 1, task("costly", 2 * MS));
+
+        scheduler.runTick(50 * MS);
+        List<EngineScheduler.EngineStats> stats = scheduler.stats();
+        assertEquals("costly", stats.get(0).name());
+        assertEquals(2 * MS, stats.get(0).maxNanos());
+        assertEquals(1, stats.get(1).runs());
+    }
+}
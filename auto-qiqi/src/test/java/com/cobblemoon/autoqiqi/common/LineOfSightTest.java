@@ -0,0 +1,68 @@
+package com.cobblemoon.autoqiqi.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineOfSightTest {
+
+    private static final int GROUND = 64;
+    private static final double EYE_Y = GROUND + 1 + 1.62;
+    private static final double[] OFFSETS = {0.5, 1.0, 1.5, 2.0, 2.5, 3.0};
+
+    /** Flat ground; the player stands at x=8.5 z=2.5 and looks south at a target at z=12.5. */
+    private static VoxelGrid field() {
+        VoxelGrid g = new VoxelGrid(0, GROUND - 2, 0, 16, 8, 16);
+        g.fill(0, GROUND - 2, 0, 15, GROUND, 15, VoxelGrid.SOLID);
+        return g;
+    }
+
+    @Test
+    void voxelTraversalStopsAtSolidBlocksExceptAtTheVeryEnd() {
+        VoxelGrid g = field();
+        assertTrue(LineOfSight.isClear(g, 8.5, EYE_Y, 2.5, 8.5, GROUND + 1.5, 12.5));
+
+        g.fill(7, GROUND + 1, 7, 9, GROUND + 3, 7, VoxelGrid.SOLID);
+        assertFalse(LineOfSight.isClear(g, 8.5, EYE_Y, 2.5, 8.5, GROUND + 1.5, 12.5));
+        assertFalse(LineOfSight.isClear(g, 8.5, EYE_Y, 2.5, 10.5, GROUND + 1.5, 12.5)); // diagonal through x=9
+
+        VoxelGrid far = new VoxelGrid(0, GROUND - 2, 0, 16, 8, 32);
+        far.set(8, GROUND + 1, 22, VoxelGrid.SOLID); // entered at 97.5 % of a 20-block line: tolerated
+        assertTrue(LineOfSight.isClear(far, 8.5, EYE_Y, 2.5, 8.5, GROUND + 1.5, 22.5));
+        far.set(8, GROUND + 1, 21, VoxelGrid.SOLID);
+        assertFalse(LineOfSight.isClear(far, 8.5, EYE_Y, 2.5, 8.5, GROUND + 1.5, 22.5));
+    }
+
+    @Test
+    void segmentEntersBoxAtItsNearFace() {
+        assertEquals(0.25, LineOfSight.segmentEntersBox(0, 0, 0, 8, 0, 0, 2, -1, -1, 3, 1, 1), 1e-9);
+        assertEquals(-1.0, LineOfSight.segmentEntersBox(0, 2, 0, 8, 2, 0, 2, -1, -1, 3, 1, 1));
+        assertEquals(-1.0, LineOfSight.segmentEntersBox(0, 0, 0, 1, 0, 0, 2, -1, -1, 3, 1, 1)); // ends before
+    }
+
+    @Test
+    void segmentStartingInsideABoxIgnoresIt() {
+        // Eye inside our own Pokemon's box: it must not block the line, like Box.raycast
+        assertEquals(-1.0, LineOfSight.segmentEntersBox(2.5, 0, 0, 8, 0, 0, 2, -1, -1, 3, 1, 1));
+        assertEquals(-1.0, LineOfSight.segmentEntersBox(2, 0, 0, 8, 0, 0, 2, -1, -1, 3, 1, 1)); // on the face
+    }
+
+    @Test
+    void sidewaysSearchFindsNearestClearSideAndSkipsWalls() {
+        VoxelGrid g = field();
+        g.fill(7, GROUND + 1, 4, 9, GROUND + 3, 4, VoxelGrid.SOLID); // wall just ahead, x=7..9
+        LineOfSight.LineTest blocks = (x, y, z) -> LineOfSight.isClear(g, x, y, z, 8.5, GROUND + 1.5, 12.5);
+
+        // Facing south, left is east (+x); both sides clear at the same offset and left is tried first
+        double offset = LineOfSight.nearestClearOffset(g, 8.5, EYE_Y, 2.5, 1.62, 8.5, 12.5, OFFSETS, blocks);
+        assertTrue(offset > 0, "expected left, got " + offset);
+
+        // A pillar right beside the player on the left: only the right side remains
+        g.fill(10, GROUND + 1, 2, 10, GROUND + 3, 2, VoxelGrid.SOLID);
+        offset = LineOfSight.nearestClearOffset(g, 8.5, EYE_Y, 2.5, 1.62, 8.5, 12.5, OFFSETS, blocks);
+        assertTrue(offset < 0, "expected right, got " + offset);
+
+        assertEquals(0.0, LineOfSight.nearestClearOffset(g, 8.5, EYE_Y, 2.5, 1.62, 8.5, 12.5, OFFSETS,
+                (x, y, z) -> false));
+    }
+}
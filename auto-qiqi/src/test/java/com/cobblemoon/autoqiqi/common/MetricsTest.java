@@ -0,0 +1,82 @@
+package com.cobblemoon.autoqiqi.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+
+    @Test
+    void bucketsAreMonotonicAndBoundTheirValues() {
+        int prev = -1;
+        for (long v = 0; v < 100_000; v += 7) {
+            int idx = Metrics.Histogram.bucketIndex(v);
+            assertTrue(idx >= prev, "index decreased at " + v);
+            assertTrue(Metrics.Histogram.bucketUpperBound(idx) >= v, "upper bound below value " + v);
+            prev = idx;
+        }
+        assertEquals(Long.MAX_VALUE, Metrics.Histogram.bucketUpperBound(Metrics.Histogram.bucketIndex(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void percentilesWithinRelativeError() {
+        Metrics.Histogram h = new Metrics.Histogram();
+        for (long v = 1; v <= 1000; v++) h.record(v * 1_000); // 1µs .. 1ms
+
+        assertEquals(1000, h.count());
+        assertEquals(1_000_000, h.max());
+        assertEquals(500_000, h.percentile(50), 500_000 / Metrics.Histogram.SUB_BUCKETS);
+        assertEquals(990_000, h.percentile(99), 990_000 / Metrics.Histogram.SUB_BUCKETS);
+        assertEquals(1_000_000, h.percentile(100));
+        assertEquals(500_500, h.mean(), 1e-6);
+    }
+
+    @Test
+    void emptyAndResetHistogramsReportZero() {
+        Metrics.Histogram h = new Metrics.Histogram();
+        assertEquals(0, h.percentile(99));
+        h.record(42);
+        h.record(-5); // clamped
+        assertEquals(2, h.count());
+        h.reset();
+        assertEquals(0, h.count());
+        assertEquals(0, h.max());
+    }
+
+    @Test
+    void concurrentRecordingLosesNothing() throws Exception {
+        Metrics.Histogram h = new Metrics.Histogram();
+        Metrics.Counter c = Metrics.counter("test.concurrent");
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    h.record(i);
+                    c.increment();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(40_000, h.count());
+        assertEquals(9_999, h.max());
+        assertEquals(40_000, c.get());
+    }
+
+    @Test
+    void registryReturnsSameInstancesAndReportsThem() {
+        assertSame(Metrics.histogram("test.same"), Metrics.histogram("test.same"));
+        Metrics.histogram("test.report").record(2_000);
+        Metrics.gauge("test.gauge", () -> 7);
+        Metrics.gauge("test.broken", () -> { throw new IllegalStateException(); });
+
+        assertTrue(Metrics.report().stream().anyMatch(l -> l.startsWith("test.report n=1")));
+        assertTrue(Metrics.report().contains("test.gauge=7"));
+        assertTrue(Metrics.report().contains("test.broken=0"));
+        assertTrue(MetricsCsvDumper.rows(5).contains("5,test.report,histogram,1,"));
+    }
+}
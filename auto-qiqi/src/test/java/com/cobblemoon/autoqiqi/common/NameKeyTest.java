@@ -0,0 +1,22 @@
+package com.cobblemoon.autoqiqi.common;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameKeyTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "U-turn, uturn",
+            "Choice Scarf, choicescarf",
+            "King's Rock, kingsrock",
+            "Lévitation, levitation",
+            "Swords Dance, swordsdance",
+    })
+    void normalizesMoveItemAndAbilityNames(String input, String expected) {
+        assertEquals(expected, NameKey.of(input));
+        assertSame(NameKey.of(input), NameKey.of(expected));
+    }
+}
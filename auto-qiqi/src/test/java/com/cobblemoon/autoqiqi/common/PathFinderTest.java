@@ -0,0 +1,88 @@
+package com.cobblemoon.autoqiqi.common;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathFinderTest {
+
+    private static final int GROUND = 64;
+
+    private static VoxelGrid flat(int size) {
+        VoxelGrid g = new VoxelGrid(0, GROUND - 4, 0, size, 12, size);
+        g.fill(0, GROUND - 4, 0, size - 1, GROUND, size - 1, VoxelGrid.SOLID);
+        return g;
+    }
+
+    private static Vec3d last(List<Vec3d> path) {
+        return path.get(path.size() - 1);
+    }
+
+    @Test
+    void packingMatchesBlockPosLayout() {
+        int[][] coords = {{0, 0, 0}, {-1, -64, -1}, {29_999_999, 319, -29_999_999}, {123, -5, -456}};
+        for (int[] c : coords) {
+            long packed = BlockGrid.pack(c[0], c[1], c[2]);
+            assertEquals(BlockPos.asLong(c[0], c[1], c[2]), packed);
+            assertEquals(c[0], BlockGrid.unpackX(packed));
+            assertEquals(c[1], BlockGrid.unpackY(packed));
+            assertEquals(c[2], BlockGrid.unpackZ(packed));
+        }
+        assertEquals(BlockGrid.pack(4, 60, -3), BlockGrid.offset(BlockGrid.pack(5, 61, -5), -1, -1, 2));
+    }
+
+    @Test
+    void walksAcrossFlatGround() {
+        List<Vec3d> path = new PathFinder(flat(32)).findPath(new BlockPos(2, GROUND + 1, 2), new BlockPos(20, GROUND + 1, 2), 1.0);
+        assertNotNull(path);
+        assertEquals(20.5, last(path).x, 1.0);
+        assertEquals(GROUND + 1, last(path).y, 1e-9);
+    }
+
+    @Test
+    void goesAroundWallThroughGap() {
+        VoxelGrid g = flat(32);
+        g.fill(10, GROUND + 1, 0, 10, GROUND + 3, 31, VoxelGrid.SOLID);
+        g.fill(10, GROUND + 1, 25, 10, GROUND + 3, 25, VoxelGrid.AIR); // gap at z=25
+
+        List<Vec3d> path = new PathFinder(g).findPath(new BlockPos(5, GROUND + 1, 5), new BlockPos(15, GROUND + 1, 5), 1.0);
+        assertNotNull(path);
+        assertTrue(path.stream().anyMatch(p -> Math.abs(p.x - 10.5) < 0.01 && Math.abs(p.z - 25.5) < 0.01),
+                "path should cross the wall at the gap: " + path);
+    }
+
+    @Test
+    void climbsOneBlockStep() {
+        VoxelGrid g = flat(32);
+        g.fill(12, GROUND + 1, 0, 31, GROUND + 1, 31, VoxelGrid.SOLID);
+
+        List<Vec3d> path = new PathFinder(g).findPath(new BlockPos(5, GROUND + 1, 5), new BlockPos(20, GROUND + 2, 5), 1.0);
+        assertNotNull(path);
+        assertEquals(GROUND + 2, last(path).y, 1e-9);
+    }
+
+    @Test
+    void voxelFileRoundTripAndCopy() throws Exception {
+        VoxelGrid g = flat(16);
+        g.set(3, GROUND + 1, 3, VoxelGrid.LIQUID);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        g.write(out);
+        VoxelGrid read = VoxelGrid.read(new ByteArrayInputStream(out.toByteArray()));
+        assertTrue(read.isSolid(BlockGrid.pack(0, GROUND, 0)));
+        assertTrue(read.isLiquid(BlockGrid.pack(3, GROUND + 1, 3)));
+        assertTrue(read.isPassable(BlockGrid.pack(3, GROUND + 1, 3)));
+        assertTrue(read.isPassable(BlockGrid.pack(-100, GROUND, 0))); // outside reads as air
+
+        VoxelGrid copy = VoxelGrid.copyOf(read, 2, GROUND, 2, 4, GROUND + 1, 4);
+        assertEquals(3, copy.sizeX());
+        assertEquals(VoxelGrid.SOLID, copy.get(2, GROUND, 2));
+        assertEquals(VoxelGrid.LIQUID, copy.get(3, GROUND + 1, 3));
+    }
+}
@@ -0,0 +1,44 @@
+package com.cobblemoon.autoqiqi.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpeciesKeyTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "Heatran, heatran",
+            "Great Tusk, greattusk",
+            "Type: Null, typenull",
+            "type_null, typenull",
+            "Ho-Oh, hooh",
+            "Porygon2, porygon2",
+            "Évoli, evoli",
+            "Nidoran♀, nidoran",
+            "Flabébé, flabebe",
+    })
+    void normalizesNames(String input, String expected) {
+        assertEquals(expected, SpeciesKey.of(input));
+    }
+
+    @Test
+    void nullAndEmptyMapToEmptyKey() {
+        assertEquals("", SpeciesKey.of((String) null));
+        assertEquals("", SpeciesKey.of(""));
+    }
+
+    @Test
+    void keysAreInterned() {
+        assertSame(SpeciesKey.of("Ho-Oh"), SpeciesKey.of("ho oh"));
+        assertSame(SpeciesKey.of("Great Tusk"), SpeciesKey.of(new String("greattusk")));
+    }
+
+    @Test
+    void sameComparesNormalizedKeys() {
+        assertTrue(SpeciesKey.same("Mr. Mime", "mrmime"));
+        assertFalse(SpeciesKey.same("Rotom", "Heatran"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.cobblemoon.autoqiqi.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThrowPositionSolverTest {
+
+    private static final int GROUND = 64;
+    private static final double EYE = 1.62;
+    private static final double TARGET_X = 12.5, TARGET_Y = GROUND + 1.5, TARGET_Z = 12.5;
+
+    /** Flat 24×24 ground with the target in the middle. */
+    private static VoxelGrid field() {
+        VoxelGrid g = new VoxelGrid(0, GROUND - 2, 0, 24, 8, 24);
+        g.fill(0, GROUND - 2, 0, 23, GROUND, 23, VoxelGrid.SOLID);
+        return g;
+    }
+
+    private static double horizontal(double x, double z) {
+        return Math.hypot(x - TARGET_X, z - TARGET_Z);
+    }
+
+    @Test
+    void tooCloseStepsBackToTheRingOnTheSameSide() {
+        VoxelGrid g = field();
+        ThrowPositionSolver.Spot spot = ThrowPositionSolver.solve(g, 12.5, GROUND + 1, 10.5, EYE,
+                TARGET_X, TARGET_Y, TARGET_Z, 4.5, 5.5, (x, y, z) -> true);
+
+        assertNotNull(spot);
+        assertEquals(GROUND + 1, spot.y(), 1e-9);
+        assertTrue(horizontal(spot.x(), spot.z()) >= 4.5 - 1e-9 && horizontal(spot.x(), spot.z()) <= 5.5 + 1e-9);
+        assertTrue(spot.z() < TARGET_Z, "expected a spot on the player's side, got z=" + spot.z());
+        assertTrue(spot.cost() < 4.5, "expected a short walk, cost=" + spot.cost());
+    }
+
+    @Test
+    void wallInTheWayPicksAVisibleSpotReachableInAStraightLine() {
+        VoxelGrid g = field();
+        g.fill(9, GROUND + 1, 9, 16, GROUND + 3, 9, VoxelGrid.SOLID); // wall between player and target
+        double px = 12.5, pz = 5.5;
+        assertFalse(LineOfSight.isClear(g, px, GROUND + 1 + EYE, pz, TARGET_X, TARGET_Y, TARGET_Z));
+
+        ThrowPositionSolver.Spot spot = ThrowPositionSolver.solve(g, px, GROUND + 1, pz, EYE,
+                TARGET_X, TARGET_Y, TARGET_Z, 4.5, 5.5, (x, y, z) -> true);
+
+        assertNotNull(spot);
+        assertTrue(LineOfSight.isClear(g, spot.x(), spot.y() + EYE, spot.z(), TARGET_X, TARGET_Y, TARGET_Z));
+        assertTrue(spot.x() < 9 || spot.x() >= 17, "straight walk must go around the wall, got x=" + spot.x());
+    }
+
+    @Test
+    void entityTestAndUnstandableGroundRejectCandidates() {
+        VoxelGrid g = field();
+        assertNull(ThrowPositionSolver.solve(g, 12.5, GROUND + 1, 5.5, EYE,
+                TARGET_X, TARGET_Y, TARGET_Z, 4.5, 5.5, (x, y, z) -> false));
+
+        // Player boxed in by 3-high walls: every straight walk hits a wall
+        g.fill(10, GROUND + 1, 3, 15, GROUND + 3, 3, VoxelGrid.SOLID);
+        g.fill(10, GROUND + 1, 8, 15, GROUND + 3, 8, VoxelGrid.SOLID);
+        g.fill(10, GROUND + 1, 3, 10, GROUND + 3, 8, VoxelGrid.SOLID);
+        g.fill(15, GROUND + 1, 3, 15, GROUND + 3, 8, VoxelGrid.SOLID);
+        assertNull(ThrowPositionSolver.solve(g, 12.5, GROUND + 1, 5.5, EYE,
+                TARGET_X, TARGET_Y, TARGET_Z, 4.5, 5.5, (x, y, z) -> true));
+
+        // One-block steps down and up are walkable
+        assertEquals(GROUND + 1, ThrowPositionSolver.standY(field(), 0, GROUND + 2, 0));
+        VoxelGrid step = field();
+        step.set(5, GROUND + 1, 5, VoxelGrid.SOLID);
+        assertEquals(GROUND + 2, ThrowPositionSolver.standY(step, 5, GROUND + 1, 5));
+    }
+}
@@ -0,0 +1,68 @@
+package com.cobblemoon.autoqiqi.legendary.autohop;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfirmPlannerTest {
+
+    /** A world whose best EV over all times is its best outcome at the spawn hour. */
+    private static ConfirmPlanner.Candidate world(String name, double... outcomes) {
+        double best = 0;
+        for (double o : outcomes) best = Math.max(best, o);
+        return new ConfirmPlanner.Candidate(name, outcomes.length > 0 ? outcomes[0] : 0, best, outcomes);
+    }
+
+    @Test
+    void valueOfInformationIsExpectedGainOverBaseline() {
+        assertEquals(10.0, ConfirmPlanner.valueOfInformation(world("a", 0, 30, 60), 30), 1e-9);
+        assertEquals(0.0, ConfirmPlanner.valueOfInformation(world("b", 10, 20, 30), 30), 1e-9);
+        assertEquals(Double.POSITIVE_INFINITY, ConfirmPlanner.valueOfInformation(world("c"), 30));
+    }
+
+    @Test
+    void ordersByValueSkipsWorthlessAndDropsWhatDoesNotFit() {
+        List<ConfirmPlanner.Candidate> candidates = List.of(
+                world("low", 0, 0, 45),      // VOI 5
+                world("none", 10, 20, 40),   // VOI 0
+                world("high", 0, 100, 100),  // VOI 40
+                world("mid", 0, 0, 70));     // VOI 10
+
+        ConfirmPlanner.Plan plan = ConfirmPlanner.plan(candidates, 40, 20, 8);
+
+        assertEquals(List.of("high", "mid"), plan.steps().stream().map(s -> s.candidate().world()).toList());
+        assertEquals(1, plan.skippedNoValue());
+        assertEquals(1, plan.droppedForTime());
+        assertEquals(40.0, plan.expectedGain(), 1e-9);
+    }
+
+    @Test
+    void replayComparesLegacyRuleWithPlanner() throws Exception {
+        // Budget for one confirm. The legacy rule visits every world whose best EV at any time of day
+        // beats the baseline; the planner skips "night" (nothing above baseline at the spawn hour) and
+        // keeps the most valuable of the rest.
+        HopCycleRecorder.Cycle cycle = new HopCycleRecorder.Cycle(1L, 120, 40, 10, 8,
+                List.of(new ConfirmPlanner.Candidate("night", 0, 90, new double[]{0, 10, 20}), world("first", 0, 0, 45), world("second", 0, 100, 100)),
+                List.of("second"), Map.of("second", 100.0), 100);
+        String log = new Gson().toJson(cycle) + "\n{\"atMs\":2,\"candid"; // truncated last line
+        List<HopCycleRecorder.Cycle> cycles = ConfirmPlanReplay.read(new BufferedReader(new StringReader(log)));
+        assertEquals(1, cycles.size());
+        assertEquals(90.0, cycles.get(0).candidates().get(0).maxEv(), 1e-9);
+
+        ConfirmPlanReplay.Report report = ConfirmPlanReplay.replay(cycles);
+        assertEquals(3, report.legacy().confirms());
+        assertEquals(1, report.legacy().overBudget());
+        assertEquals(100.0, report.legacy().ev(), 1e-9);
+        assertEquals(1, report.planned().confirms());
+        assertEquals(0, report.planned().overBudget());
+        assertEquals(100.0, report.planned().ev(), 1e-9);
+        assertEquals(0.0, report.evGainPerCycle(), 1e-9);
+        assertEquals(16.0, report.legacy().seconds() - report.planned().seconds(), 1e-9);
+    }
+}
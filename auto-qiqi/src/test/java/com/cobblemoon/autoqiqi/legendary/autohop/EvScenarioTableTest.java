@@ -0,0 +1,75 @@
+package com.cobblemoon.autoqiqi.legendary.autohop;
+
+import com.cobblemoon.autoqiqi.legendary.predict.SpawnCondition;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvScenarioTableTest {
+
+    private static final Set<String> ALL_WEATHERS = Set.of("CLEAR", "RAIN", "STORM");
+
+    private static SpawnCondition spawn(String name, Set<String> times, Set<String> weathers, String biome, int weight) {
+        return new SpawnCondition(name, times, weathers, Set.of(biome), 320, -64, false, false, weight);
+    }
+
+    private static final List<SpawnCondition> CONDITIONS = List.of(
+            spawn("Kyogre", Set.of("DAY", "NIGHT"), Set.of("RAIN", "STORM"), "minecraft:ocean", 1),
+            spawn("Manaphy", Set.of("DAY", "NIGHT"), ALL_WEATHERS, "minecraft:ocean", 3),
+            spawn("Darkrai", Set.of("NIGHT"), ALL_WEATHERS, "minecraft:plains", 1));
+
+    private static final Map<String, Double> TIERS = Map.of("kyogre", 100.0, "darkrai", 40.0);
+
+    private static int time(String label) {
+        return List.of(EvScenarioTable.TIMES).indexOf(label);
+    }
+
+    private static int weather(String label) {
+        return List.of(EvScenarioTable.WEATHERS).indexOf(label);
+    }
+
+    @Test
+    void scenarioEvIsTierWeightedShareOfEligibleSpawns() {
+        EvScenarioTable table = new EvScenarioTable(TIERS, CONDITIONS, 1);
+
+        assertEquals(25.0, table.ev("minecraft:ocean", 64, time("DAY"), weather("RAIN")), 1e-9);
+        assertEquals(0.0, table.ev("minecraft:ocean", 64, time("DAY"), weather("CLEAR")), 1e-9);
+        assertEquals(25.0, table.maxEv("minecraft:ocean", 64), 1e-9);
+        assertEquals(40.0, table.maxEv("minecraft:plains", 64), 1e-9);
+        assertEquals(0.0, table.ev("minecraft:plains", 64, time("DAY"), weather("CLEAR")), 1e-9);
+        assertEquals(0.0, table.maxEv("minecraft:desert", 64), 1e-9);
+    }
+
+    @Test
+    void weatherOutcomesAreTakenAtTheSpawnHour() {
+        EvScenarioTable table = new EvScenarioTable(TIERS, CONDITIONS, 1);
+
+        // Tick 18000 is midnight, 6000 is noon (DAY but not NIGHT)
+        assertArrayEquals(new double[]{40, 40, 40}, table.weatherOutcomes("minecraft:plains", 64, 18000 + 24000 * 3), 1e-9);
+        assertArrayEquals(new double[]{0, 0, 0}, table.weatherOutcomes("minecraft:plains", 64, 6000), 1e-9);
+        assertArrayEquals(new double[]{0, 25, 25}, table.weatherOutcomes("minecraft:ocean", 64, 6000), 1e-9);
+        // Unknown spawn tick: best time for each weather
+        assertArrayEquals(new double[]{40, 40, 40}, table.weatherOutcomes("minecraft:plains", 64, -1), 1e-9);
+        assertEquals(0, new EvScenarioTable(Map.of(), CONDITIONS, 1).weatherOutcomes("minecraft:ocean", 64, 6000).length);
+    }
+
+    @Test
+    void emptyInputsMeanAlwaysVisit() {
+        assertEquals(Double.MAX_VALUE, new EvScenarioTable(Map.of(), CONDITIONS, 1).maxEv("minecraft:ocean", 64));
+        assertEquals(Double.MAX_VALUE, new EvScenarioTable(TIERS, List.of(), 1).maxEv("minecraft:ocean", 64));
+    }
+
+    @Test
+    void weatherDependenceFollowsTopEvPokemon() {
+        EvScenarioTable table = new EvScenarioTable(TIERS, CONDITIONS, 1);
+
+        assertEquals("Kyogre", table.topEvPokemon(Map.of("Kyogre", 30.0, "Manaphy", 70.0)));
+        assertTrue(table.isWeatherDependent(Map.of("Kyogre", 30.0, "Manaphy", 70.0)));
+        assertFalse(table.isWeatherDependent(Map.of("Darkrai", 50.0, "Kyogre", 4.0)));
+        assertNull(table.topEvPokemon(Map.of("Kyogre", 4.0))); // 4 EV: not meaningful
+    }
+}
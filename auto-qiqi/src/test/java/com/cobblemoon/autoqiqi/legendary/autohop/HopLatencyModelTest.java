@@ -0,0 +1,51 @@
+package com.cobblemoon.autoqiqi.legendary.autohop;
+
+import org.junit.jupiter.api.Test;
+
+import static com.cobblemoon.autoqiqi.legendary.autohop.HopLatencyModel.Phase.CHUNKS;
+import static com.cobblemoon.autoqiqi.legendary.autohop.HopLatencyModel.Phase.TELEPORT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HopLatencyModelTest {
+
+    @Test
+    void quantileFallsBackFromWorldToAllWorldsToDefault() {
+        HopLatencyModel model = new HopLatencyModel();
+        assertEquals(7_000, model.quantileMs(TELEPORT, "Lune", 0.95, 7_000));
+
+        for (int i = 1; i <= 4; i++) model.record(TELEPORT, "Lune", i * 1_000L);
+        for (int i = 1; i <= 4; i++) model.record(TELEPORT, "Soleil", 100L);
+        assertEquals(4_000, model.quantileMs(TELEPORT, "Lune", 0.95, 7_000)); // 8 samples overall
+        assertEquals(7_000, model.quantileMs(CHUNKS, "Lune", 0.95, 7_000));
+
+        model.record(TELEPORT, "Lune", 5_000L);
+        assertEquals(5_000, model.quantileMs(TELEPORT, "lune", 0.95, 7_000));
+        assertEquals(3_000, model.quantileMs(TELEPORT, "Lune", 0.5, 7_000));
+    }
+
+    @Test
+    void windowForgetsOldSamples() {
+        HopLatencyModel model = new HopLatencyModel();
+        for (int i = 0; i < HopLatencyModel.WINDOW; i++) model.record(CHUNKS, "Lune", 9_000L);
+        for (int i = 0; i < HopLatencyModel.WINDOW; i++) model.record(CHUNKS, "Lune", 500L);
+        assertEquals(500, model.quantileMs(CHUNKS, "Lune", 0.95, -1));
+    }
+
+    @Test
+    void degradationComparesLastRotationWithPostReconnectBaseline() {
+        HopLatencyModel model = new HopLatencyModel();
+        long[] rotationMeans = {1_000, 1_200, 1_500, 1_800};
+        for (long ms : rotationMeans) {
+            model.record(TELEPORT, "Lune", ms);
+            model.endRotation();
+        }
+        assertFalse(model.isDegraded(2.0));
+        assertTrue(model.isDegraded(1.5)); // 1800 > 1.5 × 1100
+        assertFalse(model.isDegraded(0));
+
+        model.resetRotations();
+        model.record(TELEPORT, "Lune", 5_000L);
+        model.endRotation();
+        assertFalse(model.isDegraded(1.5)); // not enough rotations since reset
+    }
+}
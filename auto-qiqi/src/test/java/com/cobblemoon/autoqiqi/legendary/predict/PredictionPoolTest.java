@@ -0,0 +1,39 @@
+package com.cobblemoon.autoqiqi.legendary.predict;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PredictionPoolTest {
+
+    @Test
+    void keepsInputOrderAndDropsEmptyOrFailedHomes() {
+        List<Integer> inputs = new ArrayList<>();
+        for (int i = 0; i < 40; i++) inputs.add(i);
+
+        List<Integer> out = PredictionPool.map(inputs, i -> {
+            if (i % 10 == 3) throw new IllegalStateException("bad home " + i);
+            return i % 2 == 0 ? i * i : null;
+        });
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 40; i += 2) expected.add(i * i);
+        assertEquals(expected, out);
+    }
+
+    @Test
+    void smallBatchesRunInlineOnCallerThread() {
+        Thread caller = Thread.currentThread();
+        Set<Thread> seen = ConcurrentHashMap.newKeySet();
+        PredictionPool.map(List.of(1, 2, 3).subList(0, PredictionPool.MIN_PARALLEL_ITEMS - 1), i -> {
+            seen.add(Thread.currentThread());
+            return i;
+        });
+        assertEquals(Set.of(caller), seen);
+    }
+}
@@ -0,0 +1,50 @@
+package com.cobblemoon.autoqiqi.legendary.predict;
+
+import com.cobblemoon.autoqiqi.legendary.predict.LegendTrackerBridge.HomePrediction;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PredictionSnapshotTest {
+
+    private static final SpawnValuation VALUES = new SpawnValuation() {
+        @Override public double value(String pokemon) { return pokemon.equals("Kyogre") ? 100 : 10; }
+        @Override public boolean isWeatherDependent(String pokemon) { return pokemon.equals("Kyogre"); }
+    };
+
+    private static HomePrediction home(String name, Map<String, Double> probabilities, double ev) {
+        return new HomePrediction(name, "Lune", "/home " + name, "minecraft:ocean", 60, probabilities, ev, false);
+    }
+
+    @Test
+    void precomputesSortedSpawnsAndTopEvPokemon() {
+        HomePrediction ocean = home("ocean", Map.of("Manaphy", 70.0, "Kyogre", 20.0, "Phione", 6.0,
+                "Lugia", 2.0, "Mew", 1.0, "Celebi", 1.0), 27);
+        PredictionSnapshot snapshot = PredictionSnapshot.of(7, 1_000, List.of(ocean), VALUES);
+
+        PredictionSnapshot.RankedHome ranked = snapshot.find("ocean");
+        assertSame(ocean, ranked.home());
+        assertArrayEquals(new String[]{"Manaphy", "Kyogre", "Phione", "Lugia"},
+                Arrays.copyOf(ranked.topSpawns(), 4));
+        assertEquals(PredictionSnapshot.TOP_SPAWNS, ranked.topSpawns().length);
+        assertEquals(70.0, ranked.topPercents()[0]);
+        assertEquals("Kyogre", ranked.topEvPokemon()); // 20 % × 100 beats 70 % × 10
+        assertTrue(ranked.weatherDependent());
+        assertEquals(7, snapshot.version());
+        assertEquals(List.of(ocean), snapshot.predictions());
+    }
+
+    @Test
+    void noMeaningfulContributionMeansNoTopPokemon() {
+        PredictionSnapshot.RankedHome ranked = PredictionSnapshot.rank(
+                home("field", Map.of("Mew", 40.0, "Kyogre", 4.0), 8), VALUES);
+        assertNull(ranked.topEvPokemon()); // 4 EV and 4 EV: both under the threshold
+        assertFalse(ranked.weatherDependent());
+        assertNull(PredictionSnapshot.EMPTY.find("field"));
+        assertTrue(PredictionSnapshot.EMPTY.isEmpty());
+    }
+}
@@ -0,0 +1,179 @@
+package com.cobblemoon.scancore;
+
+import com.cobblemon.mod.common.entity.pokemon.PokemonEntity;
+import net.minecraft.entity.Entity;
+
+import java.text.Normalizer;
+import java.util.Set;
+
+/**
+ * What a client can tell about a Pokemon entity: wild or owned, name, level, boss, legendary,
+ * Pokedex status. Every Cobblemon call is guarded, so an API change degrades to "unknown"
+ * instead of crashing the scan.
+ */
+public final class PokemonInfo {
+
+    private PokemonInfo() {}
+
+    public static boolean isPokemonEntity(Entity entity) {
+        return entity instanceof PokemonEntity;
+    }
+
+    /** True for a wild Pokemon nobody owns and no battle holds. */
+    public static boolean isWild(Entity entity) {
+        if (!(entity instanceof PokemonEntity pe)) return false;
+        try {
+            var pokemon = pe.getPokemon();
+            if (pokemon.isPlayerOwned()) return false;
+            if (pokemon.getOwnerUUID() != null) return false;
+            if (pe.isBusy()) return false;
+            if (pe.getOwner() != null) return false;
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /** Translated species name, prefixed with the form when it is not the default one ("Hisuian Growlithe"). */
+    public static String getPokemonName(Entity entity) {
+        if (entity instanceof PokemonEntity pe) {
+            try {
+                String baseName = pe.getPokemon().getSpecies().getTranslatedName().getString();
+                String formName = getFormName(entity);
+                return formName.isEmpty() ? baseName : formName + " " + baseName;
+            } catch (Exception ignored) {}
+        }
+        return entity.getDisplayName().getString();
+    }
+
+    /** Form name (e.g. "Hisuian", "Galarian", "Alolan"), or empty for the default form. */
+    public static String getFormName(Entity entity) {
+        if (entity instanceof PokemonEntity pe) {
+            try {
+                String formName = pe.getPokemon().getForm().getName();
+                if (!formName.isEmpty()
+                        && !formName.equalsIgnoreCase("Normal")
+                        && !formName.equalsIgnoreCase("Standard")
+                        && !formName.equalsIgnoreCase(pe.getPokemon().getSpecies().getName())) {
+                    return formName;
+                }
+            } catch (Exception ignored) {}
+        }
+        return "";
+    }
+
+    public static int getPokemonLevel(Entity entity) {
+        if (entity instanceof PokemonEntity pe) {
+            try {
+                return pe.getPokemon().getLevel();
+            } catch (Exception ignored) {}
+        }
+        return -1;
+    }
+
+    /** "Boss" in the displayed name, or a boss label, aspect or form. */
+    public static boolean isBoss(Entity entity) {
+        if (entity.getDisplayName().getString().toLowerCase().contains("boss")) return true;
+        if (entity instanceof PokemonEntity pe) {
+            try {
+                var pokemon = pe.getPokemon();
+                if (pokemon.hasLabels("boss")) return true;
+                if (pokemon.getAspects().stream().anyMatch(a -> a.toLowerCase().contains("boss"))) return true;
+                if (pokemon.getForm().getName().toLowerCase().contains("boss")) return true;
+            } catch (Exception ignored) {}
+        }
+        return false;
+    }
+
+    // ========================
+    // Pokedex (client-side)
+    // ========================
+
+    /** "CAUGHT", "SEEN", "NEW", or "?" when the client Pokedex is unavailable. */
+    public static String getPokedexStatus(Entity entity) {
+        if (!(entity instanceof PokemonEntity pe)) return "?";
+        try {
+            var species = pe.getPokemon().getSpecies();
+            var resourceId = species.getResourceIdentifier();
+            if (resourceId == null) return "?";
+
+            var pokedexData = com.cobblemon.mod.common.client.CobblemonClient.INSTANCE.getClientPokedexData();
+            if (pokedexData == null) return "?";
+
+            var record = pokedexData.getSpeciesRecords().get(resourceId);
+            if (record != null) {
+                String k = record.getKnowledge().toString();
+                if ("CAUGHT".equals(k)) return "CAUGHT";
+                if ("ENCOUNTERED".equals(k)) return "SEEN";
+            }
+            return "NEW";
+        } catch (Exception e) {
+            return "?";
+        }
+    }
+
+    public static boolean isSpeciesCaught(Entity entity) {
+        return "CAUGHT".equals(getPokedexStatus(entity));
+    }
+
+    // ========================
+    // Legendaries
+    // ========================
+
+    /** Species keys (lowercase, {@code [a-z0-9]} only) of legendary species, for when Cobblemon labels are missing. */
+    private static final Set<String> LEGENDARY_NAMES = Set.of(
+            "articuno", "zapdos", "moltres", "mewtwo", "mew",
+            "raikou", "entei", "suicune", "lugia", "hooh", "celebi",
+            "regirock", "regice", "registeel", "latias", "latios",
+            "kyogre", "groudon", "rayquaza", "jirachi", "deoxys",
+            "uxie", "mesprit", "azelf", "dialga", "palkia", "heatran",
+            "regigigas", "giratina", "cresselia", "phione", "manaphy",
+            "darkrai", "shaymin", "arceus",
+            "cobalion", "terrakion", "virizion", "tornadus", "thundurus",
+            "reshiram", "zekrom", "landorus", "kyurem", "keldeo",
+            "meloetta", "genesect",
+            "xerneas", "yveltal", "zygarde", "diancie", "hoopa", "volcanion",
+            "typenull", "silvally",
+            "tapukoko", "tapulele", "tapubulu", "tapufini",
+            "cosmog", "cosmoem", "solgaleo", "lunala", "necrozma",
+            "magearna", "marshadow", "zeraora",
+            "zacian", "zamazenta", "eternatus", "kubfu", "urshifu",
+            "regieleki", "regidrago", "glastrier", "spectrier", "calyrex",
+            "enamorus",
+            "wochien", "chienpao", "tinglu", "chiyu",
+            "koraidon", "miraidon", "ogerpon", "terapagos", "pecharunt",
+            "okidogi", "munkidori", "fezandipiti"
+    );
+
+    /** True if {@code speciesKey} (see {@link #speciesKey}) names a legendary, mythical or similar species. */
+    public static boolean isLegendaryKey(String speciesKey) {
+        return LEGENDARY_NAMES.contains(speciesKey);
+    }
+
+    /** Legendary, mythical, Ultra Beast or labelled as such; falls back to the name list. */
+    public static boolean isLegendary(Entity entity) {
+        if (entity instanceof PokemonEntity pe) {
+            try {
+                var pokemon = pe.getPokemon();
+                if (pokemon.isLegendary() || pokemon.isMythical() || pokemon.isUltraBeast()) return true;
+                if (pokemon.hasLabels("legendary") || pokemon.hasLabels("mythical")
+                        || pokemon.hasLabels("ultra_beast") || pokemon.hasLabels("sub_legendary")
+                        || pokemon.hasLabels("restricted")) return true;
+                if (isLegendaryKey(speciesKey(pokemon.getSpecies().getName()))) return true;
+            } catch (Exception ignored) {}
+        }
+        return isLegendaryKey(speciesKey(entity.getDisplayName().getString()));
+    }
+
+    /** Name lowercased, accents folded, everything but {@code [a-z0-9]} dropped ("Type: Null" → "typenull"). */
+    public static String speciesKey(String name) {
+        if (name == null) return "";
+        String folded = Normalizer.normalize(name.toLowerCase(), Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) sb.append(c);
+        }
+        return sb.toString();
+    }
+}
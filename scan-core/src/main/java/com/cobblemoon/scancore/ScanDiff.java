@@ -0,0 +1,71 @@
+package com.cobblemoon.scancore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the previous scan and turns each new one into {@link ScanEvent}s: only what entered,
+ * left or changed flags. Also keeps per-flag counts of the current set. Pure logic (entity ids only).
+ */
+public final class ScanDiff {
+
+    private static final int FLAG_BITS = Integer.SIZE;
+
+    private Map<Integer, ScanSighting> current = new HashMap<>();
+    private final int[] counts = new int[FLAG_BITS];
+
+    /** Sighting of {@code id} in the previous scan, or null if it was not in range. */
+    public ScanSighting previous(int id) {
+        return current.get(id);
+    }
+
+    /** Replace the current set with {@code sightings}; returns the changes, entries and changes first, then leaves. */
+    public List<ScanEvent> update(List<ScanSighting> sightings) {
+        Map<Integer, ScanSighting> next = new HashMap<>(Math.max(16, sightings.size() * 2));
+        List<ScanEvent> events = new ArrayList<>();
+        Arrays.fill(counts, 0);
+        for (ScanSighting s : sightings) {
+            if (next.putIfAbsent(s.id(), s) != null) continue; // duplicate id in one scan
+            for (int bits = s.flags(); bits != 0; bits &= bits - 1) {
+                counts[Integer.numberOfTrailingZeros(bits)]++;
+            }
+            ScanSighting before = current.remove(s.id());
+            if (before == null) {
+                events.add(ScanEvent.entered(s));
+            } else if (before.flags() != s.flags()) {
+                events.add(ScanEvent.changed(before, s));
+            }
+        }
+        for (ScanSighting gone : current.values()) events.add(ScanEvent.left(gone));
+        current = next;
+        return events;
+    }
+
+    /** Pokemon in the current set. */
+    public int size() {
+        return current.size();
+    }
+
+    /** Pokemon in the current set with {@code flag} (a single {@link ScanSighting} bit or tag). */
+    public int count(int flag) {
+        return counts[Integer.numberOfTrailingZeros(flag)];
+    }
+
+    /** Pokemon in the current set with at least one of the bits of {@code flags}. */
+    public int countAny(int flags) {
+        int n = 0;
+        for (ScanSighting s : current.values()) {
+            if (s.has(flags)) n++;
+        }
+        return n;
+    }
+
+    /** Forget the current set (next scan reports everything as entered). */
+    public void clear() {
+        current = new HashMap<>();
+        Arrays.fill(counts, 0);
+    }
+}
@@ -0,0 +1,24 @@
+package com.cobblemoon.scancore;
+
+/**
+ * A change between two scans: a Pokemon came into range, left it, or its flags changed
+ * (e.g. its species got caught). {@code gained} holds the flags it did not have before
+ * (all of them for ENTERED, none for LEFT).
+ */
+public record ScanEvent(Type type, ScanSighting sighting, int gained) {
+
+    public enum Type { ENTERED, LEFT, CHANGED }
+
+    public static ScanEvent entered(ScanSighting s) { return new ScanEvent(Type.ENTERED, s, s.flags()); }
+
+    public static ScanEvent left(ScanSighting s) { return new ScanEvent(Type.LEFT, s, 0); }
+
+    public static ScanEvent changed(ScanSighting before, ScanSighting after) {
+        return new ScanEvent(Type.CHANGED, after, after.flags() & ~before.flags());
+    }
+
+    /** True if the Pokemon now has {@code flag} and did not before (new boss, new form, newly uncaught...). */
+    public boolean gained(int flag) {
+        return (gained & flag) != 0;
+    }
+}
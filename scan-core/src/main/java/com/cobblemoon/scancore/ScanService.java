@@ -0,0 +1,161 @@
+package com.cobblemoon.scancore;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayerEntity;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.Entity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * The one wild-Pokemon scan of the client, shared by every mod bundling scan-core (Fabric loads a
+ * single copy of this library, so there is a single instance whichever mods are installed).
+ * <p>
+ * Mods call {@link #tick()} every client tick and {@link #subscribe} with the interval they want; the
+ * service scans at the shortest subscribed interval and never more than once per game tick, however
+ * many mods call it. Each scan queries entities within {@link #SCAN_RANGE} blocks once, classifies
+ * Pokemon it has not seen before ({@link ScanSighting} flags plus registered tags; already seen ones
+ * only get their uncaught flag and tags re-checked, as the Pokedex or a mod's lists may have changed),
+ * and hands the {@link ScanDiff} changes to subscribers. A world change reports everything as left.
+ * The scan state is shared by every subscriber, so no mod resets it on its own.
+ * <p>
+ * Client thread only.
+ */
+public final class ScanService {
+
+    private static final ScanService INSTANCE = new ScanService();
+    private static final Logger LOGGER = LoggerFactory.getLogger("scan-core");
+    public static final double SCAN_RANGE = 80.0;
+
+    /** Receives the changes of one scan (never empty) and the diff holding the current counts. */
+    public interface Listener {
+        void onScan(List<ScanEvent> changes, ScanDiff scan);
+    }
+
+    private record Subscription(Listener listener, int intervalTicks) {}
+
+    private record Tag(int flag, Predicate<Entity> test) {}
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final List<Tag> tags = new CopyOnWriteArrayList<>();
+    private final ScanDiff diff = new ScanDiff();
+    private List<Entity> lastResults = Collections.emptyList();
+    private WeakReference<ClientWorld> lastWorld = new WeakReference<>(null);
+    private long lastScanTime = Long.MIN_VALUE;
+    private int intervalTicks = Integer.MAX_VALUE;
+    private int nextTag = ScanSighting.FIRST_TAG;
+    private int tagMask;
+
+    private ScanService() {}
+
+    public static ScanService get() { return INSTANCE; }
+
+    /** Hear about changes, scanning at least every {@code intervalTicks} ticks. */
+    public void subscribe(Listener listener, int intervalTicks) {
+        subscriptions.add(new Subscription(listener, Math.max(1, intervalTicks)));
+        this.intervalTicks = Math.min(this.intervalTicks, Math.max(1, intervalTicks));
+    }
+
+    /**
+     * Adds a flag of the caller's own (e.g. "in my whitelist"), set on a sighting while {@code test}
+     * holds; re-checked on every scan. Returns the flag bit; register before the first scan.
+     */
+    public synchronized int registerTag(Predicate<Entity> test) {
+        if (nextTag == 0) throw new IllegalStateException("No scan tag left");
+        int flag = nextTag;
+        nextTag <<= 1;
+        tagMask |= flag;
+        tags.add(new Tag(flag, test));
+        return flag;
+    }
+
+    /** Scans if the shortest subscribed interval has passed since the last scan. */
+    public void tick() {
+        ClientWorld world = MinecraftClient.getInstance().world;
+        if (world == null || subscriptions.isEmpty()) return;
+        long now = world.getTime();
+        if (world == lastWorld.get() && now >= lastScanTime && now - lastScanTime < intervalTicks) return;
+        scanNow();
+    }
+
+    /**
+     * Wild Pokemon in range, nearest first, scanned now unless a scan already ran this game tick.
+     * Subscribers hear about the changes as for a scheduled scan.
+     */
+    public List<Entity> scanNow() {
+        MinecraftClient client = MinecraftClient.getInstance();
+        ClientPlayerEntity player = client.player;
+        ClientWorld world = client.world;
+        if (player == null || world == null) {
+            lastResults = Collections.emptyList();
+            return lastResults;
+        }
+        if (world != lastWorld.get()) {
+            // Entity ids of another world mean nothing here
+            publish(diff.update(List.of()));
+            lastWorld = new WeakReference<>(world);
+        } else if (world.getTime() == lastScanTime) {
+            return lastResults;
+        }
+        lastScanTime = world.getTime();
+
+        List<Entity> pokemon = world.getOtherEntities(
+                player,
+                player.getBoundingBox().expand(SCAN_RANGE),
+                entity -> PokemonInfo.isPokemonEntity(entity) && entity.isAlive() && PokemonInfo.isWild(entity)
+        );
+        pokemon.sort(Comparator.comparingDouble(e -> e.squaredDistanceTo(player)));
+        lastResults = Collections.unmodifiableList(new ArrayList<>(pokemon));
+
+        List<ScanSighting> sightings = new ArrayList<>(pokemon.size());
+        for (Entity e : pokemon) sightings.add(classify(e, diff.previous(e.getId())));
+        publish(diff.update(sightings));
+        return lastResults;
+    }
+
+    /** Result of the last scan, nearest first (may be up to one interval old). */
+    public List<Entity> lastResults() {
+        return lastResults;
+    }
+
+    /** Current set and counts, as of the last scan. */
+    public ScanDiff current() {
+        return diff;
+    }
+
+    private void publish(List<ScanEvent> changes) {
+        if (changes.isEmpty()) return;
+        for (Subscription s : subscriptions) {
+            try {
+                s.listener().onScan(changes, diff);
+            } catch (Exception ex) {
+                LOGGER.warn("Scan listener failed", ex);
+            }
+        }
+    }
+
+    private ScanSighting classify(Entity e, ScanSighting previous) {
+        int changing = PokemonInfo.isSpeciesCaught(e) ? 0 : ScanSighting.UNCAUGHT;
+        for (Tag tag : tags) {
+            try {
+                if (tag.test().test(e)) changing |= tag.flag();
+            } catch (Exception ignored) {}
+        }
+        if (previous != null) {
+            return previous.withFlags((previous.flags() & ~(ScanSighting.UNCAUGHT | tagMask)) | changing);
+        }
+
+        int flags = changing;
+        if (PokemonInfo.isBoss(e)) flags |= ScanSighting.BOSS;
+        if (PokemonInfo.isLegendary(e)) flags |= ScanSighting.LEGENDARY;
+        return new ScanSighting(e.getId(), PokemonInfo.getPokemonName(e), PokemonInfo.getPokemonLevel(e), flags);
+    }
+}
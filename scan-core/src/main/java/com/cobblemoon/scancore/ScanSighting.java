@@ -0,0 +1,26 @@
+package com.cobblemoon.scancore;
+
+/**
+ * One wild Pokemon as seen by a scan: entity id, display name, level and what it is to us
+ * ({@link #BOSS}, {@link #UNCAUGHT}, {@link #LEGENDARY} bits, plus any tag a mod registered with
+ * {@link ScanService#registerTag}).
+ */
+public record ScanSighting(int id, String name, int level, int flags) {
+
+    public static final int BOSS = 1;
+    /** Species not caught yet (client Pokedex). */
+    public static final int UNCAUGHT = 1 << 1;
+    public static final int LEGENDARY = 1 << 2;
+    /** First bit handed out by {@link ScanService#registerTag}. */
+    static final int FIRST_TAG = 1 << 8;
+
+    /** True if any of the bits of {@code flag} is set. */
+    public boolean has(int flag) {
+        return (flags & flag) != 0;
+    }
+
+    /** The same sighting with different flags. */
+    public ScanSighting withFlags(int newFlags) {
+        return newFlags == flags ? this : new ScanSighting(id, name, level, newFlags);
+    }
+}
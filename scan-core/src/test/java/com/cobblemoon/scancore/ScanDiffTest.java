@@ -0,0 +1,75 @@
+package com.cobblemoon.scancore;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScanDiffTest {
+
+    private static final int TAG = ScanSighting.FIRST_TAG;
+
+    private static ScanSighting sighting(int id, int flags) {
+        return new ScanSighting(id, "Pokemon" + id, 10, flags);
+    }
+
+    @Test
+    void reportsOnlyEnteredLeftAndChanged() {
+        ScanDiff diff = new ScanDiff();
+        List<ScanEvent> first = diff.update(List.of(
+                sighting(1, ScanSighting.UNCAUGHT), sighting(2, ScanSighting.BOSS), sighting(3, 0)));
+        assertEquals(3, first.size());
+        assertTrue(first.stream().allMatch(e -> e.type() == ScanEvent.Type.ENTERED));
+        assertTrue(first.get(1).gained(ScanSighting.BOSS));
+
+        // Same set again: nothing to say
+        assertTrue(diff.update(List.of(
+                sighting(1, ScanSighting.UNCAUGHT), sighting(2, ScanSighting.BOSS), sighting(3, 0))).isEmpty());
+
+        // 1 got caught, 2 left, 4 came in
+        List<ScanEvent> next = diff.update(List.of(sighting(1, 0), sighting(3, 0), sighting(4, TAG)));
+        assertEquals(3, next.size());
+        assertEquals(ScanEvent.Type.CHANGED, next.get(0).type());
+        assertEquals(0, next.get(0).gained());
+        assertEquals(ScanEvent.Type.ENTERED, next.get(1).type());
+        assertTrue(next.get(1).gained(TAG));
+        assertEquals(ScanEvent.Type.LEFT, next.get(2).type());
+        assertEquals(2, next.get(2).sighting().id());
+        assertFalse(next.get(2).gained(ScanSighting.BOSS));
+    }
+
+    @Test
+    void changedEventCarriesOnlyNewFlags() {
+        ScanDiff diff = new ScanDiff();
+        diff.update(List.of(sighting(7, ScanSighting.LEGENDARY)));
+        List<ScanEvent> events = diff.update(List.of(sighting(7, ScanSighting.LEGENDARY | ScanSighting.UNCAUGHT)));
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).gained(ScanSighting.UNCAUGHT));
+        assertFalse(events.get(0).gained(ScanSighting.LEGENDARY));
+        assertTrue(diff.previous(7).has(ScanSighting.LEGENDARY));
+    }
+
+    @Test
+    void countsFollowTheCurrentSet() {
+        ScanDiff diff = new ScanDiff();
+        diff.update(List.of(sighting(1, ScanSighting.UNCAUGHT | ScanSighting.BOSS),
+                sighting(2, ScanSighting.UNCAUGHT), sighting(2, 0), sighting(3, ScanSighting.LEGENDARY)));
+        assertEquals(3, diff.size());
+        assertEquals(2, diff.count(ScanSighting.UNCAUGHT));
+        assertEquals(1, diff.count(ScanSighting.BOSS));
+        assertEquals(1, diff.count(ScanSighting.LEGENDARY));
+        assertEquals(0, diff.count(TAG));
+        assertEquals(2, diff.countAny(ScanSighting.BOSS | ScanSighting.LEGENDARY));
+
+        List<ScanEvent> gone = diff.update(List.of());
+        assertEquals(3, gone.size());
+        assertEquals(0, diff.size());
+        assertEquals(0, diff.count(ScanSighting.UNCAUGHT));
+
+        diff.update(List.of(sighting(1, 0)));
+        diff.clear();
+        assertNull(diff.previous(1));
+        assertEquals(ScanEvent.Type.ENTERED, diff.update(List.of(sighting(1, 0))).get(0).type());
+    }
+}